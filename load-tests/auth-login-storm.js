@@ -0,0 +1,106 @@
+// Tempête de connexions sur auth-user-service : les vérifications BCrypt saturent le pool
+// de hachage, les autres endpoints doivent garder leur latence de référence
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter } from 'k6/metrics';
+
+const AUTH_URL = __ENV.AUTH_URL || 'http://auth-user-backend:8081';
+const STORM_RATE = parseInt(__ENV.STORM_RATE || '300', 10);
+const OTHER_RATE = parseInt(__ENV.OTHER_RATE || '50', 10);
+
+// Comptes créés par les migrations
+const COMPTES = [
+  { email: 'admin@sprintbot.com', motDePasse: 'admin123' },
+  { email: 'coach@sprintbot.com', motDePasse: 'coach123' },
+  { email: 'joueur@sprintbot.com', motDePasse: 'joueur123' },
+];
+
+const connexionsAcceptees = new Counter('connexions_acceptees');
+const connexionsRejetees = new Counter('connexions_rejetees_429');
+const connexionsEnErreur = new Counter('connexions_en_erreur');
+
+// Référence 30 s, montée 10 s, tempête 60 s, retour 10 s
+const REFERENCE = 30;
+const TEMPETE = REFERENCE + 10;
+const FIN_TEMPETE = TEMPETE + 60;
+
+export const options = {
+  scenarios: {
+    tempete: {
+      executor: 'ramping-arrival-rate',
+      exec: 'connexion',
+      startRate: 0,
+      timeUnit: '1s',
+      preAllocatedVUs: 200,
+      maxVUs: 2000,
+      stages: [
+        { duration: `${REFERENCE}s`, target: 0 },
+        { duration: '10s', target: STORM_RATE },
+        { duration: '60s', target: STORM_RATE },
+        { duration: '10s', target: 0 },
+      ],
+    },
+    autres_endpoints: {
+      executor: 'constant-arrival-rate',
+      exec: 'autresEndpoints',
+      rate: OTHER_RATE,
+      timeUnit: '1s',
+      duration: `${FIN_TEMPETE + 10}s`,
+      preAllocatedVUs: 50,
+      maxVUs: 500,
+    },
+  },
+  // Seuils non bloquants : ils font apparaître chaque phase dans le résumé
+  thresholds: {
+    'http_req_duration{scenario:autres_endpoints,phase:reference}': ['p(95)>=0'],
+    'http_req_duration{scenario:autres_endpoints,phase:tempete}': ['p(95)>=0'],
+    'http_req_failed{scenario:autres_endpoints,phase:tempete}': ['rate>=0'],
+    'http_req_duration{scenario:tempete}': ['p(95)>=0'],
+    connexions_acceptees: ['count>=0'],
+    connexions_rejetees_429: ['count>=0'],
+    connexions_en_erreur: ['count>=0'],
+  },
+};
+
+function login(compte) {
+  return http.post(`${AUTH_URL}/api/auth/login`, JSON.stringify(compte), {
+    headers: { 'Content-Type': 'application/json' },
+  });
+}
+
+export function setup() {
+  const res = login(COMPTES[2]);
+  check(res, { 'connexion initiale': (r) => r.status === 200 });
+  return { token: res.json('accessToken'), debut: Date.now() };
+}
+
+function phase(debut) {
+  const ecoule = (Date.now() - debut) / 1000;
+  if (ecoule < REFERENCE) {
+    return 'reference';
+  }
+  return ecoule >= TEMPETE && ecoule < FIN_TEMPETE ? 'tempete' : 'transition';
+}
+
+export function connexion() {
+  const res = login(COMPTES[Math.floor(Math.random() * COMPTES.length)]);
+  if (res.status === 200) {
+    connexionsAcceptees.add(1);
+  } else if (res.status === 429) {
+    connexionsRejetees.add(1);
+    check(res, { 'Retry-After présent': (r) => r.headers['Retry-After'] === '1' });
+  } else {
+    connexionsEnErreur.add(1);
+  }
+}
+
+export function autresEndpoints(data) {
+  const tags = { phase: phase(data.debut) };
+  const me = http.get(`${AUTH_URL}/api/auth/me`, {
+    headers: { Authorization: `Bearer ${data.token}` },
+    tags,
+  });
+  const health = http.get(`${AUTH_URL}/api/auth/health`, { tags });
+  check(me, { '/me 200': (r) => r.status === 200 });
+  check(health, { '/health 200': (r) => r.status === 200 });
+}
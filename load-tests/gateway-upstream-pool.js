@@ -0,0 +1,91 @@
+// Rafales vers planning-performance-service à travers le Gateway :
+// latences (p99) et connexions ouvertes vers le service selon le pool du client HTTP
+import http from 'k6/http';
+import { check } from 'k6';
+import { accessToken } from './lib/jwt.js';
+
+const GATEWAY_URL = __ENV.GATEWAY_URL || 'http://localhost:8081';
+// Le Gateway retire /api/planning, le reste du chemin est celui du service
+const UPSTREAM_PATH = __ENV.UPSTREAM_PATH || '/api/planning/api/entrainements';
+const USERS = parseInt(__ENV.USERS || '200', 10);
+const BACKGROUND_RATE = parseInt(__ENV.BACKGROUND_RATE || '50', 10);
+const BURST_RATE = parseInt(__ENV.BURST_RATE || '1500', 10);
+const CYCLES = parseInt(__ENV.CYCLES || '8', 10);
+
+// Cycle de 31 s : 20 s de trafic de fond seul, plus long que l'inactivité maximale
+// de l'ancien pool élastique (15 s) et plus court que celle du pool fixe (30 s),
+// puis une rafale de 11 s
+const CYCLE_SECONDS = 31;
+
+function burstStages() {
+  const stages = [];
+  for (let i = 0; i < CYCLES; i++) {
+    stages.push({ duration: '20s', target: 0 });
+    stages.push({ duration: '2s', target: BURST_RATE });
+    stages.push({ duration: '8s', target: BURST_RATE });
+    stages.push({ duration: '1s', target: 0 });
+  }
+  return stages;
+}
+
+export const options = {
+  scenarios: {
+    fond: {
+      executor: 'constant-arrival-rate',
+      exec: 'upstreamCall',
+      rate: BACKGROUND_RATE,
+      timeUnit: '1s',
+      duration: `${CYCLES * CYCLE_SECONDS}s`,
+      preAllocatedVUs: 20,
+      maxVUs: 200,
+    },
+    rafales: {
+      executor: 'ramping-arrival-rate',
+      exec: 'upstreamCall',
+      startRate: 0,
+      timeUnit: '1s',
+      stages: burstStages(),
+      preAllocatedVUs: 200,
+      maxVUs: 3000,
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  // Seuils toujours satisfaits : ils affichent chaque scénario dans le résumé
+  thresholds: {
+    'http_req_duration{scenario:fond}': ['p(99)>=0'],
+    'http_req_duration{scenario:rafales}': ['p(99)>=0'],
+    'http_req_failed{scenario:rafales}': ['rate>=0'],
+  },
+};
+
+export function setup() {
+  const tokens = [];
+  for (let i = 1; i <= USERS; i++) {
+    tokens.push(accessToken(i, ['USER']));
+  }
+  return { tokens, admin: accessToken(0, ['ADMIN']) };
+}
+
+export function upstreamCall(data) {
+  const token = data.tokens[(__VU + __ITER) % data.tokens.length];
+  const res = http.get(`${GATEWAY_URL}${UPSTREAM_PATH}`, {
+    headers: { Authorization: `Bearer ${token}` },
+  });
+  // Toute réponse du service compte ; 429 et 5xx viennent du Gateway (limite, pool saturé, fallback)
+  check(res, { 'réponse du service': (r) => r.status > 0 && r.status < 500 && r.status !== 429 });
+}
+
+// Connexions vers les services en aval vues par le Gateway à la fin du test
+export function teardown(data) {
+  const res = http.get(`${GATEWAY_URL}/actuator/prometheus`, {
+    headers: { Authorization: `Bearer ${data.admin}` },
+  });
+  if (res.status !== 200) {
+    console.warn(`Métriques du Gateway indisponibles (HTTP ${res.status})`);
+    return;
+  }
+  res.body.split('\n')
+    .filter((line) => line.startsWith('reactor_netty_connection_provider_')
+      || line.startsWith('reactor_netty_http_client_connect_time_seconds_count'))
+    .forEach((line) => console.log(line));
+}
@@ -0,0 +1,23 @@
+// Tokens d'accès signés avec le secret du Gateway (HS256), au format de auth-user-service
+import crypto from 'k6/crypto';
+import encoding from 'k6/encoding';
+
+// Valeur de JWT_SECRET_KEY dans docker-compose.yml
+export const GATEWAY_JWT_SECRET = __ENV.GATEWAY_JWT_SECRET
+  || 'SprintBot-Gateway-Secret-Key-2024-Very-Long-And-Secure-Change-In-Production';
+
+export function accessToken(userId, roles, secret = GATEWAY_JWT_SECRET) {
+  const now = Math.floor(Date.now() / 1000);
+  const header = encoding.b64encode(JSON.stringify({ alg: 'HS256', typ: 'JWT' }), 'rawurl');
+  const payload = encoding.b64encode(JSON.stringify({
+    sub: `charge${userId}`,
+    userId,
+    email: `charge${userId}@sprintbot.com`,
+    roles,
+    tokenType: 'access',
+    iat: now,
+    exp: now + 3600,
+  }), 'rawurl');
+  const signature = crypto.hmac('sha256', secret, `${header}.${payload}`, 'base64rawurl');
+  return `${header}.${payload}.${signature}`;
+}
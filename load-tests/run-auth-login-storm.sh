@@ -0,0 +1,35 @@
+#!/usr/bin/env bash
+# Tempête de connexions sur auth-user-service : pool de hachage borné (configuration par défaut)
+# comparé à une file quasi illimitée, proche de l'ancien hachage sur les threads de requête.
+# La pile doit être démarrée : docker compose up -d
+# Résultats : load-tests/results/auth-login-storm-<variante>.{txt,json}
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+K6_IMAGE="${K6_IMAGE:-grafana/k6:0.49.0}"
+
+cd "$ROOT"
+mkdir -p load-tests/results
+
+run() {
+  local variante="$1"
+  shift
+  echo "=== Pool de hachage ${variante} ==="
+  docker compose -f docker-compose.yml "$@" \
+    up -d --no-deps --force-recreate --wait auth-user-backend
+
+  local network
+  network="$(docker inspect auth-user-backend \
+    -f '{{range $name, $_ := .NetworkSettings.Networks}}{{$name}}{{end}}')"
+  docker run --rm --network "$network" -v "$ROOT/load-tests:/scripts" \
+    -e AUTH_URL=http://auth-user-backend:8081 \
+    -e STORM_RATE -e OTHER_RATE \
+    "$K6_IMAGE" run --summary-export "/scripts/results/auth-login-storm-${variante}.json" \
+    /scripts/auth-login-storm.js | tee "load-tests/results/auth-login-storm-${variante}.txt"
+}
+
+run file-illimitee -f load-tests/docker-compose.unbounded-hashing.yml
+run borne
+
+# Retour à la configuration de docker-compose.yml
+docker compose up -d --no-deps --force-recreate auth-user-backend
@@ -0,0 +1,40 @@
+#!/usr/bin/env bash
+# Compare les rafales à travers le Gateway avec l'ancien pool élastique et le pool fixe
+# (et h2c avec H2C=1). La pile doit être démarrée : docker compose up -d
+# Résultats : load-tests/results/gateway-upstream-pool-<pool>.{txt,json}
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+K6_IMAGE="${K6_IMAGE:-grafana/k6:0.49.0}"
+# Délai de récupération du registre Eureka par le Gateway redémarré
+EUREKA_DELAY="${EUREKA_DELAY:-45}"
+
+cd "$ROOT"
+mkdir -p load-tests/results
+
+run() {
+  local pool="$1"
+  shift
+  echo "=== Pool ${pool} ==="
+  docker compose -f docker-compose.yml -f load-tests/docker-compose.load.yml "$@" \
+    up -d --no-deps --force-recreate --wait gateway-service planning-performance-backend
+  sleep "$EUREKA_DELAY"
+
+  local network
+  network="$(docker inspect sprintbot-gateway-service \
+    -f '{{range $name, $_ := .NetworkSettings.Networks}}{{$name}}{{end}}')"
+  docker run --rm --network "$network" -v "$ROOT/load-tests:/scripts" \
+    -e GATEWAY_URL=http://gateway-service:8080 \
+    -e USERS -e BACKGROUND_RATE -e BURST_RATE -e CYCLES -e GATEWAY_JWT_SECRET \
+    "$K6_IMAGE" run --summary-export "/scripts/results/gateway-upstream-pool-${pool}.json" \
+    /scripts/gateway-upstream-pool.js | tee "load-tests/results/gateway-upstream-pool-${pool}.txt"
+}
+
+run elastique -f load-tests/docker-compose.elastic-pool.yml
+run fixe
+if [ "${H2C:-0}" = "1" ]; then
+  run fixe-h2c -f load-tests/docker-compose.h2c.yml
+fi
+
+# Retour à la configuration de docker-compose.yml
+docker compose up -d --no-deps --force-recreate gateway-service planning-performance-backend
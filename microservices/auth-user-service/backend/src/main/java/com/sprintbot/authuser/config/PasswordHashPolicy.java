@@ -0,0 +1,145 @@
+package com.sprintbot.authuser.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.scrypt.SCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Politique de hachage des mots de passe
+ * Définit l'algorithme utilisé pour les nouveaux hash (bcrypt, argon2 ou scrypt)
+ * et le coût BCrypt cible, éventuellement calibré au démarrage sur un temps de
+ * vérification cible. Les hash stockés sous la politique (algorithme différent,
+ * coût inférieur, ancien format sans préfixe) sont recalculés à la connexion
+ */
+@Component
+public class PasswordHashPolicy {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashPolicy.class);
+
+    private static final String BCRYPT = "bcrypt";
+    private static final String ARGON2 = "argon2";
+    private static final String SCRYPT = "scrypt";
+
+    private static final String CALIBRATION_PASSWORD = "calibration-SprintBot-2024";
+
+    @Value("${auth.password-policy.algorithm:bcrypt}")
+    private String algorithm;
+
+    @Value("${auth.password-policy.bcrypt.strength:12}")
+    private int bcryptStrength;
+
+    // Bornes du coût calibré (le minimum garantit un niveau de sécurité plancher)
+    @Value("${auth.password-policy.bcrypt.min-strength:12}")
+    private int bcryptMinStrength;
+
+    @Value("${auth.password-policy.bcrypt.max-strength:15}")
+    private int bcryptMaxStrength;
+
+    @Value("${auth.password-policy.calibrate:false}")
+    private boolean calibrate;
+
+    @Value("${auth.password-policy.target-verify-time:250ms}")
+    private Duration targetVerifyTime;
+
+    @Value("${auth.password-policy.argon2.memory-kb:19456}")
+    private int argon2MemoryKb;
+
+    @Value("${auth.password-policy.argon2.iterations:2}")
+    private int argon2Iterations;
+
+    @Value("${auth.password-policy.argon2.parallelism:1}")
+    private int argon2Parallelism;
+
+    @Value("${auth.password-policy.scrypt.cpu-cost:32768}")
+    private int scryptCpuCost;
+
+    @Value("${auth.password-policy.scrypt.memory-cost:8}")
+    private int scryptMemoryCost;
+
+    @Value("${auth.password-policy.scrypt.parallelization:1}")
+    private int scryptParallelization;
+
+    @PostConstruct
+    public void init() {
+        if (!BCRYPT.equals(algorithm) && !ARGON2.equals(algorithm) && !SCRYPT.equals(algorithm)) {
+            throw new IllegalStateException("Algorithme de hachage inconnu: " + algorithm);
+        }
+        if (calibrate && BCRYPT.equals(algorithm)) {
+            bcryptStrength = calibrateBcryptStrength();
+        }
+        logger.info("Politique de hachage des mots de passe : {}{}", algorithm,
+            BCRYPT.equals(algorithm) ? " (coût " + bcryptStrength + ")" : "");
+    }
+
+    /**
+     * Crée l'encodeur des mots de passe selon la politique
+     * Les hash stockés avant la politique (BCrypt sans préfixe {bcrypt}) restent vérifiables
+     * @return PasswordEncoder délégant selon le préfixe du hash
+     */
+    public PasswordEncoder createPasswordEncoder() {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, new BCryptPasswordEncoder(bcryptStrength));
+        encoders.put(ARGON2, new Argon2PasswordEncoder(16, 32, argon2Parallelism, argon2MemoryKb, argon2Iterations));
+        encoders.put(SCRYPT, new SCryptPasswordEncoder(scryptCpuCost, scryptMemoryCost, scryptParallelization, 32, 16));
+
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return passwordEncoder;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public int getBcryptStrength() {
+        return bcryptStrength;
+    }
+
+    /**
+     * Mesure le temps de vérification BCrypt pour chaque coût et retient le plus
+     * élevé sous le temps cible (chaque point de coût double le temps de calcul)
+     * La calibration ne peut qu'augmenter le coût : la recherche part du coût
+     * configuré (ou du minimum s'il est plus élevé)
+     * @return coût BCrypt retenu
+     */
+    private int calibrateBcryptStrength() {
+        long targetNanos = targetVerifyTime.toNanos();
+        int floor = Math.max(bcryptStrength, bcryptMinStrength);
+        int selected = floor;
+
+        // Préchauffage du JIT avant les mesures
+        measureBcryptVerifyNanos(4);
+
+        for (int strength = floor; strength <= bcryptMaxStrength; strength++) {
+            long nanos = measureBcryptVerifyNanos(strength);
+            logger.info("Calibration BCrypt : coût {} → vérification en {} ms", strength, nanos / 1_000_000);
+            if (nanos > targetNanos) {
+                break;
+            }
+            selected = strength;
+        }
+
+        logger.info("Calibration BCrypt : coût {} retenu pour une cible de {} ms",
+            selected, targetVerifyTime.toMillis());
+        return selected;
+    }
+
+    private static long measureBcryptVerifyNanos(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        String hash = encoder.encode(CALIBRATION_PASSWORD);
+        long start = System.nanoTime();
+        encoder.matches(CALIBRATION_PASSWORD, hash);
+        return System.nanoTime() - start;
+    }
+}
@@ -6,7 +6,6 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
@@ -140,11 +139,12 @@ public class SecurityConfig {
     }
 
     /**
-     * Bean pour l'encodage des mots de passe avec BCrypt
-     * @return PasswordEncoder configuré avec BCrypt
+     * Bean pour l'encodage des mots de passe selon la politique de hachage
+     * @param passwordHashPolicy la politique (algorithme et coût cibles)
+     * @return PasswordEncoder délégant (bcrypt, argon2 ou scrypt)
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12); // Force 12 pour plus de sécurité
+    public PasswordEncoder passwordEncoder(PasswordHashPolicy passwordHashPolicy) {
+        return passwordHashPolicy.createPasswordEncoder();
     }
 }
@@ -2,6 +2,7 @@ package com.sprintbot.authuser.controller;
 
 import com.sprintbot.authuser.dto.LoginRequest;
 import com.sprintbot.authuser.service.AuthService;
+import com.sprintbot.authuser.service.PasswordHashingOverloadException;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,6 +46,16 @@ public class AuthController {
             logger.info("Connexion réussie pour l'email: {}", loginRequest.getEmail());
             return ResponseEntity.ok(authResponse);
             
+        } catch (PasswordHashingOverloadException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Service surchargé");
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("timestamp", System.currentTimeMillis());
+            
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", "1")
+                .body(errorResponse);
+            
         } catch (Exception e) {
             logger.error("Erreur lors de la connexion pour {}: {}", loginRequest.getEmail(), e.getMessage());
             
@@ -144,8 +155,8 @@ public class AuthController {
             response.put("timestamp", System.currentTimeMillis());
             
             if (isValid) {
-                // Ajouter les informations utilisateur si le token est valide
-                Map<String, Object> userInfo = authService.getUserFromToken(token);
+                // Ajouter l'identité utilisateur si le token est valide (cache, sans accès à la base)
+                Map<String, Object> userInfo = authService.getPrincipalFromToken(token);
                 response.put("user", userInfo);
             }
             
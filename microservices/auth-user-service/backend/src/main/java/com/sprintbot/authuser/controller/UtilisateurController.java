@@ -33,12 +33,13 @@ public class UtilisateurController {
 
     /**
      * Récupère tous les utilisateurs
-     * @return ResponseEntity avec la liste des utilisateurs
+     * @param details true pour inclure les champs propres à chaque type d'utilisateur
+     * @return ResponseEntity avec la liste des utilisateurs (vue résumée par défaut)
      */
     @GetMapping
-    public ResponseEntity<?> getAllUsers() {
+    public ResponseEntity<?> getAllUsers(@RequestParam(defaultValue = "false") boolean details) {
         try {
-            List<Utilisateur> users = utilisateurService.findAll();
+            List<?> users = details ? utilisateurService.findAll() : utilisateurService.findAllSummaries();
             logger.info("Récupération de {} utilisateurs", users.size());
             return ResponseEntity.ok(users);
         } catch (Exception e) {
@@ -72,12 +73,16 @@ public class UtilisateurController {
     /**
      * Récupère les utilisateurs par rôle
      * @param role le rôle recherché
-     * @return ResponseEntity avec la liste des utilisateurs
+     * @param details true pour inclure les champs propres à chaque type d'utilisateur
+     * @return ResponseEntity avec la liste des utilisateurs (vue résumée par défaut)
      */
     @GetMapping("/role/{role}")
-    public ResponseEntity<?> getUsersByRole(@PathVariable String role) {
+    public ResponseEntity<?> getUsersByRole(@PathVariable String role,
+                                            @RequestParam(defaultValue = "false") boolean details) {
         try {
-            List<Utilisateur> users = utilisateurService.findByRole(role.toUpperCase());
+            List<?> users = details
+                ? utilisateurService.findByRole(role.toUpperCase())
+                : utilisateurService.findSummariesByRole(role.toUpperCase());
             logger.info("Récupération de {} utilisateurs avec le rôle: {}", users.size(), role);
             return ResponseEntity.ok(users);
         } catch (Exception e) {
@@ -89,12 +94,16 @@ public class UtilisateurController {
     /**
      * Recherche des utilisateurs
      * @param searchTerm le terme de recherche
-     * @return ResponseEntity avec la liste des utilisateurs correspondants
+     * @param details true pour inclure les champs propres à chaque type d'utilisateur
+     * @return ResponseEntity avec la liste des utilisateurs correspondants (vue résumée par défaut)
      */
     @GetMapping("/search")
-    public ResponseEntity<?> searchUsers(@RequestParam String searchTerm) {
+    public ResponseEntity<?> searchUsers(@RequestParam String searchTerm,
+                                         @RequestParam(defaultValue = "false") boolean details) {
         try {
-            List<Utilisateur> users = utilisateurService.searchUsers(searchTerm);
+            List<?> users = details
+                ? utilisateurService.searchUsers(searchTerm)
+                : utilisateurService.searchSummaries(searchTerm);
             logger.info("Recherche '{}' a retourné {} utilisateurs", searchTerm, users.size());
             return ResponseEntity.ok(users);
         } catch (Exception e) {
@@ -105,12 +114,13 @@ public class UtilisateurController {
 
     /**
      * Récupère les utilisateurs actifs
-     * @return ResponseEntity avec la liste des utilisateurs actifs
+     * @param details true pour inclure les champs propres à chaque type d'utilisateur
+     * @return ResponseEntity avec la liste des utilisateurs actifs (vue résumée par défaut)
      */
     @GetMapping("/active")
-    public ResponseEntity<?> getActiveUsers() {
+    public ResponseEntity<?> getActiveUsers(@RequestParam(defaultValue = "false") boolean details) {
         try {
-            List<Utilisateur> users = utilisateurService.findActiveUsers();
+            List<?> users = details ? utilisateurService.findActiveUsers() : utilisateurService.findActiveSummaries();
             logger.info("Récupération de {} utilisateurs actifs", users.size());
             return ResponseEntity.ok(users);
         } catch (Exception e) {
@@ -0,0 +1,12 @@
+package com.sprintbot.authuser.dto;
+
+/**
+ * Identité minimale d'un utilisateur, suffisante pour valider un token
+ * Lue sur la seule table utilisateurs (sans les tables des sous-types)
+ */
+public record UserPrincipal(Long id, String email, String role, Boolean actif) {
+
+    public boolean isActif() {
+        return Boolean.TRUE.equals(actif);
+    }
+}
@@ -0,0 +1,30 @@
+package com.sprintbot.authuser.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+
+/**
+ * Vue résumée d'un utilisateur pour les listes
+ * Ne contient que les champs communs, lus sur la seule table utilisateurs :
+ * les listes n'effectuent pas de jointure vers les tables des sous-types
+ * (Joueur, Coach, Administrateur, StaffMedical, ResponsableFinancier)
+ */
+public record UtilisateurSummary(
+    Long id,
+    String nom,
+    String prenom,
+    String email,
+    String role,
+    String telephone,
+    Boolean actif,
+    LocalDateTime dateCreation,
+    LocalDateTime derniereConnexion,
+    String avatarUrl
+) {
+
+    @JsonProperty("nomComplet")
+    public String nomComplet() {
+        return prenom + " " + nom;
+    }
+}
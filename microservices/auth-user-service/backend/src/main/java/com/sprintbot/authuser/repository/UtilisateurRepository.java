@@ -1,10 +1,14 @@
 package com.sprintbot.authuser.repository;
 
+import com.sprintbot.authuser.dto.UserPrincipal;
+import com.sprintbot.authuser.dto.UtilisateurSummary;
 import com.sprintbot.authuser.entity.Utilisateur;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -24,6 +28,24 @@ public interface UtilisateurRepository extends JpaRepository<Utilisateur, Long>
      */
     Optional<Utilisateur> findByEmail(String email);
     
+    /**
+     * Identité minimale d'un utilisateur par email (table utilisateurs uniquement)
+     * @param email l'email de l'utilisateur
+     * @return Optional contenant l'identité si trouvée
+     */
+    @Query("SELECT new com.sprintbot.authuser.dto.UserPrincipal(u.id, u.email, u.role, u.actif) " +
+           "FROM Utilisateur u WHERE u.email = :email")
+    Optional<UserPrincipal> findPrincipalByEmail(@Param("email") String email);
+    
+    /**
+     * Identité minimale d'un utilisateur par ID (table utilisateurs uniquement)
+     * @param id l'ID de l'utilisateur
+     * @return Optional contenant l'identité si trouvée
+     */
+    @Query("SELECT new com.sprintbot.authuser.dto.UserPrincipal(u.id, u.email, u.role, u.actif) " +
+           "FROM Utilisateur u WHERE u.id = :id")
+    Optional<UserPrincipal> findPrincipalById(@Param("id") Long id);
+    
     /**
      * Trouve tous les utilisateurs par rôle
      * @param role le rôle recherché
@@ -126,4 +148,56 @@ public interface UtilisateurRepository extends JpaRepository<Utilisateur, Long>
      */
     @Query("SELECT u FROM Utilisateur u WHERE u.derniereConnexion IS NULL OR u.derniereConnexion < :date")
     List<Utilisateur> findInactiveUsersSince(@Param("date") LocalDateTime date);
+    
+    // =====================================================
+    // Vues résumées (table utilisateurs uniquement, sans jointure vers les sous-types)
+    // =====================================================
+    
+    /**
+     * Vue résumée de tous les utilisateurs
+     * @return liste des vues résumées
+     */
+    @Query("SELECT new com.sprintbot.authuser.dto.UtilisateurSummary(u.id, u.nom, u.prenom, u.email, u.role, " +
+           "u.telephone, u.actif, u.dateCreation, u.derniereConnexion, u.avatarUrl) FROM Utilisateur u")
+    List<UtilisateurSummary> findAllSummaries();
+    
+    /**
+     * Vue résumée des utilisateurs actifs
+     * @return liste des vues résumées des utilisateurs actifs
+     */
+    @Query("SELECT new com.sprintbot.authuser.dto.UtilisateurSummary(u.id, u.nom, u.prenom, u.email, u.role, " +
+           "u.telephone, u.actif, u.dateCreation, u.derniereConnexion, u.avatarUrl) FROM Utilisateur u WHERE u.actif = true")
+    List<UtilisateurSummary> findActiveSummaries();
+    
+    /**
+     * Vue résumée des utilisateurs d'un rôle
+     * @param role le rôle recherché
+     * @return liste des vues résumées des utilisateurs avec ce rôle
+     */
+    @Query("SELECT new com.sprintbot.authuser.dto.UtilisateurSummary(u.id, u.nom, u.prenom, u.email, u.role, " +
+           "u.telephone, u.actif, u.dateCreation, u.derniereConnexion, u.avatarUrl) FROM Utilisateur u WHERE u.role = :role")
+    List<UtilisateurSummary> findSummariesByRole(@Param("role") String role);
+    
+    /**
+     * Recherche textuelle dans nom, prénom et email (vue résumée)
+     * @param searchTerm le terme de recherche
+     * @return liste des vues résumées correspondantes
+     */
+    @Query("SELECT new com.sprintbot.authuser.dto.UtilisateurSummary(u.id, u.nom, u.prenom, u.email, u.role, " +
+           "u.telephone, u.actif, u.dateCreation, u.derniereConnexion, u.avatarUrl) FROM Utilisateur u WHERE " +
+           "LOWER(u.nom) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(u.prenom) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(u.email) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
+    List<UtilisateurSummary> searchSummaries(@Param("searchTerm") String searchTerm);
+    
+    /**
+     * Remplace le hash du mot de passe (table utilisateurs uniquement)
+     * @param id l'ID de l'utilisateur
+     * @param motDePasse le nouveau hash
+     * @return nombre de lignes modifiées
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE utilisateurs SET mot_de_passe = :motDePasse WHERE id = :id", nativeQuery = true)
+    int updateMotDePasse(@Param("id") Long id, @Param("motDePasse") String motDePasse);
 }
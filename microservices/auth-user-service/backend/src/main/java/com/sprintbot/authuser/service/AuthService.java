@@ -1,13 +1,14 @@
 package com.sprintbot.authuser.service;
 
 import com.sprintbot.authuser.config.JwtConfig;
+import com.sprintbot.authuser.dto.UserPrincipal;
 import com.sprintbot.authuser.entity.Utilisateur;
 import com.sprintbot.authuser.repository.UtilisateurRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -29,17 +30,28 @@ public class AuthService {
     private UtilisateurRepository utilisateurRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private LastLoginBuffer lastLoginBuffer;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
 
     @Autowired
     private JwtConfig jwtConfig;
 
     /**
      * Authentifie un utilisateur avec email et mot de passe
+     * Sans transaction englobante et en lecture seule : aucune connexion n'est
+     * retenue pendant la vérification du mot de passe (pool de hachage dédié) et
+     * la dernière connexion est écrite en différé par lots (LastLoginBuffer)
      * @param email l'email de l'utilisateur
      * @param motDePasse le mot de passe en clair
      * @return Map contenant les tokens et informations utilisateur
+     * @throws PasswordHashingOverloadException si le pool de hachage est saturé
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<String, Object> authenticate(String email, String motDePasse) {
         logger.info("Tentative d'authentification pour l'email: {}", email);
         
@@ -61,14 +73,21 @@ public class AuthService {
             }
             
             // Vérification du mot de passe
-            if (!passwordEncoder.matches(motDePasse, utilisateur.getMotDePasse())) {
+            if (!passwordHashingService.matches(motDePasse, utilisateur.getMotDePasse())) {
                 logger.warn("Mot de passe incorrect pour l'email: {}", email);
                 throw new RuntimeException("Email ou mot de passe incorrect");
             }
             
-            // Mise à jour de la dernière connexion
+            // Mise à niveau du hash s'il est sous la politique de hachage (coût ou algorithme)
+            String nouveauHash = passwordHashingService.rehashIfOutdated(motDePasse, utilisateur.getMotDePasse());
+            if (nouveauHash != null) {
+                logger.info("Hash du mot de passe mis à niveau pour l'utilisateur: {}", email);
+                utilisateurRepository.updateMotDePasse(utilisateur.getId(), nouveauHash);
+            }
+            
+            // Mise à jour de la dernière connexion (entité détachée, écriture différée)
             utilisateur.login();
-            utilisateurRepository.save(utilisateur);
+            lastLoginBuffer.record(utilisateur.getId(), utilisateur.getDerniereConnexion());
             
             // Génération des tokens
             String accessToken = jwtConfig.generateToken(
@@ -94,6 +113,9 @@ public class AuthService {
             
             return response;
             
+        } catch (PasswordHashingOverloadException e) {
+            logger.warn("Authentification rejetée pour {}: {}", email, e.getMessage());
+            throw e;
         } catch (Exception e) {
             logger.error("Erreur lors de l'authentification pour {}: {}", email, e.getMessage());
             throw new RuntimeException("Erreur d'authentification: " + e.getMessage());
@@ -122,26 +144,28 @@ public class AuthService {
                 throw new RuntimeException("Token de rafraîchissement expiré");
             }
             
-            // Recherche de l'utilisateur
-            Optional<Utilisateur> utilisateurOpt = utilisateurRepository.findByEmail(email);
-            if (utilisateurOpt.isEmpty() || !utilisateurOpt.get().getId().equals(userId)) {
+            // Recherche de l'utilisateur (identité en cache)
+            UserPrincipal principal = userPrincipalCache.findByEmail(email);
+            if (principal == null || !principal.id().equals(userId)) {
                 throw new RuntimeException("Utilisateur non trouvé ou token invalide");
             }
             
-            Utilisateur utilisateur = utilisateurOpt.get();
-            
             // Vérification que l'utilisateur est toujours actif
-            if (!utilisateur.isActif()) {
+            if (!principal.isActif()) {
                 throw new RuntimeException("Compte utilisateur désactivé");
             }
             
             // Génération d'un nouveau token d'accès
             String newAccessToken = jwtConfig.generateToken(
-                utilisateur.getEmail(), 
-                utilisateur.getRole(), 
-                utilisateur.getId()
+                principal.email(), 
+                principal.role(), 
+                principal.id()
             );
             
+            // Profil complet renvoyé au client (clé primaire)
+            Utilisateur utilisateur = utilisateurRepository.findById(principal.id())
+                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé ou token invalide"));
+            
             logger.info("Token rafraîchi avec succès pour l'utilisateur: {}", email);
             
             Map<String, Object> response = new HashMap<>();
@@ -160,9 +184,11 @@ public class AuthService {
 
     /**
      * Valide un token d'accès
+     * L'existence et le statut de l'utilisateur viennent du cache des identités
      * @param token le token à valider
      * @return true si le token est valide
      */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public boolean validateAccessToken(String token) {
         try {
             if (!jwtConfig.isAccessToken(token)) {
@@ -170,14 +196,9 @@ public class AuthService {
             }
             
             String email = jwtConfig.extractEmail(token);
-            Optional<Utilisateur> utilisateurOpt = utilisateurRepository.findByEmail(email);
+            UserPrincipal principal = userPrincipalCache.findByEmail(email);
             
-            if (utilisateurOpt.isEmpty()) {
-                return false;
-            }
-            
-            Utilisateur utilisateur = utilisateurOpt.get();
-            return utilisateur.isActif() && jwtConfig.validateToken(token, email);
+            return principal != null && principal.isActif() && jwtConfig.validateToken(token, email);
             
         } catch (Exception e) {
             logger.warn("Erreur lors de la validation du token: {}", e.getMessage());
@@ -185,18 +206,47 @@ public class AuthService {
         }
     }
 
+    /**
+     * Extrait l'identité utilisateur d'un token, sans accès à la base si elle est en cache
+     * @param token le token JWT
+     * @return Map contenant l'identité (id, email, rôle, actif)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<String, Object> getPrincipalFromToken(String token) {
+        try {
+            UserPrincipal principal = userPrincipalCache.findByEmail(jwtConfig.extractEmail(token));
+            if (principal == null) {
+                throw new RuntimeException("Utilisateur non trouvé");
+            }
+            
+            Map<String, Object> userInfo = new HashMap<>();
+            userInfo.put("id", principal.id());
+            userInfo.put("email", principal.email());
+            userInfo.put("role", principal.role());
+            userInfo.put("actif", principal.actif());
+            return userInfo;
+            
+        } catch (Exception e) {
+            logger.error("Erreur lors de l'extraction de l'identité utilisateur: {}", e.getMessage());
+            throw new RuntimeException("Token invalide");
+        }
+    }
+
     /**
      * Extrait les informations utilisateur d'un token
+     * L'utilisateur est résolu par le cache des identités, seul le profil
+     * complet est lu en base (par clé primaire)
      * @param token le token JWT
      * @return Map contenant les informations utilisateur
      */
     public Map<String, Object> getUserFromToken(String token) {
         try {
-            String email = jwtConfig.extractEmail(token);
-            Long userId = jwtConfig.extractUserId(token);
-            String role = jwtConfig.extractRole(token);
+            UserPrincipal principal = userPrincipalCache.findByEmail(jwtConfig.extractEmail(token));
+            if (principal == null) {
+                throw new RuntimeException("Utilisateur non trouvé");
+            }
             
-            Optional<Utilisateur> utilisateurOpt = utilisateurRepository.findByEmail(email);
+            Optional<Utilisateur> utilisateurOpt = utilisateurRepository.findById(principal.id());
             if (utilisateurOpt.isEmpty()) {
                 throw new RuntimeException("Utilisateur non trouvé");
             }
@@ -0,0 +1,94 @@
+package com.sprintbot.authuser.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Écriture différée des dates de dernière connexion
+ * Les connexions sont regroupées en mémoire (une seule date en attente par
+ * utilisateur, la plus récente) puis écrites par lots d'UPDATE sur la seule
+ * table utilisateurs, toutes les auth.last-login.flush-interval-ms
+ *
+ * Durabilité : en cas d'arrêt brutal, les dates des connexions des dernières
+ * flush-interval-ms secondes sont perdues (la connexion elle-même n'est pas
+ * affectée). Un arrêt normal écrit les dates en attente. Une écriture en échec
+ * est retentée au lot suivant
+ */
+@Service
+public class LastLoginBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(LastLoginBuffer.class);
+
+    // La condition évite d'écraser une date plus récente écrite par une autre instance
+    private static final String UPDATE_SQL =
+        "UPDATE utilisateurs SET derniere_connexion = ? " +
+        "WHERE id = ? AND (derniere_connexion IS NULL OR derniere_connexion < ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${auth.last-login.batch-size:500}")
+    private int batchSize;
+
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Enregistre une connexion, écrite au prochain lot
+     * @param utilisateurId l'ID de l'utilisateur
+     * @param date la date de connexion
+     */
+    public void record(Long utilisateurId, LocalDateTime date) {
+        pending.merge(utilisateurId, date, (enAttente, nouvelle) -> nouvelle.isAfter(enAttente) ? nouvelle : enAttente);
+    }
+
+    /**
+     * Écrit les dates en attente par lots d'UPDATE
+     */
+    @Scheduled(fixedDelayString = "${auth.last-login.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>();
+        for (Long utilisateurId : pending.keySet()) {
+            LocalDateTime date = pending.remove(utilisateurId);
+            if (date != null) {
+                Timestamp timestamp = Timestamp.valueOf(date);
+                batch.add(new Object[]{timestamp, utilisateurId, timestamp});
+            }
+        }
+
+        for (int start = 0; start < batch.size(); start += batchSize) {
+            List<Object[]> chunk = batch.subList(start, Math.min(start + batchSize, batch.size()));
+            try {
+                jdbcTemplate.batchUpdate(UPDATE_SQL, chunk);
+            } catch (DataAccessException e) {
+                logger.warn("Écriture des dernières connexions reportée ({} utilisateurs): {}", chunk.size(), e.getMessage());
+                for (Object[] row : chunk) {
+                    record((Long) row[1], ((Timestamp) row[0]).toLocalDateTime());
+                }
+            }
+        }
+        logger.debug("Dernières connexions écrites pour {} utilisateurs", batch.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,12 @@
+package com.sprintbot.authuser.service;
+
+/**
+ * Levée quand le pool de hachage des mots de passe ne peut pas accepter
+ * de nouvelle vérification (file pleine ou délai dépassé)
+ */
+public class PasswordHashingOverloadException extends RuntimeException {
+
+    public PasswordHashingOverloadException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,138 @@
+package com.sprintbot.authuser.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Vérification des mots de passe sur un pool dédié et borné
+ * Le hachage (plusieurs centaines de ms de CPU par vérification) ne s'exécute
+ * ni en concurrence illimitée ni dans une transaction : au-delà de la file
+ * d'attente, la demande est rejetée immédiatement (HTTP 429)
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 0 : un thread par cœur disponible
+    @Value("${auth.password-hashing.threads:0}")
+    private int threads;
+
+    @Value("${auth.password-hashing.queue-capacity:32}")
+    private int queueCapacity;
+
+    // Attente maximale d'une vérification (file d'attente comprise)
+    @Value("${auth.password-hashing.wait-timeout:5s}")
+    private Duration waitTimeout;
+
+    private ThreadPoolExecutor executor;
+    private Counter rejected;
+
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        new ExecutorServiceMetrics(executor, "password.hashing", List.of()).bindTo(meterRegistry);
+        rejected = Counter.builder("password.hashing.rejected")
+                .description("Vérifications de mot de passe rejetées (pool saturé)")
+                .register(meterRegistry);
+
+        logger.info("Pool de hachage des mots de passe : {} threads, file de {} demandes", poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Vérifie un mot de passe sur le pool de hachage
+     * @param motDePasse le mot de passe en clair
+     * @param hash le hash stocké
+     * @return true si le mot de passe correspond
+     * @throws PasswordHashingOverloadException si le pool est saturé ou le délai dépassé
+     */
+    public boolean matches(String motDePasse, String hash) {
+        return submit(() -> passwordEncoder.matches(motDePasse, hash));
+    }
+
+    /**
+     * Recalcule le hash d'un mot de passe vérifié s'il est sous la politique de hachage
+     * Un pool saturé ne fait pas échouer la connexion : la mise à niveau est
+     * simplement reportée à une prochaine connexion
+     * @param motDePasse le mot de passe en clair (déjà vérifié)
+     * @param hash le hash stocké
+     * @return le nouveau hash, ou null si aucune mise à niveau n'est nécessaire ou possible
+     */
+    public String rehashIfOutdated(String motDePasse, String hash) {
+        if (!passwordEncoder.upgradeEncoding(hash)) {
+            return null;
+        }
+        try {
+            return submit(() -> passwordEncoder.encode(motDePasse));
+        } catch (PasswordHashingOverloadException e) {
+            logger.debug("Mise à niveau du hash reportée: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private <T> T submit(Callable<T> hashing) {
+        Future<T> task;
+        try {
+            task = executor.submit(hashing);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingOverloadException("Trop de connexions simultanées, réessayez plus tard");
+        }
+
+        try {
+            return task.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            task.cancel(true);
+            rejected.increment();
+            throw new PasswordHashingOverloadException("Délai de vérification du mot de passe dépassé");
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Vérification du mot de passe interrompue", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Erreur lors de la vérification du mot de passe", e.getCause());
+        }
+    }
+}
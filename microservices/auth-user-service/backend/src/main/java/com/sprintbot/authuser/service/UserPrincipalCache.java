@@ -0,0 +1,142 @@
+package com.sprintbot.authuser.service;
+
+import com.sprintbot.authuser.dto.UserPrincipal;
+import com.sprintbot.authuser.repository.UtilisateurRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache en mémoire des identités utilisateur (id, email, rôle, actif)
+ * Indexé par ID et par email, il évite une requête sur la hiérarchie JOINED des
+ * utilisateurs à chaque validation de token. Les modifications faites par
+ * UtilisateurService l'invalident après commit ; le TTL borne la durée de vie
+ * d'une entrée modifiée par une autre instance du service
+ * Chaque invalidation reçoit un numéro de séquence : une lecture commencée
+ * avant l'invalidation d'un utilisateur ne remet pas son ancien état en cache
+ */
+@Service
+public class UserPrincipalCache {
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    @Value("${auth.user-cache.ttl:60s}")
+    private Duration ttl;
+
+    @Value("${auth.user-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private final Map<Long, CachedPrincipal> byId = new ConcurrentHashMap<>();
+    private final Map<String, CachedPrincipal> byEmail = new ConcurrentHashMap<>();
+
+    // Séquence des invalidations et dernière invalidation de chaque utilisateur
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, Long> invalidations = new ConcurrentHashMap<>();
+    // Lectures antérieures à ce numéro refusées (invalidations oubliées pour borner la mémoire)
+    private volatile long plancher;
+
+    /**
+     * Identité d'un utilisateur par email
+     * @param email l'email de l'utilisateur
+     * @return l'identité, ou null si l'utilisateur n'existe pas
+     */
+    public UserPrincipal findByEmail(String email) {
+        CachedPrincipal cached = byEmail.get(email);
+        if (cached != null && !cached.isExpired()) {
+            return cached.principal();
+        }
+        long lecture = sequence.get();
+        return utilisateurRepository.findPrincipalByEmail(email)
+                .map(principal -> put(principal, lecture))
+                .orElse(null);
+    }
+
+    /**
+     * Identité d'un utilisateur par ID
+     * @param id l'ID de l'utilisateur
+     * @return l'identité, ou null si l'utilisateur n'existe pas
+     */
+    public UserPrincipal findById(Long id) {
+        CachedPrincipal cached = byId.get(id);
+        if (cached != null && !cached.isExpired()) {
+            return cached.principal();
+        }
+        long lecture = sequence.get();
+        return utilisateurRepository.findPrincipalById(id)
+                .map(principal -> put(principal, lecture))
+                .orElse(null);
+    }
+
+    /**
+     * Invalide l'identité d'un utilisateur, immédiatement puis après la fin de
+     * la transaction en cours ; une lecture commencée avant l'une ou l'autre de
+     * ces invalidations n'est pas mise en cache
+     * @param id l'ID de l'utilisateur modifié
+     */
+    public void invalidate(Long id) {
+        evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(id);
+                }
+            });
+        }
+    }
+
+    private UserPrincipal put(UserPrincipal principal, long lecture) {
+        if (isInvalidatedSince(principal.id(), lecture)) {
+            return principal;
+        }
+        if (byId.size() >= maxEntries) {
+            // Cache plein : repartir d'un cache vide plutôt que de tenir un ordre LRU
+            byId.clear();
+            byEmail.clear();
+        }
+        CachedPrincipal cached = new CachedPrincipal(principal, System.nanoTime() + ttl.toNanos());
+        byId.put(principal.id(), cached);
+        byEmail.put(principal.email(), cached);
+
+        // Invalidation survenue entre la vérification et l'insertion : retirer l'entrée
+        if (isInvalidatedSince(principal.id(), lecture)) {
+            byId.remove(principal.id(), cached);
+            byEmail.remove(principal.email(), cached);
+        }
+        return principal;
+    }
+
+    private boolean isInvalidatedSince(Long id, long lecture) {
+        return lecture < plancher || invalidations.getOrDefault(id, 0L) > lecture;
+    }
+
+    private void evict(Long id) {
+        // Enregistrée avant le retrait, pour qu'un put concurrent la voie à sa seconde vérification
+        invalidations.put(id, sequence.incrementAndGet());
+        if (invalidations.size() > maxEntries) {
+            plancher = sequence.get();
+            invalidations.clear();
+        }
+
+        CachedPrincipal cached = byId.remove(id);
+        if (cached != null) {
+            byEmail.remove(cached.principal().email(), cached);
+        }
+        byEmail.values().removeIf(entry -> entry.principal().id().equals(id));
+    }
+
+    private record CachedPrincipal(UserPrincipal principal, long expiresAt) {
+
+        boolean isExpired() {
+            return System.nanoTime() - expiresAt > 0;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.sprintbot.authuser.service;
 
+import com.sprintbot.authuser.dto.UtilisateurSummary;
 import com.sprintbot.authuser.entity.*;
 import com.sprintbot.authuser.repository.UtilisateurRepository;
 import org.slf4j.Logger;
@@ -33,6 +34,9 @@ public class UtilisateurService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
     /**
      * Trouve tous les utilisateurs
      * @return liste de tous les utilisateurs
@@ -97,6 +101,48 @@ public class UtilisateurService {
         return utilisateurRepository.searchUsers(searchTerm);
     }
 
+    /**
+     * Vue résumée de tous les utilisateurs (sans les champs des sous-types)
+     * @return liste des vues résumées
+     */
+    @Transactional(readOnly = true)
+    public List<UtilisateurSummary> findAllSummaries() {
+        logger.info("Récupération de la vue résumée des utilisateurs");
+        return utilisateurRepository.findAllSummaries();
+    }
+
+    /**
+     * Vue résumée des utilisateurs d'un rôle
+     * @param role le rôle recherché
+     * @return liste des vues résumées
+     */
+    @Transactional(readOnly = true)
+    public List<UtilisateurSummary> findSummariesByRole(String role) {
+        logger.info("Recherche de la vue résumée des utilisateurs avec le rôle: {}", role);
+        return utilisateurRepository.findSummariesByRole(role);
+    }
+
+    /**
+     * Vue résumée des utilisateurs actifs
+     * @return liste des vues résumées
+     */
+    @Transactional(readOnly = true)
+    public List<UtilisateurSummary> findActiveSummaries() {
+        logger.info("Récupération de la vue résumée des utilisateurs actifs");
+        return utilisateurRepository.findActiveSummaries();
+    }
+
+    /**
+     * Recherche des utilisateurs par terme (vue résumée)
+     * @param searchTerm le terme de recherche
+     * @return liste des vues résumées correspondantes
+     */
+    @Transactional(readOnly = true)
+    public List<UtilisateurSummary> searchSummaries(String searchTerm) {
+        logger.info("Recherche résumée d'utilisateurs avec le terme: {}", searchTerm);
+        return utilisateurRepository.searchSummaries(searchTerm);
+    }
+
     /**
      * Crée un nouveau joueur
      * @param nom le nom
@@ -219,6 +265,7 @@ public class UtilisateurService {
         }
 
         utilisateur.mettreAJourProfil(nom, prenom, email, telephone);
+        userPrincipalCache.invalidate(id);
         return utilisateurRepository.save(utilisateur);
     }
 
@@ -256,6 +303,7 @@ public class UtilisateurService {
 
         Utilisateur utilisateur = utilisateurOpt.get();
         utilisateur.activer();
+        userPrincipalCache.invalidate(id);
         return utilisateurRepository.save(utilisateur);
     }
 
@@ -274,6 +322,7 @@ public class UtilisateurService {
 
         Utilisateur utilisateur = utilisateurOpt.get();
         utilisateur.desactiver();
+        userPrincipalCache.invalidate(id);
         return utilisateurRepository.save(utilisateur);
     }
 
@@ -289,6 +338,7 @@ public class UtilisateurService {
         }
 
         utilisateurRepository.deleteById(id);
+        userPrincipalCache.invalidate(id);
     }
 
     /**
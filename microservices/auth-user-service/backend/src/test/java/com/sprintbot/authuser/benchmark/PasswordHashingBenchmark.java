@@ -0,0 +1,132 @@
+package com.sprintbot.authuser.benchmark;
+
+import com.sprintbot.authuser.config.PasswordHashPolicy;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latence de vérification d'un mot de passe selon l'algorithme et son coût
+ *
+ * Chaque configuration passe par PasswordHashPolicy.createPasswordEncoder
+ * (hash préfixé, comme en production) : BCrypt aux coûts 10 à 15, puis Argon2
+ * et scrypt avec les paramètres de application.yml (surchargeables, voir
+ * ci-dessous). Les vérifications s'exécutent sur un seul thread ; le débit par
+ * cœur est l'inverse de la médiane. Le rapport indique aussi le coût BCrypt
+ * que retiendrait la calibration pour la cible de temps de vérification.
+ *
+ * Options : -Dbenchmark.target-verify-ms=250
+ * -Dbenchmark.argon2.memory-kb=19456 -Dbenchmark.argon2.iterations=2 -Dbenchmark.argon2.parallelism=1
+ * -Dbenchmark.scrypt.cpu-cost=32768 -Dbenchmark.scrypt.memory-cost=8 -Dbenchmark.scrypt.parallelization=1
+ *
+ * Exécution : mvn -Pbenchmark test -Dtest=PasswordHashingBenchmark
+ * Rapport : target/benchmarks/hachage-mots-de-passe.txt
+ */
+class PasswordHashingBenchmark {
+
+    private static final int WARMUP_ITERATIONS = Integer.getInteger("benchmark.warmup-iterations", 2);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 10);
+    private static final Duration TARGET_VERIFY_TIME =
+            Duration.ofMillis(Integer.getInteger("benchmark.target-verify-ms", 250));
+    private static final Path REPORT_DIRECTORY = Path.of("target", "benchmarks");
+
+    private static final int MIN_BCRYPT_STRENGTH = 10;
+    private static final int MAX_BCRYPT_STRENGTH = 15;
+    private static final String PASSWORD = "benchmark-SprintBot-2024";
+
+    @Test
+    void latenceDeVerification() throws Exception {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, "%-44s %10s %10s %10s %12s",
+                "configuration", "médiane ms", "p90 ms", "max ms", "vérif/s/cœur"));
+
+        int calibratedStrength = -1;
+        for (int strength = MIN_BCRYPT_STRENGTH; strength <= MAX_BCRYPT_STRENGTH; strength++) {
+            PasswordHashPolicy policy = policy("bcrypt");
+            ReflectionTestUtils.setField(policy, "bcryptStrength", strength);
+            long median = measure(lines, "bcrypt coût " + strength, policy.createPasswordEncoder());
+            if (median <= TARGET_VERIFY_TIME.toNanos()) {
+                calibratedStrength = strength;
+            }
+        }
+
+        PasswordHashPolicy argon2 = policy("argon2");
+        measure(lines, String.format(Locale.ROOT, "argon2id m=%d Kio t=%d p=%d",
+                ReflectionTestUtils.getField(argon2, "argon2MemoryKb"),
+                ReflectionTestUtils.getField(argon2, "argon2Iterations"),
+                ReflectionTestUtils.getField(argon2, "argon2Parallelism")), argon2.createPasswordEncoder());
+
+        PasswordHashPolicy scrypt = policy("scrypt");
+        measure(lines, String.format(Locale.ROOT, "scrypt N=%d r=%d p=%d",
+                ReflectionTestUtils.getField(scrypt, "scryptCpuCost"),
+                ReflectionTestUtils.getField(scrypt, "scryptMemoryCost"),
+                ReflectionTestUtils.getField(scrypt, "scryptParallelization")), scrypt.createPasswordEncoder());
+
+        lines.add(String.format(Locale.ROOT, "coût BCrypt le plus élevé sous %d ms (médiane) : %s",
+                TARGET_VERIFY_TIME.toMillis(), calibratedStrength > 0 ? calibratedStrength : "aucun"));
+        report(lines);
+    }
+
+    // Renvoie la médiane en nanosecondes
+    private static long measure(List<String> lines, String name, PasswordEncoder encoder) {
+        String hash = encoder.encode(PASSWORD);
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            assertThat(encoder.matches(PASSWORD, hash)).isTrue();
+        }
+
+        long[] durations = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long begin = System.nanoTime();
+            boolean matches = encoder.matches(PASSWORD, hash);
+            durations[i] = System.nanoTime() - begin;
+            assertThat(matches).isTrue();
+        }
+        Arrays.sort(durations);
+
+        long median = durations[ITERATIONS / 2];
+        lines.add(String.format(Locale.ROOT, "%-44s %10.1f %10.1f %10.1f %12.1f",
+                name, median / 1e6, durations[(int) Math.ceil(ITERATIONS * 0.9) - 1] / 1e6,
+                durations[ITERATIONS - 1] / 1e6, 1e9 / median));
+        return median;
+    }
+
+    // Politique hors contexte Spring, paramètres par défaut de application.yml
+    private static PasswordHashPolicy policy(String algorithm) {
+        PasswordHashPolicy policy = new PasswordHashPolicy();
+        ReflectionTestUtils.setField(policy, "algorithm", algorithm);
+        ReflectionTestUtils.setField(policy, "bcryptStrength", 12);
+        ReflectionTestUtils.setField(policy, "argon2MemoryKb", Integer.getInteger("benchmark.argon2.memory-kb", 19456));
+        ReflectionTestUtils.setField(policy, "argon2Iterations", Integer.getInteger("benchmark.argon2.iterations", 2));
+        ReflectionTestUtils.setField(policy, "argon2Parallelism", Integer.getInteger("benchmark.argon2.parallelism", 1));
+        ReflectionTestUtils.setField(policy, "scryptCpuCost", Integer.getInteger("benchmark.scrypt.cpu-cost", 32768));
+        ReflectionTestUtils.setField(policy, "scryptMemoryCost", Integer.getInteger("benchmark.scrypt.memory-cost", 8));
+        ReflectionTestUtils.setField(policy, "scryptParallelization",
+                Integer.getInteger("benchmark.scrypt.parallelization", 1));
+        return policy;
+    }
+
+    private static void report(List<String> lines) throws Exception {
+        List<String> report = new ArrayList<>();
+        report.add("# Vérification des mots de passe : BCrypt par coût, Argon2 et scrypt");
+        report.add(String.format(Locale.ROOT, "# %s, Java %s, %d cœurs, un thread, chauffe %d, mesure %d vérifications",
+                Instant.now(), Runtime.version(), Runtime.getRuntime().availableProcessors(),
+                WARMUP_ITERATIONS, ITERATIONS));
+        report.addAll(lines);
+
+        Files.createDirectories(REPORT_DIRECTORY);
+        Files.write(REPORT_DIRECTORY.resolve("hachage-mots-de-passe.txt"), report, StandardCharsets.UTF_8);
+        report.forEach(System.out::println);
+    }
+}
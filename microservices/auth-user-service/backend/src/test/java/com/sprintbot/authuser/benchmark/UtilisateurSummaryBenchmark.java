@@ -0,0 +1,185 @@
+package com.sprintbot.authuser.benchmark;
+
+import com.sprintbot.authuser.repository.UtilisateurRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Listes d'utilisateurs : entités polymorphes complètes face à la vue résumée
+ *
+ * Pour chaque volume, la table utilisateurs est remplie par lots JDBC, répartis
+ * sur les cinq sous-types. Chaque appel du dépôt s'exécute dans sa propre
+ * transaction en lecture seule (pas de cache de premier niveau entre appels) ;
+ * les statistiques Hibernate donnent les requêtes SQL et les entités chargées
+ * par appel.
+ *
+ * Base par défaut : H2 en mémoire (mode PostgreSQL). Pour mesurer sur
+ * PostgreSQL, fournir une base vide dédiée (le schéma est recréé) :
+ * -Dbenchmark.jdbc-url=jdbc:postgresql://localhost:5433/auth_bench
+ * -Dbenchmark.jdbc-user=... -Dbenchmark.jdbc-password=...
+ *
+ * Exécution : mvn -Pbenchmark test -Dtest=UtilisateurSummaryBenchmark
+ * Rapport : target/benchmarks/utilisateurs-resumes.txt
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UtilisateurSummaryBenchmark {
+
+    private static final int[] SIZES = Arrays.stream(
+            System.getProperty("benchmark.sizes", "10000,100000").split(","))
+            .mapToInt(size -> Integer.parseInt(size.trim())).toArray();
+    private static final int WARMUP_ITERATIONS = Integer.getInteger("benchmark.warmup-iterations", 3);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 10);
+    private static final Path REPORT_DIRECTORY = Path.of("target", "benchmarks");
+
+    private static final String[] ROLES =
+            {"JOUEUR", "COACH", "ADMINISTRATEUR", "STAFF_MEDICAL", "RESPONSABLE_FINANCIER"};
+    private static final String[] TABLES =
+            {"joueurs", "coaches", "administrateurs", "staff_medical", "responsables_financiers"};
+    private static final int BATCH_SIZE = 1_000;
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("benchmark.jdbc-url",
+                "jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"));
+        registry.add("spring.datasource.username", () -> System.getProperty("benchmark.jdbc-user", "sa"));
+        registry.add("spring.datasource.password", () -> System.getProperty("benchmark.jdbc-password", ""));
+    }
+
+    @Test
+    void entitesCompletesEtVuesResumees() throws Exception {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, "%-9s %-28s %8s %8s %9s %10s %10s %10s %12s",
+                "volume", "appel", "lignes", "requêtes", "entités", "médiane ms", "p90 ms", "max ms", "octets/appel"));
+
+        for (int size : SIZES) {
+            populate(jdbcTemplate, size);
+            int joueurs = (size + ROLES.length - 1) / ROLES.length;
+
+            lines.add(measure(statistics, size, "findAll (entités)",
+                    () -> utilisateurRepository.findAll(), size));
+            lines.add(measure(statistics, size, "findAllSummaries",
+                    () -> utilisateurRepository.findAllSummaries(), size));
+            lines.add(measure(statistics, size, "findByRole JOUEUR (entités)",
+                    () -> utilisateurRepository.findByRole("JOUEUR"), joueurs));
+            lines.add(measure(statistics, size, "findSummariesByRole JOUEUR",
+                    () -> utilisateurRepository.findSummariesByRole("JOUEUR"), joueurs));
+        }
+
+        report(lines);
+    }
+
+    private String measure(Statistics statistics, int size, String name, Supplier<List<?>> call, int expectedRows) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            assertThat(call.get()).hasSize(expectedRows);
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long[] durations = new long[ITERATIONS];
+        long allocated = 0;
+        statistics.clear();
+        for (int i = 0; i < ITERATIONS; i++) {
+            long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+            long begin = System.nanoTime();
+            List<?> rows = call.get();
+            durations[i] = System.nanoTime() - begin;
+            allocated += threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+            assertThat(rows).hasSize(expectedRows);
+        }
+        Arrays.sort(durations);
+
+        return String.format(Locale.ROOT, "%-9d %-28s %8d %8.1f %9.0f %10.1f %10.1f %10.1f %12d",
+                size, name, expectedRows,
+                (double) statistics.getPrepareStatementCount() / ITERATIONS,
+                (double) statistics.getEntityLoadCount() / ITERATIONS,
+                durations[ITERATIONS / 2] / 1e6,
+                durations[(int) Math.ceil(ITERATIONS * 0.9) - 1] / 1e6,
+                durations[ITERATIONS - 1] / 1e6,
+                allocated / ITERATIONS);
+    }
+
+    // Utilisateurs 1..size, sous-types en alternance (id % 5)
+    private static void populate(JdbcTemplate jdbcTemplate, int size) {
+        for (String table : TABLES) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+        jdbcTemplate.update("DELETE FROM utilisateurs");
+
+        Timestamp creation = Timestamp.valueOf(LocalDateTime.now().minusDays(30));
+        for (int start = 1; start <= size; start += BATCH_SIZE) {
+            List<Object[]> utilisateurs = new ArrayList<>(BATCH_SIZE);
+            List<List<Object[]>> sousTypes = new ArrayList<>();
+            for (int i = 0; i < TABLES.length; i++) {
+                sousTypes.add(new ArrayList<>());
+            }
+            for (long id = start; id < Math.min(start + BATCH_SIZE, size + 1L); id++) {
+                int type = (int) ((id - 1) % ROLES.length);
+                utilisateurs.add(new Object[] {id, "Nom" + id, "Prenom" + id, "utilisateur" + id + "@sprintbot.com",
+                        "$2a$12$hash", "06" + String.format("%08d", id), creation, true, ROLES[type]});
+                sousTypes.get(type).add(new Object[] {id});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO utilisateurs (id, nom, prenom, email, mot_de_passe, telephone, "
+                    + "date_creation, actif, role) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", utilisateurs);
+            for (int i = 0; i < TABLES.length; i++) {
+                jdbcTemplate.batchUpdate("INSERT INTO " + TABLES[i] + " (id) VALUES (?)", sousTypes.get(i));
+            }
+        }
+    }
+
+    private static void report(List<String> lines) throws Exception {
+        List<String> report = new ArrayList<>();
+        report.add("# Listes d'utilisateurs : entités polymorphes (JOINED) et vue résumée");
+        report.add(String.format(Locale.ROOT, "# %s, Java %s, %d cœurs, base %s, chauffe %d appels, mesure %d appels",
+                Instant.now(), Runtime.version(), Runtime.getRuntime().availableProcessors(),
+                System.getProperty("benchmark.jdbc-url", "H2 en mémoire"), WARMUP_ITERATIONS, ITERATIONS));
+        report.addAll(lines);
+
+        Files.createDirectories(REPORT_DIRECTORY);
+        Files.write(REPORT_DIRECTORY.resolve("utilisateurs-resumes.txt"), report, StandardCharsets.UTF_8);
+        report.forEach(System.out::println);
+    }
+}
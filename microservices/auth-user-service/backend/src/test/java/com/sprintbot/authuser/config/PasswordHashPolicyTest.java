@@ -0,0 +1,147 @@
+package com.sprintbot.authuser.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashPolicyTest {
+
+    private static final String PASSWORD = "motdepasse-SprintBot";
+
+    private PasswordHashPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        policy = new PasswordHashPolicy();
+        ReflectionTestUtils.setField(policy, "algorithm", "bcrypt");
+        ReflectionTestUtils.setField(policy, "bcryptStrength", 4);
+        ReflectionTestUtils.setField(policy, "bcryptMinStrength", 4);
+        ReflectionTestUtils.setField(policy, "bcryptMaxStrength", 6);
+        ReflectionTestUtils.setField(policy, "calibrate", false);
+        ReflectionTestUtils.setField(policy, "targetVerifyTime", Duration.ofMillis(250));
+        // Paramètres réduits : seuls les formats et préfixes sont testés ici
+        ReflectionTestUtils.setField(policy, "argon2MemoryKb", 1024);
+        ReflectionTestUtils.setField(policy, "argon2Iterations", 1);
+        ReflectionTestUtils.setField(policy, "argon2Parallelism", 1);
+        ReflectionTestUtils.setField(policy, "scryptCpuCost", 1024);
+        ReflectionTestUtils.setField(policy, "scryptMemoryCost", 8);
+        ReflectionTestUtils.setField(policy, "scryptParallelization", 1);
+    }
+
+    @Test
+    void algorithmeInconnuRefuse() {
+        ReflectionTestUtils.setField(policy, "algorithm", "md5");
+
+        assertThatThrownBy(policy::init)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("md5");
+    }
+
+    @Test
+    void calibrationNeBaissePasLeCoutConfigure() {
+        // Cible impossible à tenir : même le premier coût mesuré la dépasse
+        ReflectionTestUtils.setField(policy, "bcryptStrength", 6);
+        ReflectionTestUtils.setField(policy, "calibrate", true);
+        ReflectionTestUtils.setField(policy, "targetVerifyTime", Duration.ofNanos(1));
+
+        policy.init();
+
+        assertThat(policy.getBcryptStrength()).isEqualTo(6);
+    }
+
+    @Test
+    void calibrationPartDuMinimumSiLeCoutConfigureEstPlusBas() {
+        ReflectionTestUtils.setField(policy, "bcryptMinStrength", 5);
+        ReflectionTestUtils.setField(policy, "calibrate", true);
+        ReflectionTestUtils.setField(policy, "targetVerifyTime", Duration.ofNanos(1));
+
+        policy.init();
+
+        assertThat(policy.getBcryptStrength()).isEqualTo(5);
+    }
+
+    @Test
+    void calibrationMonteJusquAuMaximumSousLaCible() {
+        ReflectionTestUtils.setField(policy, "calibrate", true);
+        ReflectionTestUtils.setField(policy, "targetVerifyTime", Duration.ofMinutes(1));
+
+        policy.init();
+
+        assertThat(policy.getBcryptStrength()).isEqualTo(6);
+    }
+
+    @Test
+    void calibrationIgnoreeHorsBcrypt() {
+        ReflectionTestUtils.setField(policy, "algorithm", "argon2");
+        ReflectionTestUtils.setField(policy, "calibrate", true);
+        ReflectionTestUtils.setField(policy, "targetVerifyTime", Duration.ofMinutes(1));
+
+        policy.init();
+
+        assertThat(policy.getBcryptStrength()).isEqualTo(4);
+    }
+
+    @Test
+    void nouveauxHashPrefixesParLAlgorithmeDeLaPolitique() {
+        for (String algorithm : new String[] {"bcrypt", "argon2", "scrypt"}) {
+            ReflectionTestUtils.setField(policy, "algorithm", algorithm);
+            policy.init();
+            PasswordEncoder encoder = policy.createPasswordEncoder();
+
+            String hash = encoder.encode(PASSWORD);
+
+            assertThat(hash).startsWith("{" + algorithm + "}");
+            assertThat(encoder.matches(PASSWORD, hash)).isTrue();
+            assertThat(encoder.upgradeEncoding(hash)).isFalse();
+        }
+    }
+
+    @Test
+    void hashSansPrefixeVerifiableEtARecalculer() {
+        policy.init();
+        PasswordEncoder encoder = policy.createPasswordEncoder();
+        String ancienHash = new BCryptPasswordEncoder(4).encode(PASSWORD);
+
+        assertThat(encoder.matches(PASSWORD, ancienHash)).isTrue();
+        assertThat(encoder.upgradeEncoding(ancienHash)).isTrue();
+    }
+
+    @Test
+    void hashBcryptDeCoutInferieurARecalculer() {
+        ReflectionTestUtils.setField(policy, "bcryptStrength", 5);
+        policy.init();
+        PasswordEncoder encoder = policy.createPasswordEncoder();
+
+        assertThat(encoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(4).encode(PASSWORD))).isTrue();
+        assertThat(encoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(5).encode(PASSWORD))).isFalse();
+    }
+
+    @Test
+    void hashDUnAutreAlgorithmeARecalculer() {
+        policy.init();
+        PasswordEncoder encoder = policy.createPasswordEncoder();
+        String hashArgon2 = "{argon2}" + new Argon2PasswordEncoder(16, 32, 1, 1024, 1).encode(PASSWORD);
+
+        assertThat(encoder.matches(PASSWORD, hashArgon2)).isTrue();
+        assertThat(encoder.upgradeEncoding(hashArgon2)).isTrue();
+    }
+
+    @Test
+    void prefixeInconnuJamaisAccepte() {
+        policy.init();
+        PasswordEncoder encoder = policy.createPasswordEncoder();
+        String hashMd5 = "{md5}5f4dcc3b5aa765d61d8327deb882cf99";
+
+        // Confié à l'encodeur BCrypt par défaut, qui ne reconnaît pas le format
+        assertThat(encoder.matches("password", hashMd5)).isFalse();
+        assertThat(encoder.upgradeEncoding(hashMd5)).isTrue();
+    }
+}
@@ -0,0 +1,54 @@
+package com.sprintbot.authuser.controller;
+
+import com.sprintbot.authuser.dto.LoginRequest;
+import com.sprintbot.authuser.service.AuthService;
+import com.sprintbot.authuser.service.PasswordHashingOverloadException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuthControllerTest {
+
+    private static final LoginRequest CONNEXION = new LoginRequest("joueur@sprintbot.com", "joueur123");
+
+    private AuthService authService;
+    private AuthController controller;
+
+    @BeforeEach
+    void setUp() {
+        authService = mock(AuthService.class);
+        controller = new AuthController();
+        ReflectionTestUtils.setField(controller, "authService", authService);
+    }
+
+    @Test
+    void poolDeHachageSatureRepond429() {
+        when(authService.authenticate(CONNEXION.getEmail(), CONNEXION.getMotDePasse()))
+                .thenThrow(new PasswordHashingOverloadException("Trop de connexions simultanées, réessayez plus tard"));
+
+        ResponseEntity<?> response = controller.login(CONNEXION);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst("Retry-After")).isEqualTo("1");
+        assertThat((Map<?, ?>) response.getBody()).containsEntry("error", "Service surchargé");
+    }
+
+    @Test
+    void echecDAuthentificationRepond401() {
+        when(authService.authenticate(CONNEXION.getEmail(), CONNEXION.getMotDePasse()))
+                .thenThrow(new RuntimeException("Email ou mot de passe incorrect"));
+
+        ResponseEntity<?> response = controller.login(CONNEXION);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(response.getHeaders().containsKey("Retry-After")).isFalse();
+    }
+}
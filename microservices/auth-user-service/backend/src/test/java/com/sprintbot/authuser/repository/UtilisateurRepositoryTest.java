@@ -0,0 +1,113 @@
+package com.sprintbot.authuser.repository;
+
+import com.sprintbot.authuser.dto.UtilisateurSummary;
+import com.sprintbot.authuser.entity.Administrateur;
+import com.sprintbot.authuser.entity.Coach;
+import com.sprintbot.authuser.entity.Joueur;
+import com.sprintbot.authuser.entity.ResponsableFinancier;
+import com.sprintbot.authuser.entity.StaffMedical;
+import com.sprintbot.authuser.entity.Utilisateur;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.sprintbot.authuser.repository.SqlStatementRecorder")
+class UtilisateurRepositoryTest {
+
+    private static final List<String> TABLES_SOUS_TYPES =
+            List.of("joueurs", "coaches", "administrateurs", "staff_medical", "responsables_financiers");
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Joueur joueur;
+
+    @BeforeEach
+    void setUp() {
+        joueur = new Joueur("Dupont", "Marie", "marie.dupont@sprintbot.com", "hash");
+        joueur.setTelephone("0600000001");
+        joueur.setAvatarUrl("/avatars/marie.png");
+        entityManager.persist(joueur);
+        entityManager.persist(new Coach("Martin", "Paul", "paul.martin@sprintbot.com", "hash"));
+        entityManager.persist(new Administrateur("Bernard", "Luc", "luc.bernard@sprintbot.com", "hash"));
+        entityManager.persist(new StaffMedical("Petit", "Anne", "anne.petit@sprintbot.com", "hash"));
+        ResponsableFinancier inactif = new ResponsableFinancier("Durand", "Marc", "marc.durand@sprintbot.com", "hash");
+        inactif.desactiver();
+        entityManager.persist(inactif);
+        entityManager.flush();
+        entityManager.clear();
+        SqlStatementRecorder.reset();
+    }
+
+    private static void assertSansJointureVersLesSousTypes(List<String> statements) {
+        assertThat(statements).hasSize(1);
+        assertThat(statements.get(0)).contains("utilisateurs");
+        for (String table : TABLES_SOUS_TYPES) {
+            assertThat(statements.get(0)).doesNotContain(table);
+        }
+    }
+
+    @Test
+    void resumesLusSurLaSeuleTableUtilisateurs() {
+        List<UtilisateurSummary> resumes = utilisateurRepository.findAllSummaries();
+
+        assertThat(resumes).extracting(UtilisateurSummary::role).containsExactlyInAnyOrder(
+                "JOUEUR", "COACH", "ADMINISTRATEUR", "STAFF_MEDICAL", "RESPONSABLE_FINANCIER");
+        assertSansJointureVersLesSousTypes(SqlStatementRecorder.statements());
+    }
+
+    @Test
+    void entitesCompletesJointesAuxSousTypes() {
+        List<Utilisateur> utilisateurs = utilisateurRepository.findAll();
+
+        assertThat(utilisateurs).hasSize(5);
+        assertThat(SqlStatementRecorder.statements()).hasSize(1);
+        assertThat(SqlStatementRecorder.statements().get(0)).contains(TABLES_SOUS_TYPES);
+    }
+
+    @Test
+    void resumeReprendLesChampsCommuns() {
+        UtilisateurSummary resume = utilisateurRepository.findSummariesByRole("JOUEUR").get(0);
+
+        assertThat(resume.id()).isEqualTo(joueur.getId());
+        assertThat(resume.nom()).isEqualTo("Dupont");
+        assertThat(resume.prenom()).isEqualTo("Marie");
+        assertThat(resume.email()).isEqualTo("marie.dupont@sprintbot.com");
+        assertThat(resume.telephone()).isEqualTo("0600000001");
+        assertThat(resume.actif()).isTrue();
+        assertThat(resume.dateCreation()).isNotNull();
+        assertThat(resume.derniereConnexion()).isNull();
+        assertThat(resume.avatarUrl()).isEqualTo("/avatars/marie.png");
+        assertThat(resume.nomComplet()).isEqualTo("Marie Dupont");
+        assertSansJointureVersLesSousTypes(SqlStatementRecorder.statements());
+    }
+
+    @Test
+    void resumesDesUtilisateursActifs() {
+        List<UtilisateurSummary> resumes = utilisateurRepository.findActiveSummaries();
+
+        assertThat(resumes).hasSize(4).allMatch(UtilisateurSummary::actif);
+        assertThat(resumes).extracting(UtilisateurSummary::email).doesNotContain("marc.durand@sprintbot.com");
+        assertSansJointureVersLesSousTypes(SqlStatementRecorder.statements());
+    }
+
+    @Test
+    void rechercheInsensibleALaCasseSurNomPrenomEtEmail() {
+        assertThat(utilisateurRepository.searchSummaries("DUPONT"))
+                .extracting(UtilisateurSummary::email).containsExactly("marie.dupont@sprintbot.com");
+        assertThat(utilisateurRepository.searchSummaries("paul"))
+                .extracting(UtilisateurSummary::email).containsExactly("paul.martin@sprintbot.com");
+        assertThat(utilisateurRepository.searchSummaries("@sprintbot")).hasSize(5);
+        assertThat(utilisateurRepository.searchSummaries("inconnu")).isEmpty();
+    }
+}
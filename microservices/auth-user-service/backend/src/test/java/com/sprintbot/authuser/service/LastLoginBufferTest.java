@@ -0,0 +1,154 @@
+package com.sprintbot.authuser.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class LastLoginBufferTest {
+
+    private static final LocalDateTime T1 = LocalDateTime.of(2024, 3, 1, 9, 0);
+    private static final LocalDateTime T2 = T1.plusMinutes(5);
+    private static final LocalDateTime T3 = T1.plusMinutes(10);
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private LastLoginBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = spy(new JdbcTemplate(database));
+        jdbcTemplate.execute("CREATE TABLE utilisateurs (id BIGINT PRIMARY KEY, derniere_connexion TIMESTAMP)");
+        for (long id = 1; id <= 5; id++) {
+            jdbcTemplate.update("INSERT INTO utilisateurs (id) VALUES (?)", id);
+        }
+
+        buffer = new LastLoginBuffer();
+        ReflectionTestUtils.setField(buffer, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(buffer, "batchSize", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void uneSeuleEcritureParUtilisateurAvecLaDateLaPlusRecente() {
+        buffer.record(1L, T1);
+        buffer.record(1L, T3);
+        buffer.record(1L, T2);
+
+        buffer.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> lots = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), lots.capture());
+        assertThat(lots.getValue()).hasSize(1);
+        assertThat(derniereConnexion(1L)).isEqualTo(T3);
+    }
+
+    @Test
+    void lotsDeTailleBornee() {
+        for (long id = 1; id <= 5; id++) {
+            buffer.record(id, T1);
+        }
+
+        buffer.flush();
+
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), anyList());
+        for (long id = 1; id <= 5; id++) {
+            assertThat(derniereConnexion(id)).isEqualTo(T1);
+        }
+    }
+
+    @Test
+    void uneDatePlusRecenteEnBaseNestPasEcrasee() {
+        jdbcTemplate.update("UPDATE utilisateurs SET derniere_connexion = ? WHERE id = 1", Timestamp.valueOf(T3));
+
+        buffer.record(1L, T2);
+        buffer.record(2L, T2);
+        buffer.flush();
+
+        assertThat(derniereConnexion(1L)).isEqualTo(T3);
+        assertThat(derniereConnexion(2L)).isEqualTo(T2);
+    }
+
+    @Test
+    void lotEnEchecRemisEnAttentePuisEcrit() {
+        doThrow(new DataAccessResourceFailureException("base indisponible"))
+                .doCallRealMethod()
+                .when(jdbcTemplate).batchUpdate(anyString(), anyList());
+
+        buffer.record(1L, T1);
+        buffer.flush();
+        assertThat(derniereConnexion(1L)).isNull();
+
+        // Une connexion plus récente pendant la panne remplace la date remise en attente
+        buffer.record(1L, T2);
+        buffer.flush();
+
+        assertThat(derniereConnexion(1L)).isEqualTo(T2);
+    }
+
+    @Test
+    void remiseEnAttenteNeRemplacePasUneDatePlusRecente() {
+        doThrow(new DataAccessResourceFailureException("base indisponible"))
+                .doCallRealMethod()
+                .when(jdbcTemplate).batchUpdate(anyString(), anyList());
+
+        buffer.record(1L, T3);
+        buffer.flush();
+        buffer.record(1L, T1);
+        buffer.flush();
+
+        assertThat(derniereConnexion(1L)).isEqualTo(T3);
+    }
+
+    @Test
+    void rienAEcrireSansConnexion() {
+        buffer.flush();
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void lArretEcritLesDatesEnAttente() {
+        buffer.record(3L, T1);
+        buffer.shutdown();
+
+        assertThat(derniereConnexion(3L)).isEqualTo(T1);
+        verify(jdbcTemplate).batchUpdate(eq(
+                "UPDATE utilisateurs SET derniere_connexion = ? "
+                        + "WHERE id = ? AND (derniere_connexion IS NULL OR derniere_connexion < ?)"), anyList());
+    }
+
+    private LocalDateTime derniereConnexion(Long id) {
+        Timestamp timestamp = jdbcTemplate.queryForObject(
+                "SELECT derniere_connexion FROM utilisateurs WHERE id = ?", Timestamp.class, id);
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
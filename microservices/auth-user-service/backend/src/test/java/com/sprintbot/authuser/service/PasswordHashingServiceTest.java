@@ -0,0 +1,182 @@
+package com.sprintbot.authuser.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PasswordHashingServiceTest {
+
+    private static final String HASH = "$2a$12$hash";
+
+    private PasswordEncoder passwordEncoder;
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingService service;
+
+    // Vérifications bloquées jusqu'à libération, pour saturer le pool
+    private final CountDownLatch liberation = new CountDownLatch(1);
+    private final CountDownLatch demarree = new CountDownLatch(1);
+    // Threads des requêtes de connexion (bloqués tant que leur vérification n'aboutit pas)
+    private final ExecutorService appelants = Executors.newFixedThreadPool(2);
+
+    @BeforeEach
+    void setUp() {
+        passwordEncoder = mock(PasswordEncoder.class);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new PasswordHashingService();
+        ReflectionTestUtils.setField(service, "passwordEncoder", passwordEncoder);
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(service, "threads", 1);
+        ReflectionTestUtils.setField(service, "queueCapacity", 1);
+        ReflectionTestUtils.setField(service, "waitTimeout", Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        liberation.countDown();
+        service.shutdown();
+        appelants.shutdownNow();
+    }
+
+    private void verificationsBloquantes() {
+        when(passwordEncoder.matches(anyString(), anyString())).thenAnswer(invocation -> {
+            demarree.countDown();
+            liberation.await();
+            return true;
+        });
+    }
+
+    // Un thread occupé et une demande en file : le pool (1 thread, file de 1) est plein
+    private List<CompletableFuture<Boolean>> saturer() throws InterruptedException {
+        verificationsBloquantes();
+        service.init();
+        CompletableFuture<Boolean> enCours = CompletableFuture.supplyAsync(
+                () -> service.matches("motdepasse1", HASH), appelants);
+        assertThat(demarree.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Boolean> enAttente = CompletableFuture.supplyAsync(
+                () -> service.matches("motdepasse2", HASH), appelants);
+
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(service, "executor");
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.getQueue().isEmpty() && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+        assertThat(executor.getQueue()).hasSize(1);
+        return List.of(enCours, enAttente);
+    }
+
+    private double rejets() {
+        return meterRegistry.get("password.hashing.rejected").counter().count();
+    }
+
+    @Test
+    void verificationSurLePoolDedie() {
+        AtomicReference<String> thread = new AtomicReference<>();
+        when(passwordEncoder.matches("motdepasse", HASH)).thenAnswer(invocation -> {
+            thread.set(Thread.currentThread().getName());
+            return true;
+        });
+        service.init();
+
+        assertThat(service.matches("motdepasse", HASH)).isTrue();
+        assertThat(thread.get()).startsWith("password-hashing-");
+    }
+
+    @Test
+    void poolSatureRejetteImmediatement() throws Exception {
+        List<CompletableFuture<Boolean>> demandes = saturer();
+
+        long debut = System.nanoTime();
+        assertThatThrownBy(() -> service.matches("motdepasse3", HASH))
+                .isInstanceOf(PasswordHashingOverloadException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - debut)).isLessThan(Duration.ofSeconds(1));
+        assertThat(rejets()).isEqualTo(1);
+
+        // Les demandes acceptées aboutissent une fois le pool libéré
+        liberation.countDown();
+        for (CompletableFuture<Boolean> demande : demandes) {
+            assertThat(demande.get(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Test
+    void delaiDepasseRejeteEtInterrompt() throws InterruptedException {
+        CountDownLatch interrompue = new CountDownLatch(1);
+        when(passwordEncoder.matches(anyString(), anyString())).thenAnswer(invocation -> {
+            try {
+                liberation.await();
+            } catch (InterruptedException e) {
+                interrompue.countDown();
+            }
+            return true;
+        });
+        ReflectionTestUtils.setField(service, "waitTimeout", Duration.ofMillis(100));
+        service.init();
+
+        assertThatThrownBy(() -> service.matches("motdepasse", HASH))
+                .isInstanceOf(PasswordHashingOverloadException.class);
+        assertThat(rejets()).isEqualTo(1);
+        assertThat(interrompue.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void miseANiveauReporteeSiPoolSature() throws Exception {
+        when(passwordEncoder.upgradeEncoding(HASH)).thenReturn(true);
+        List<CompletableFuture<Boolean>> demandes = saturer();
+
+        assertThat(service.rehashIfOutdated("motdepasse", HASH)).isNull();
+        verify(passwordEncoder, never()).encode(anyString());
+
+        liberation.countDown();
+        CompletableFuture.allOf(demandes.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void miseANiveauSurLePool() {
+        when(passwordEncoder.upgradeEncoding(HASH)).thenReturn(true);
+        when(passwordEncoder.encode("motdepasse")).thenReturn("$2a$13$nouveau");
+        service.init();
+
+        assertThat(service.rehashIfOutdated("motdepasse", HASH)).isEqualTo("$2a$13$nouveau");
+    }
+
+    @Test
+    void hashAJourSansNouveauHachage() {
+        when(passwordEncoder.upgradeEncoding(HASH)).thenReturn(false);
+        service.init();
+
+        assertThat(service.rehashIfOutdated("motdepasse", HASH)).isNull();
+        verify(passwordEncoder, never()).encode(anyString());
+    }
+
+    @Test
+    void erreurDeLEncodeurNEstPasUneSurcharge() {
+        when(passwordEncoder.matches(anyString(), anyString())).thenThrow(new IllegalArgumentException("hash invalide"));
+        service.init();
+
+        assertThatThrownBy(() -> service.matches("motdepasse", HASH))
+                .isInstanceOf(IllegalStateException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(rejets()).isZero();
+    }
+}
@@ -0,0 +1,99 @@
+package com.sprintbot.authuser.service;
+
+import com.sprintbot.authuser.dto.UserPrincipal;
+import com.sprintbot.authuser.repository.UtilisateurRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserPrincipalCacheTest {
+
+    private static final UserPrincipal ACTIF = new UserPrincipal(1L, "joueur@sprintbot.tn", "JOUEUR", true);
+    private static final UserPrincipal DESACTIVE = new UserPrincipal(1L, "joueur@sprintbot.tn", "JOUEUR", false);
+
+    private UtilisateurRepository utilisateurRepository;
+    private UserPrincipalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        utilisateurRepository = mock(UtilisateurRepository.class);
+        cache = new UserPrincipalCache();
+        ReflectionTestUtils.setField(cache, "utilisateurRepository", utilisateurRepository);
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+    }
+
+    @Test
+    void lectureEnCacheParIdEtParEmail() {
+        when(utilisateurRepository.findPrincipalById(1L)).thenReturn(Optional.of(ACTIF));
+
+        assertThat(cache.findById(1L)).isEqualTo(ACTIF);
+        assertThat(cache.findById(1L)).isEqualTo(ACTIF);
+        assertThat(cache.findByEmail(ACTIF.email())).isEqualTo(ACTIF);
+
+        verify(utilisateurRepository, times(1)).findPrincipalById(1L);
+    }
+
+    @Test
+    void invalidationPendantUneLectureNeLaissePasLAncienEtatEnCache() {
+        // La lecture voit l'état d'avant la modification, commitée pendant la requête
+        when(utilisateurRepository.findPrincipalById(1L))
+                .thenAnswer(invocation -> {
+                    cache.invalidate(1L);
+                    return Optional.of(ACTIF);
+                })
+                .thenReturn(Optional.of(DESACTIVE));
+
+        assertThat(cache.findById(1L)).isEqualTo(ACTIF);
+        assertThat(cache.findById(1L)).isEqualTo(DESACTIVE);
+        verify(utilisateurRepository, times(2)).findPrincipalById(1L);
+    }
+
+    @Test
+    void invalidationDUnAutreUtilisateurNEmpechePasLaMiseEnCache() {
+        when(utilisateurRepository.findPrincipalById(1L))
+                .thenAnswer(invocation -> {
+                    cache.invalidate(2L);
+                    return Optional.of(ACTIF);
+                });
+
+        cache.findById(1L);
+        cache.findById(1L);
+        verify(utilisateurRepository, times(1)).findPrincipalById(1L);
+    }
+
+    @Test
+    void lectureApresInvalidationEstMiseEnCache() {
+        when(utilisateurRepository.findPrincipalByEmail(ACTIF.email())).thenReturn(Optional.of(DESACTIVE));
+        cache.invalidate(1L);
+
+        cache.findByEmail(ACTIF.email());
+        assertThat(cache.findById(1L)).isEqualTo(DESACTIVE);
+        verify(utilisateurRepository, times(0)).findPrincipalById(1L);
+    }
+
+    @Test
+    void invalidationsOublieesRefusentLesLecturesAnterieures() {
+        when(utilisateurRepository.findPrincipalById(1L))
+                .thenAnswer(invocation -> {
+                    // Plus d'invalidations que d'entrées : la table des invalidations est vidée
+                    for (long id = 1; id <= 101; id++) {
+                        cache.invalidate(id);
+                    }
+                    return Optional.of(ACTIF);
+                })
+                .thenReturn(Optional.of(DESACTIVE));
+
+        cache.findById(1L);
+        assertThat(cache.findById(1L)).isEqualTo(DESACTIVE);
+    }
+}
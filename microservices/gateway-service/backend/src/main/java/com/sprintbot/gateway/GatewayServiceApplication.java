@@ -1,11 +1,17 @@
 package com.sprintbot.gateway;
 
+import com.sprintbot.gateway.config.GatewayRoutesProperties;
+import com.sprintbot.gateway.filter.ResponseCacheFilter;
+import com.sprintbot.gateway.filter.RetryBudgetFilter;
+import com.sprintbot.gateway.service.GatewayMetrics;
+import com.sprintbot.gateway.service.LocalTokenBucketRateLimiter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpMethod;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.reactive.CorsWebFilter;
 import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
@@ -81,11 +87,13 @@ public class GatewayServiceApplication {
         log.info("🔧 Fonctionnalités activées :");
         log.info("   - Service Discovery avec Eureka");
         log.info("   - Load Balancing automatique");
-        log.info("   - Circuit Breaker et Retry");
-        log.info("   - Rate Limiting");
+        log.info("   - Circuit Breaker et Retry (budget par route)");
+        log.info("   - Rate Limiting (seaux de jetons locaux)");
+        log.info("   - Cache des réponses GET de lecture");
+        log.info("   - Fallback : dernière réponse valide (GET) ou réponse dégradée");
         log.info("   - Authentification JWT");
         log.info("   - CORS global");
-        log.info("   - Monitoring et métriques");
+        log.info("   - Monitoring et métriques (timers par route et par étape)");
     }
 
     /**
@@ -95,10 +103,20 @@ public class GatewayServiceApplication {
      * avec leurs filtres, prédicats et configurations spécifiques.
      * 
      * @param builder Builder pour la configuration des routes
+     * @param rateLimiter Rate limiter local (synchronisé avec Redis si configuré)
+     * @param retryBudget Budget de nouvelles tentatives par route (après chaque filtre retry)
+     * @param responseCache Cache des réponses GET (ordonné avant l'écriture de la réponse)
+     * @param metrics Timers par étape (circuit breaker, nouvelles tentatives et appel en aval)
+     * @param routesProperties Réglages par route (délais de connexion et de réponse)
      * @return Localisateur de routes configuré
      */
     @Bean
-    public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
+    public RouteLocator customRouteLocator(RouteLocatorBuilder builder,
+                                           LocalTokenBucketRateLimiter rateLimiter,
+                                           RetryBudgetFilter retryBudget,
+                                           ResponseCacheFilter responseCache,
+                                           GatewayMetrics metrics,
+                                           GatewayRoutesProperties routesProperties) {
         log.debug("🛣️ Configuration des routes du Gateway");
         
         return builder.routes()
@@ -108,19 +126,22 @@ public class GatewayServiceApplication {
                 .path("/api/auth/**")
                 .filters(f -> f
                     .stripPrefix(2) // Supprime /api/auth
+                    .filter(metrics.stage(GatewayMetrics.STAGE_RESILIENCE, "auth-user-service"))
                     .circuitBreaker(config -> config
                         .setName("auth-user-service-cb")
                         .setFallbackUri("forward:/fallback/auth"))
                     .retry(config -> config
-                        .setRetries(3)
+                        .setRetries(retryBudget.retries("auth-user-service"))
+                        .setMethods(HttpMethod.GET)
                         .setBackoff(java.time.Duration.ofMillis(100), 
                                    java.time.Duration.ofMillis(1000), 2, false))
+                    .filter(retryBudget.forRoute("auth-user-service"))
+                    .filter(responseCache.forRoute("auth-user-service"))
                     .requestRateLimiter(config -> config
-                        .setRateLimiter(redisRateLimiter())
+                        .setRateLimiter(rateLimiter)
                         .setKeyResolver(userKeyResolver()))
-                    .addRequestHeader("X-Gateway-Service", "SprintBot-Gateway")
-                    .addResponseHeader("X-Response-Time", "#{T(System).currentTimeMillis()}")
                 )
+                .metadata(routesProperties.routeMetadata("auth-user-service"))
                 .uri("lb://auth-user-service")
             )
             
@@ -129,18 +150,22 @@ public class GatewayServiceApplication {
                 .path("/api/planning/**")
                 .filters(f -> f
                     .stripPrefix(2) // Supprime /api/planning
+                    .filter(metrics.stage(GatewayMetrics.STAGE_RESILIENCE, "planning-performance-service"))
                     .circuitBreaker(config -> config
                         .setName("planning-performance-service-cb")
                         .setFallbackUri("forward:/fallback/planning"))
                     .retry(config -> config
-                        .setRetries(3)
+                        .setRetries(retryBudget.retries("planning-performance-service"))
+                        .setMethods(HttpMethod.GET)
                         .setBackoff(java.time.Duration.ofMillis(100), 
                                    java.time.Duration.ofMillis(1000), 2, false))
+                    .filter(retryBudget.forRoute("planning-performance-service"))
+                    .filter(responseCache.forRoute("planning-performance-service"))
                     .requestRateLimiter(config -> config
-                        .setRateLimiter(redisRateLimiter())
+                        .setRateLimiter(rateLimiter)
                         .setKeyResolver(userKeyResolver()))
-                    .addRequestHeader("X-Gateway-Service", "SprintBot-Gateway")
                 )
+                .metadata(routesProperties.routeMetadata("planning-performance-service"))
                 .uri("lb://planning-performance-service")
             )
             
@@ -149,18 +174,22 @@ public class GatewayServiceApplication {
                 .path("/api/medical/**")
                 .filters(f -> f
                     .stripPrefix(2) // Supprime /api/medical
+                    .filter(metrics.stage(GatewayMetrics.STAGE_RESILIENCE, "medical-admin-service"))
                     .circuitBreaker(config -> config
                         .setName("medical-admin-service-cb")
                         .setFallbackUri("forward:/fallback/medical"))
                     .retry(config -> config
-                        .setRetries(3)
+                        .setRetries(retryBudget.retries("medical-admin-service"))
+                        .setMethods(HttpMethod.GET)
                         .setBackoff(java.time.Duration.ofMillis(100), 
                                    java.time.Duration.ofMillis(1000), 2, false))
+                    .filter(retryBudget.forRoute("medical-admin-service"))
+                    .filter(responseCache.forRoute("medical-admin-service"))
                     .requestRateLimiter(config -> config
-                        .setRateLimiter(redisRateLimiter())
+                        .setRateLimiter(rateLimiter)
                         .setKeyResolver(userKeyResolver()))
-                    .addRequestHeader("X-Gateway-Service", "SprintBot-Gateway")
                 )
+                .metadata(routesProperties.routeMetadata("medical-admin-service"))
                 .uri("lb://medical-admin-service")
             )
             
@@ -169,18 +198,22 @@ public class GatewayServiceApplication {
                 .path("/api/communication/**")
                 .filters(f -> f
                     .stripPrefix(2) // Supprime /api/communication
+                    .filter(metrics.stage(GatewayMetrics.STAGE_RESILIENCE, "communication-service"))
                     .circuitBreaker(config -> config
                         .setName("communication-service-cb")
                         .setFallbackUri("forward:/fallback/communication"))
                     .retry(config -> config
-                        .setRetries(3)
+                        .setRetries(retryBudget.retries("communication-service"))
+                        .setMethods(HttpMethod.GET)
                         .setBackoff(java.time.Duration.ofMillis(100), 
                                    java.time.Duration.ofMillis(1000), 2, false))
+                    .filter(retryBudget.forRoute("communication-service"))
+                    .filter(responseCache.forRoute("communication-service"))
                     .requestRateLimiter(config -> config
-                        .setRateLimiter(redisRateLimiter())
+                        .setRateLimiter(rateLimiter)
                         .setKeyResolver(userKeyResolver()))
-                    .addRequestHeader("X-Gateway-Service", "SprintBot-Gateway")
                 )
+                .metadata(routesProperties.routeMetadata("communication-service"))
                 .uri("lb://communication-service")
             )
             
@@ -189,27 +222,28 @@ public class GatewayServiceApplication {
                 .path("/api/finance/**")
                 .filters(f -> f
                     .stripPrefix(2) // Supprime /api/finance
+                    .filter(metrics.stage(GatewayMetrics.STAGE_RESILIENCE, "finance-service"))
                     .circuitBreaker(config -> config
                         .setName("finance-service-cb")
                         .setFallbackUri("forward:/fallback/finance"))
                     .retry(config -> config
-                        .setRetries(3)
+                        .setRetries(retryBudget.retries("finance-service"))
+                        .setMethods(HttpMethod.GET)
                         .setBackoff(java.time.Duration.ofMillis(100), 
                                    java.time.Duration.ofMillis(1000), 2, false))
+                    .filter(retryBudget.forRoute("finance-service"))
+                    .filter(responseCache.forRoute("finance-service"))
                     .requestRateLimiter(config -> config
-                        .setRateLimiter(redisRateLimiter())
+                        .setRateLimiter(rateLimiter)
                         .setKeyResolver(userKeyResolver()))
-                    .addRequestHeader("X-Gateway-Service", "SprintBot-Gateway")
                 )
+                .metadata(routesProperties.routeMetadata("finance-service"))
                 .uri("lb://finance-service")
             )
             
             // Route pour Discovery Service (monitoring)
             .route("discovery-service", r -> r
                 .path("/eureka/**")
-                .filters(f -> f
-                    .addRequestHeader("X-Gateway-Service", "SprintBot-Gateway")
-                )
                 .uri("lb://discovery-service")
             )
             
@@ -269,17 +303,6 @@ public class GatewayServiceApplication {
         return new CorsWebFilter(source);
     }
 
-    /**
-     * Configuration du Rate Limiter Redis
-     *
-     * @return Rate limiter configuré
-     */
-    @Bean
-    public org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter redisRateLimiter() {
-        // Configuration par défaut : 100 requêtes par seconde avec burst de 200
-        return new org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter(100, 200, 1);
-    }
-
     /**
      * Résolveur de clé pour le rate limiting basé sur l'utilisateur
      *
@@ -0,0 +1,349 @@
+package com.sprintbot.gateway.config;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Table de routage et d'autorisation précompilée du Gateway
+ *
+ * Les règles sont compilées au démarrage dans un arbre de segments de chemin.
+ * Une seule recherche répond à la fois à :
+ * - La route est-elle publique ?
+ * - Quels rôles sont requis ?
+ * - Vers quel microservice la requête est-elle routée ?
+ *
+ * Le résultat est conservé dans les attributs de l'échange : le filtre JWT et
+ * l'autorisation Spring Security partagent la même recherche.
+ *
+ * Syntaxe des motifs : segments littéraux, "*" pour exactement un segment,
+ * "**" en fin de motif pour zéro ou plusieurs segments. Comme pour les
+ * pathMatchers Spring, la première règle déclarée qui correspond l'emporte.
+ *
+ * La recherche porte sur les segments décodés du chemin, sans paramètres
+ * matriciels (";..."), comme le routage : "/api/finance/%61dmin" et
+ * "/api/finance/admin;x" relèvent donc de la règle "admin". Un chemin dont un
+ * segment décodé contient "/", ";" ou "\", ou qui comporte un segment "." ou
+ * "..", est refusé quelle que soit l'authentification.
+ *
+ * @author SprintBot Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class GatewayRouteTable {
+
+    public static final String ROUTE_ATTRIBUTE = GatewayRouteTable.class.getName() + ".route";
+
+    // Nombre maximal de combinaisons de rôles dont les authorities sont internées
+    private static final int MAX_AUTHORITY_SETS = 256;
+
+    private static final String[] AUTH_PUBLIC_ENDPOINTS = {
+        "login", "register", "refresh-token", "forgot-password", "reset-password"
+    };
+
+    private final Node root = new Node();
+    private final Route defaultRoute = new Route(Integer.MAX_VALUE, false, Set.of(), null, false);
+    private final Route rejectedRoute = new Route(-1, false, Set.of(), null, true);
+    private final Map<List<String>, List<GrantedAuthority>> authoritySets = new ConcurrentHashMap<>();
+    private final List<Route> rules = new ArrayList<>();
+    // Variantes (règle, service cible) précalculées : aucune allocation par requête
+    private final Map<Route, Map<String, Route>> variants = new IdentityHashMap<>();
+    private final List<String> services = new ArrayList<>();
+    private int nextOrder;
+
+    public GatewayRouteTable() {
+        // Routes publiques - Pas d'authentification requise
+        permitAll("/actuator/health", "/actuator/info");
+        for (String endpoint : AUTH_PUBLIC_ENDPOINTS) {
+            permitAll("/api/auth/" + endpoint, "/auth-user-service/api/auth/" + endpoint);
+        }
+        permitAll("/eureka/**", "/fallback/**");
+
+        // Routes d'administration - Rôle ADMIN requis
+        hasAnyRole("/api/*/admin/**", "ADMIN");
+        hasAnyRole("/actuator/**", "ADMIN");
+
+        // Routes médicales
+        hasAnyRole("/api/medical/admin/**", "ADMIN", "MEDICAL_ADMIN");
+        hasAnyRole("/api/medical/**", "USER", "COACH", "MEDICAL_ADMIN", "ADMIN");
+
+        // Routes financières
+        hasAnyRole("/api/finance/admin/**", "ADMIN", "FINANCE_ADMIN");
+        hasAnyRole("/api/finance/**", "USER", "COACH", "FINANCE_ADMIN", "ADMIN");
+
+        // Routes de planification
+        hasAnyRole("/api/planning/coach/**", "COACH", "ADMIN");
+        hasAnyRole("/api/planning/**", "USER", "COACH", "ADMIN");
+
+        // Routes de communication et d'authentification - Tous les utilisateurs authentifiés
+        hasAnyRole("/api/communication/**", "USER", "COACH", "ADMIN");
+        hasAnyRole("/api/auth/**", "USER", "COACH", "ADMIN");
+
+        // Microservices cibles (mêmes préfixes que les routes du Gateway)
+        service("/api/auth", "auth-user-service");
+        service("/api/planning", "planning-performance-service");
+        service("/api/medical", "medical-admin-service");
+        service("/api/communication", "communication-service");
+        service("/api/finance", "finance-service");
+        service("/eureka", "discovery-service");
+
+        rules.add(defaultRoute);
+        for (Route rule : rules) {
+            Map<String, Route> byService = new HashMap<>();
+            for (String serviceId : services) {
+                byService.put(serviceId, rule.withService(serviceId));
+            }
+            variants.put(rule, byService);
+        }
+
+        log.debug("🛣️ Table de routage compilée : {} règles, {} services", nextOrder, services.size());
+    }
+
+    // =====================================================
+    // Recherche
+    // =====================================================
+
+    /**
+     * Résout la route de la requête, une seule fois par échange
+     *
+     * @param exchange Exchange de la requête
+     * @return Route résolue
+     */
+    public Route resolve(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ROUTE_ATTRIBUTE);
+        if (route == null) {
+            route = lookup(exchange.getRequest().getPath().pathWithinApplication());
+            exchange.getAttributes().put(ROUTE_ATTRIBUTE, route);
+        }
+        return route;
+    }
+
+    /**
+     * Recherche la règle applicable à un chemin brut (encodé)
+     *
+     * @param path Chemin de la requête
+     * @return Route applicable (règle par défaut : authentification requise)
+     */
+    public Route lookup(String path) {
+        return lookup(PathContainer.parsePath(path));
+    }
+
+    /**
+     * Recherche la règle applicable à un chemin
+     *
+     * @param path Chemin de la requête
+     * @return Route applicable (règle par défaut : authentification requise),
+     *         ou route refusée si le chemin est ambigu
+     */
+    public Route lookup(PathContainer path) {
+        List<String> segments = segments(path);
+        if (segments == null) {
+            log.warn("🚫 Chemin refusé (segment encodé ou relatif) : {}", path.value());
+            return rejectedRoute;
+        }
+
+        Route best = match(root, segments, 0, defaultRoute);
+
+        // Service cible : préfixe littéral le plus long
+        String service = null;
+        Node node = root;
+        int index = 0;
+        while (node != null) {
+            if (node.service != null) {
+                service = node.service;
+            }
+            if (index >= segments.size()) {
+                break;
+            }
+            node = node.children.get(segments.get(index++));
+        }
+
+        return service != null ? variants.get(best).get(service) : best;
+    }
+
+    private Route match(Node node, List<String> segments, int index, Route best) {
+        if (node.catchAll != null && node.catchAll.order() < best.order()) {
+            best = node.catchAll;
+        }
+        if (index >= segments.size()) {
+            if (node.exact != null && node.exact.order() < best.order()) {
+                best = node.exact;
+            }
+            return best;
+        }
+
+        Node literal = node.children.get(segments.get(index));
+        if (literal != null) {
+            best = match(literal, segments, index + 1, best);
+        }
+        if (node.wildcard != null) {
+            best = match(node.wildcard, segments, index + 1, best);
+        }
+        return best;
+    }
+
+    /**
+     * Segments décodés du chemin, sans paramètres matriciels ni segments vides
+     *
+     * @param path Chemin de la requête
+     * @return Segments à rechercher, ou null si le chemin doit être refusé
+     */
+    private static List<String> segments(PathContainer path) {
+        List<String> segments = new ArrayList<>();
+        for (PathContainer.Element element : path.elements()) {
+            if (!(element instanceof PathContainer.PathSegment segment)) {
+                continue;
+            }
+            String value = segment.valueToMatch();
+            if (value.isEmpty()) {
+                continue;
+            }
+            if (".".equals(value) || "..".equals(value)
+                    || value.indexOf('/') >= 0 || value.indexOf(';') >= 0 || value.indexOf('\\') >= 0) {
+                return null;
+            }
+            segments.add(value);
+        }
+        return segments;
+    }
+
+    // =====================================================
+    // Authorities internées
+    // =====================================================
+
+    /**
+     * Authorities Spring Security d'une combinaison de rôles, partagées entre requêtes
+     *
+     * @param roles Rôles de l'utilisateur
+     * @return Liste immuable des authorities "ROLE_*"
+     */
+    public List<GrantedAuthority> authoritiesFor(List<String> roles) {
+        List<GrantedAuthority> authorities = authoritySets.get(roles);
+        if (authorities != null) {
+            return authorities;
+        }
+
+        authorities = roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority("ROLE_" + role))
+                .toList();
+        if (authoritySets.size() < MAX_AUTHORITY_SETS) {
+            authoritySets.putIfAbsent(List.copyOf(roles), authorities);
+        }
+        return authorities;
+    }
+
+    // =====================================================
+    // Construction
+    // =====================================================
+
+    private void permitAll(String... patterns) {
+        for (String pattern : patterns) {
+            register(pattern, new Route(nextOrder++, true, Set.of(), null, false));
+        }
+    }
+
+    private void hasAnyRole(String pattern, String... roles) {
+        Set<String> authorities = Arrays.stream(roles)
+                .map(role -> "ROLE_" + role)
+                .collect(Collectors.toUnmodifiableSet());
+        register(pattern, new Route(nextOrder++, false, authorities, null, false));
+    }
+
+    private void register(String pattern, Route route) {
+        rules.add(route);
+        Node node = root;
+        String[] segments = pattern.substring(1).split("/");
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if ("**".equals(segment)) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("\"**\" doit terminer le motif : " + pattern);
+                }
+                if (node.catchAll == null) {
+                    node.catchAll = route;
+                }
+                return;
+            }
+            node = "*".equals(segment)
+                    ? (node.wildcard != null ? node.wildcard : (node.wildcard = new Node()))
+                    : node.children.computeIfAbsent(segment, s -> new Node());
+        }
+        if (node.exact == null) {
+            node.exact = route;
+        }
+    }
+
+    private void service(String prefix, String serviceId) {
+        Node node = root;
+        for (String segment : prefix.substring(1).split("/")) {
+            node = node.children.computeIfAbsent(segment, s -> new Node());
+        }
+        node.service = serviceId;
+        services.add(serviceId);
+    }
+
+    /**
+     * Nœud de l'arbre, immuable une fois la table construite
+     */
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private Node wildcard;
+        private Route exact;
+        private Route catchAll;
+        private String service;
+    }
+
+    /**
+     * Résultat d'une recherche dans la table
+     *
+     * @param order Ordre de déclaration de la règle (la plus petite l'emporte)
+     * @param publicRoute Route accessible sans authentification
+     * @param requiredAuthorities Authorities acceptées ("ROLE_*"), vide si une
+     *                            simple authentification suffit
+     * @param service Microservice cible, ou null si la route n'est pas routée
+     * @param rejected Chemin refusé (segment encodé ou relatif), quel que soit le rôle
+     */
+    public record Route(int order, boolean publicRoute, Set<String> requiredAuthorities, String service,
+                        boolean rejected) {
+
+        /**
+         * Vérifie si les authorities de l'utilisateur satisfont la règle
+         *
+         * @param authorities Authorities de l'utilisateur authentifié
+         * @return true si l'accès est autorisé
+         */
+        public boolean isGranted(Collection<? extends GrantedAuthority> authorities) {
+            if (rejected) {
+                return false;
+            }
+            if (publicRoute || requiredAuthorities.isEmpty()) {
+                return true;
+            }
+            for (GrantedAuthority authority : authorities) {
+                if (requiredAuthorities.contains(authority.getAuthority())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Route withService(String serviceId) {
+            return new Route(order, publicRoute, requiredAuthorities, serviceId, rejected);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.sprintbot.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Réglages par route du Gateway (propriétés gateway.routes.&lt;routeId&gt;.*)
+ *
+ * Une route absente de la configuration utilise les valeurs par défaut.
+ *
+ * @author SprintBot Team
+ * @version 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway")
+public class GatewayRoutesProperties {
+
+    private static final RouteSettings DEFAULT_SETTINGS = new RouteSettings();
+
+    private Map<String, RouteSettings> routes = new HashMap<>();
+
+    private ResponseCache responseCache = new ResponseCache();
+
+    private HttpClient httpClient = new HttpClient();
+
+    /**
+     * Réglages d'une route
+     *
+     * @param routeId Identifiant de la route
+     * @return Réglages configurés ou valeurs par défaut
+     */
+    public RouteSettings forRoute(String routeId) {
+        return routes.getOrDefault(routeId, DEFAULT_SETTINGS);
+    }
+
+    /**
+     * Métadonnées de route lues par le routage Netty (délais de connexion et de
+     * réponse propres au service, sinon ceux de spring.cloud.gateway.httpclient)
+     *
+     * @param routeId Identifiant de la route
+     * @return Métadonnées à déclarer sur la route
+     */
+    public Map<String, Object> routeMetadata(String routeId) {
+        Timeouts timeouts = forRoute(routeId).getTimeouts();
+        Map<String, Object> metadata = new HashMap<>();
+        if (timeouts.getConnect() != null) {
+            metadata.put(RouteMetadataUtils.CONNECT_TIMEOUT_ATTR, (int) timeouts.getConnect().toMillis());
+        }
+        if (timeouts.getResponse() != null) {
+            metadata.put(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR, timeouts.getResponse().toMillis());
+        }
+        return metadata;
+    }
+
+    @Data
+    public static class RouteSettings {
+        private Retry retry = new Retry();
+        private Hedging hedging = new Hedging();
+        private Cache cache = new Cache();
+        private Timeouts timeouts = new Timeouts();
+    }
+
+    /**
+     * Délais d'appel du service en aval (null : valeurs globales)
+     */
+    @Data
+    public static class Timeouts {
+        private Duration connect;
+        private Duration response;
+    }
+
+    /**
+     * Nouvelles tentatives, bornées par un budget proportionnel au trafic
+     */
+    @Data
+    public static class Retry {
+        // Nombre maximal de nouvelles tentatives par requête
+        private int retries = 3;
+        // Part des requêtes de la fenêtre pouvant donner lieu à une nouvelle tentative
+        private double budgetRatio = 0.2;
+        // Nouvelles tentatives toujours autorisées par seconde, même à faible trafic
+        private int minRetriesPerSecond = 5;
+        // Fenêtre glissante du budget
+        private Duration budgetWindow = Duration.ofSeconds(10);
+    }
+
+    /**
+     * Requêtes GET relancées sur une autre instance au-delà du p95 de la route
+     */
+    @Data
+    public static class Hedging {
+        private boolean enabled = false;
+        // Délai minimal avant relance, quel que soit le p95 observé
+        private Duration minDelay = Duration.ofMillis(50);
+    }
+
+    /**
+     * Mise en cache des réponses GET de la route
+     */
+    @Data
+    public static class Cache {
+        private boolean enabled = false;
+        private Duration ttl = Duration.ofSeconds(30);
+        // Préfixes de chemins mis en cache (vide : toutes les requêtes GET de la route)
+        private List<String> paths = new ArrayList<>();
+        // Portée d'une entrée : utilisateur ou combinaison de rôles
+        private CacheScope scope = CacheScope.USER;
+        // Durée pendant laquelle une réponse expirée reste servie par le fallback (0 : désactivé)
+        private Duration staleIfError = Duration.ZERO;
+    }
+
+    public enum CacheScope {
+        USER, ROLES
+    }
+
+    /**
+     * Limites globales du cache de réponses
+     */
+    @Data
+    public static class ResponseCache {
+        private DataSize maxSize = DataSize.ofMegabytes(64);
+        private DataSize maxEntrySize = DataSize.ofMegabytes(1);
+    }
+
+    /**
+     * Client HTTP vers les microservices
+     */
+    @Data
+    public static class HttpClient {
+        // HTTP/2 en clair (h2c) par upgrade, repli automatique en HTTP/1.1
+        private boolean h2c = false;
+    }
+}
@@ -0,0 +1,48 @@
+package com.sprintbot.gateway.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpProtocol;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.Function;
+
+/**
+ * Configuration du client HTTP (Reactor Netty) utilisé pour appeler les microservices
+ *
+ * @author SprintBot Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Configuration
+public class HttpClientConfig {
+
+    /**
+     * Métriques Reactor Netty du client : temps de connexion, de handshake TLS
+     * et de réponse par adresse distante (reactor.netty.http.client.*).
+     * Le tag uri est constant pour ne pas multiplier les séries par chemin.
+     *
+     * @return Personnalisation du client HTTP
+     */
+    @Bean
+    public HttpClientCustomizer httpClientMetricsCustomizer() {
+        Function<String, String> uriTagValue = uri -> "/";
+        return httpClient -> httpClient.metrics(true, uriTagValue);
+    }
+
+    /**
+     * HTTP/2 en clair (h2c) vers les services Spring Boot : une connexion
+     * multiplexe plusieurs requêtes au lieu d'en ouvrir une par requête en vol.
+     * Les services sans HTTP/2 refusent l'upgrade et restent en HTTP/1.1.
+     *
+     * @return Personnalisation du client HTTP
+     */
+    @Bean
+    @ConditionalOnProperty(name = "gateway.http-client.h2c", havingValue = "true")
+    public HttpClientCustomizer h2cHttpClientCustomizer() {
+        log.info("🔀 Appels en aval en h2c (repli HTTP/1.1)");
+        return httpClient -> httpClient.protocol(HttpProtocol.HTTP11, HttpProtocol.H2C);
+    }
+}
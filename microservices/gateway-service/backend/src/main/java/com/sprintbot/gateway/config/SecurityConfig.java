@@ -1,16 +1,22 @@
 package com.sprintbot.gateway.config;
 
 import com.sprintbot.gateway.filter.AuthenticationFilter;
+import com.sprintbot.gateway.service.GatewayMetrics;
 import com.sprintbot.gateway.service.JwtService;
+import com.sprintbot.gateway.service.JwtTokenCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 import org.springframework.security.web.server.ServerAuthenticationEntryPoint;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
 import org.springframework.security.web.server.authorization.ServerAccessDeniedHandler;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
@@ -38,6 +44,15 @@ public class SecurityConfig {
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private JwtTokenCache jwtTokenCache;
+
+    @Autowired
+    private GatewayRouteTable routeTable;
+
+    @Autowired
+    private GatewayMetrics gatewayMetrics;
+
     /**
      * Configuration principale de la sécurité
      * 
@@ -58,42 +73,11 @@ public class SecurityConfig {
             // Configuration des autorisations
             .authorizeExchange(exchanges -> exchanges
                 
-                // Routes publiques - Pas d'authentification requise
+                // Requêtes preflight CORS
                 .pathMatchers(HttpMethod.OPTIONS, "/**").permitAll()
-                .pathMatchers("/actuator/health", "/actuator/info").permitAll()
-                .pathMatchers("/api/auth/login", "/api/auth/register").permitAll()
-                .pathMatchers("/auth-user-service/api/auth/login", "/auth-user-service/api/auth/register").permitAll()
-                .pathMatchers("/api/auth/refresh-token").permitAll()
-                .pathMatchers("/auth-user-service/api/auth/refresh-token").permitAll()
-                .pathMatchers("/api/auth/forgot-password", "/api/auth/reset-password").permitAll()
-                .pathMatchers("/auth-user-service/api/auth/forgot-password", "/auth-user-service/api/auth/reset-password").permitAll()
-                .pathMatchers("/eureka/**").permitAll()
-                .pathMatchers("/fallback/**").permitAll()
-                
-                // Routes d'administration - Rôle ADMIN requis
-                .pathMatchers("/api/*/admin/**").hasRole("ADMIN")
-                .pathMatchers("/actuator/**").hasRole("ADMIN")
-                
-                // Routes médicales - Rôles spécifiques
-                .pathMatchers("/api/medical/admin/**").hasAnyRole("ADMIN", "MEDICAL_ADMIN")
-                .pathMatchers("/api/medical/**").hasAnyRole("USER", "COACH", "MEDICAL_ADMIN", "ADMIN")
-                
-                // Routes financières - Rôles spécifiques
-                .pathMatchers("/api/finance/admin/**").hasAnyRole("ADMIN", "FINANCE_ADMIN")
-                .pathMatchers("/api/finance/**").hasAnyRole("USER", "COACH", "FINANCE_ADMIN", "ADMIN")
                 
-                // Routes de planification - Rôles spécifiques
-                .pathMatchers("/api/planning/coach/**").hasAnyRole("COACH", "ADMIN")
-                .pathMatchers("/api/planning/**").hasAnyRole("USER", "COACH", "ADMIN")
-                
-                // Routes de communication - Tous les utilisateurs authentifiés
-                .pathMatchers("/api/communication/**").hasAnyRole("USER", "COACH", "ADMIN")
-                
-                // Routes d'authentification - Tous les utilisateurs authentifiés
-                .pathMatchers("/api/auth/**").hasAnyRole("USER", "COACH", "ADMIN")
-                
-                // Toutes les autres routes nécessitent une authentification
-                .anyExchange().authenticated()
+                // Routes publiques et rôles requis : table de routage précompilée
+                .anyExchange().access(this::authorize)
             )
             
             // Gestion des erreurs d'authentification
@@ -115,7 +99,27 @@ public class SecurityConfig {
      */
     @Bean
     public AuthenticationFilter authenticationFilter() {
-        return new AuthenticationFilter(jwtService);
+        return new AuthenticationFilter(jwtService, jwtTokenCache, routeTable, gatewayMetrics);
+    }
+
+    /**
+     * Décision d'autorisation à partir de la route résolue par le filtre JWT
+     * 
+     * @param authentication Authentification courante
+     * @param context Contexte d'autorisation
+     * @return Décision d'autorisation
+     */
+    private Mono<AuthorizationDecision> authorize(Mono<Authentication> authentication,
+                                                  AuthorizationContext context) {
+        GatewayRouteTable.Route route = routeTable.resolve(context.getExchange());
+        if (route.publicRoute()) {
+            return Mono.just(new AuthorizationDecision(true));
+        }
+
+        return authentication
+                .filter(auth -> auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken))
+                .map(auth -> new AuthorizationDecision(route.isGranted(auth.getAuthorities())))
+                .defaultIfEmpty(new AuthorizationDecision(false));
     }
 
     /**
@@ -0,0 +1,112 @@
+package com.sprintbot.gateway.controller;
+
+import com.sprintbot.gateway.filter.ResponseCacheFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fallback des circuit breakers du Gateway (forward:/fallback/&lt;service&gt;)
+ *
+ * Appelé quand le circuit est ouvert ou que l'appel en aval échoue :
+ * - GET : dernière réponse valide conservée par le cache de réponses
+ *   (gateway.routes.&lt;routeId&gt;.cache.stale-if-error), avec X-Cache: STALE
+ * - Sinon : réponse 503 dégradée, entièrement précalculée, sans nouvel appel
+ *   au service en aval
+ *
+ * @author SprintBot Team
+ * @version 1.0.0
+ */
+@Slf4j
+@RestController
+@RequestMapping("/fallback")
+public class FallbackController {
+
+    private static final String UNKNOWN_SERVICE = "unknown";
+
+    // Aligné sur wait-duration-in-open-state des circuit breakers
+    private static final String RETRY_AFTER_SECONDS = "5";
+
+    private static final Map<String, String> SERVICE_LABELS = Map.of(
+            "auth", "Service d'authentification",
+            "planning", "Service de planification et performance",
+            "medical", "Service médical et administratif",
+            "communication", "Service de communication",
+            "finance", "Service financier",
+            UNKNOWN_SERVICE, "Service"
+    );
+
+    private final ResponseCacheFilter responseCache;
+    private final Map<String, DegradedResponse> degradedResponses = new HashMap<>();
+
+    public FallbackController(ResponseCacheFilter responseCache, MeterRegistry meterRegistry) {
+        this.responseCache = responseCache;
+        SERVICE_LABELS.forEach((service, label) -> degradedResponses.put(service,
+                new DegradedResponse(degradedBody(service, label), Counter.builder("gateway.fallback.degraded")
+                        .description("Réponses dégradées servies par le fallback")
+                        .tag("service", service)
+                        .register(meterRegistry))));
+    }
+
+    /**
+     * Réponse de secours d'un service indisponible
+     *
+     * @param service Service ciblé par la route
+     * @param exchange Exchange transmis par le circuit breaker
+     * @return Mono de fin d'écriture
+     */
+    @RequestMapping("/{service}")
+    public Mono<Void> fallback(@PathVariable String service, ServerWebExchange exchange) {
+        Throwable cause = exchange.getAttribute(ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR);
+        log.warn("⚡ Fallback {} : {}", service, cause != null ? cause.toString() : "appel direct");
+
+        DegradedResponse degraded = degradedResponses.getOrDefault(service, degradedResponses.get(UNKNOWN_SERVICE));
+        return responseCache.writeStale(exchange, () -> writeDegraded(exchange, degraded));
+    }
+
+    private Mono<Void> writeDegraded(ServerWebExchange exchange, DegradedResponse degraded) {
+        degraded.counter().increment();
+
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setContentLength(degraded.body().length);
+        headers.setCacheControl("no-store");
+        headers.set(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        headers.set("X-Fallback", "true");
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(degraded.body())));
+    }
+
+    private static byte[] degradedBody(String service, String label) {
+        return ("""
+                {
+                    "error": "Service Unavailable",
+                    "message": "%s temporairement indisponible",
+                    "service": "%s",
+                    "status": 503,
+                    "degraded": true
+                }
+                """.formatted(label, service)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Corps JSON précalculé et compteur d'une réponse dégradée
+     */
+    private record DegradedResponse(byte[] body, Counter counter) {
+    }
+}
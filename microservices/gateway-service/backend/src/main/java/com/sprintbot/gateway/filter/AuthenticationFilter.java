@@ -1,29 +1,35 @@
 package com.sprintbot.gateway.filter;
 
+import com.sprintbot.gateway.config.GatewayRouteTable;
+import com.sprintbot.gateway.service.AuthenticatedUser;
+import com.sprintbot.gateway.service.GatewayMetrics;
 import com.sprintbot.gateway.service.JwtService;
+import com.sprintbot.gateway.service.JwtTokenCache;
+import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Filtre d'authentification JWT pour le Gateway Service
  * 
  * Ce filtre intercepte toutes les requêtes entrantes et :
- * - Extrait et valide les tokens JWT
+ * - Extrait et valide les tokens JWT (une seule fois par token grâce au cache)
  * - Configure le contexte de sécurité Spring
- * - Ajoute les informations utilisateur aux headers
+ * - Publie le contexte utilisateur précalculé, propagé en headers par UserContextHeadersFilter
  * - Gère les erreurs d'authentification
  * 
  * Le filtre est appliqué avant les filtres de sécurité Spring
@@ -36,23 +42,16 @@ import java.util.stream.Collectors;
 public class AuthenticationFilter implements WebFilter {
 
     private final JwtService jwtService;
+    private final JwtTokenCache tokenCache;
+    private final GatewayRouteTable routeTable;
+    private final GatewayMetrics metrics;
 
-    // Routes publiques qui ne nécessitent pas d'authentification
-    private static final List<String> PUBLIC_ROUTES = List.of(
-        "/actuator/health",
-        "/actuator/info",
-        "/api/auth/login",
-        "/api/auth/register",
-        "/api/auth/refresh-token",
-        "/api/auth/forgot-password",
-        "/api/auth/reset-password",
-        "/api/users", // Pour l'enregistrement d'utilisateurs
-        "/eureka",
-        "/fallback"
-    );
-
-    public AuthenticationFilter(JwtService jwtService) {
+    public AuthenticationFilter(JwtService jwtService, JwtTokenCache tokenCache,
+                                GatewayRouteTable routeTable, GatewayMetrics metrics) {
         this.jwtService = jwtService;
+        this.tokenCache = tokenCache;
+        this.routeTable = routeTable;
+        this.metrics = metrics;
     }
 
     @Override
@@ -63,8 +62,9 @@ public class AuthenticationFilter implements WebFilter {
         
         log.debug("🔍 Traitement de la requête : {} {}", method, path);
 
-        // Vérifier si la route est publique
-        if (isPublicRoute(path) || "OPTIONS".equals(method)) {
+        // Vérifier si la route est publique (recherche partagée avec l'autorisation)
+        GatewayRouteTable.Route route = routeTable.resolve(exchange);
+        if (route.publicRoute() || "OPTIONS".equals(method)) {
             log.debug("🌐 Route publique, pas d'authentification requise : {}", path);
             return chain.filter(exchange);
         }
@@ -75,132 +75,122 @@ public class AuthenticationFilter implements WebFilter {
 
         if (token == null) {
             log.warn("🚫 Token JWT manquant pour la route protégée : {}", path);
-            return handleAuthenticationError(exchange, "Token JWT manquant");
+            return handleAuthenticationError(exchange, AuthenticationError.TOKEN_MANQUANT);
         }
 
         try {
-            // Valider le token JWT
-            if (!jwtService.validateToken(token)) {
-                log.warn("🚫 Token JWT invalide pour la route : {}", path);
-                return handleAuthenticationError(exchange, "Token JWT invalide");
+            // Token déjà vérifié : pas de nouvelle vérification de signature
+            long start = System.nanoTime();
+            AuthenticatedUser user = tokenCache.get(token);
+
+            if (user == null) {
+                // Valider le token JWT (une seule analyse pour la validation et les claims)
+                JwtService.VerifiedClaims claims = parseClaims(token);
+                if (claims == null || !jwtService.isValidAccessToken(claims)) {
+                    metrics.record(GatewayMetrics.STAGE_JWT_VERIFY, route.service(), System.nanoTime() - start);
+                    log.warn("🚫 Token JWT invalide pour la route : {}", path);
+                    return handleAuthenticationError(exchange, AuthenticationError.TOKEN_INVALIDE);
+                }
+
+                // Construire le contexte utilisateur une seule fois pour ce token
+                user = createAuthenticatedUser(claims.toUserInfo());
+                tokenCache.put(token, user, claims.expiration().getTime());
+                metrics.record(GatewayMetrics.STAGE_JWT_VERIFY, route.service(), System.nanoTime() - start);
+            } else {
+                metrics.record(GatewayMetrics.STAGE_JWT_CACHE_HIT, route.service(), System.nanoTime() - start);
             }
-
-            // Extraire les informations utilisateur
-            JwtService.UserInfo userInfo = jwtService.getUserInfo(token);
             
-            log.debug("✅ Authentification réussie pour l'utilisateur : {} sur la route : {}", 
-                    userInfo.getUsername(), path);
-
-            // Créer l'objet Authentication pour Spring Security
-            Authentication authentication = createAuthentication(userInfo);
+            log.debug("✅ Authentification réussie pour l'utilisateur : {} sur la route : {} (service : {})", 
+                    user.getUserInfo().getUsername(), path, route.service());
 
-            // Ajouter les headers utilisateur pour les microservices
-            ServerWebExchange mutatedExchange = addUserHeaders(exchange, userInfo);
+            // Headers utilisateur ajoutés à la requête sortante (UserContextHeadersFilter)
+            exchange.getAttributes().put(AuthenticatedUser.ATTRIBUTE, user);
 
             // Configurer le contexte de sécurité et continuer la chaîne
-            return chain.filter(mutatedExchange)
-                    .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+            return chain.filter(exchange)
+                    .contextWrite(ReactiveSecurityContextHolder.withSecurityContext(user.getSecurityContext()));
 
         } catch (Exception e) {
             log.error("❌ Erreur lors de l'authentification pour la route {} : {}", path, e.getMessage());
-            return handleAuthenticationError(exchange, "Erreur d'authentification");
+            return handleAuthenticationError(exchange, AuthenticationError.ERREUR_AUTHENTIFICATION);
         }
     }
 
     /**
-     * Vérifie si une route est publique
+     * Analyse et vérifie le token une seule fois
      * 
-     * @param path Chemin de la requête
-     * @return true si la route est publique
+     * @param token Token JWT
+     * @return Claims vérifiés, ou null si la signature ou l'expiration est invalide
      */
-    private boolean isPublicRoute(String path) {
-        return PUBLIC_ROUTES.stream().anyMatch(path::startsWith);
+    private JwtService.VerifiedClaims parseClaims(String token) {
+        try {
+            return jwtService.parseVerifiedClaims(token);
+        } catch (Exception e) {
+            log.debug("❌ Token JWT rejeté : {}", e.getMessage());
+            return null;
+        }
     }
 
     /**
-     * Crée un objet Authentication pour Spring Security
+     * Crée le contexte utilisateur (Authentication et headers) d'un token vérifié
      * 
      * @param userInfo Informations utilisateur
-     * @return Objet Authentication
+     * @return Contexte utilisateur
      */
-    private Authentication createAuthentication(JwtService.UserInfo userInfo) {
-        // Convertir les rôles en authorities Spring Security
-        List<SimpleGrantedAuthority> authorities = userInfo.getRoles().stream()
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
-                .collect(Collectors.toList());
-
-        // Créer l'objet Authentication
-        UsernamePasswordAuthenticationToken authentication = 
-                new UsernamePasswordAuthenticationToken(
-                        userInfo.getUsername(),
-                        null, // Pas de credentials nécessaires
-                        authorities
-                );
-
-        // Ajouter les détails utilisateur
-        authentication.setDetails(userInfo);
+    private AuthenticatedUser createAuthenticatedUser(JwtService.UserInfo userInfo) {
+        // Authorities internées par combinaison de rôles
+        List<GrantedAuthority> authorities = routeTable.authoritiesFor(userInfo.getRoles());
 
         log.debug("🔐 Authentication créée pour l'utilisateur : {} avec les rôles : {}", 
                 userInfo.getUsername(), userInfo.getRoles());
 
-        return authentication;
-    }
-
-    /**
-     * Ajoute les headers utilisateur pour les microservices
-     * 
-     * @param exchange Exchange de la requête
-     * @param userInfo Informations utilisateur
-     * @return Exchange modifié avec les headers
-     */
-    private ServerWebExchange addUserHeaders(ServerWebExchange exchange, JwtService.UserInfo userInfo) {
-        return exchange.mutate()
-                .request(request -> request
-                    .header("X-User-Id", userInfo.getUserId().toString())
-                    .header("X-User-Username", userInfo.getUsername())
-                    .header("X-User-Email", userInfo.getEmail())
-                    .header("X-User-Roles", String.join(",", userInfo.getRoles()))
-                    .header("X-Gateway-Service", "SprintBot-Gateway")
-                    .header("X-Request-Timestamp", String.valueOf(System.currentTimeMillis()))
-                )
-                .build();
+        return new AuthenticatedUser(userInfo, authorities);
     }
 
     /**
      * Gère les erreurs d'authentification
      * 
      * @param exchange Exchange de la requête
-     * @param message Message d'erreur
+     * @param error Erreur d'authentification
      * @return Mono avec la réponse d'erreur
      */
-    private Mono<Void> handleAuthenticationError(ServerWebExchange exchange, String message) {
-        log.warn("🚫 Erreur d'authentification : {} pour la route : {}", 
-                message, exchange.getRequest().getPath().value());
+    private Mono<Void> handleAuthenticationError(ServerWebExchange exchange, AuthenticationError error) {
+        String path = exchange.getRequest().getPath().value();
+        log.warn("🚫 Erreur d'authentification : {} pour la route : {}", error.message, path);
 
         // Configurer la réponse d'erreur
-        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
-        exchange.getResponse().getHeaders().add("Content-Type", "application/json");
-        exchange.getResponse().getHeaders().add("X-Authentication-Error", "true");
-
-        // Corps de la réponse d'erreur
-        String errorResponse = String.format("""
-            {
-                "error": "Unauthorized",
-                "message": "%s",
-                "status": 401,
-                "timestamp": "%s",
-                "path": "%s"
-            }
-            """, 
-            message,
-            java.time.Instant.now().toString(),
-            exchange.getRequest().getPath().value()
-        );
-
-        // Écrire la réponse
-        org.springframework.core.io.buffer.DataBuffer buffer = 
-                exchange.getResponse().bufferFactory().wrap(errorResponse.getBytes());
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().add("X-Authentication-Error", "true");
+
+        // Corps de la réponse : début précalculé, seuls l'horodatage et le chemin sont sérialisés
+        String end = java.time.Instant.now() + "\",\n    \"path\": \"" + path + "\"\n}\n";
+        DataBufferFactory bufferFactory = response.bufferFactory();
+        return response.writeWith(Flux.just(
+                bufferFactory.wrap(error.bodyStart),
+                bufferFactory.wrap(end.getBytes(StandardCharsets.UTF_8))));
+    }
 
-        return exchange.getResponse().writeWith(Mono.just(buffer));
+    /**
+     * Erreurs d'authentification, avec le début du corps JSON déjà encodé
+     */
+    private enum AuthenticationError {
+        TOKEN_MANQUANT("Token JWT manquant"),
+        TOKEN_INVALIDE("Token JWT invalide"),
+        ERREUR_AUTHENTIFICATION("Erreur d'authentification");
+
+        private final String message;
+        private final byte[] bodyStart;
+
+        AuthenticationError(String message) {
+            this.message = message;
+            this.bodyStart = ("""
+                {
+                    "error": "Unauthorized",
+                    "message": "%s",
+                    "status": 401,
+                    "timestamp": \"""".formatted(message)).getBytes(StandardCharsets.UTF_8);
+        }
     }
 }
@@ -0,0 +1,453 @@
+package com.sprintbot.gateway.filter;
+
+import com.sprintbot.gateway.config.GatewayRoutesProperties;
+import com.sprintbot.gateway.service.AuthenticatedUser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Cache des réponses GET des endpoints de lecture (tableaux de bord)
+ *
+ * Le filtre est ordonné avant l'écriture de la réponse Netty : une réponse en
+ * cache est servie sans traverser circuit breaker, retry, load balancer ni
+ * service en aval.
+ *
+ * Fonctionnalités :
+ * - Clé : route + chemin + query + portée (utilisateur ou combinaison de rôles)
+ * - TTL par route (gateway.routes.&lt;routeId&gt;.cache.*)
+ * - Stockage LRU borné en octets (gateway.response-cache.*)
+ * - ETag et If-None-Match : 304 sans corps sur une réponse en cache
+ * - Coalescence : des requêtes identiques simultanées attendent la première
+ *   au lieu de solliciter chacune le service en aval
+ * - Toute écriture réussie (POST, PUT, PATCH, DELETE) sur la route invalide ses entrées
+ * - Réponse périmée (stale-if-error) : la dernière réponse valide est gardée
+ *   au-delà du TTL et servie par le fallback du circuit breaker
+ *   ({@link #writeStale}) tant que le service en aval est indisponible
+ *
+ * Seules les réponses 200 sans Set-Cookie ni Cache-Control no-store sont conservées.
+ * Un utilisateur authentifié sans identifiant n'est jamais mis en cache en portée USER.
+ *
+ * @author SprintBot Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class ResponseCacheFilter {
+
+    // Clé de la réponse périmée utilisable par le fallback de la requête en cours
+    public static final String STALE_KEY_ATTRIBUTE = ResponseCacheFilter.class.getName() + ".staleKey";
+    private static final String STALE_SERVED_ATTRIBUTE = ResponseCacheFilter.class.getName() + ".staleServed";
+
+    private static final String CACHE_HEADER = "X-Cache";
+    private static final Duration COALESCING_TIMEOUT = Duration.ofSeconds(30);
+
+    // Méthodes qui modifient les ressources de la route (HEAD et OPTIONS n'invalident rien)
+    private static final Set<HttpMethod> WRITE_METHODS = Set.of(
+            HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+
+    // Headers propres à la connexion ou à l'origine de la requête : jamais rejoués
+    private static final Set<String> EXCLUDED_HEADERS = Set.of(
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+            HttpHeaders.CONNECTION.toLowerCase(),
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(),
+            HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN.toLowerCase(),
+            HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS.toLowerCase(),
+            HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS.toLowerCase(),
+            HttpHeaders.VARY.toLowerCase(),
+            CACHE_HEADER.toLowerCase()
+    );
+
+    private final GatewayRoutesProperties properties;
+    private final long maxSize;
+    private final int maxEntrySize;
+
+    private final Map<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentSize;
+
+    private final Map<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Counter stale;
+
+    public ResponseCacheFilter(GatewayRoutesProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.maxSize = properties.getResponseCache().getMaxSize().toBytes();
+        this.maxEntrySize = (int) Math.min(Integer.MAX_VALUE,
+                properties.getResponseCache().getMaxEntrySize().toBytes());
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        this.coalesced = counter(meterRegistry, "coalesced");
+        this.stale = counter(meterRegistry, "stale");
+        Gauge.builder("gateway.response.cache.size", this, filter -> filter.sizeInBytes())
+                .description("Taille des réponses en cache (octets)")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Filtre de cache d'une route, ordonné avant l'écriture de la réponse
+     *
+     * @param routeId Identifiant de la route
+     * @return Filtre Gateway
+     */
+    public GatewayFilter forRoute(String routeId) {
+        GatewayRoutesProperties.Cache settings = properties.forRoute(routeId).getCache();
+        GatewayFilter filter = (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+
+            if (!HttpMethod.GET.equals(request.getMethod())) {
+                if (!settings.isEnabled() || !WRITE_METHODS.contains(request.getMethod())) {
+                    return chain.filter(exchange);
+                }
+                return chain.filter(exchange).doOnSuccess(aVoid -> invalidateAfterWrite(routeId, exchange));
+            }
+            boolean fresh = settings.isEnabled();
+            long staleMillis = settings.getStaleIfError().toMillis();
+            if ((!fresh && staleMillis <= 0) || !isCachedPath(settings, request.getPath().value())) {
+                return chain.filter(exchange);
+            }
+
+            String key = cacheKey(routeId, exchange, settings.getScope());
+            if (key == null) {
+                return chain.filter(exchange);
+            }
+            if (staleMillis > 0) {
+                exchange.getAttributes().put(STALE_KEY_ATTRIBUTE, key);
+            }
+            if (!fresh) {
+                // Seule la dernière réponse valide est conservée, pour le fallback
+                return capture(exchange, chain, key, null, 0, staleMillis);
+            }
+
+            boolean revalidate = request.getHeaders().getCacheControl() != null
+                    && request.getHeaders().getCacheControl().contains("no-cache");
+
+            CachedResponse cached = revalidate ? null : get(key);
+            if (cached != null) {
+                hits.increment();
+                return writeCached(exchange, cached, "HIT");
+            }
+            misses.increment();
+
+            Sinks.One<CachedResponse> leader = Sinks.one();
+            Sinks.One<CachedResponse> existing = inFlight.putIfAbsent(key, leader);
+            if (existing != null) {
+                if (revalidate) {
+                    return chain.filter(exchange);
+                }
+                // Requête identique en cours : attendre son résultat
+                coalesced.increment();
+                return existing.asMono()
+                        .timeout(COALESCING_TIMEOUT)
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .onErrorReturn(Optional.empty())
+                        .flatMap(response -> response.isPresent()
+                                ? writeCached(exchange, response.get(), "HIT")
+                                : chain.filter(exchange));
+            }
+
+            return capture(exchange, chain, key, leader, settings.getTtl().toMillis(), staleMillis);
+        };
+        return new OrderedGatewayFilter(filter, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    /**
+     * Sert la dernière réponse valide de la requête en cours (fallback du circuit breaker)
+     *
+     * @param exchange Exchange transmis au fallback
+     * @param otherwise Réponse dégradée, si aucune réponse périmée n'est disponible
+     * @return Mono de fin d'écriture
+     */
+    public Mono<Void> writeStale(ServerWebExchange exchange, Supplier<Mono<Void>> otherwise) {
+        String key = exchange.getAttribute(STALE_KEY_ATTRIBUTE);
+        CachedResponse cached = key != null ? getStale(key) : null;
+        if (cached == null) {
+            return otherwise.get();
+        }
+        stale.increment();
+        // Déjà en cache : ne pas la capturer à nouveau comme une réponse fraîche
+        exchange.getAttributes().put(STALE_SERVED_ATTRIBUTE, Boolean.TRUE);
+        long ageSeconds = Math.max(0, (System.currentTimeMillis() - cached.storedAt()) / 1000);
+        exchange.getResponse().getHeaders().set(HttpHeaders.AGE, Long.toString(ageSeconds));
+        return writeCached(exchange, cached, "STALE");
+    }
+
+    private Mono<Void> capture(ServerWebExchange exchange, GatewayFilterChain chain, String key,
+                               Sinks.One<CachedResponse> leader, long ttlMillis, long staleMillis) {
+        CapturingResponse capturing = new CapturingResponse(exchange.getResponse(), maxEntrySize);
+        return chain.filter(exchange.mutate().response(capturing).build())
+                .doOnSuccess(aVoid -> complete(key, leader, exchange.getAttribute(STALE_SERVED_ATTRIBUTE) != null
+                        ? null : capturing.toCachedResponse(ttlMillis, staleMillis)))
+                .doOnError(error -> complete(key, leader, null))
+                .doOnCancel(() -> complete(key, leader, null));
+    }
+
+    // =====================================================
+    // Lecture et écriture des réponses
+    // =====================================================
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached, String cacheStatus) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(cached.headers());
+        headers.setETag(cached.etag());
+        headers.set(CACHE_HEADER, cacheStatus);
+
+        if (matchesETag(exchange.getRequest().getHeaders().getIfNoneMatch(), cached.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+
+        response.setStatusCode(HttpStatus.OK);
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body())));
+    }
+
+    private void complete(String key, Sinks.One<CachedResponse> leader, CachedResponse response) {
+        if (response != null) {
+            put(key, response);
+        }
+        if (leader == null) {
+            return;
+        }
+        if (response != null) {
+            leader.tryEmitValue(response);
+        } else {
+            leader.tryEmitEmpty();
+        }
+        inFlight.remove(key, leader);
+    }
+
+    private static boolean matchesETag(List<String> ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch) {
+            String value = candidate.startsWith("W/") ? candidate.substring(2) : candidate;
+            if ("*".equals(value) || etag.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isCachedPath(GatewayRoutesProperties.Cache settings, String path) {
+        if (settings.getPaths().isEmpty()) {
+            return true;
+        }
+        for (String prefix : settings.getPaths()) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Portée issue du contexte posé par le filtre d'authentification, jamais des headers du client.
+    // null : utilisateur authentifié sans valeur de portée, la réponse ne doit pas être partagée
+    private static String cacheKey(String routeId, ServerWebExchange exchange,
+                                   GatewayRoutesProperties.CacheScope scope) {
+        ServerHttpRequest request = exchange.getRequest();
+        AuthenticatedUser user = exchange.getAttribute(AuthenticatedUser.ATTRIBUTE);
+        String owner = user == null ? null
+                : scope == GatewayRoutesProperties.CacheScope.ROLES ? user.getRolesHeader() : user.getUserIdHeader();
+        if (user != null && owner == null) {
+            return null;
+        }
+        String query = request.getURI().getRawQuery();
+        return routeId + '|' + request.getPath().value()
+                + '?' + (query != null ? query : "")
+                + '|' + scope + ':' + (owner != null ? owner : "anonymous");
+    }
+
+    // =====================================================
+    // Stockage LRU borné en octets
+    // =====================================================
+
+    private CachedResponse get(String key) {
+        synchronized (entries) {
+            CachedResponse cached = entries.get(key);
+            if (cached != null && cached.expiresAt() <= System.currentTimeMillis()) {
+                // Expirée : conservée tant qu'elle peut servir de réponse périmée
+                if (cached.staleUntil() <= System.currentTimeMillis()) {
+                    entries.remove(key);
+                    currentSize -= cached.body().length;
+                }
+                return null;
+            }
+            return cached;
+        }
+    }
+
+    private CachedResponse getStale(String key) {
+        synchronized (entries) {
+            CachedResponse cached = entries.get(key);
+            if (cached != null && cached.staleUntil() <= System.currentTimeMillis()) {
+                entries.remove(key);
+                currentSize -= cached.body().length;
+                return null;
+            }
+            return cached;
+        }
+    }
+
+    private void put(String key, CachedResponse response) {
+        if (response.body().length > maxSize) {
+            return;
+        }
+        synchronized (entries) {
+            CachedResponse previous = entries.put(key, response);
+            currentSize += response.body().length - (previous != null ? previous.body().length : 0);
+
+            Iterator<CachedResponse> eldest = entries.values().iterator();
+            while (currentSize > maxSize && eldest.hasNext()) {
+                currentSize -= eldest.next().body().length;
+                eldest.remove();
+            }
+        }
+    }
+
+    private void invalidateAfterWrite(String routeId, ServerWebExchange exchange) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (status == null || !status.is2xxSuccessful()) {
+            return;
+        }
+        String prefix = routeId + '|';
+        synchronized (entries) {
+            Iterator<Map.Entry<String, CachedResponse>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, CachedResponse> entry = iterator.next();
+                if (entry.getKey().startsWith(prefix)) {
+                    currentSize -= entry.getValue().body().length;
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private long sizeInBytes() {
+        synchronized (entries) {
+            return currentSize;
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gateway.response.cache")
+                .description("Résultats de recherche dans le cache de réponses")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Réponse en cache, immuable (fraîche jusqu'à expiresAt, périmée jusqu'à staleUntil)
+     */
+    private record CachedResponse(HttpHeaders headers, byte[] body, String etag,
+                                  long storedAt, long expiresAt, long staleUntil) {
+    }
+
+    /**
+     * Laisse passer le corps vers le client tout en copiant, dans la limite de
+     * taille, les octets à mettre en cache
+     */
+    private static final class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final int maxEntrySize;
+        private ByteArrayOutputStream captured = new ByteArrayOutputStream();
+
+        private CapturingResponse(ServerHttpResponse delegate, int maxEntrySize) {
+            super(delegate);
+            this.maxEntrySize = maxEntrySize;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(Flux.from(body).doOnNext(this::capture));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            // Réponse en flux continu : jamais mise en cache
+            captured = null;
+            return super.writeAndFlushWith(body);
+        }
+
+        private void capture(DataBuffer buffer) {
+            if (captured == null) {
+                return;
+            }
+            int length = buffer.readableByteCount();
+            if (captured.size() + length > maxEntrySize) {
+                captured = null;
+                return;
+            }
+            ByteBuffer copy = ByteBuffer.allocate(length);
+            buffer.toByteBuffer(buffer.readPosition(), copy, 0, length);
+            captured.write(copy.array(), 0, length);
+        }
+
+        CachedResponse toCachedResponse(long ttlMillis, long staleMillis) {
+            HttpHeaders headers = getHeaders();
+            if (captured == null || !HttpStatus.OK.equals(getStatusCode())
+                    || headers.containsKey(HttpHeaders.SET_COOKIE)
+                    || (headers.getCacheControl() != null && headers.getCacheControl().contains("no-store"))) {
+                return null;
+            }
+
+            byte[] body = captured.toByteArray();
+            HttpHeaders cachedHeaders = new HttpHeaders();
+            headers.forEach((name, values) -> {
+                if (!EXCLUDED_HEADERS.contains(name.toLowerCase())) {
+                    cachedHeaders.put(name, List.copyOf(values));
+                }
+            });
+            String etag = headers.getETag() != null ? headers.getETag() : etag(body);
+            long now = System.currentTimeMillis();
+            return new CachedResponse(HttpHeaders.readOnlyHttpHeaders(cachedHeaders), body, etag,
+                    now, now + ttlMillis, now + ttlMillis + staleMillis);
+        }
+
+        private static String etag(byte[] body) {
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+                return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22) + '"';
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 indisponible", e);
+            }
+        }
+    }
+}
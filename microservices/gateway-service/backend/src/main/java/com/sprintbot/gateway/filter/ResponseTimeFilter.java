@@ -0,0 +1,37 @@
+package com.sprintbot.gateway.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Header X-Response-Time : durée de traitement par le Gateway, en millisecondes,
+ * jusqu'à l'envoi des headers de la réponse
+ *
+ * @author SprintBot Team
+ * @version 1.0.0
+ */
+@Component
+public class ResponseTimeFilter implements GlobalFilter, Ordered {
+
+    public static final String RESPONSE_TIME_HEADER = "X-Response-Time";
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        exchange.getResponse().beforeCommit(() -> {
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            exchange.getResponse().getHeaders().set(RESPONSE_TIME_HEADER, millis + "ms");
+            return Mono.empty();
+        });
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
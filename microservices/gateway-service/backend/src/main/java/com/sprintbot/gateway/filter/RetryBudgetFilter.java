@@ -0,0 +1,318 @@
+package com.sprintbot.gateway.filter;
+
+import com.sprintbot.gateway.config.GatewayRoutesProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.springframework.cloud.gateway.filter.factory.RetryGatewayFilterFactory.RETRY_ITERATION_KEY;
+
+/**
+ * Budget de nouvelles tentatives et relance anticipée (hedging) par route
+ *
+ * Ce filtre se place juste après le filtre retry de la route : il est donc
+ * exécuté à chaque tentative et décide si la suivante est autorisée.
+ *
+ * Fonctionnalités :
+ * - Budget : les nouvelles tentatives sont limitées à une part du trafic de la
+ *   route sur une fenêtre glissante ; au-delà, le filtre retry s'arrête et la
+ *   réponse d'origine est renvoyée (pas de surcharge d'un service en difficulté)
+ * - Hedging (GET uniquement) : une première tentative plus lente que le p95
+ *   de la route est relancée, via le load balancer, sur une autre instance ;
+ *   le jeton du budget n'est pris qu'au déclenchement du délai (sinon la
+ *   tentative continue normalement)
+ * - Métriques : gateway.route.attempts (route, attempt=first|retry) avec
+ *   histogramme, gateway.retry.budget (route, result=granted|denied)
+ *   et gateway.route.hedged (route)
+ *
+ * Le filtre retry ne relance que les GET en erreur d'E/S, en timeout ou en 5xx ;
+ * seuls ces cas consomment le budget.
+ *
+ * @author SprintBot Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class RetryBudgetFilter {
+
+    // Rafraîchissement du p95 utilisé comme délai de relance
+    private static final long HEDGE_DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+    // Tentative terminée : un délai de relance qui expire ensuite rend son jeton
+    private static final long HEDGE_CLOSED = -2;
+
+    private final GatewayRoutesProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteState> states = new ConcurrentHashMap<>();
+
+    public RetryBudgetFilter(GatewayRoutesProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Nombre maximal de nouvelles tentatives configuré pour la route
+     *
+     * @param routeId Identifiant de la route
+     * @return Nombre de nouvelles tentatives
+     */
+    public int retries(String routeId) {
+        return properties.forRoute(routeId).getRetry().getRetries();
+    }
+
+    /**
+     * Filtre de budget d'une route, à déclarer juste après son filtre retry
+     *
+     * @param routeId Identifiant de la route
+     * @return Filtre Gateway
+     */
+    public GatewayFilter forRoute(String routeId) {
+        RouteState state = states.computeIfAbsent(routeId, this::createState);
+        return (exchange, chain) -> {
+            Integer iteration = exchange.getAttribute(RETRY_ITERATION_KEY);
+            boolean firstAttempt = iteration == null;
+            boolean retryableMethod = HttpMethod.GET.equals(exchange.getRequest().getMethod());
+            boolean retryPossible = retryableMethod && (firstAttempt ? 0 : iteration + 1) < state.retries;
+
+            if (firstAttempt) {
+                state.budget.recordRequest();
+            }
+
+            // Relance anticipée : le jeton du budget n'est pris qu'à l'expiration du délai ;
+            // budget épuisé, le délai n'émet jamais et la tentative se poursuit
+            Duration hedgeDelay = firstAttempt && retryPossible && state.hedging ? state.hedgeDelay() : null;
+            AtomicLong hedgeTicket = new AtomicLong(RetryBudget.DENIED);
+
+            long start = System.nanoTime();
+            Mono<Void> attempt = chain.filter(exchange);
+            if (hedgeDelay != null) {
+                Mono<Long> hedgeTimeout = Mono.delay(hedgeDelay).flatMap(tick -> {
+                    long ticket = state.acquireRetry();
+                    if (ticket == RetryBudget.DENIED) {
+                        return Mono.never();
+                    }
+                    if (!hedgeTicket.compareAndSet(RetryBudget.DENIED, ticket)) {
+                        // Tentative déjà terminée : le jeton n'a pas servi
+                        state.budget.refundRetry(ticket);
+                        return Mono.never();
+                    }
+                    state.hedgedRequests.increment();
+                    log.debug("⏱️ Relance anticipée sur la route {} après {} ms",
+                            state.routeId, hedgeDelay.toMillis());
+                    return Mono.just(tick);
+                });
+                attempt = attempt.timeout(hedgeTimeout);
+            }
+
+            return attempt
+                    .doOnSuccess(aVoid -> afterAttempt(state, exchange, start, firstAttempt,
+                            retryPossible, hedgeTicket.getAndSet(HEDGE_CLOSED), isRetryableStatus(exchange)))
+                    .doOnError(error -> afterAttempt(state, exchange, start, firstAttempt,
+                            retryPossible, hedgeTicket.getAndSet(HEDGE_CLOSED), isRetryableError(error)));
+        };
+    }
+
+    private void afterAttempt(RouteState state, ServerWebExchange exchange, long start,
+                              boolean firstAttempt, boolean retryPossible, long hedgeTicket,
+                              boolean retryable) {
+        (firstAttempt ? state.firstAttempts : state.retryAttempts)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (hedgeTicket >= 0) {
+            // Jeton pris par le délai de relance : rendu si la réponse est arrivée entre-temps
+            if (!retryable) {
+                state.budget.refundRetry(hedgeTicket);
+            }
+            return;
+        }
+
+        if (retryable && retryPossible && state.acquireRetry() == RetryBudget.DENIED) {
+            // Le filtre retry incrémente l'itération après ce filtre : la limite est atteinte
+            exchange.getAttributes().put(RETRY_ITERATION_KEY, Integer.MAX_VALUE - 1);
+        }
+    }
+
+    private static boolean isRetryableStatus(ServerWebExchange exchange) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status != null && status.is5xxServerError();
+    }
+
+    private static boolean isRetryableError(Throwable error) {
+        return error instanceof IOException || error instanceof TimeoutException;
+    }
+
+    private RouteState createState(String routeId) {
+        GatewayRoutesProperties.RouteSettings settings = properties.forRoute(routeId);
+        return new RouteState(routeId, settings, meterRegistry);
+    }
+
+    /**
+     * Budget, métriques et délai de relance d'une route
+     */
+    private static final class RouteState {
+
+        private final String routeId;
+        private final int retries;
+        private final boolean hedging;
+        private final long hedgeMinDelayNanos;
+        private final RetryBudget budget;
+        private final Timer firstAttempts;
+        private final Timer retryAttempts;
+        private final Counter retriesGranted;
+        private final Counter retriesDenied;
+        private final Counter hedgedRequests;
+
+        private volatile Duration hedgeDelay;
+        private volatile long hedgeDelayRefreshedAt = System.nanoTime() - HEDGE_DELAY_REFRESH_NANOS;
+
+        private RouteState(String routeId, GatewayRoutesProperties.RouteSettings settings,
+                           MeterRegistry meterRegistry) {
+            this.routeId = routeId;
+            this.retries = settings.getRetry().getRetries();
+            this.hedging = settings.getHedging().isEnabled();
+            this.hedgeMinDelayNanos = settings.getHedging().getMinDelay().toNanos();
+            this.budget = new RetryBudget(settings.getRetry());
+            this.firstAttempts = attemptTimer(meterRegistry, routeId, "first");
+            this.retryAttempts = attemptTimer(meterRegistry, routeId, "retry");
+            this.retriesGranted = budgetCounter(meterRegistry, routeId, "granted");
+            this.retriesDenied = budgetCounter(meterRegistry, routeId, "denied");
+            this.hedgedRequests = Counter.builder("gateway.route.hedged")
+                    .description("Premières tentatives relancées après le délai p95")
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+        }
+
+        long acquireRetry() {
+            long ticket = budget.tryAcquireRetry();
+            (ticket != RetryBudget.DENIED ? retriesGranted : retriesDenied).increment();
+            return ticket;
+        }
+
+        // p95 des premières tentatives, recalculé au plus une fois par seconde
+        Duration hedgeDelay() {
+            long now = System.nanoTime();
+            if (now - hedgeDelayRefreshedAt >= HEDGE_DELAY_REFRESH_NANOS) {
+                hedgeDelayRefreshedAt = now;
+                hedgeDelay = null;
+                for (ValueAtPercentile value : firstAttempts.takeSnapshot().percentileValues()) {
+                    if (value.percentile() == 0.95 && value.value() > 0) {
+                        hedgeDelay = Duration.ofNanos(Math.max(hedgeMinDelayNanos,
+                                (long) value.value(TimeUnit.NANOSECONDS)));
+                    }
+                }
+            }
+            return hedgeDelay;
+        }
+
+        private static Timer attemptTimer(MeterRegistry meterRegistry, String routeId, String attempt) {
+            return Timer.builder("gateway.route.attempts")
+                    .description("Durée des tentatives vers le service en aval")
+                    .tag("route", routeId)
+                    .tag("attempt", attempt)
+                    .publishPercentiles(0.95)
+                    .publishPercentileHistogram()
+                    .distributionStatisticExpiry(Duration.ofMinutes(1))
+                    .register(meterRegistry);
+        }
+
+        private static Counter budgetCounter(MeterRegistry meterRegistry, String routeId, String result) {
+            return Counter.builder("gateway.retry.budget")
+                    .description("Décisions du budget de nouvelles tentatives")
+                    .tag("route", routeId)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Fenêtre glissante de compteurs par seconde : requêtes et nouvelles tentatives
+     */
+    static final class RetryBudget {
+
+        // Jeton refusé ; sinon le jeton est la seconde dont l'emplacement a été débité
+        static final long DENIED = -1;
+
+        private final int slots;
+        private final double ratio;
+        private final long minRetries;
+        private final AtomicLongArray requests;
+        private final AtomicLongArray retries;
+        private final AtomicLongArray slotSeconds;
+        private final long origin = System.nanoTime();
+
+        RetryBudget(GatewayRoutesProperties.Retry settings) {
+            this.slots = (int) Math.max(1, settings.getBudgetWindow().toSeconds());
+            this.ratio = settings.getBudgetRatio();
+            this.minRetries = (long) settings.getMinRetriesPerSecond() * slots;
+            this.requests = new AtomicLongArray(slots);
+            this.retries = new AtomicLongArray(slots);
+            this.slotSeconds = new AtomicLongArray(slots);
+        }
+
+        void recordRequest() {
+            requests.incrementAndGet(slot(currentSecond()));
+        }
+
+        long tryAcquireRetry() {
+            long second = currentSecond();
+            int current = slot(second);
+            long totalRequests = 0;
+            long totalRetries = 0;
+            for (int i = 0; i < slots; i++) {
+                if (second - slotSeconds.get(i) < slots) {
+                    totalRequests += requests.get(i);
+                    totalRetries += retries.get(i);
+                }
+            }
+            if (totalRetries >= Math.max(minRetries, (long) (totalRequests * ratio))) {
+                return DENIED;
+            }
+            retries.incrementAndGet(current);
+            return second;
+        }
+
+        // Rend le jeton à l'emplacement débité, s'il n'a pas été réutilisé depuis
+        void refundRetry(long ticket) {
+            int index = (int) (ticket % slots);
+            if (slotSeconds.get(index) != ticket) {
+                return; // Seconde sortie de la fenêtre : le jeton a déjà expiré
+            }
+            long count;
+            do {
+                count = retries.get(index);
+            } while (count > 0 && !retries.compareAndSet(index, count, count - 1));
+        }
+
+        // Réinitialise un emplacement lorsqu'il est réutilisé pour une nouvelle seconde
+        private int slot(long second) {
+            int index = (int) (second % slots);
+            long previous = slotSeconds.get(index);
+            if (previous != second && slotSeconds.compareAndSet(index, previous, second)) {
+                requests.set(index, 0);
+                retries.set(index, 0);
+            }
+            return index;
+        }
+
+        // Décalé de la taille de la fenêtre : les emplacements initiaux (0) sont périmés
+        private long currentSecond() {
+            return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - origin) + slots;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.sprintbot.gateway.filter;
+
+import com.sprintbot.gateway.service.GatewayMetrics;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Mesure de l'appel en aval : connexion et attente des headers de réponse
+ *
+ * Ordonné juste avant le routage Netty (après le load balancer) : la chaîne se
+ * termine dès que les headers de la réponse du microservice sont reçus, ce qui
+ * donne le temps jusqu'au premier octet, connexion comprise. Chaque nouvelle
+ * tentative est mesurée séparément.
+ *
+ * @author SprintBot Team
+ * @version 1.0.0
+ */
+@Component
+public class UpstreamTimingFilter implements GlobalFilter, Ordered {
+
+    private final GatewayMetrics metrics;
+
+    public UpstreamTimingFilter(GatewayMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : null;
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> metrics.record(GatewayMetrics.STAGE_UPSTREAM, routeId,
+                        System.nanoTime() - start));
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyRoutingFilter.ORDER - 1;
+    }
+}
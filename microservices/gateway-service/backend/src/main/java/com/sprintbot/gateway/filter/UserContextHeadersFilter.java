@@ -0,0 +1,60 @@
+package com.sprintbot.gateway.filter;
+
+import com.sprintbot.gateway.service.AuthenticatedUser;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.List;
+
+/**
+ * Propagation des headers utilisateur vers les microservices
+ *
+ * Les headers sont ajoutés au moment où le Gateway construit la requête
+ * sortante, dans l'ensemble de headers déjà copié par les filtres précédents :
+ * la requête entrante n'est plus mutée (ni copie des headers, ni nouvel
+ * échange) et les valeurs sont celles précalculées pour le token.
+ *
+ * Les headers X-User-* envoyés par le client sont toujours supprimés, y compris
+ * sur les routes publiques.
+ *
+ * @author SprintBot Team
+ * @version 1.0.0
+ */
+@Component
+public class UserContextHeadersFilter implements HttpHeadersFilter, Ordered {
+
+    public static final String GATEWAY_SERVICE_HEADER = "X-Gateway-Service";
+
+    private static final List<String> GATEWAY_SERVICE_VALUE = List.of("SprintBot-Gateway");
+
+    @Override
+    public HttpHeaders filter(HttpHeaders input, ServerWebExchange exchange) {
+        // Les headers de la requête entrante sont en lecture seule : copie uniquement dans ce cas
+        HttpHeaders headers = input;
+        if (input == exchange.getRequest().getHeaders()) {
+            headers = new HttpHeaders();
+            headers.putAll(input);
+        }
+
+        headers.remove(AuthenticatedUser.USER_ID_HEADER);
+        headers.remove(AuthenticatedUser.USERNAME_HEADER);
+        headers.remove(AuthenticatedUser.EMAIL_HEADER);
+        headers.remove(AuthenticatedUser.ROLES_HEADER);
+        headers.put(GATEWAY_SERVICE_HEADER, GATEWAY_SERVICE_VALUE);
+
+        AuthenticatedUser user = exchange.getAttribute(AuthenticatedUser.ATTRIBUTE);
+        if (user != null) {
+            user.writeHeaders(headers);
+        }
+        return headers;
+    }
+
+    // Après les filtres de headers du Gateway, qui produisent déjà une copie modifiable
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,97 @@
+package com.sprintbot.gateway.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Contexte utilisateur d'un token vérifié, construit une seule fois par token
+ *
+ * Contient tout ce dont une requête authentifiée a besoin sans nouvelle
+ * allocation : l'objet Authentication, le contexte de sécurité et les valeurs
+ * déjà sérialisées des headers X-User-* propagés aux microservices.
+ *
+ * Il est conservé dans le cache des tokens et publié dans les attributs de
+ * l'échange ({@link #ATTRIBUTE}).
+ *
+ * @author SprintBot Team
+ * @version 1.0.0
+ */
+public final class AuthenticatedUser {
+
+    public static final String ATTRIBUTE = AuthenticatedUser.class.getName();
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USERNAME_HEADER = "X-User-Username";
+    public static final String EMAIL_HEADER = "X-User-Email";
+    public static final String ROLES_HEADER = "X-User-Roles";
+
+    private final JwtService.UserInfo userInfo;
+    private final UsernamePasswordAuthenticationToken authentication;
+    private final Mono<SecurityContext> securityContext;
+    private final List<String> userIdHeader;
+    private final List<String> usernameHeader;
+    private final List<String> emailHeader;
+    private final List<String> rolesHeader;
+
+    public AuthenticatedUser(JwtService.UserInfo userInfo, List<GrantedAuthority> authorities) {
+        this.userInfo = userInfo;
+        this.authentication = new UsernamePasswordAuthenticationToken(
+                userInfo.getUsername(),
+                null, // Pas de credentials nécessaires
+                authorities);
+        this.authentication.setDetails(userInfo);
+        this.securityContext = Mono.just(new SecurityContextImpl(authentication));
+        this.userIdHeader = headerValue(userInfo.getUserId() != null ? userInfo.getUserId().toString() : null);
+        this.usernameHeader = headerValue(userInfo.getUsername());
+        this.emailHeader = headerValue(userInfo.getEmail());
+        this.rolesHeader = headerValue(String.join(",", userInfo.getRoles()));
+    }
+
+    public JwtService.UserInfo getUserInfo() {
+        return userInfo;
+    }
+
+    public UsernamePasswordAuthenticationToken getAuthentication() {
+        return authentication;
+    }
+
+    public Mono<SecurityContext> getSecurityContext() {
+        return securityContext;
+    }
+
+    public String getUserIdHeader() {
+        return userIdHeader.isEmpty() ? null : userIdHeader.get(0);
+    }
+
+    public String getRolesHeader() {
+        return rolesHeader.get(0);
+    }
+
+    /**
+     * Écrit les headers X-User-* (valeurs immuables partagées entre requêtes)
+     *
+     * @param headers Headers de la requête envoyée au microservice
+     */
+    public void writeHeaders(HttpHeaders headers) {
+        putIfPresent(headers, USER_ID_HEADER, userIdHeader);
+        putIfPresent(headers, USERNAME_HEADER, usernameHeader);
+        putIfPresent(headers, EMAIL_HEADER, emailHeader);
+        putIfPresent(headers, ROLES_HEADER, rolesHeader);
+    }
+
+    private static void putIfPresent(HttpHeaders headers, String name, List<String> value) {
+        if (!value.isEmpty()) {
+            headers.put(name, value);
+        }
+    }
+
+    private static List<String> headerValue(String value) {
+        return value != null ? List.of(value) : List.of();
+    }
+}
@@ -0,0 +1,94 @@
+package com.sprintbot.gateway.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers par étape de traitement et par route du Gateway
+ *
+ * Métrique : gateway.stage (tags stage, route). Les percentiles et histogrammes
+ * se configurent côté Spring Boot (management.metrics.distribution.*.gateway.stage),
+ * comme pour http.server.requests.
+ *
+ * Étapes mesurées :
+ * - jwt_verify / jwt_cache_hit : authentification du token (AuthenticationFilter)
+ * - rate_limit : décision du rate limiter
+ * - resilience : circuit breaker, nouvelles tentatives et appel en aval
+ * - upstream : connexion et attente du premier octet de la réponse en aval
+ *
+ * Les tentatives individuelles sont mesurées par gateway.route.attempts
+ * (RetryBudgetFilter), les temps de connexion par adresse par les métriques
+ * Reactor Netty (reactor.netty.http.client.*).
+ *
+ * @author SprintBot Team
+ * @version 1.0.0
+ */
+@Component
+public class GatewayMetrics {
+
+    public static final String STAGE_JWT_VERIFY = "jwt_verify";
+    public static final String STAGE_JWT_CACHE_HIT = "jwt_cache_hit";
+    public static final String STAGE_RATE_LIMIT = "rate_limit";
+    public static final String STAGE_RESILIENCE = "resilience";
+    public static final String STAGE_UPSTREAM = "upstream";
+
+    // Route non résolue (requêtes hors routes du Gateway)
+    public static final String NO_ROUTE = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Map<String, Timer>> timers = new ConcurrentHashMap<>();
+
+    public GatewayMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Enregistre la durée d'une étape
+     *
+     * @param stage Étape
+     * @param route Route ou service cible (null : {@link #NO_ROUTE})
+     * @param nanos Durée en nanosecondes
+     */
+    public void record(String stage, String route, long nanos) {
+        timer(stage, route != null ? route : NO_ROUTE).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Filtre de route mesurant la suite de la chaîne comme une étape
+     *
+     * @param stage Étape
+     * @param routeId Identifiant de la route
+     * @return Filtre Gateway
+     */
+    public GatewayFilter stage(String stage, String routeId) {
+        Timer timer = timer(stage, routeId);
+        return (exchange, chain) -> {
+            long start = System.nanoTime();
+            return chain.filter(exchange)
+                    .doFinally(signal -> timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        };
+    }
+
+    private Timer timer(String stage, String route) {
+        // Lecture sans allocation (ni clé composite ni lambda) dans le cas courant
+        Map<String, Timer> byRoute = timers.get(stage);
+        if (byRoute == null) {
+            byRoute = timers.computeIfAbsent(stage, s -> new ConcurrentHashMap<>());
+        }
+        Timer timer = byRoute.get(route);
+        if (timer == null) {
+            timer = byRoute.computeIfAbsent(route, r -> Timer.builder("gateway.stage")
+                    .description("Durée des étapes de traitement du Gateway")
+                    .tag("stage", stage)
+                    .tag("route", r)
+                    .register(meterRegistry));
+        }
+        return timer;
+    }
+}
@@ -1,8 +1,10 @@
 package com.sprintbot.gateway.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
@@ -25,6 +27,8 @@ import java.util.function.Function;
  * - Extraction des claims (utilisateur, rôles, etc.)
  * - Vérification de l'intégrité des tokens
  * - Support des tokens d'accès et de rafraîchissement
+ * - Analyse unique : {@link #parseVerifiedClaims(String)} vérifie le token une
+ *   seule fois et renvoie des claims immuables, lus par tous les helpers
  * 
  * @author SprintBot Team
  * @version 1.0.0
@@ -42,6 +46,30 @@ public class JwtService {
     @Value("${jwt.refresh-token.expiration:604800000}")
     private Long refreshExpiration;
 
+    // Clé et parser construits une seule fois (le parser est thread-safe)
+    private SecretKey signInKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        signInKey = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parser()
+                .verifyWith(signInKey)
+                .build();
+    }
+
+    /**
+     * Vérifie la signature et l'expiration du token puis extrait tous ses claims
+     * en une seule analyse
+     * 
+     * @param token Token JWT
+     * @return Claims vérifiés et immuables
+     * @throws RuntimeException si le token est invalide ou expiré
+     */
+    public VerifiedClaims parseVerifiedClaims(String token) {
+        return VerifiedClaims.from(extractAllClaims(token));
+    }
+
     /**
      * Extrait le nom d'utilisateur du token JWT
      * 
@@ -49,7 +77,7 @@ public class JwtService {
      * @return Nom d'utilisateur
      */
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return parseVerifiedClaims(token).username();
     }
 
     /**
@@ -58,10 +86,8 @@ public class JwtService {
      * @param token Token JWT
      * @return Liste des rôles
      */
-    @SuppressWarnings("unchecked")
     public List<String> extractRoles(String token) {
-        Claims claims = extractAllClaims(token);
-        return claims.get("roles", List.class);
+        return parseVerifiedClaims(token).roles();
     }
 
     /**
@@ -71,8 +97,7 @@ public class JwtService {
      * @return ID utilisateur
      */
     public Long extractUserId(String token) {
-        Claims claims = extractAllClaims(token);
-        return claims.get("userId", Long.class);
+        return parseVerifiedClaims(token).userId();
     }
 
     /**
@@ -82,8 +107,7 @@ public class JwtService {
      * @return Email utilisateur
      */
     public String extractEmail(String token) {
-        Claims claims = extractAllClaims(token);
-        return claims.get("email", String.class);
+        return parseVerifiedClaims(token).email();
     }
 
     /**
@@ -93,8 +117,7 @@ public class JwtService {
      * @return Type de token
      */
     public String extractTokenType(String token) {
-        Claims claims = extractAllClaims(token);
-        return claims.get("tokenType", String.class);
+        return parseVerifiedClaims(token).tokenType();
     }
 
     /**
@@ -104,7 +127,7 @@ public class JwtService {
      * @return Date d'expiration
      */
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return parseVerifiedClaims(token).expiration();
     }
 
     /**
@@ -128,11 +151,7 @@ public class JwtService {
      */
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSignInKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            return jwtParser.parseSignedClaims(token).getPayload();
         } catch (Exception e) {
             log.error("❌ Erreur lors de l'extraction des claims du token : {}", e.getMessage());
             throw new RuntimeException("Token JWT invalide", e);
@@ -164,10 +183,10 @@ public class JwtService {
      */
     public Boolean validateToken(String token, String username) {
         try {
-            final String extractedUsername = extractUsername(token);
-            boolean isUsernameValid = extractedUsername.equals(username);
-            boolean isTokenNotExpired = !isTokenExpired(token);
-            boolean isAccessToken = "access".equals(extractTokenType(token));
+            VerifiedClaims claims = parseVerifiedClaims(token);
+            boolean isUsernameValid = claims.username().equals(username);
+            boolean isTokenNotExpired = !claims.isExpired();
+            boolean isAccessToken = claims.isAccessToken();
             
             boolean isValid = isUsernameValid && isTokenNotExpired && isAccessToken;
             
@@ -176,7 +195,7 @@ public class JwtService {
             } else {
                 log.warn("❌ Token JWT invalide pour l'utilisateur : {} " +
                         "(username: {}, expired: {}, type: {})", 
-                        username, isUsernameValid, !isTokenNotExpired, extractTokenType(token));
+                        username, isUsernameValid, !isTokenNotExpired, claims.tokenType());
             }
             
             return isValid;
@@ -195,14 +214,28 @@ public class JwtService {
      */
     public Boolean validateToken(String token) {
         try {
-            String username = extractUsername(token);
-            return validateToken(token, username);
+            return isValidAccessToken(parseVerifiedClaims(token));
         } catch (Exception e) {
             log.error("❌ Erreur lors de la validation du token : {}", e.getMessage());
             return false;
         }
     }
 
+    /**
+     * Valide des claims déjà vérifiés comme token d'accès
+     * 
+     * @param claims Claims vérifiés
+     * @return true si le token est un token d'accès non expiré
+     */
+    public boolean isValidAccessToken(VerifiedClaims claims) {
+        boolean isValid = !claims.isExpired() && claims.isAccessToken() && claims.username() != null;
+        if (!isValid) {
+            log.warn("❌ Token JWT invalide pour l'utilisateur : {} (expired: {}, type: {})",
+                    claims.username(), claims.isExpired(), claims.tokenType());
+        }
+        return isValid;
+    }
+
     /**
      * Vérifie si un token est un token de rafraîchissement valide
      * 
@@ -211,8 +244,9 @@ public class JwtService {
      */
     public Boolean isValidRefreshToken(String token) {
         try {
-            boolean isNotExpired = !isTokenExpired(token);
-            boolean isRefreshToken = "refresh".equals(extractTokenType(token));
+            VerifiedClaims claims = parseVerifiedClaims(token);
+            boolean isNotExpired = !claims.isExpired();
+            boolean isRefreshToken = "refresh".equals(claims.tokenType());
             
             boolean isValid = isNotExpired && isRefreshToken;
             
@@ -220,7 +254,7 @@ public class JwtService {
                 log.debug("✅ Token de rafraîchissement valide");
             } else {
                 log.warn("❌ Token de rafraîchissement invalide (expired: {}, type: {})", 
-                        !isNotExpired, extractTokenType(token));
+                        !isNotExpired, claims.tokenType());
             }
             
             return isValid;
@@ -253,8 +287,8 @@ public class JwtService {
      */
     public Boolean hasRole(String token, String role) {
         try {
-            List<String> roles = extractRoles(token);
-            boolean hasRole = roles != null && roles.contains(role);
+            List<String> roles = parseVerifiedClaims(token).roles();
+            boolean hasRole = roles.contains(role);
             
             log.debug("🔍 Vérification du rôle '{}' pour l'utilisateur : {}", 
                     role, hasRole ? "✅ Autorisé" : "❌ Non autorisé");
@@ -275,10 +309,7 @@ public class JwtService {
      */
     public Boolean hasAnyRole(String token, String... roles) {
         try {
-            List<String> userRoles = extractRoles(token);
-            if (userRoles == null) {
-                return false;
-            }
+            List<String> userRoles = parseVerifiedClaims(token).roles();
             
             for (String role : roles) {
                 if (userRoles.contains(role)) {
@@ -296,16 +327,6 @@ public class JwtService {
         }
     }
 
-    /**
-     * Génère la clé de signature pour les tokens JWT
-     * 
-     * @return Clé de signature
-     */
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = secretKey.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
     /**
      * Obtient les informations de l'utilisateur à partir du token
      * 
@@ -314,12 +335,7 @@ public class JwtService {
      */
     public UserInfo getUserInfo(String token) {
         try {
-            return UserInfo.builder()
-                    .userId(extractUserId(token))
-                    .username(extractUsername(token))
-                    .email(extractEmail(token))
-                    .roles(extractRoles(token))
-                    .build();
+            return parseVerifiedClaims(token).toUserInfo();
         } catch (Exception e) {
             log.error("❌ Erreur lors de l'extraction des informations utilisateur : {}", 
                     e.getMessage());
@@ -327,6 +343,47 @@ public class JwtService {
         }
     }
 
+    /**
+     * Claims d'un token vérifié, extraits une seule fois
+     */
+    public record VerifiedClaims(
+            String username,
+            Long userId,
+            String email,
+            List<String> roles,
+            String tokenType,
+            Date expiration) {
+
+        @SuppressWarnings("unchecked")
+        static VerifiedClaims from(Claims claims) {
+            List<String> roles = claims.get("roles", List.class);
+            return new VerifiedClaims(
+                    claims.getSubject(),
+                    claims.get("userId", Long.class),
+                    claims.get("email", String.class),
+                    roles != null ? List.copyOf(roles) : List.of(),
+                    claims.get("tokenType", String.class),
+                    claims.getExpiration());
+        }
+
+        public boolean isExpired() {
+            return expiration == null || expiration.getTime() <= System.currentTimeMillis();
+        }
+
+        public boolean isAccessToken() {
+            return "access".equals(tokenType);
+        }
+
+        public UserInfo toUserInfo() {
+            return UserInfo.builder()
+                    .userId(userId)
+                    .username(username)
+                    .email(email)
+                    .roles(roles)
+                    .build();
+        }
+    }
+
     /**
      * Classe pour encapsuler les informations utilisateur
      */
@@ -0,0 +1,154 @@
+package com.sprintbot.gateway.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache des tokens JWT déjà vérifiés
+ *
+ * Un token n'est analysé et sa signature vérifiée qu'une seule fois :
+ * le contexte utilisateur (authentification, headers sérialisés) est ensuite servi depuis ce cache
+ * jusqu'à l'expiration du token.
+ *
+ * Caractéristiques :
+ * - Clé : empreinte SHA-256 du token (le token brut n'est pas conservé)
+ * - Expiration alignée sur le claim "exp" du token
+ * - Taille bornée : au-delà de la limite, l'entrée qui expire le plus tôt est
+ *   évincée (index trié par expiration) : un token qui vient d'être émis, et
+ *   expire donc le plus tard, est toujours admis
+ * - Purge amortie : chaque ajout retire les entrées expirées en tête de l'index,
+ *   chacune une seule fois, sans parcourir le cache
+ * - Métriques : gateway.jwt.cache (result=hit|miss) et gateway.jwt.cache.size
+ *
+ * @author SprintBot Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class JwtTokenCache {
+
+    // Ordre d'éviction : expiration la plus proche d'abord, puis ordre d'ajout
+    private static final Comparator<Entry> EXPIRATION_ORDER =
+            Comparator.comparingLong(Entry::expiresAt).thenComparingLong(Entry::sequence);
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Entry> byExpiration = new ConcurrentSkipListSet<>(EXPIRATION_ORDER);
+    private final AtomicLong sequence = new AtomicLong();
+    private final int maxEntries;
+    private final Counter hits;
+    private final Counter misses;
+
+    public JwtTokenCache(MeterRegistry meterRegistry,
+                         @Value("${jwt.cache.max-entries:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.hits = Counter.builder("gateway.jwt.cache")
+                .description("Résultats de recherche dans le cache des tokens vérifiés")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("gateway.jwt.cache")
+                .description("Résultats de recherche dans le cache des tokens vérifiés")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("gateway.jwt.cache.size", entries, Map::size)
+                .description("Nombre de tokens vérifiés en cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Recherche le contexte utilisateur d'un token déjà vérifié
+     *
+     * @param token Token JWT
+     * @return Contexte utilisateur, ou null si absent ou expiré
+     */
+    public AuthenticatedUser get(String token) {
+        String key = hash(token);
+        Entry entry = entries.get(key);
+
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            remove(entry);
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return entry.user();
+    }
+
+    /**
+     * Met en cache un token vérifié jusqu'à son expiration
+     *
+     * @param token Token JWT vérifié
+     * @param user Contexte utilisateur construit pour ce token
+     * @param expiresAt Expiration du token (epoch millis)
+     */
+    public void put(String token, AuthenticatedUser user, long expiresAt) {
+        long now = System.currentTimeMillis();
+        if (maxEntries <= 0 || expiresAt <= now) {
+            return;
+        }
+
+        Entry entry = new Entry(hash(token), user, expiresAt, sequence.incrementAndGet());
+        Entry previous = entries.put(entry.key(), entry);
+        // Publiée avant d'être indexée : une entrée du cache est toujours indexée, une entrée
+        // de l'index absente du cache (course entre deux ajouts) est simplement ignorée à l'éviction
+        byExpiration.add(entry);
+        if (previous != null) {
+            byExpiration.remove(previous);
+        }
+        evict(now);
+    }
+
+    // Retire les entrées expirées puis, si la limite est dépassée, celles qui expirent le plus tôt
+    private void evict(long now) {
+        Entry soonest;
+        while ((soonest = byExpiration.pollFirst()) != null) {
+            if (soonest.expiresAt() > now && entries.size() <= maxEntries) {
+                // Ni expirée ni en excès : remise en tête de l'index
+                byExpiration.add(soonest);
+                return;
+            }
+            if (entries.remove(soonest.key(), soonest) && soonest.expiresAt() > now) {
+                log.debug("⚠️ Cache des tokens plein ({} entrées), token valide le plus proche de l'expiration évincé",
+                        maxEntries);
+            }
+        }
+    }
+
+    private void remove(Entry entry) {
+        if (entries.remove(entry.key(), entry)) {
+            byExpiration.remove(entry);
+        }
+    }
+
+    private String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    private record Entry(String key, AuthenticatedUser user, long expiresAt, long sequence) {
+    }
+}
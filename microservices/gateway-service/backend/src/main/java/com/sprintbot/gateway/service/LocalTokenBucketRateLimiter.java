@@ -0,0 +1,312 @@
+package com.sprintbot.gateway.service;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rate limiter local à seaux de jetons (token bucket)
+ *
+ * Chaque clé (route + client) dispose d'un seau en mémoire dont l'état
+ * (dernier remplissage + jetons) tient dans un seul long mis à jour par CAS :
+ * aucune requête n'attend Redis ni un verrou.
+ *
+ * Modes (rate-limit.mode) :
+ * - local : chaque instance applique seule ses limites (déploiement mono-nœud)
+ * - redis-sync : les consommations sont publiées par lots dans Redis à chaque
+ *   rate-limit.sync-interval ; la consommation des autres instances est ensuite
+ *   retirée des seaux locaux. Une panne Redis ne bloque pas les requêtes.
+ *
+ * @author SprintBot Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Primary
+@Component
+public class LocalTokenBucketRateLimiter implements RateLimiter<LocalTokenBucketRateLimiter.Config> {
+
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+    public static final String REQUESTED_TOKENS_HEADER = "X-RateLimit-Requested-Tokens";
+
+    // Jetons stockés en millièmes sur les bits de poids faible, horodatage (ms) au-dessus
+    private static final long MILLI = 1000;
+    private static final int TOKEN_BITS = 26;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final int MAX_BURST_CAPACITY = (int) (TOKEN_MASK / MILLI);
+
+    // Fenêtre des compteurs partagés dans Redis
+    private static final long SYNC_WINDOW_MILLIS = 60_000;
+    private static final String REDIS_KEY_PREFIX = "request_rate_limiter_local.";
+
+    private final Map<String, Config> config = new ConcurrentHashMap<>();
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Config defaultConfig;
+    private final boolean redisSync;
+    private final Duration syncInterval;
+    private final ObjectProvider<ReactiveStringRedisTemplate> redisTemplateProvider;
+    private final GatewayMetrics metrics;
+    private final long startNanos = System.nanoTime();
+
+    private ReactiveStringRedisTemplate redisTemplate;
+    private Disposable maintenanceTask;
+
+    public LocalTokenBucketRateLimiter(
+            ObjectProvider<ReactiveStringRedisTemplate> redisTemplateProvider,
+            GatewayMetrics metrics,
+            @Value("${rate-limit.replenish-rate:100}") int replenishRate,
+            @Value("${rate-limit.burst-capacity:200}") int burstCapacity,
+            @Value("${rate-limit.requested-tokens:1}") int requestedTokens,
+            @Value("${rate-limit.mode:local}") String mode,
+            @Value("${rate-limit.sync-interval:1s}") Duration syncInterval) {
+        this.redisTemplateProvider = redisTemplateProvider;
+        this.metrics = metrics;
+        this.defaultConfig = new Config()
+                .setReplenishRate(replenishRate)
+                .setBurstCapacity(burstCapacity)
+                .setRequestedTokens(requestedTokens);
+        validate(defaultConfig);
+        this.redisSync = "redis-sync".equalsIgnoreCase(mode);
+        this.syncInterval = syncInterval;
+    }
+
+    @PostConstruct
+    void start() {
+        if (redisSync) {
+            redisTemplate = redisTemplateProvider.getIfAvailable();
+            if (redisTemplate == null) {
+                log.warn("⚠️ Rate limiting : Redis indisponible, fonctionnement en mode local");
+            }
+        }
+
+        // Une seule exécution à la fois : synchronisation puis purge des seaux pleins
+        maintenanceTask = Flux.interval(syncInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> synchronize().then(Mono.fromRunnable(this::evictIdleBuckets)))
+                .subscribe();
+
+        log.info("🚦 Rate limiter local initialisé (mode : {}, {} req/s, burst {})",
+                redisTemplate != null ? "redis-sync" : "local",
+                defaultConfig.getReplenishRate(), defaultConfig.getBurstCapacity());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (maintenanceTask != null) {
+            maintenanceTask.dispose();
+        }
+    }
+
+    // =====================================================
+    // RateLimiter
+    // =====================================================
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        long start = System.nanoTime();
+        Config routeConfig = config.getOrDefault(routeId, defaultConfig);
+        Bucket bucket = buckets.computeIfAbsent(routeId + '.' + id,
+                key -> new Bucket(routeId, id, routeConfig));
+
+        long remaining = bucket.tryConsume(nowMillis(), routeConfig.getRequestedTokens());
+        boolean allowed = remaining >= 0;
+        if (allowed && redisTemplate != null) {
+            bucket.pending.add(routeConfig.getRequestedTokens());
+        }
+        metrics.record(GatewayMetrics.STAGE_RATE_LIMIT, routeId, System.nanoTime() - start);
+
+        return Mono.just(new Response(allowed, headers(routeConfig, Math.max(remaining, 0))));
+    }
+
+    @Override
+    public Map<String, Config> getConfig() {
+        return config;
+    }
+
+    @Override
+    public Class<Config> getConfigClass() {
+        return Config.class;
+    }
+
+    @Override
+    public Config newConfig() {
+        return new Config()
+                .setReplenishRate(defaultConfig.getReplenishRate())
+                .setBurstCapacity(defaultConfig.getBurstCapacity())
+                .setRequestedTokens(defaultConfig.getRequestedTokens());
+    }
+
+    private Map<String, String> headers(Config routeConfig, long remaining) {
+        Map<String, String> headers = new HashMap<>(8);
+        headers.put(REMAINING_HEADER, Long.toString(remaining));
+        headers.put(REPLENISH_RATE_HEADER, Integer.toString(routeConfig.getReplenishRate()));
+        headers.put(BURST_CAPACITY_HEADER, Integer.toString(routeConfig.getBurstCapacity()));
+        headers.put(REQUESTED_TOKENS_HEADER, Integer.toString(routeConfig.getRequestedTokens()));
+        return headers;
+    }
+
+    // =====================================================
+    // Synchronisation Redis et maintenance
+    // =====================================================
+
+    /**
+     * Publie les consommations locales par lots et retire des seaux locaux
+     * la consommation des autres instances
+     */
+    private Mono<Void> synchronize() {
+        if (redisTemplate == null) {
+            return Mono.empty();
+        }
+
+        long window = System.currentTimeMillis() / SYNC_WINDOW_MILLIS;
+        return Flux.fromIterable(buckets.values())
+                .filter(bucket -> bucket.pending.sum() > 0)
+                .flatMap(bucket -> synchronize(bucket, window), 16)
+                .then();
+    }
+
+    private Mono<Void> synchronize(Bucket bucket, long window) {
+        long pending = bucket.pending.sumThenReset();
+        String redisKey = REDIS_KEY_PREFIX + bucket.routeId + '.' + bucket.id + '.' + window;
+
+        return redisTemplate.opsForValue().increment(redisKey, pending)
+                .flatMap(total -> redisTemplate.expire(redisKey, Duration.ofMillis(2 * SYNC_WINDOW_MILLIS))
+                        .thenReturn(total))
+                .doOnNext(total -> bucket.drain(nowMillis(), bucket.remoteConsumption(window, pending, total)))
+                .onErrorResume(e -> {
+                    log.debug("⚠️ Synchronisation Redis du rate limiting impossible : {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    // Un seau resté inactif le temps de se remplir entièrement est équivalent à un seau neuf
+    private void evictIdleBuckets() {
+        long now = nowMillis();
+        buckets.values().removeIf(bucket -> bucket.isFull(now) && bucket.pending.sum() == 0);
+    }
+
+    private long nowMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private static void validate(Config routeConfig) {
+        if (routeConfig.getReplenishRate() <= 0 || routeConfig.getRequestedTokens() <= 0
+                || routeConfig.getBurstCapacity() < routeConfig.getRequestedTokens()
+                || routeConfig.getBurstCapacity() > MAX_BURST_CAPACITY) {
+            throw new IllegalArgumentException("Configuration de rate limiting invalide : " + routeConfig
+                    + " (burst-capacity entre requested-tokens et " + MAX_BURST_CAPACITY + ")");
+        }
+    }
+
+    /**
+     * Seau de jetons d'une clé, sans verrou
+     */
+    private static final class Bucket {
+
+        private final String routeId;
+        private final String id;
+        private final long capacity;
+        private final long refillPerMillis;
+        private final AtomicLong state;
+        private final LongAdder pending = new LongAdder();
+
+        // Accédés uniquement par la tâche de synchronisation (séquentielle)
+        private long syncWindow = -1;
+        private long ownInWindow;
+        private long remoteInWindow;
+
+        private Bucket(String routeId, String id, Config routeConfig) {
+            this.routeId = routeId;
+            this.id = id;
+            this.capacity = routeConfig.getBurstCapacity() * MILLI;
+            // replenishRate jetons/s = replenishRate millièmes de jeton/ms
+            this.refillPerMillis = routeConfig.getReplenishRate();
+            this.state = new AtomicLong(capacity);
+        }
+
+        /**
+         * @return Jetons restants après consommation, ou -1 si la demande est refusée
+         */
+        long tryConsume(long now, int requestedTokens) {
+            long requested = requestedTokens * MILLI;
+            while (true) {
+                long current = state.get();
+                long tokens = refill(current, now);
+                boolean allowed = tokens >= requested;
+                long next = allowed ? tokens - requested : tokens;
+                if (state.compareAndSet(current, (now << TOKEN_BITS) | next)) {
+                    return allowed ? next / MILLI : -1;
+                }
+            }
+        }
+
+        void drain(long now, long consumedTokens) {
+            if (consumedTokens <= 0) {
+                return;
+            }
+            long consumed = consumedTokens * MILLI;
+            while (true) {
+                long current = state.get();
+                long next = Math.max(0, refill(current, now) - consumed);
+                if (state.compareAndSet(current, (now << TOKEN_BITS) | next)) {
+                    return;
+                }
+            }
+        }
+
+        boolean isFull(long now) {
+            return refill(state.get(), now) >= capacity;
+        }
+
+        synchronized long remoteConsumption(long window, long pending, long clusterTotal) {
+            if (window != syncWindow) {
+                syncWindow = window;
+                ownInWindow = 0;
+                remoteInWindow = 0;
+            }
+            ownInWindow += pending;
+            long remote = Math.max(0, clusterTotal - ownInWindow);
+            long delta = remote - remoteInWindow;
+            remoteInWindow = remote;
+            return Math.max(0, delta);
+        }
+
+        private long refill(long current, long now) {
+            long last = current >>> TOKEN_BITS;
+            long tokens = current & TOKEN_MASK;
+            long elapsed = Math.max(0, now - last);
+            return Math.min(capacity, tokens + elapsed * refillPerMillis);
+        }
+    }
+
+    /**
+     * Configuration d'une route
+     */
+    @Data
+    @Accessors(chain = true)
+    public static class Config {
+        private int replenishRate;
+        private int burstCapacity;
+        private int requestedTokens = 1;
+    }
+}
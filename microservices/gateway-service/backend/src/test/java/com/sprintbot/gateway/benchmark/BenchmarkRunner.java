@@ -0,0 +1,196 @@
+package com.sprintbot.gateway.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exécution des benchmarks du Gateway (profil Maven benchmark)
+ *
+ * Chaque mesure exécute l'opération en boucle sur plusieurs threads : une phase
+ * de chauffe (compilation JIT) puis une phase mesurée, avec débit et percentiles
+ * de latence. Réglages par propriétés système :
+ * -Dbenchmark.warmup-seconds (5), -Dbenchmark.duration-seconds (10),
+ * -Dbenchmark.threads (nombre de cœurs).
+ *
+ * Les rapports sont affichés et écrits dans target/benchmarks/.
+ *
+ * @author SprintBot Team
+ * @version 1.0.0
+ */
+final class BenchmarkRunner {
+
+    static final int WARMUP_SECONDS = Integer.getInteger("benchmark.warmup-seconds", 5);
+    static final int DURATION_SECONDS = Integer.getInteger("benchmark.duration-seconds", 10);
+    static final int THREADS = Integer.getInteger("benchmark.threads", Runtime.getRuntime().availableProcessors());
+
+    private static final Path REPORT_DIRECTORY = Path.of("target", "benchmarks");
+
+    static {
+        // Sans configuration, Logback journalise en DEBUG : les logs fausseraient les mesures
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * Opération mesurée
+     */
+    @FunctionalInterface
+    interface Operation {
+        void run() throws Exception;
+    }
+
+    /**
+     * Mesure le débit et la latence d'une opération
+     *
+     * @param name Nom du scénario
+     * @param threads Nombre de threads concurrents
+     * @param operation Opération mesurée
+     * @return Résultat de la phase mesurée
+     */
+    static Result throughput(String name, int threads, Operation operation) throws InterruptedException {
+        loop(threads, WARMUP_SECONDS, operation, null);
+
+        Timer timer = Timer.builder("benchmark")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .percentilePrecision(2)
+                // Percentiles sur toute la phase mesurée (pas de fenêtre glissante)
+                .distributionStatisticExpiry(Duration.ofHours(1))
+                .distributionStatisticBufferLength(1)
+                .register(new SimpleMeterRegistry());
+        long start = System.nanoTime();
+        long operations = loop(threads, DURATION_SECONDS, operation, timer);
+        long elapsed = System.nanoTime() - start;
+
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        ValueAtPercentile[] percentiles = snapshot.percentileValues();
+        return new Result(name, threads, operations, elapsed,
+                percentiles[0].value(TimeUnit.MICROSECONDS),
+                percentiles[1].value(TimeUnit.MICROSECONDS),
+                percentiles[2].value(TimeUnit.MICROSECONDS));
+    }
+
+    /**
+     * Mesure les octets alloués par opération sur le thread courant
+     *
+     * @param iterations Nombre d'opérations mesurées (autant de chauffe au préalable)
+     * @param operation Opération mesurée
+     * @return Octets alloués par opération
+     */
+    static long allocatedBytesPerOperation(int iterations, Operation operation) throws Exception {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        return (threads.getCurrentThreadAllocatedBytes() - before) / iterations;
+    }
+
+    /**
+     * Affiche un rapport et l'écrit dans target/benchmarks/
+     *
+     * @param fileName Nom du fichier de rapport
+     * @param title Titre du rapport
+     * @param lines Lignes de résultats
+     */
+    static void report(String fileName, String title, List<String> lines) throws IOException {
+        List<String> report = new ArrayList<>();
+        report.add("# " + title);
+        report.add(String.format(Locale.ROOT, "# %s, Java %s, %d cœurs, chauffe %ds, mesure %ds",
+                Instant.now(), Runtime.version(), Runtime.getRuntime().availableProcessors(),
+                WARMUP_SECONDS, DURATION_SECONDS));
+        report.addAll(lines);
+
+        Files.createDirectories(REPORT_DIRECTORY);
+        Files.write(REPORT_DIRECTORY.resolve(fileName), report, StandardCharsets.UTF_8);
+        report.forEach(System.out::println);
+    }
+
+    private static long loop(int threads, int seconds, Operation operation, Timer timer)
+            throws InterruptedException {
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        LongAdder operations = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>(threads);
+
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> {
+                long count = 0;
+                try {
+                    start.await();
+                    while (!stop.get()) {
+                        long begin = System.nanoTime();
+                        operation.run();
+                        if (timer != null) {
+                            timer.record(System.nanoTime() - begin, TimeUnit.NANOSECONDS);
+                        }
+                        count++;
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                    stop.set(true);
+                } finally {
+                    operations.add(count);
+                }
+            }, "benchmark-" + i);
+            worker.start();
+            workers.add(worker);
+        }
+
+        start.countDown();
+        TimeUnit.SECONDS.sleep(seconds);
+        stop.set(true);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        if (failure.get() != null) {
+            throw new IllegalStateException("Échec de l'opération mesurée", failure.get());
+        }
+        return operations.sum();
+    }
+
+    /**
+     * Résultat d'une mesure de débit (latences en microsecondes)
+     */
+    record Result(String name, int threads, long operations, long elapsedNanos,
+                  double p50, double p99, double p999) {
+
+        double operationsPerSecond() {
+            return operations * 1e9 / elapsedNanos;
+        }
+
+        String format() {
+            return String.format(Locale.ROOT, "%-36s %3d threads %12.0f ops/s   p50 %9.1f µs   p99 %9.1f µs   p99.9 %9.1f µs",
+                    name, threads, operationsPerSecond(), p50, p99, p999);
+        }
+    }
+}
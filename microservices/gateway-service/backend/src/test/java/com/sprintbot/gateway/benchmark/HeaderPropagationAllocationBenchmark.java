@@ -0,0 +1,225 @@
+package com.sprintbot.gateway.benchmark;
+
+import com.sprintbot.gateway.config.GatewayRouteTable;
+import com.sprintbot.gateway.filter.AuthenticationFilter;
+import com.sprintbot.gateway.filter.UserContextHeadersFilter;
+import com.sprintbot.gateway.service.GatewayMetrics;
+import com.sprintbot.gateway.service.JwtService;
+import com.sprintbot.gateway.service.JwtTokenCache;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.filter.headers.RemoveHopByHopHeadersFilter;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Allocations et débit du filtre d'authentification et de la propagation des
+ * headers utilisateur, avant et après les headers précalculés par token
+ *
+ * « avant » reproduit l'ancien chemin : mutation de l'échange avec six headers
+ * (dont l'horodatage), ajout de X-Gateway-Service par les filtres de route et par
+ * défaut, Authentication recréée à chaque requête, corps 401 via String.format.
+ * « après » exécute AuthenticationFilter et UserContextHeadersFilter. Dans les deux
+ * cas, les headers de la requête sortante sont produits comme par le routage
+ * Netty (HttpHeadersFilter.filterRequest) et le token est déjà en cache.
+ *
+ * Les octets alloués par requête sont mesurés par ThreadMXBean sur un seul
+ * thread, création de l'échange de test comprise (ligne de référence).
+ *
+ * Exécution : mvn -Pbenchmark test -Dtest=HeaderPropagationAllocationBenchmark
+ * Rapport : target/benchmarks/header-propagation.txt
+ */
+class HeaderPropagationAllocationBenchmark {
+
+    private static final String SECRET = "SprintBot-Gateway-Secret-Key-2024-Very-Long-And-Secure";
+    private static final String PATH = "/api/planning/entrainements";
+    private static final int TOKENS = 100;
+    private static final int ITERATIONS = 200_000;
+
+    // Résultat consommé pour que le JIT ne supprime pas le travail mesuré
+    private static volatile Object sink;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final JwtService jwtService = new JwtService();
+    private final GatewayRouteTable routeTable = new GatewayRouteTable();
+    private final JwtTokenCache tokenCache = new JwtTokenCache(registry, TOKENS * 2);
+    private final AuthenticationFilter authenticationFilter =
+            new AuthenticationFilter(jwtService, tokenCache, routeTable, new GatewayMetrics(registry));
+    private final LegacyAuthenticationFilter legacyFilter = new LegacyAuthenticationFilter();
+
+    private final WebFilterChain legacyChain = proxyChain(List.of(new RemoveHopByHopHeadersFilter()));
+    private final WebFilterChain chain = proxyChain(List.of(new RemoveHopByHopHeadersFilter(),
+            new UserContextHeadersFilter()));
+
+    @Test
+    void allocationsAvantApres() throws Exception {
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+        String[] authorizations = authorizations();
+        for (String authorization : authorizations) {
+            authenticationFilter.filter(exchange(authorization), chain).block();
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add("octets alloués par requête (" + ITERATIONS + " requêtes, un thread)");
+        long reference = allocations(lines, "référence (échange de test seul)",
+                () -> sink = exchange(random(authorizations)));
+        long avant = allocations(lines, "requête authentifiée (avant)",
+                () -> run(legacyFilter, legacyChain, exchange(random(authorizations))));
+        long apres = allocations(lines, "requête authentifiée (après)",
+                () -> run(authenticationFilter, chain, exchange(random(authorizations))));
+        long rejetAvant = allocations(lines, "rejet 401 sans token (avant)",
+                () -> run(legacyFilter, legacyChain, exchange(null)));
+        long rejetApres = allocations(lines, "rejet 401 sans token (après)",
+                () -> run(authenticationFilter, chain, exchange(null)));
+        lines.add(String.format(Locale.ROOT, "hors échange de test : %d -> %d octets (requête), %d -> %d octets (rejet)",
+                avant - reference, apres - reference, rejetAvant - reference, rejetApres - reference));
+
+        int threads = BenchmarkRunner.THREADS;
+        lines.add(BenchmarkRunner.throughput("requête authentifiée (avant)", threads,
+                () -> run(legacyFilter, legacyChain, exchange(random(authorizations)))).format());
+        lines.add(BenchmarkRunner.throughput("requête authentifiée (après)", threads,
+                () -> run(authenticationFilter, chain, exchange(random(authorizations)))).format());
+
+        BenchmarkRunner.report("header-propagation.txt",
+                "Propagation des headers utilisateur : allocations et débit", lines);
+
+        assertThat(apres).isPositive();
+    }
+
+    private static long allocations(List<String> lines, String name, BenchmarkRunner.Operation operation)
+            throws Exception {
+        long bytes = BenchmarkRunner.allocatedBytesPerOperation(ITERATIONS, operation);
+        lines.add(String.format(Locale.ROOT, "%-36s %8d octets", name, bytes));
+        return bytes;
+    }
+
+    private static void run(WebFilter filter, WebFilterChain chain, ServerWebExchange exchange) {
+        filter.filter(exchange, chain).block();
+    }
+
+    // Headers de la requête sortante, calculés comme par NettyRoutingFilter
+    private static WebFilterChain proxyChain(List<HttpHeadersFilter> headersFilters) {
+        return exchange -> {
+            sink = HttpHeadersFilter.filterRequest(headersFilters, exchange);
+            return Mono.empty();
+        };
+    }
+
+    private static MockServerWebExchange exchange(String authorization) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get(PATH)
+                .header(HttpHeaders.ACCEPT, "application/json");
+        if (authorization != null) {
+            request.header(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        return MockServerWebExchange.from(request);
+    }
+
+    private static String random(String[] values) {
+        return values[ThreadLocalRandom.current().nextInt(values.length)];
+    }
+
+    private static String[] authorizations() {
+        long expiration = System.currentTimeMillis() + 3_600_000;
+        String[] authorizations = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            authorizations[i] = "Bearer " + Jwts.builder()
+                    .subject("joueur" + i)
+                    .claim("userId", (long) i)
+                    .claim("email", "joueur" + i + "@sprintbot.com")
+                    .claim("roles", List.of("ROLE_JOUEUR"))
+                    .claim("tokenType", "access")
+                    .expiration(new Date(expiration))
+                    .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                    .compact();
+        }
+        return authorizations;
+    }
+
+    /**
+     * Ancien chemin d'une requête authentifiée (token en cache) et d'un rejet 401
+     */
+    private final class LegacyAuthenticationFilter implements WebFilter {
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+            routeTable.resolve(exchange);
+            String token = jwtService.extractTokenFromHeader(
+                    exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+            if (token == null) {
+                return handleAuthenticationError(exchange, "Token JWT manquant");
+            }
+
+            JwtService.UserInfo userInfo = tokenCache.get(token).getUserInfo();
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                    userInfo.getUsername(), null, routeTable.authoritiesFor(userInfo.getRoles()));
+            authentication.setDetails(userInfo);
+
+            ServerWebExchange mutatedExchange = exchange.mutate()
+                    .request(request -> request
+                            .header("X-User-Id", userInfo.getUserId().toString())
+                            .header("X-User-Username", userInfo.getUsername())
+                            .header("X-User-Email", userInfo.getEmail())
+                            .header("X-User-Roles", String.join(",", userInfo.getRoles()))
+                            .header("X-Gateway-Service", "SprintBot-Gateway")
+                            .header("X-Request-Timestamp", String.valueOf(System.currentTimeMillis())))
+                    .build();
+            // Filtres AddRequestHeader=X-Gateway-Service de la route puis par défaut
+            mutatedExchange = addGatewayServiceHeader(addGatewayServiceHeader(mutatedExchange));
+
+            return chain.filter(mutatedExchange)
+                    .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+        }
+
+        private ServerWebExchange addGatewayServiceHeader(ServerWebExchange exchange) {
+            return exchange.mutate()
+                    .request(request -> request.headers(headers -> headers.add("X-Gateway-Service", "SprintBot-Gateway")))
+                    .build();
+        }
+
+        private Mono<Void> handleAuthenticationError(ServerWebExchange exchange, String message) {
+            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            exchange.getResponse().getHeaders().add("Content-Type", "application/json");
+            exchange.getResponse().getHeaders().add("X-Authentication-Error", "true");
+
+            String errorResponse = String.format("""
+                {
+                    "error": "Unauthorized",
+                    "message": "%s",
+                    "status": 401,
+                    "timestamp": "%s",
+                    "path": "%s"
+                }
+                """,
+                message,
+                java.time.Instant.now().toString(),
+                exchange.getRequest().getPath().value()
+            );
+
+            DataBuffer buffer = exchange.getResponse().bufferFactory().wrap(errorResponse.getBytes());
+            return exchange.getResponse().writeWith(Mono.just(buffer));
+        }
+    }
+}
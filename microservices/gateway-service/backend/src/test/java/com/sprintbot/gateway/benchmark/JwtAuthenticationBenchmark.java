@@ -0,0 +1,120 @@
+package com.sprintbot.gateway.benchmark;
+
+import com.sprintbot.gateway.config.GatewayRouteTable;
+import com.sprintbot.gateway.filter.AuthenticationFilter;
+import com.sprintbot.gateway.service.GatewayMetrics;
+import com.sprintbot.gateway.service.JwtService;
+import com.sprintbot.gateway.service.JwtTokenCache;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Débit du filtre d'authentification avec et sans le cache des tokens vérifiés
+ *
+ * Chaque opération traverse AuthenticationFilter sur une route protégée avec
+ * l'un des {@link #TOKENS} tokens d'accès (un par utilisateur). Sans cache
+ * (jwt.cache.max-entries=0), chaque requête vérifie la signature HMAC ; avec
+ * cache, seule la première requête d'un token la vérifie.
+ *
+ * Exécution : mvn -Pbenchmark test -Dtest=JwtAuthenticationBenchmark
+ * Rapport : target/benchmarks/jwt-authentication.txt
+ */
+class JwtAuthenticationBenchmark {
+
+    private static final String SECRET = "SprintBot-Gateway-Secret-Key-2024-Very-Long-And-Secure";
+    private static final String PROTECTED_PATH = "/api/planning/entrainements";
+    private static final String PUBLIC_PATH = "/api/auth/login";
+    private static final int TOKENS = 1_000;
+
+    private static final WebFilterChain CHAIN = exchange -> Mono.empty();
+
+    @Test
+    void debitAvecEtSansCache() throws Exception {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+        String[] tokens = accessTokens();
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GatewayMetrics metrics = new GatewayMetrics(registry);
+        GatewayRouteTable routeTable = new GatewayRouteTable();
+        JwtTokenCache cache = new JwtTokenCache(registry, TOKENS * 2);
+        AuthenticationFilter withCache = new AuthenticationFilter(jwtService, cache, routeTable, metrics);
+        AuthenticationFilter withoutCache = new AuthenticationFilter(
+                jwtService, new JwtTokenCache(new SimpleMeterRegistry(), 0), routeTable, metrics);
+
+        int threads = BenchmarkRunner.THREADS;
+        List<BenchmarkRunner.Result> results = new ArrayList<>();
+        // Coût fixe de l'échange et de la résolution de route, sans authentification
+        results.add(BenchmarkRunner.throughput("référence (route publique)", threads,
+                () -> authenticate(withCache, PUBLIC_PATH, tokens)));
+        results.add(BenchmarkRunner.throughput("filtre sans cache", threads,
+                () -> authenticate(withoutCache, PROTECTED_PATH, tokens)));
+        results.add(BenchmarkRunner.throughput("filtre avec cache", threads,
+                () -> authenticate(withCache, PROTECTED_PATH, tokens)));
+        results.add(BenchmarkRunner.throughput("vérification de signature seule", threads,
+                () -> jwtService.parseVerifiedClaims(randomToken(tokens))));
+        results.add(BenchmarkRunner.throughput("recherche dans le cache seule", threads,
+                () -> cache.get(randomToken(tokens))));
+
+        double hits = registry.get("gateway.jwt.cache").tag("result", "hit").counter().count();
+        double misses = registry.get("gateway.jwt.cache").tag("result", "miss").counter().count();
+        List<String> lines = new ArrayList<>();
+        results.forEach(result -> lines.add(result.format()));
+        lines.add(String.format(Locale.ROOT, "gain du cache sur le filtre : x%.1f, taux de hit %.4f",
+                results.get(2).operationsPerSecond() / results.get(1).operationsPerSecond(),
+                hits / (hits + misses)));
+        BenchmarkRunner.report("jwt-authentication.txt",
+                "Filtre d'authentification JWT : " + TOKENS + " tokens actifs", lines);
+
+        assertThat(hits).isPositive();
+    }
+
+    private static void authenticate(AuthenticationFilter filter, String path, String[] tokens) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + randomToken(tokens)));
+        filter.filter(exchange, CHAIN).block();
+        if (exchange.getResponse().getStatusCode() != null) {
+            throw new IllegalStateException("Requête rejetée : " + exchange.getResponse().getStatusCode());
+        }
+    }
+
+    private static String randomToken(String[] tokens) {
+        return tokens[ThreadLocalRandom.current().nextInt(tokens.length)];
+    }
+
+    private static String[] accessTokens() {
+        long expiration = System.currentTimeMillis() + 3_600_000;
+        String[] tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = Jwts.builder()
+                    .subject("joueur" + i)
+                    .claim("userId", (long) i)
+                    .claim("email", "joueur" + i + "@sprintbot.com")
+                    .claim("roles", List.of("ROLE_JOUEUR"))
+                    .claim("tokenType", "access")
+                    .issuedAt(new Date())
+                    .expiration(new Date(expiration))
+                    .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                    .compact();
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,210 @@
+package com.sprintbot.gateway.benchmark;
+
+import com.sprintbot.gateway.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Allocations et débit de la vérification d'un token (validation puis
+ * informations utilisateur), avant et après l'analyse unique
+ *
+ * « avant » reproduit l'ancien JwtService : validateToken(token) puis
+ * getUserInfo(token), soit une analyse complète (décodage Base64, JSON,
+ * HMAC) par claim lu, avec la clé et le parser reconstruits à chaque analyse.
+ * « après » appelle parseVerifiedClaims, isValidAccessToken et toUserInfo :
+ * une seule analyse, clé et parser construits au démarrage.
+ *
+ * Les octets alloués par vérification sont mesurés par ThreadMXBean sur un
+ * seul thread, puis le débit sur tous les cœurs.
+ *
+ * Exécution : mvn -Pbenchmark test -Dtest=JwtParsingAllocationBenchmark
+ * Rapport : target/benchmarks/jwt-parsing.txt
+ */
+class JwtParsingAllocationBenchmark {
+
+    private static final String SECRET = "SprintBot-Gateway-Secret-Key-2024-Very-Long-And-Secure";
+    private static final int TOKENS = 100;
+    private static final int ITERATIONS = 50_000;
+
+    // Résultat consommé pour que le JIT ne supprime pas le travail mesuré
+    private static volatile Object sink;
+
+    private final JwtService jwtService = new JwtService();
+    private final LegacyJwtService legacyJwtService = new LegacyJwtService();
+
+    @Test
+    void allocationsAvantApres() throws Exception {
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+        String[] tokens = tokens();
+        for (String token : tokens) {
+            assertThat(verifier(token)).isEqualTo(verifierAvant(token));
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add("octets alloués par vérification (" + ITERATIONS + " vérifications, un thread)");
+        long avant = allocations(lines, "validateToken + getUserInfo (avant)",
+                () -> sink = verifierAvant(random(tokens)));
+        long apres = allocations(lines, "parseVerifiedClaims (après)",
+                () -> sink = verifier(random(tokens)));
+        lines.add(String.format(Locale.ROOT, "réduction : %.1fx", (double) avant / apres));
+
+        int threads = BenchmarkRunner.THREADS;
+        lines.add(BenchmarkRunner.throughput("validateToken + getUserInfo (avant)", threads,
+                () -> sink = verifierAvant(random(tokens))).format());
+        lines.add(BenchmarkRunner.throughput("parseVerifiedClaims (après)", threads,
+                () -> sink = verifier(random(tokens))).format());
+
+        BenchmarkRunner.report("jwt-parsing.txt",
+                "Vérification des tokens JWT : analyse par claim et analyse unique", lines);
+
+        assertThat(apres).isLessThan(avant);
+    }
+
+    private JwtService.UserInfo verifier(String token) {
+        JwtService.VerifiedClaims claims = jwtService.parseVerifiedClaims(token);
+        return jwtService.isValidAccessToken(claims) ? claims.toUserInfo() : null;
+    }
+
+    private JwtService.UserInfo verifierAvant(String token) {
+        return legacyJwtService.validateToken(token) ? legacyJwtService.getUserInfo(token) : null;
+    }
+
+    private static long allocations(List<String> lines, String name, BenchmarkRunner.Operation operation)
+            throws Exception {
+        long bytes = BenchmarkRunner.allocatedBytesPerOperation(ITERATIONS, operation);
+        lines.add(String.format(Locale.ROOT, "%-36s %8d octets", name, bytes));
+        return bytes;
+    }
+
+    private static String random(String[] values) {
+        return values[ThreadLocalRandom.current().nextInt(values.length)];
+    }
+
+    private static String[] tokens() {
+        long expiration = System.currentTimeMillis() + 3_600_000;
+        String[] tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = Jwts.builder()
+                    .subject("joueur" + i)
+                    .claim("userId", (long) i)
+                    .claim("email", "joueur" + i + "@sprintbot.com")
+                    .claim("roles", List.of("ROLE_JOUEUR"))
+                    .claim("tokenType", "access")
+                    .expiration(new Date(expiration))
+                    .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                    .compact();
+        }
+        return tokens;
+    }
+
+    /**
+     * Ancien chemin de JwtService (journalisation exclue) : chaque claim lu
+     * relance l'analyse complète du token
+     */
+    private static final class LegacyJwtService {
+
+        Boolean validateToken(String token) {
+            try {
+                String username = extractUsername(token);
+                return validateToken(token, username);
+            } catch (Exception e) {
+                return false;
+            }
+        }
+
+        Boolean validateToken(String token, String username) {
+            try {
+                final String extractedUsername = extractUsername(token);
+                boolean isUsernameValid = extractedUsername.equals(username);
+                boolean isTokenNotExpired = !isTokenExpired(token);
+                boolean isAccessToken = "access".equals(extractTokenType(token));
+                return isUsernameValid && isTokenNotExpired && isAccessToken;
+            } catch (Exception e) {
+                return false;
+            }
+        }
+
+        JwtService.UserInfo getUserInfo(String token) {
+            return JwtService.UserInfo.builder()
+                    .userId(extractUserId(token))
+                    .username(extractUsername(token))
+                    .email(extractEmail(token))
+                    .roles(extractRoles(token))
+                    .build();
+        }
+
+        String extractUsername(String token) {
+            return extractClaim(token, Claims::getSubject);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<String> extractRoles(String token) {
+            Claims claims = extractAllClaims(token);
+            return claims.get("roles", List.class);
+        }
+
+        Long extractUserId(String token) {
+            Claims claims = extractAllClaims(token);
+            return claims.get("userId", Long.class);
+        }
+
+        String extractEmail(String token) {
+            Claims claims = extractAllClaims(token);
+            return claims.get("email", String.class);
+        }
+
+        String extractTokenType(String token) {
+            Claims claims = extractAllClaims(token);
+            return claims.get("tokenType", String.class);
+        }
+
+        Date extractExpiration(String token) {
+            return extractClaim(token, Claims::getExpiration);
+        }
+
+        <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
+            final Claims claims = extractAllClaims(token);
+            return claimsResolver.apply(claims);
+        }
+
+        Boolean isTokenExpired(String token) {
+            try {
+                Date expiration = extractExpiration(token);
+                return expiration.before(new Date());
+            } catch (Exception e) {
+                return true;
+            }
+        }
+
+        private Claims extractAllClaims(String token) {
+            try {
+                return Jwts.parser()
+                        .verifyWith(getSignInKey())
+                        .build()
+                        .parseSignedClaims(token)
+                        .getPayload();
+            } catch (Exception e) {
+                throw new RuntimeException("Token JWT invalide", e);
+            }
+        }
+
+        private SecretKey getSignInKey() {
+            return Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.sprintbot.gateway.benchmark;
+
+import com.sprintbot.gateway.service.GatewayMetrics;
+import com.sprintbot.gateway.service.LocalTokenBucketRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.validation.Validator;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Débit et latence des décisions de rate limiting : seaux locaux (modes local
+ * et redis-sync) contre le RedisRateLimiter de Spring Cloud Gateway, qui fait un
+ * aller-retour Redis (script Lua) par requête
+ *
+ * Les décisions portent sur {@link #CLIENTS} clients d'une même route, avec une
+ * limite assez haute pour que la plupart soient acceptées (cas nominal).
+ *
+ * Redis : un conteneur redis:7-alpine est démarré (Docker requis), sauf si
+ * -Dbenchmark.redis-host (et -Dbenchmark.redis-port) désigne une instance existante.
+ *
+ * Exécution : mvn -Pbenchmark test -Dtest=RateLimiterBenchmark
+ * Rapport : target/benchmarks/rate-limiter.txt
+ */
+class RateLimiterBenchmark {
+
+    private static final String ROUTE = "planning-performance-service";
+    private static final int CLIENTS = 10_000;
+    private static final int REPLENISH_RATE = 50_000;
+    private static final int BURST_CAPACITY = 60_000;
+
+    @Test
+    void localContreRedis() throws Exception {
+        String[] clients = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = "user:" + i;
+        }
+
+        GenericContainer<?> container = null;
+        String host = System.getProperty("benchmark.redis-host");
+        int port = Integer.getInteger("benchmark.redis-port", 6379);
+        if (host == null) {
+            container = new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+            container.start();
+            host = container.getHost();
+            port = container.getMappedPort(6379);
+        }
+
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(host, port);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        ReactiveStringRedisTemplate redisTemplate = new ReactiveStringRedisTemplate(connectionFactory);
+
+        LocalTokenBucketRateLimiter local = localLimiter(redisTemplate, "local");
+        LocalTokenBucketRateLimiter redisSync = localLimiter(redisTemplate, "redis-sync");
+        RedisRateLimiter redis = redisLimiter(redisTemplate);
+
+        // Les appels Redis sont en vol pendant que le thread attend : plus de threads que de cœurs
+        int threads = Integer.getInteger("benchmark.rate-limiter.threads", BenchmarkRunner.THREADS * 4);
+        List<BenchmarkRunner.Result> results = new ArrayList<>();
+        try {
+            results.add(BenchmarkRunner.throughput("seaux locaux (local)", threads,
+                    () -> local.isAllowed(ROUTE, randomClient(clients)).block()));
+            results.add(BenchmarkRunner.throughput("seaux locaux (redis-sync)", threads,
+                    () -> redisSync.isAllowed(ROUTE, randomClient(clients)).block()));
+            results.add(BenchmarkRunner.throughput("RedisRateLimiter", threads,
+                    () -> redis.isAllowed(ROUTE, randomClient(clients)).block()));
+        } finally {
+            ReflectionTestUtils.invokeMethod(local, "stop");
+            ReflectionTestUtils.invokeMethod(redisSync, "stop");
+            connectionFactory.destroy();
+            if (container != null) {
+                container.stop();
+            }
+        }
+
+        List<String> lines = new ArrayList<>();
+        results.forEach(result -> lines.add(result.format()));
+        lines.add(String.format(Locale.ROOT, "seaux locaux / RedisRateLimiter : x%.1f (local), x%.1f (redis-sync)",
+                results.get(0).operationsPerSecond() / results.get(2).operationsPerSecond(),
+                results.get(1).operationsPerSecond() / results.get(2).operationsPerSecond()));
+        BenchmarkRunner.report("rate-limiter.txt",
+                "Rate limiting : " + CLIENTS + " clients, Redis " + host + ":" + port, lines);
+    }
+
+    private static String randomClient(String[] clients) {
+        return clients[ThreadLocalRandom.current().nextInt(clients.length)];
+    }
+
+    private static LocalTokenBucketRateLimiter localLimiter(ReactiveStringRedisTemplate redisTemplate, String mode) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("reactiveStringRedisTemplate", redisTemplate);
+        LocalTokenBucketRateLimiter limiter = new LocalTokenBucketRateLimiter(
+                beanFactory.getBeanProvider(ReactiveStringRedisTemplate.class),
+                new GatewayMetrics(new SimpleMeterRegistry()),
+                REPLENISH_RATE, BURST_CAPACITY, 1, mode, Duration.ofSeconds(1));
+        ReflectionTestUtils.invokeMethod(limiter, "start");
+        return limiter;
+    }
+
+    // Même construction que GatewayRedisAutoConfiguration, sans contexte Spring
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static RedisRateLimiter redisLimiter(ReactiveStringRedisTemplate redisTemplate) {
+        DefaultRedisScript script = new DefaultRedisScript<>();
+        script.setScriptSource(new ResourceScriptSource(
+                new ClassPathResource("META-INF/scripts/request_rate_limiter.lua")));
+        script.setResultType(List.class);
+
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        ConfigurationService configurationService = new ConfigurationService(beanFactory,
+                beanFactory.getBeanProvider(ConversionService.class),
+                beanFactory.getBeanProvider(Validator.class));
+
+        RedisRateLimiter limiter = new RedisRateLimiter(redisTemplate, (RedisScript<List<Long>>) script,
+                configurationService);
+        limiter.getConfig().put(ROUTE, new RedisRateLimiter.Config()
+                .setReplenishRate(REPLENISH_RATE)
+                .setBurstCapacity(BURST_CAPACITY)
+                .setRequestedTokens(1));
+        return limiter;
+    }
+}
@@ -0,0 +1,116 @@
+package com.sprintbot.gateway.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de la table de routage : les règles doivent s'appliquer au chemin tel
+ * qu'il est routé (décodé, sans paramètres matriciels)
+ */
+class GatewayRouteTableTest {
+
+    private static final List<GrantedAuthority> USER = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+    private static final List<GrantedAuthority> ADMIN = List.of(new SimpleGrantedAuthority("ROLE_ADMIN"));
+
+    private final GatewayRouteTable routeTable = new GatewayRouteTable();
+
+    // URI brute : MockServerHttpRequest.get(...) réencoderait les "%"
+    private static MockServerWebExchange exchange(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.method(HttpMethod.GET, URI.create(path)).build());
+    }
+
+    private GatewayRouteTable.Route resolve(String path) {
+        return routeTable.resolve(exchange(path));
+    }
+
+    @Test
+    void routesPubliquesEtServiceCible() {
+        GatewayRouteTable.Route login = resolve("/api/auth/login");
+        assertThat(login.publicRoute()).isTrue();
+        assertThat(login.service()).isEqualTo("auth-user-service");
+
+        GatewayRouteTable.Route planning = resolve("/api/planning/entrainements");
+        assertThat(planning.publicRoute()).isFalse();
+        assertThat(planning.service()).isEqualTo("planning-performance-service");
+        assertThat(planning.isGranted(USER)).isTrue();
+    }
+
+    @Test
+    void routeAdminExigeLeRoleAdmin() {
+        GatewayRouteTable.Route route = resolve("/api/finance/admin/budgets");
+        assertThat(route.requiredAuthorities()).containsExactlyInAnyOrder("ROLE_ADMIN", "ROLE_FINANCE_ADMIN");
+        assertThat(route.isGranted(USER)).isFalse();
+        assertThat(route.isGranted(ADMIN)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "/api/finance/%61dmin/budgets",
+        "/api/finance/admin;x/budgets",
+        "/api/finance/%61dmin;jsessionid=1/budgets",
+        "/api/finance//admin/budgets",
+        "/api/finance/admin/"
+    })
+    void cheminEncodeOuAvecParametresResteSousLaRegleAdmin(String path) {
+        GatewayRouteTable.Route route = resolve(path);
+        assertThat(route.rejected()).isFalse();
+        assertThat(route.requiredAuthorities()).isEqualTo(Set.of("ROLE_ADMIN", "ROLE_FINANCE_ADMIN"));
+        assertThat(route.isGranted(USER)).isFalse();
+        assertThat(route.service()).isEqualTo("finance-service");
+    }
+
+    @Test
+    void parametreMatricielSurRouteAdminGenerique() {
+        GatewayRouteTable.Route route = resolve("/api/communication/admin;x/messages");
+        assertThat(route.requiredAuthorities()).containsExactly("ROLE_ADMIN");
+        assertThat(route.isGranted(USER)).isFalse();
+    }
+
+    @Test
+    void routePubliqueEncodeeResteResolue() {
+        assertThat(resolve("/api/auth/%6Cogin").publicRoute()).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "/api/finance/%2Fadmin/budgets",
+        "/api/finance/x%2F..%2Fadmin/budgets",
+        "/api/planning/../finance/admin/budgets",
+        "/api/planning/%2E%2E/finance/admin",
+        "/api/finance/./admin/budgets",
+        "/api/finance/admin%3Bx/budgets",
+        "/api/finance/%5Cadmin/budgets"
+    })
+    void cheminAmbiguEstRefuse(String path) {
+        GatewayRouteTable.Route route = resolve(path);
+        assertThat(route.rejected()).isTrue();
+        assertThat(route.publicRoute()).isFalse();
+        assertThat(route.isGranted(ADMIN)).isFalse();
+    }
+
+    @Test
+    void cheminRefuseNePeutPasEtrePublic() {
+        assertThat(resolve("/api/auth/../auth/login").publicRoute()).isFalse();
+        assertThat(resolve("/api/auth/login/%2E%2E").rejected()).isTrue();
+    }
+
+    @Test
+    void resolutionMemoriseeDansLEchange() {
+        MockServerWebExchange exchange = exchange("/api/medical/dossiers");
+        GatewayRouteTable.Route first = routeTable.resolve(exchange);
+        assertThat(routeTable.resolve(exchange)).isSameAs(first);
+        assertThat(first.service()).isEqualTo("medical-admin-service");
+    }
+}
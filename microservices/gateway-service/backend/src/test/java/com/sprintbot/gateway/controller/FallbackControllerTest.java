@@ -0,0 +1,171 @@
+package com.sprintbot.gateway.controller;
+
+import com.sprintbot.gateway.config.GatewayRoutesProperties;
+import com.sprintbot.gateway.filter.ResponseCacheFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests du fallback des circuit breakers : réponse périmée du cache de réponses
+ * pour les lectures, réponse 503 précalculée sinon
+ */
+class FallbackControllerTest {
+
+    private static final String ROUTE = "planning";
+    private static final String TABLEAU_DE_BORD = "/api/planning/tableau-de-bord";
+    private static final String CORPS = "{\"seances\":12}";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private GatewayRoutesProperties properties;
+    private ResponseCacheFilter cache;
+    private FallbackController fallbackController;
+
+    @BeforeEach
+    void setUp() {
+        properties = new GatewayRoutesProperties();
+        GatewayRoutesProperties.RouteSettings settings = new GatewayRoutesProperties.RouteSettings();
+        settings.getCache().setStaleIfError(Duration.ofMinutes(5));
+        properties.getRoutes().put(ROUTE, settings);
+        cache = new ResponseCacheFilter(properties, meterRegistry);
+        fallbackController = new FallbackController(cache, meterRegistry);
+    }
+
+    @Test
+    void lectureAvecReponsePerimeeServieEnStale() {
+        MockServerWebExchange premiere = get(TABLEAU_DE_BORD);
+        executer(premiere, aval());
+
+        // Service indisponible : le circuit breaker transmet l'échange au fallback
+        MockServerWebExchange seconde = get(TABLEAU_DE_BORD);
+        executer(seconde, versFallback());
+
+        assertThat(seconde.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(seconde.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("STALE");
+        assertThat(Long.parseLong(seconde.getResponse().getHeaders().getFirst(HttpHeaders.AGE))).isNotNegative();
+        assertThat(seconde.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(seconde.getResponse().getHeaders().containsKey("X-Fallback")).isFalse();
+        assertThat(seconde.getResponse().getBodyAsString().block()).isEqualTo(CORPS);
+        assertThat(meterRegistry.get("gateway.response.cache").tag("result", "stale").counter().count()).isEqualTo(1);
+        assertThat(degradees(ROUTE)).isZero();
+    }
+
+    @Test
+    void reponsePerimeeNonCaptureeCommeReponseFraiche() {
+        MockServerWebExchange premiere = get(TABLEAU_DE_BORD);
+        executer(premiere, aval());
+        String key = premiere.getAttribute(ResponseCacheFilter.STALE_KEY_ATTRIBUTE);
+        Object enregistree = entrees().get(key);
+
+        MockServerWebExchange seconde = get(TABLEAU_DE_BORD);
+        executer(seconde, versFallback());
+
+        // Même entrée (même date de stockage) : la réponse servie n'a pas été réenregistrée
+        assertThat(seconde.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("STALE");
+        assertThat(entrees().get(key)).isSameAs(enregistree);
+    }
+
+    @Test
+    void reponsePerimeeExpireeRemplaceeParLaReponseDegradee() throws InterruptedException {
+        properties.forRoute(ROUTE).getCache().setStaleIfError(Duration.ofMillis(1));
+        executer(get(TABLEAU_DE_BORD), aval());
+        Thread.sleep(20);
+
+        MockServerWebExchange exchange = get(TABLEAU_DE_BORD);
+        executer(exchange, versFallback());
+
+        assertReponseDegradee(exchange, ROUTE);
+        assertThat(entrees()).isEmpty();
+    }
+
+    @Test
+    void lectureSansReponsePerimeeRecoitLaReponseDegradee() {
+        MockServerWebExchange exchange = get(TABLEAU_DE_BORD);
+        executer(exchange, versFallback());
+
+        assertReponseDegradee(exchange, ROUTE);
+    }
+
+    @Test
+    void ecritureToujoursServieEnReponseDegradee() {
+        executer(get(TABLEAU_DE_BORD), aval());
+
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.method(HttpMethod.POST, TABLEAU_DE_BORD));
+        executer(exchange, versFallback());
+
+        assertReponseDegradee(exchange, ROUTE);
+        assertThat(exchange.getResponse().getHeaders().getFirst("X-Cache")).isNull();
+    }
+
+    @Test
+    void serviceInconnuReponseDegradeeGenerique() {
+        MockServerWebExchange exchange = get("/api/inconnu");
+
+        fallbackController.fallback("inconnu", exchange).block(Duration.ofSeconds(5));
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(exchange.getResponse().getBodyAsString().block()).contains("\"service\": \"unknown\"");
+        assertThat(degradees("unknown")).isEqualTo(1);
+    }
+
+    private void assertReponseDegradee(MockServerWebExchange exchange, String service) {
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(headers.getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("5");
+        assertThat(headers.getFirst("X-Fallback")).isEqualTo("true");
+        assertThat(headers.getCacheControl()).isEqualTo("no-store");
+        assertThat(headers.getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        String body = exchange.getResponse().getBodyAsString().block();
+        assertThat(body).contains("\"service\": \"" + service + "\"", "\"degraded\": true");
+        assertThat(headers.getContentLength()).isEqualTo(body.getBytes(StandardCharsets.UTF_8).length);
+        assertThat(degradees(service)).isEqualTo(1);
+    }
+
+    private void executer(MockServerWebExchange exchange, GatewayFilterChain chain) {
+        cache.forRoute(ROUTE).filter(exchange, chain).block(Duration.ofSeconds(5));
+    }
+
+    private static GatewayFilterChain aval() {
+        return exchange -> {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(CORPS.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+
+    private GatewayFilterChain versFallback() {
+        return exchange -> fallbackController.fallback(ROUTE, exchange);
+    }
+
+    private static MockServerWebExchange get(String uri) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(uri));
+    }
+
+    private double degradees(String service) {
+        return meterRegistry.get("gateway.fallback.degraded").tag("service", service).counter().count();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, ?> entrees() {
+        return (Map<String, ?>) ReflectionTestUtils.getField(cache, "entries");
+    }
+}
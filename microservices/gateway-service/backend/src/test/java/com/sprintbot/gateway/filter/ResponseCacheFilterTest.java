@@ -0,0 +1,358 @@
+package com.sprintbot.gateway.filter;
+
+import com.sprintbot.gateway.config.GatewayRoutesProperties;
+import com.sprintbot.gateway.service.AuthenticatedUser;
+import com.sprintbot.gateway.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests du cache de réponses : hit/miss, ETag, coalescence, stockage LRU borné
+ * en octets et invalidation par les écritures
+ */
+class ResponseCacheFilterTest {
+
+    private static final String ROUTE = "planning";
+    private static final String AUTRE_ROUTE = "medical";
+    private static final String TABLEAU_DE_BORD = "/api/planning/tableau-de-bord";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger appelsAval = new AtomicInteger();
+
+    private GatewayRoutesProperties properties;
+    private ResponseCacheFilter cache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new GatewayRoutesProperties();
+        properties.getRoutes().put(ROUTE, routeEnCache());
+        properties.getRoutes().put(AUTRE_ROUTE, routeEnCache());
+        cache = new ResponseCacheFilter(properties, meterRegistry);
+    }
+
+    @Test
+    void deuxiemeLectureServieDepuisLeCache() {
+        MockServerWebExchange premiere = get(TABLEAU_DE_BORD, user(42L));
+        executer(ROUTE, premiere, aval(HttpStatus.OK));
+        MockServerWebExchange seconde = get(TABLEAU_DE_BORD, user(42L));
+        executer(ROUTE, seconde, aval(HttpStatus.OK));
+
+        assertThat(appelsAval).hasValue(1);
+        assertThat(premiere.getResponse().getHeaders().getFirst("X-Cache")).isNull();
+        assertThat(seconde.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(seconde.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+        assertThat(seconde.getResponse().getHeaders().getETag()).isNotNull();
+        assertThat(seconde.getResponse().getBodyAsString().block()).isEqualTo(corps(TABLEAU_DE_BORD));
+        assertThat(compteur("hit")).isEqualTo(1);
+        assertThat(compteur("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void entreesSepareesParUtilisateurEtParQuery() {
+        executer(ROUTE, get(TABLEAU_DE_BORD, user(42L)), aval(HttpStatus.OK));
+        executer(ROUTE, get(TABLEAU_DE_BORD, user(43L)), aval(HttpStatus.OK));
+        executer(ROUTE, get(TABLEAU_DE_BORD + "?mois=3", user(42L)), aval(HttpStatus.OK));
+        executer(ROUTE, get(TABLEAU_DE_BORD, null), aval(HttpStatus.OK));
+
+        assertThat(appelsAval).hasValue(4);
+        assertThat(compteur("hit")).isZero();
+    }
+
+    @Test
+    void utilisateurSansIdentifiantJamaisMisEnCache() {
+        properties.forRoute(ROUTE).getCache().setStaleIfError(Duration.ofMinutes(1));
+
+        MockServerWebExchange premiere = get(TABLEAU_DE_BORD, user(null));
+        executer(ROUTE, premiere, aval(HttpStatus.OK));
+        MockServerWebExchange seconde = get(TABLEAU_DE_BORD, user(null));
+        executer(ROUTE, seconde, aval(HttpStatus.OK));
+
+        assertThat(appelsAval).hasValue(2);
+        assertThat(seconde.getResponse().getHeaders().getFirst("X-Cache")).isNull();
+        assertThat(taille()).isZero();
+        assertThat(premiere.getAttributes()).doesNotContainKey(ResponseCacheFilter.STALE_KEY_ATTRIBUTE);
+    }
+
+    @Test
+    void porteeRolesPartageeEntreUtilisateursDeMemesRoles() {
+        properties.forRoute(ROUTE).getCache().setScope(GatewayRoutesProperties.CacheScope.ROLES);
+
+        executer(ROUTE, get(TABLEAU_DE_BORD, user(42L)), aval(HttpStatus.OK));
+        MockServerWebExchange autreJoueur = get(TABLEAU_DE_BORD, user(43L));
+        executer(ROUTE, autreJoueur, aval(HttpStatus.OK));
+
+        assertThat(appelsAval).hasValue(1);
+        assertThat(autreJoueur.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+    }
+
+    @Test
+    void ifNoneMatchSurEntreeEnCacheRenvoie304() {
+        executer(ROUTE, get(TABLEAU_DE_BORD, user(42L)), aval(HttpStatus.OK));
+        MockServerWebExchange lecture = get(TABLEAU_DE_BORD, user(42L));
+        executer(ROUTE, lecture, aval(HttpStatus.OK));
+        String etag = lecture.getResponse().getHeaders().getETag();
+
+        MockServerWebExchange conditionnelle = MockServerWebExchange.from(MockServerHttpRequest.get(TABLEAU_DE_BORD)
+                .header(HttpHeaders.IF_NONE_MATCH, etag));
+        conditionnelle.getAttributes().put(AuthenticatedUser.ATTRIBUTE, user(42L));
+        executer(ROUTE, conditionnelle, aval(HttpStatus.OK));
+
+        assertThat(appelsAval).hasValue(1);
+        assertThat(conditionnelle.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(conditionnelle.getResponse().getHeaders().getETag()).isEqualTo(etag);
+        assertThat(conditionnelle.getResponse().getHeaders().getContentLength()).isEqualTo(-1);
+    }
+
+    @Test
+    void ifNoneMatchDifferentRenvoieLeCorps() {
+        executer(ROUTE, get(TABLEAU_DE_BORD, user(42L)), aval(HttpStatus.OK));
+
+        MockServerWebExchange conditionnelle = MockServerWebExchange.from(MockServerHttpRequest.get(TABLEAU_DE_BORD)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"autre-version\""));
+        conditionnelle.getAttributes().put(AuthenticatedUser.ATTRIBUTE, user(42L));
+        executer(ROUTE, conditionnelle, aval(HttpStatus.OK));
+
+        assertThat(conditionnelle.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(conditionnelle.getResponse().getBodyAsString().block()).isEqualTo(corps(TABLEAU_DE_BORD));
+    }
+
+    @Test
+    void requetesIdentiquesSimultaneesUnSeulAppelAval() throws Exception {
+        int requetes = 8;
+        Sinks.Empty<Void> liberation = Sinks.empty();
+        GatewayFilterChain lent = exchange -> {
+            appelsAval.incrementAndGet();
+            return liberation.asMono().then(Mono.defer(() -> ecrire(exchange, HttpStatus.OK)));
+        };
+
+        // Toutes les requêtes sont en cours avant que la première réponse n'arrive
+        List<MockServerWebExchange> exchanges = new ArrayList<>();
+        List<CompletableFuture<Void>> reponses = new ArrayList<>();
+        for (int i = 0; i < requetes; i++) {
+            MockServerWebExchange exchange = get(TABLEAU_DE_BORD, user(42L));
+            exchanges.add(exchange);
+            reponses.add(cache.forRoute(ROUTE).filter(exchange, lent).toFuture());
+        }
+        assertThat(reponses).noneMatch(CompletableFuture::isDone);
+
+        liberation.tryEmitEmpty();
+        CompletableFuture.allOf(reponses.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertThat(appelsAval).hasValue(1);
+        assertThat(compteur("coalesced")).isEqualTo(requetes - 1);
+        for (MockServerWebExchange exchange : exchanges.subList(1, requetes)) {
+            assertThat(exchange.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+            assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo(corps(TABLEAU_DE_BORD));
+        }
+    }
+
+    @Test
+    void echecDeLaPremiereRequeteLesAutresAppellentLAval() throws Exception {
+        Sinks.Empty<Void> liberation = Sinks.empty();
+        GatewayFilterChain enErreur = exchange -> {
+            appelsAval.incrementAndGet();
+            return liberation.asMono().then(Mono.defer(() -> ecrire(exchange, HttpStatus.INTERNAL_SERVER_ERROR)));
+        };
+
+        CompletableFuture<Void> premiere = cache.forRoute(ROUTE).filter(get(TABLEAU_DE_BORD, user(42L)), enErreur).toFuture();
+        CompletableFuture<Void> seconde = cache.forRoute(ROUTE).filter(get(TABLEAU_DE_BORD, user(42L)), enErreur).toFuture();
+        liberation.tryEmitEmpty();
+        CompletableFuture.allOf(premiere, seconde).get(5, TimeUnit.SECONDS);
+
+        // Aucune réponse 200 à partager : la requête en attente va elle-même au service
+        assertThat(appelsAval).hasValue(2);
+        assertThat(taille()).isZero();
+    }
+
+    @Test
+    void tailleComptabiliseeEnOctetsEtEvictionDeLaMoinsRecente() {
+        // Corps de 40 octets : deux entrées tiennent dans 100 octets, pas trois
+        properties.getResponseCache().setMaxSize(DataSize.ofBytes(100));
+        cache = new ResponseCacheFilter(properties, new SimpleMeterRegistry());
+
+        executer(ROUTE, get("/api/planning/a", user(42L)), aval(HttpStatus.OK));
+        executer(ROUTE, get("/api/planning/b", user(42L)), aval(HttpStatus.OK));
+        assertThat(taille()).isEqualTo(80);
+
+        // Lecture de a : b devient la moins récemment utilisée
+        executer(ROUTE, get("/api/planning/a", user(42L)), aval(HttpStatus.OK));
+        executer(ROUTE, get("/api/planning/c", user(42L)), aval(HttpStatus.OK));
+        assertThat(taille()).isEqualTo(80);
+        assertThat(appelsAval).hasValue(3);
+
+        executer(ROUTE, get("/api/planning/a", user(42L)), aval(HttpStatus.OK));
+        executer(ROUTE, get("/api/planning/c", user(42L)), aval(HttpStatus.OK));
+        assertThat(appelsAval).hasValue(3);
+
+        executer(ROUTE, get("/api/planning/b", user(42L)), aval(HttpStatus.OK));
+        assertThat(appelsAval).hasValue(4);
+        assertThat(taille()).isEqualTo(80);
+    }
+
+    @Test
+    void reponseTropVolumineuseNonConservee() {
+        properties.getResponseCache().setMaxEntrySize(DataSize.ofBytes(39));
+        cache = new ResponseCacheFilter(properties, new SimpleMeterRegistry());
+
+        MockServerWebExchange premiere = get(TABLEAU_DE_BORD, user(42L));
+        executer(ROUTE, premiere, aval(HttpStatus.OK));
+        executer(ROUTE, get(TABLEAU_DE_BORD, user(42L)), aval(HttpStatus.OK));
+
+        // Le client reçoit le corps complet, mais rien n'est gardé
+        assertThat(premiere.getResponse().getBodyAsString().block()).isEqualTo(corps(TABLEAU_DE_BORD));
+        assertThat(appelsAval).hasValue(2);
+        assertThat(taille()).isZero();
+    }
+
+    @Test
+    void reponseNonCacheableNonConservee() {
+        GatewayFilterChain avecCookie = exchange -> {
+            appelsAval.incrementAndGet();
+            exchange.getResponse().getHeaders().add(HttpHeaders.SET_COOKIE, "session=1");
+            return ecrire(exchange, HttpStatus.OK);
+        };
+
+        executer(ROUTE, get(TABLEAU_DE_BORD, user(42L)), avecCookie);
+        executer(ROUTE, get(TABLEAU_DE_BORD, user(42L)), avecCookie);
+
+        assertThat(appelsAval).hasValue(2);
+        assertThat(taille()).isZero();
+    }
+
+    @Test
+    void ecritureReussieInvalideLesEntreesDeLaRoute() {
+        executer(ROUTE, get(TABLEAU_DE_BORD, user(42L)), aval(HttpStatus.OK));
+        executer(AUTRE_ROUTE, get("/api/medical/dossiers", user(42L)), aval(HttpStatus.OK));
+        assertThat(taille()).isEqualTo(80);
+
+        executer(ROUTE, requete(HttpMethod.POST, "/api/planning/entrainements"), aval(HttpStatus.CREATED));
+
+        // Seules les entrées de la route écrite disparaissent
+        assertThat(taille()).isEqualTo(40);
+        executer(ROUTE, get(TABLEAU_DE_BORD, user(42L)), aval(HttpStatus.OK));
+        executer(AUTRE_ROUTE, get("/api/medical/dossiers", user(42L)), aval(HttpStatus.OK));
+        assertThat(appelsAval).hasValue(4);
+    }
+
+    @Test
+    void toutesLesMethodesDEcritureInvalident() {
+        for (HttpMethod methode : List.of(HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE)) {
+            executer(ROUTE, get(TABLEAU_DE_BORD, user(42L)), aval(HttpStatus.OK));
+            assertThat(taille()).isEqualTo(40);
+
+            executer(ROUTE, requete(methode, "/api/planning/entrainements/1"), aval(HttpStatus.NO_CONTENT));
+            assertThat(taille()).as(methode.name()).isZero();
+        }
+    }
+
+    @Test
+    void headEtOptionsNInvalidentPas() {
+        executer(ROUTE, get(TABLEAU_DE_BORD, user(42L)), aval(HttpStatus.OK));
+
+        executer(ROUTE, requete(HttpMethod.HEAD, TABLEAU_DE_BORD), aval(HttpStatus.OK));
+        executer(ROUTE, requete(HttpMethod.OPTIONS, TABLEAU_DE_BORD), aval(HttpStatus.OK));
+
+        assertThat(taille()).isEqualTo(40);
+        executer(ROUTE, get(TABLEAU_DE_BORD, user(42L)), aval(HttpStatus.OK));
+        assertThat(appelsAval).hasValue(3);
+    }
+
+    @Test
+    void ecritureEnEchecNInvalidePas() {
+        executer(ROUTE, get(TABLEAU_DE_BORD, user(42L)), aval(HttpStatus.OK));
+
+        executer(ROUTE, requete(HttpMethod.POST, "/api/planning/entrainements"), aval(HttpStatus.BAD_REQUEST));
+
+        assertThat(taille()).isEqualTo(40);
+    }
+
+    private static GatewayRoutesProperties.RouteSettings routeEnCache() {
+        GatewayRoutesProperties.RouteSettings settings = new GatewayRoutesProperties.RouteSettings();
+        settings.getCache().setEnabled(true);
+        settings.getCache().setTtl(Duration.ofMinutes(5));
+        return settings;
+    }
+
+    private void executer(String routeId, MockServerWebExchange exchange, GatewayFilterChain chain) {
+        GatewayFilter filter = cache.forRoute(routeId);
+        filter.filter(exchange, chain).block(Duration.ofSeconds(5));
+    }
+
+    private GatewayFilterChain aval(HttpStatus status) {
+        return exchange -> {
+            appelsAval.incrementAndGet();
+            return ecrire(exchange, status);
+        };
+    }
+
+    // Corps de 40 octets propre au chemin demandé
+    private static Mono<Void> ecrire(ServerWebExchange exchange, HttpStatus status) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body = corps(exchange.getRequest().getPath().value()).getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private static String corps(String path) {
+        return String.format("%-40s", path);
+    }
+
+    private static MockServerWebExchange get(String uri, AuthenticatedUser user) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(uri));
+        if (user != null) {
+            exchange.getAttributes().put(AuthenticatedUser.ATTRIBUTE, user);
+        }
+        return exchange;
+    }
+
+    private static MockServerWebExchange requete(HttpMethod methode, String uri) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.method(methode, uri));
+        exchange.getAttributes().put(AuthenticatedUser.ATTRIBUTE, user(42L));
+        return exchange;
+    }
+
+    private static AuthenticatedUser user(Long userId) {
+        JwtService.UserInfo userInfo = JwtService.UserInfo.builder()
+                .userId(userId)
+                .username("joueur" + userId)
+                .roles(List.of("JOUEUR"))
+                .build();
+        return new AuthenticatedUser(userInfo, List.of(new SimpleGrantedAuthority("JOUEUR")));
+    }
+
+    private double compteur(String result) {
+        return meterRegistry.get("gateway.response.cache").tag("result", result).counter().count();
+    }
+
+    private long taille() {
+        Long taille = ReflectionTestUtils.invokeMethod(cache, "sizeInBytes");
+        return taille;
+    }
+}
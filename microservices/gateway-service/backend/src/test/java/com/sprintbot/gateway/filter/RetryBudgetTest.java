@@ -0,0 +1,73 @@
+package com.sprintbot.gateway.filter;
+
+import com.sprintbot.gateway.config.GatewayRoutesProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests du budget de nouvelles tentatives (fenêtre glissante par seconde)
+ */
+class RetryBudgetTest {
+
+    private RetryBudgetFilter.RetryBudget budget;
+
+    @BeforeEach
+    void setUp() {
+        GatewayRoutesProperties.Retry settings = new GatewayRoutesProperties.Retry();
+        settings.setBudgetRatio(0.2);
+        settings.setMinRetriesPerSecond(1);
+        settings.setBudgetWindow(Duration.ofSeconds(10));
+        budget = new RetryBudgetFilter.RetryBudget(settings);
+    }
+
+    @Test
+    void budgetLimiteAuRatioDesRequetes() {
+        for (int i = 0; i < 100; i++) {
+            budget.recordRequest();
+        }
+
+        // max(1 par seconde * 10 s, 20 % de 100)
+        for (int i = 0; i < 20; i++) {
+            assertThat(budget.tryAcquireRetry()).isNotEqualTo(RetryBudgetFilter.RetryBudget.DENIED);
+        }
+        assertThat(budget.tryAcquireRetry()).isEqualTo(RetryBudgetFilter.RetryBudget.DENIED);
+    }
+
+    @Test
+    void minimumGarantiAFaibleTrafic() {
+        budget.recordRequest();
+        for (int i = 0; i < 10; i++) {
+            assertThat(budget.tryAcquireRetry()).isNotEqualTo(RetryBudgetFilter.RetryBudget.DENIED);
+        }
+        assertThat(budget.tryAcquireRetry()).isEqualTo(RetryBudgetFilter.RetryBudget.DENIED);
+    }
+
+    @Test
+    void jetonRenduALEmplacementDebite() {
+        long dernier = RetryBudgetFilter.RetryBudget.DENIED;
+        for (int i = 0; i < 10; i++) {
+            dernier = budget.tryAcquireRetry();
+        }
+        assertThat(budget.tryAcquireRetry()).isEqualTo(RetryBudgetFilter.RetryBudget.DENIED);
+
+        budget.refundRetry(dernier);
+        assertThat(budget.tryAcquireRetry()).isNotEqualTo(RetryBudgetFilter.RetryBudget.DENIED);
+        assertThat(budget.tryAcquireRetry()).isEqualTo(RetryBudgetFilter.RetryBudget.DENIED);
+    }
+
+    @Test
+    void jetonExpireNestPasRendu() {
+        long dernier = RetryBudgetFilter.RetryBudget.DENIED;
+        for (int i = 0; i < 10; i++) {
+            dernier = budget.tryAcquireRetry();
+        }
+
+        // Seconde sortie de la fenêtre : l'emplacement appartient à une autre seconde
+        budget.refundRetry(dernier - 10);
+        assertThat(budget.tryAcquireRetry()).isEqualTo(RetryBudgetFilter.RetryBudget.DENIED);
+    }
+}
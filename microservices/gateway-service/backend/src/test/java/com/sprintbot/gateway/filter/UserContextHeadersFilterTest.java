@@ -0,0 +1,112 @@
+package com.sprintbot.gateway.filter;
+
+import com.sprintbot.gateway.service.AuthenticatedUser;
+import com.sprintbot.gateway.service.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de la propagation des headers utilisateur : les headers X-User-*
+ * envoyés par le client ne doivent jamais atteindre les microservices
+ */
+class UserContextHeadersFilterTest {
+
+    private final UserContextHeadersFilter filter = new UserContextHeadersFilter();
+
+    private static MockServerWebExchange exchangeAvecHeadersClient() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/finance/budgets")
+                .header(AuthenticatedUser.USER_ID_HEADER, "1")
+                .header(AuthenticatedUser.USERNAME_HEADER, "admin")
+                .header("x-user-email", "admin@sprintbot.com")
+                .header("X-USER-ROLES", "ROLE_ADMIN")
+                .header(UserContextHeadersFilter.GATEWAY_SERVICE_HEADER, "client")
+                .header(HttpHeaders.ACCEPT, "application/json"));
+    }
+
+    private static AuthenticatedUser user(String email) {
+        JwtService.UserInfo userInfo = JwtService.UserInfo.builder()
+                .userId(42L)
+                .username("joueur42")
+                .email(email)
+                .roles(List.of("ROLE_JOUEUR", "ROLE_USER"))
+                .build();
+        return new AuthenticatedUser(userInfo, List.of(new SimpleGrantedAuthority("ROLE_JOUEUR")));
+    }
+
+    @Test
+    void headersClientSupprimesSansUtilisateurAuthentifie() {
+        MockServerWebExchange exchange = exchangeAvecHeadersClient();
+
+        HttpHeaders headers = filter.filter(exchange.getRequest().getHeaders(), exchange);
+
+        assertThat(headers.keySet()).noneMatch(name -> name.regionMatches(true, 0, "X-User-", 0, 7));
+        assertThat(headers.get(UserContextHeadersFilter.GATEWAY_SERVICE_HEADER)).containsExactly("SprintBot-Gateway");
+        assertThat(headers.getFirst(HttpHeaders.ACCEPT)).isEqualTo("application/json");
+    }
+
+    @Test
+    void headersClientRemplacesParCeuxDuToken() {
+        MockServerWebExchange exchange = exchangeAvecHeadersClient();
+        exchange.getAttributes().put(AuthenticatedUser.ATTRIBUTE, user("joueur42@sprintbot.com"));
+
+        HttpHeaders headers = filter.filter(exchange.getRequest().getHeaders(), exchange);
+
+        assertThat(headers.get(AuthenticatedUser.USER_ID_HEADER)).containsExactly("42");
+        assertThat(headers.get(AuthenticatedUser.USERNAME_HEADER)).containsExactly("joueur42");
+        assertThat(headers.get(AuthenticatedUser.EMAIL_HEADER)).containsExactly("joueur42@sprintbot.com");
+        assertThat(headers.get(AuthenticatedUser.ROLES_HEADER)).containsExactly("ROLE_JOUEUR,ROLE_USER");
+        assertThat(headers.get(UserContextHeadersFilter.GATEWAY_SERVICE_HEADER)).containsExactly("SprintBot-Gateway");
+    }
+
+    @Test
+    void headerAbsentDuTokenNonPropage() {
+        MockServerWebExchange exchange = exchangeAvecHeadersClient();
+        exchange.getAttributes().put(AuthenticatedUser.ATTRIBUTE, user(null));
+
+        HttpHeaders headers = filter.filter(exchange.getRequest().getHeaders(), exchange);
+
+        assertThat(headers.containsKey(AuthenticatedUser.EMAIL_HEADER)).isFalse();
+        assertThat(headers.get(AuthenticatedUser.USER_ID_HEADER)).containsExactly("42");
+    }
+
+    @Test
+    void requeteEntranteNonModifiee() {
+        MockServerWebExchange exchange = exchangeAvecHeadersClient();
+        exchange.getAttributes().put(AuthenticatedUser.ATTRIBUTE, user("joueur42@sprintbot.com"));
+        HttpHeaders entrants = exchange.getRequest().getHeaders();
+
+        HttpHeaders sortants = filter.filter(entrants, exchange);
+
+        assertThat(sortants).isNotSameAs(entrants);
+        assertThat(entrants.get(AuthenticatedUser.USER_ID_HEADER)).containsExactly("1");
+        assertThat(entrants.get(UserContextHeadersFilter.GATEWAY_SERVICE_HEADER)).containsExactly("client");
+    }
+
+    @Test
+    void copieDesFiltresPrecedentsModifieeSurPlace() {
+        MockServerWebExchange exchange = exchangeAvecHeadersClient();
+        HttpHeaders copie = new HttpHeaders();
+        copie.putAll(exchange.getRequest().getHeaders());
+
+        assertThat(filter.filter(copie, exchange)).isSameAs(copie);
+        assertThat(copie.containsKey(AuthenticatedUser.USER_ID_HEADER)).isFalse();
+    }
+
+    @Test
+    void appliqueDansLaChaineDesFiltresDeHeaders() {
+        MockServerWebExchange exchange = exchangeAvecHeadersClient();
+
+        HttpHeaders headers = HttpHeadersFilter.filterRequest(List.of(filter), exchange);
+
+        assertThat(headers.containsKey(AuthenticatedUser.ROLES_HEADER)).isFalse();
+        assertThat(headers.containsKey(AuthenticatedUser.USERNAME_HEADER)).isFalse();
+    }
+}
@@ -0,0 +1,196 @@
+package com.sprintbot.gateway.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests du cache des tokens vérifiés : expiration alignée sur le token,
+ * taille bornée par éviction de l'expiration la plus proche et métriques hit/miss
+ */
+class JwtTokenCacheTest {
+
+    private static final long UNE_HEURE = 3_600_000;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private static AuthenticatedUser user(long userId) {
+        JwtService.UserInfo userInfo = JwtService.UserInfo.builder()
+                .userId(userId)
+                .username("joueur" + userId)
+                .email("joueur" + userId + "@sprintbot.com")
+                .roles(List.of("ROLE_JOUEUR"))
+                .build();
+        return new AuthenticatedUser(userInfo, List.of(new SimpleGrantedAuthority("ROLE_JOUEUR")));
+    }
+
+    private static long dans(long millis) {
+        return System.currentTimeMillis() + millis;
+    }
+
+    private double resultats(String result) {
+        return registry.get("gateway.jwt.cache").tag("result", result).counter().count();
+    }
+
+    private double taille() {
+        return registry.get("gateway.jwt.cache.size").gauge().value();
+    }
+
+    @Test
+    void tokenVerifieServiDepuisLeCache() {
+        JwtTokenCache cache = new JwtTokenCache(registry, 10);
+        AuthenticatedUser user = user(1);
+
+        cache.put("token-1", user, dans(UNE_HEURE));
+
+        assertThat(cache.get("token-1")).isSameAs(user);
+        assertThat(resultats("hit")).isEqualTo(1);
+        assertThat(resultats("miss")).isZero();
+        assertThat(taille()).isEqualTo(1);
+    }
+
+    @Test
+    void tokenInconnuCompteCommeMiss() {
+        JwtTokenCache cache = new JwtTokenCache(registry, 10);
+        cache.put("token-1", user(1), dans(UNE_HEURE));
+
+        assertThat(cache.get("token-2")).isNull();
+        assertThat(resultats("miss")).isEqualTo(1);
+        assertThat(resultats("hit")).isZero();
+    }
+
+    @Test
+    void tokensDistinctsNeSeConfondentPas() {
+        JwtTokenCache cache = new JwtTokenCache(registry, 10);
+        AuthenticatedUser premier = user(1);
+        AuthenticatedUser second = user(2);
+
+        cache.put("token-1", premier, dans(UNE_HEURE));
+        cache.put("token-2", second, dans(UNE_HEURE));
+
+        assertThat(cache.get("token-1")).isSameAs(premier);
+        assertThat(cache.get("token-2")).isSameAs(second);
+    }
+
+    @Test
+    void entreeRetireeALExpirationDuToken() throws InterruptedException {
+        JwtTokenCache cache = new JwtTokenCache(registry, 10);
+        cache.put("token-1", user(1), dans(50));
+        assertThat(cache.get("token-1")).isNotNull();
+
+        Thread.sleep(120);
+
+        assertThat(cache.get("token-1")).isNull();
+        assertThat(resultats("miss")).isEqualTo(1);
+        assertThat(taille()).isZero();
+    }
+
+    @Test
+    void tokenDejaExpireNonMisEnCache() {
+        JwtTokenCache cache = new JwtTokenCache(registry, 10);
+
+        cache.put("token-1", user(1), System.currentTimeMillis() - 1);
+
+        assertThat(taille()).isZero();
+        assertThat(cache.get("token-1")).isNull();
+    }
+
+    @Test
+    void cachePleinEvinceLEntreeQuiExpireLePlusTot() {
+        JwtTokenCache cache = new JwtTokenCache(registry, 2);
+        cache.put("token-1", user(1), dans(UNE_HEURE));
+        cache.put("token-2", user(2), dans(2 * UNE_HEURE));
+
+        cache.put("token-3", user(3), dans(3 * UNE_HEURE));
+
+        assertThat(taille()).isEqualTo(2);
+        assertThat(cache.get("token-3")).isNotNull();
+        assertThat(cache.get("token-2")).isNotNull();
+        assertThat(cache.get("token-1")).isNull();
+    }
+
+    @Test
+    void cachePleinNAdmetPasUnTokenQuiExpireAvantTousLesAutres() {
+        JwtTokenCache cache = new JwtTokenCache(registry, 2);
+        cache.put("token-1", user(1), dans(UNE_HEURE));
+        cache.put("token-2", user(2), dans(2 * UNE_HEURE));
+
+        cache.put("token-3", user(3), dans(UNE_HEURE / 2));
+
+        assertThat(taille()).isEqualTo(2);
+        assertThat(cache.get("token-3")).isNull();
+        assertThat(cache.get("token-1")).isNotNull();
+    }
+
+    @Test
+    void tokenRemisEnCacheRemplaceSonEntree() {
+        JwtTokenCache cache = new JwtTokenCache(registry, 2);
+        AuthenticatedUser nouveau = user(1);
+        cache.put("token-1", user(1), dans(UNE_HEURE));
+        cache.put("token-1", nouveau, dans(3 * UNE_HEURE));
+        cache.put("token-2", user(2), dans(2 * UNE_HEURE));
+
+        // L'ancienne expiration de token-1 ne compte plus : token-2 expire le plus tôt
+        cache.put("token-3", user(3), dans(4 * UNE_HEURE));
+
+        assertThat(cache.get("token-1")).isSameAs(nouveau);
+        assertThat(cache.get("token-2")).isNull();
+        assertThat(taille()).isEqualTo(2);
+    }
+
+    @Test
+    void nombreuxTokensRestentBornes() {
+        JwtTokenCache cache = new JwtTokenCache(registry, 100);
+        for (int i = 0; i < 1_000; i++) {
+            cache.put("token-" + i, user(i), dans(UNE_HEURE + i));
+        }
+
+        // Les 100 tokens qui expirent le plus tard restent en cache
+        assertThat(taille()).isEqualTo(100);
+        assertThat(cache.get("token-999")).isNotNull();
+        assertThat(cache.get("token-900")).isNotNull();
+        assertThat(cache.get("token-899")).isNull();
+    }
+
+    @Test
+    void cachePleinPurgeLesEntreesExpirees() throws InterruptedException {
+        JwtTokenCache cache = new JwtTokenCache(registry, 2);
+        cache.put("token-1", user(1), dans(50));
+        cache.put("token-2", user(2), dans(UNE_HEURE));
+
+        Thread.sleep(120);
+        cache.put("token-3", user(3), dans(UNE_HEURE));
+
+        assertThat(taille()).isEqualTo(2);
+        assertThat(cache.get("token-3")).isNotNull();
+        assertThat(cache.get("token-2")).isNotNull();
+        assertThat(cache.get("token-1")).isNull();
+    }
+
+    @Test
+    void entreesExpireesPurgeesAvantQueLeCacheSoitPlein() throws InterruptedException {
+        JwtTokenCache cache = new JwtTokenCache(registry, 10);
+        cache.put("token-1", user(1), dans(50));
+        cache.put("token-2", user(2), dans(50));
+
+        Thread.sleep(120);
+        cache.put("token-3", user(3), dans(UNE_HEURE));
+
+        assertThat(taille()).isEqualTo(1);
+        assertThat(cache.get("token-3")).isNotNull();
+    }
+
+    @Test
+    void tailleNulleDesactiveLeCache() {
+        JwtTokenCache cache = new JwtTokenCache(registry, 0);
+
+        cache.put("token-1", user(1), dans(UNE_HEURE));
+
+        assertThat(cache.get("token-1")).isNull();
+        assertThat(taille()).isZero();
+    }
+}
@@ -0,0 +1,111 @@
+package com.sprintbot.gateway.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mode redis-sync : chaque instance publie ses consommations dans Redis et
+ * retire de ses seaux la consommation des autres instances, sans compter
+ * deux fois la sienne
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class LocalTokenBucketRateLimiterIntegrationTest {
+
+    private static final int BURST = 10;
+
+    @Container
+    private static final GenericContainer<?> REDIS =
+            new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static ReactiveStringRedisTemplate redisTemplate;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new ReactiveStringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    private static LocalTokenBucketRateLimiter instance() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("reactiveStringRedisTemplate", redisTemplate);
+        LocalTokenBucketRateLimiter limiter = new LocalTokenBucketRateLimiter(
+                beanFactory.getBeanProvider(ReactiveStringRedisTemplate.class),
+                new GatewayMetrics(new SimpleMeterRegistry()),
+                1, BURST, 1, "redis-sync", Duration.ofMillis(100));
+        limiter.start();
+        return limiter;
+    }
+
+    private static long consommer(LocalTokenBucketRateLimiter limiter, String route, int requetes) {
+        RateLimiter.Response response = null;
+        for (int i = 0; i < requetes; i++) {
+            response = limiter.isAllowed(route, "client").block();
+        }
+        return Long.parseLong(response.getHeaders().get(LocalTokenBucketRateLimiter.REMAINING_HEADER));
+    }
+
+    @Test
+    void consommationDesAutresInstancesRetireeDesSeauxLocaux() throws InterruptedException {
+        // Les compteurs Redis sont par minute : pas de changement de fenêtre pendant le test
+        while (System.currentTimeMillis() % 60_000 > 55_000) {
+            Thread.sleep(100);
+        }
+
+        String route = "route-" + UUID.randomUUID();
+        LocalTokenBucketRateLimiter premiere = instance();
+        LocalTokenBucketRateLimiter seconde = instance();
+        try {
+            consommer(premiere, route, 6);
+            Thread.sleep(500);
+
+            // La seconde instance ne se synchronise que pour les seaux qu'elle utilise
+            consommer(seconde, route, 1);
+            Thread.sleep(500);
+
+            // 10 - 1 (locale) - 6 (première instance) - 1, plus au plus un jeton rechargé
+            assertThat(consommer(seconde, route, 1)).isLessThanOrEqualTo(3);
+            // La consommation propre de la première instance n'est pas retirée deux fois
+            assertThat(consommer(premiere, route, 1)).isGreaterThanOrEqualTo(2);
+        } finally {
+            premiere.stop();
+            seconde.stop();
+        }
+    }
+
+    @Test
+    void modeLocalSansRedis() {
+        LocalTokenBucketRateLimiter limiter = new LocalTokenBucketRateLimiter(
+                new DefaultListableBeanFactory().getBeanProvider(ReactiveStringRedisTemplate.class),
+                new GatewayMetrics(new SimpleMeterRegistry()),
+                1, BURST, 1, "redis-sync", Duration.ofMillis(100));
+        limiter.start();
+        try {
+            assertThat(consommer(limiter, "route-" + UUID.randomUUID(), BURST)).isZero();
+        } finally {
+            limiter.stop();
+        }
+    }
+}
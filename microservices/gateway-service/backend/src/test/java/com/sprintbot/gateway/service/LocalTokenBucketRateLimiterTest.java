@@ -0,0 +1,172 @@
+package com.sprintbot.gateway.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests du rate limiter local (mode local, sans Redis) : consommation du burst,
+ * refus, remplissage au rythme configuré et isolation des clés
+ */
+class LocalTokenBucketRateLimiterTest {
+
+    private static final String ROUTE = "planning-performance-service";
+
+    private static LocalTokenBucketRateLimiter limiter(int replenishRate, int burstCapacity, int requestedTokens) {
+        return new LocalTokenBucketRateLimiter(
+                new DefaultListableBeanFactory().getBeanProvider(ReactiveStringRedisTemplate.class),
+                new GatewayMetrics(new SimpleMeterRegistry()),
+                replenishRate, burstCapacity, requestedTokens, "local", Duration.ofSeconds(1));
+    }
+
+    private static RateLimiter.Response demander(LocalTokenBucketRateLimiter limiter, String route, String client) {
+        return limiter.isAllowed(route, client).block();
+    }
+
+    private static String restants(RateLimiter.Response response) {
+        return response.getHeaders().get(LocalTokenBucketRateLimiter.REMAINING_HEADER);
+    }
+
+    @Test
+    void burstConsommePuisRefus() {
+        LocalTokenBucketRateLimiter limiter = limiter(1, 3, 1);
+
+        assertThat(restants(demander(limiter, ROUTE, "client"))).isEqualTo("2");
+        assertThat(restants(demander(limiter, ROUTE, "client"))).isEqualTo("1");
+        assertThat(restants(demander(limiter, ROUTE, "client"))).isEqualTo("0");
+
+        RateLimiter.Response refus = demander(limiter, ROUTE, "client");
+        assertThat(refus.isAllowed()).isFalse();
+        assertThat(restants(refus)).isEqualTo("0");
+        assertThat(refus.getHeaders())
+                .containsEntry(LocalTokenBucketRateLimiter.REPLENISH_RATE_HEADER, "1")
+                .containsEntry(LocalTokenBucketRateLimiter.BURST_CAPACITY_HEADER, "3")
+                .containsEntry(LocalTokenBucketRateLimiter.REQUESTED_TOKENS_HEADER, "1");
+    }
+
+    @Test
+    void seauRempliAuRythmeConfigure() throws InterruptedException {
+        // 10 jetons/s : un jeton toutes les 100 ms
+        LocalTokenBucketRateLimiter limiter = limiter(10, 1, 1);
+        assertThat(demander(limiter, ROUTE, "client").isAllowed()).isTrue();
+        assertThat(demander(limiter, ROUTE, "client").isAllowed()).isFalse();
+
+        Thread.sleep(150);
+
+        assertThat(demander(limiter, ROUTE, "client").isAllowed()).isTrue();
+        assertThat(demander(limiter, ROUTE, "client").isAllowed()).isFalse();
+    }
+
+    @Test
+    void remplissagePlafonneALaCapacite() throws InterruptedException {
+        LocalTokenBucketRateLimiter limiter = limiter(1_000, 3, 1);
+        demander(limiter, ROUTE, "client");
+
+        Thread.sleep(50);
+
+        assertThat(restants(demander(limiter, ROUTE, "client"))).isEqualTo("2");
+    }
+
+    @Test
+    void refusNeConsommePasDeJeton() throws InterruptedException {
+        LocalTokenBucketRateLimiter limiter = limiter(10, 1, 1);
+        demander(limiter, ROUTE, "client");
+        for (int i = 0; i < 20; i++) {
+            assertThat(demander(limiter, ROUTE, "client").isAllowed()).isFalse();
+        }
+
+        Thread.sleep(150);
+
+        assertThat(demander(limiter, ROUTE, "client").isAllowed()).isTrue();
+    }
+
+    @Test
+    void seauxIndependantsParRouteEtParClient() {
+        LocalTokenBucketRateLimiter limiter = limiter(1, 1, 1);
+        assertThat(demander(limiter, ROUTE, "client-1").isAllowed()).isTrue();
+        assertThat(demander(limiter, ROUTE, "client-1").isAllowed()).isFalse();
+
+        assertThat(demander(limiter, ROUTE, "client-2").isAllowed()).isTrue();
+        assertThat(demander(limiter, "finance-service", "client-1").isAllowed()).isTrue();
+    }
+
+    @Test
+    void configurationParRoute() {
+        LocalTokenBucketRateLimiter limiter = limiter(1, 100, 1);
+        limiter.getConfig().put("finance-service", limiter.newConfig().setBurstCapacity(1));
+
+        assertThat(demander(limiter, "finance-service", "client").isAllowed()).isTrue();
+        assertThat(demander(limiter, "finance-service", "client").isAllowed()).isFalse();
+        assertThat(demander(limiter, ROUTE, "client").isAllowed()).isTrue();
+        assertThat(demander(limiter, ROUTE, "client").isAllowed()).isTrue();
+    }
+
+    @Test
+    void plusieursJetonsParRequete() {
+        LocalTokenBucketRateLimiter limiter = limiter(1, 3, 2);
+
+        RateLimiter.Response premiere = demander(limiter, ROUTE, "client");
+        assertThat(premiere.isAllowed()).isTrue();
+        assertThat(restants(premiere)).isEqualTo("1");
+
+        assertThat(demander(limiter, ROUTE, "client").isAllowed()).isFalse();
+    }
+
+    @Test
+    void configurationInvalideRefusee() {
+        assertThatThrownBy(() -> limiter(0, 10, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> limiter(10, 1, 2)).isInstanceOf(IllegalArgumentException.class);
+        // Au-delà de la capacité représentable dans l'état du seau
+        assertThatThrownBy(() -> limiter(10, 100_000, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void demandesConcurrentesNeDepassentPasLeBurst() throws Exception {
+        int burst = 100;
+        LocalTokenBucketRateLimiter limiter = limiter(1, burst, 1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch depart = new CountDownLatch(1);
+        List<Future<Integer>> resultats = new ArrayList<>();
+
+        long debut = System.nanoTime();
+        try {
+            for (int t = 0; t < 16; t++) {
+                resultats.add(executor.submit(() -> {
+                    depart.await();
+                    int acceptees = 0;
+                    for (int i = 0; i < 500; i++) {
+                        if (demander(limiter, ROUTE, "client").isAllowed()) {
+                            acceptees++;
+                        }
+                    }
+                    return acceptees;
+                }));
+            }
+            depart.countDown();
+
+            int acceptees = 0;
+            for (Future<Integer> resultat : resultats) {
+                acceptees += resultat.get(30, TimeUnit.SECONDS);
+            }
+            // Burst initial + au plus un jeton par seconde écoulée
+            long secondes = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - debut) + 1;
+            assertThat(acceptees).isBetween(burst, burst + (int) secondes);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
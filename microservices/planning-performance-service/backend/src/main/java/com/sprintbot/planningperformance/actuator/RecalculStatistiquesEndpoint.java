@@ -0,0 +1,23 @@
+package com.sprintbot.planningperformance.actuator;
+
+import com.sprintbot.planningperformance.service.RecalculStatistiquesService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Progression du recalcul des statistiques : /actuator/recalcul
+@Component
+@Endpoint(id = "recalcul")
+public class RecalculStatistiquesEndpoint {
+
+    @Autowired
+    private RecalculStatistiquesService recalculService;
+
+    @ReadOperation
+    public Map<String, Object> progression() {
+        return recalculService.getProgression();
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -318,10 +319,22 @@ public class AbsenceController {
     // =====================================================
 
     @PostMapping("/marquer-automatiques/{entrainementId}")
-    public ResponseEntity<Void> marquerAbsencesAutomatiques(@PathVariable Long entrainementId) {
+    public ResponseEntity<Map<String, Integer>> marquerAbsencesAutomatiques(@PathVariable Long entrainementId) {
         try {
-            absenceService.marquerAbsencesAutomatiques(entrainementId);
-            return new ResponseEntity<>(HttpStatus.OK);
+            Map<String, Integer> resultat = absenceService.marquerAbsencesAutomatiques(entrainementId);
+            return new ResponseEntity<>(resultat, HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @PostMapping("/marquer-automatiques")
+    public ResponseEntity<Map<String, Integer>> marquerAbsencesAutomatiques(@RequestBody List<Long> entrainementIds) {
+        try {
+            Map<String, Integer> resultat = absenceService.marquerAbsencesAutomatiques(entrainementIds);
+            return new ResponseEntity<>(resultat, HttpStatus.OK);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         } catch (Exception e) {
@@ -17,6 +17,9 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class ParticipationController {
 
+    // Taille maximale d'une page d'historique
+    private static final int TAILLE_MAX_HISTORIQUE = 100;
+
     @Autowired
     private ParticipationService participationService;
 
@@ -79,6 +82,8 @@ public class ParticipationController {
         try {
             Participation participation = participationService.marquerPresent(entrainementId, joueurId);
             return new ResponseEntity<>(participation, HttpStatus.OK);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         } catch (Exception e) {
@@ -213,6 +218,24 @@ public class ParticipationController {
         }
     }
 
+    @GetMapping("/joueur/{joueurId}/historique")
+    public ResponseEntity<List<Participation>> getParticipationsHistorique(
+            @PathVariable Long joueurId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate avantDate,
+            @RequestParam(required = false) Long avantId,
+            @RequestParam(defaultValue = "20") int taille) {
+        if (taille <= 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        try {
+            List<Participation> participations = participationService.getParticipationsHistorique(
+                    joueurId, avantDate, avantId, Math.min(taille, TAILLE_MAX_HISTORIQUE));
+            return new ResponseEntity<>(participations, HttpStatus.OK);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     // =====================================================
     // Statistiques
     // =====================================================
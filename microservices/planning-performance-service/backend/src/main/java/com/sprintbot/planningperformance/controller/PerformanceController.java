@@ -19,6 +19,9 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class PerformanceController {
 
+    // Taille maximale d'une page d'historique
+    private static final int TAILLE_MAX_HISTORIQUE = 100;
+
     @Autowired
     private PerformanceService performanceService;
 
@@ -167,6 +170,24 @@ public class PerformanceController {
         }
     }
 
+    @GetMapping("/joueur/{joueurId}/historique")
+    public ResponseEntity<List<Performance>> getPerformancesHistorique(
+            @PathVariable Long joueurId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate avantDate,
+            @RequestParam(required = false) Long avantId,
+            @RequestParam(defaultValue = "20") int taille) {
+        if (taille <= 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        try {
+            List<Performance> performances = performanceService.getPerformancesHistorique(
+                    joueurId, avantDate, avantId, Math.min(taille, TAILLE_MAX_HISTORIQUE));
+            return new ResponseEntity<>(performances, HttpStatus.OK);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @GetMapping("/joueur/{joueurId}/objectifs-atteints")
     public ResponseEntity<List<Performance>> getPerformancesAvecObjectifsAtteints(@PathVariable Long joueurId) {
         try {
@@ -327,4 +348,18 @@ public class PerformanceController {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    @PostMapping("/creer-performances-entrainements")
+    public ResponseEntity<Integer> creerPerformancesEntrainements(
+            @RequestBody List<Long> entrainementIds,
+            @RequestParam Long evaluateurId) {
+        try {
+            int creees = performanceService.creerPerformancesEntrainements(entrainementIds, evaluateurId);
+            return new ResponseEntity<>(creees, HttpStatus.CREATED);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
 }
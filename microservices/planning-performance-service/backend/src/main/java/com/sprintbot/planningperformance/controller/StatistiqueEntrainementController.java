@@ -1,15 +1,20 @@
 package com.sprintbot.planningperformance.controller;
 
 import com.sprintbot.planningperformance.entity.StatistiqueEntrainement;
+import com.sprintbot.planningperformance.service.ExportStatistiquesService;
+import com.sprintbot.planningperformance.service.RecalculStatistiquesService;
 import com.sprintbot.planningperformance.service.StatistiqueEntrainementService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -19,9 +24,18 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class StatistiqueEntrainementController {
 
+    // Taille maximale d'une page d'historique
+    private static final int TAILLE_MAX_HISTORIQUE = 100;
+
     @Autowired
     private StatistiqueEntrainementService statistiqueService;
 
+    @Autowired
+    private RecalculStatistiquesService recalculService;
+
+    @Autowired
+    private ExportStatistiquesService exportService;
+
     // =====================================================
     // CRUD Operations
     // =====================================================
@@ -108,6 +122,24 @@ public class StatistiqueEntrainementController {
         }
     }
 
+    @GetMapping("/joueur/{joueurId}/historique")
+    public ResponseEntity<List<StatistiqueEntrainement>> getHistoriqueJoueur(
+            @PathVariable Long joueurId,
+            @RequestParam(required = false) Integer avantAnnee,
+            @RequestParam(required = false) Integer avantMois,
+            @RequestParam(defaultValue = "12") int taille) {
+        if (taille <= 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        try {
+            List<StatistiqueEntrainement> statistiques = statistiqueService.getHistoriqueJoueur(
+                    joueurId, avantAnnee, avantMois, Math.min(taille, TAILLE_MAX_HISTORIQUE));
+            return new ResponseEntity<>(statistiques, HttpStatus.OK);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @GetMapping("/joueur/{joueurId}/meilleures")
     public ResponseEntity<List<StatistiqueEntrainement>> getMeilleuresStatistiques(
             @PathVariable Long joueurId,
@@ -257,8 +289,9 @@ public class StatistiqueEntrainementController {
     @PostMapping("/recalculer-toutes")
     public ResponseEntity<Void> recalculerToutesStatistiques() {
         try {
-            statistiqueService.recalculerToutesStatistiques();
-            return new ResponseEntity<>(HttpStatus.OK);
+            // Recalcul asynchrone par lots ; progression sur /actuator/recalcul
+            boolean demarre = recalculService.demarrerRecalcul();
+            return new ResponseEntity<>(demarre ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT);
         } catch (Exception e) {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -294,6 +327,31 @@ public class StatistiqueEntrainementController {
         }
     }
 
+    @GetMapping("/export/mois/{mois}/annee/{annee}")
+    public ResponseEntity<StreamingResponseBody> exporterMois(
+            @PathVariable int mois,
+            @PathVariable int annee,
+            @RequestParam(defaultValue = "CSV") ExportStatistiquesService.Format format) {
+        YearMonth periode = YearMonth.of(annee, mois);
+        return exporter(periode, periode, format);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exporterPeriode(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateDebut,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFin,
+            @RequestParam(defaultValue = "CSV") ExportStatistiquesService.Format format) {
+        return exporter(YearMonth.from(dateDebut), YearMonth.from(dateFin), format);
+    }
+
+    private ResponseEntity<StreamingResponseBody> exporter(YearMonth debut, YearMonth fin,
+                                                           ExportStatistiquesService.Format format) {
+        StreamingResponseBody corps = sortie -> exportService.exporter(debut, fin, format, sortie);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .body(corps);
+    }
+
     // =====================================================
     // Métriques spécifiques
     // =====================================================
@@ -71,6 +71,10 @@ public class Entrainement {
     @Column(name = "nombre_max_joueurs")
     private Integer nombreMaxJoueurs;
 
+    // Compteur maintenu uniquement par les UPDATE conditionnels du repository
+    @Column(name = "places_prises", insertable = false, updatable = false, columnDefinition = "INTEGER DEFAULT 0")
+    private Integer placesPrises = 0;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
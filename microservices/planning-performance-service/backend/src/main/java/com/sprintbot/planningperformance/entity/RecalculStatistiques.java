@@ -0,0 +1,76 @@
+package com.sprintbot.planningperformance.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "recalculs_statistiques", schema = "planning_performance")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecalculStatistiques {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, columnDefinition = "VARCHAR(20) DEFAULT 'EN_COURS'")
+    private StatutRecalcul statut = StatutRecalcul.EN_COURS;
+
+    // Point de reprise : tous les joueurs d'ID inférieur ou égal ont été recalculés
+    @Column(name = "dernier_joueur_id", columnDefinition = "BIGINT DEFAULT 0")
+    private Long dernierJoueurId = 0L;
+
+    @Column(name = "joueurs_total", columnDefinition = "INTEGER DEFAULT 0")
+    private Integer joueursTotal = 0;
+
+    @Column(name = "joueurs_traites", columnDefinition = "INTEGER DEFAULT 0")
+    private Integer joueursTraites = 0;
+
+    @Column(name = "date_debut")
+    private LocalDateTime dateDebut;
+
+    @Column(name = "date_fin")
+    private LocalDateTime dateFin;
+
+    @Column(name = "message_erreur", columnDefinition = "TEXT")
+    private String messageErreur;
+
+
+
+    // Méthodes de cycle de vie
+    @PrePersist
+    protected void onCreate() {
+        if (dateDebut == null) {
+            dateDebut = LocalDateTime.now();
+        }
+    }
+
+    // Méthodes utilitaires
+    public void terminer() {
+        statut = StatutRecalcul.TERMINE;
+        dateFin = LocalDateTime.now();
+        messageErreur = null;
+    }
+
+    public void echouer(String message) {
+        statut = StatutRecalcul.ECHOUE;
+        dateFin = LocalDateTime.now();
+        messageErreur = message;
+    }
+
+    public void reprendre() {
+        statut = StatutRecalcul.EN_COURS;
+        dateFin = null;
+        messageErreur = null;
+    }
+
+    // Enum
+    public enum StatutRecalcul {
+        EN_COURS, TERMINE, ECHOUE
+    }
+}
@@ -43,6 +43,13 @@ public class StatistiqueEntrainement {
     @Column(name = "nombre_absences", columnDefinition = "INTEGER DEFAULT 0")
     private Integer nombreAbsences = 0;
 
+    // Compteurs cumulés des notes globales (maintenus à chaque évaluation)
+    @Column(name = "somme_notes", precision = 8, scale = 1, columnDefinition = "DECIMAL(8,1) DEFAULT 0.0")
+    private BigDecimal sommeNotes = BigDecimal.ZERO;
+
+    @Column(name = "nombre_evaluations", columnDefinition = "INTEGER DEFAULT 0")
+    private Integer nombreEvaluations = 0;
+
     @Column(name = "taux_presence", precision = 5, scale = 2, columnDefinition = "DECIMAL(5,2) DEFAULT 0.0")
     private BigDecimal tauxPresence = BigDecimal.ZERO;
 
@@ -68,6 +75,8 @@ public class StatistiqueEntrainement {
         if (nombreEntrainementsPlanifies == null) nombreEntrainementsPlanifies = 0;
         if (nombreEntrainementsPresents == null) nombreEntrainementsPresents = 0;
         if (nombreAbsences == null) nombreAbsences = 0;
+        if (sommeNotes == null) sommeNotes = BigDecimal.ZERO;
+        if (nombreEvaluations == null) nombreEvaluations = 0;
         if (tauxPresence == null) tauxPresence = BigDecimal.ZERO;
         if (moyennePerformance == null) moyennePerformance = BigDecimal.ZERO;
         if (progressionMensuelle == null) progressionMensuelle = BigDecimal.ZERO;
@@ -136,6 +145,12 @@ public class StatistiqueEntrainement {
     public Integer getNombreAbsences() { return nombreAbsences; }
     public void setNombreAbsences(Integer nombreAbsences) { this.nombreAbsences = nombreAbsences; }
 
+    public BigDecimal getSommeNotes() { return sommeNotes; }
+    public void setSommeNotes(BigDecimal sommeNotes) { this.sommeNotes = sommeNotes; }
+
+    public Integer getNombreEvaluations() { return nombreEvaluations; }
+    public void setNombreEvaluations(Integer nombreEvaluations) { this.nombreEvaluations = nombreEvaluations; }
+
     public BigDecimal getTauxPresence() { return tauxPresence; }
     public void setTauxPresence(BigDecimal tauxPresence) { this.tauxPresence = tauxPresence; }
 
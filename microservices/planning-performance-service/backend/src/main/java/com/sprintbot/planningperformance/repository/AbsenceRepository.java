@@ -2,11 +2,13 @@ package com.sprintbot.planningperformance.repository;
 
 import com.sprintbot.planningperformance.entity.Absence;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -117,4 +119,20 @@ public interface AbsenceRepository extends JpaRepository<Absence, Long> {
            "GROUP BY e.typeEntrainement " +
            "ORDER BY COUNT(a) DESC")
     List<Object[]> getAbsencesParTypeEntrainement(@Param("joueurId") Long joueurId);
+
+    // Clôture en lot : absence automatique pour chaque joueur encore inscrit, anti-jointure sur les absences déclarées
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO planning_performance.absences " +
+           "(entrainement_id, joueur_id, motif, description, justifiee, declarant_id, date_declaration) " +
+           "SELECT pa.entrainement_id, pa.joueur_id, 'AUTRE', 'Absence automatique - non présent', FALSE, " +
+           "pa.joueur_id, :dateDeclaration " +
+           "FROM planning_performance.participations pa " +
+           "WHERE pa.entrainement_id IN (:entrainementIds) " +
+           "AND pa.statut_participation = 'INSCRIT' " +
+           "AND NOT EXISTS (SELECT 1 FROM planning_performance.absences a " +
+           "WHERE a.entrainement_id = pa.entrainement_id AND a.joueur_id = pa.joueur_id) " +
+           "ON CONFLICT (entrainement_id, joueur_id) DO NOTHING", nativeQuery = true)
+    int creerAbsencesAutomatiques(
+            @Param("entrainementIds") List<Long> entrainementIds,
+            @Param("dateDeclaration") LocalDateTime dateDeclaration);
 }
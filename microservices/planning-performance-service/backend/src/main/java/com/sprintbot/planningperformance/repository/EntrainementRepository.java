@@ -2,6 +2,7 @@ package com.sprintbot.planningperformance.repository;
 
 import com.sprintbot.planningperformance.entity.Entrainement;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -89,4 +90,28 @@ public interface EntrainementRepository extends JpaRepository<Entrainement, Long
            "AND e.dateEntrainement >= :dateActuelle " +
            "ORDER BY e.dateEntrainement ASC")
     List<Entrainement> findEntrainementsAvecPlacesDisponibles(@Param("dateActuelle") LocalDate dateActuelle);
+
+    // Réservation atomique d'une place : échoue (0 ligne) si la capacité est atteinte
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE planning_performance.entrainements SET places_prises = places_prises + 1 " +
+           "WHERE id = :entrainementId " +
+           "AND (nombre_max_joueurs IS NULL OR places_prises < nombre_max_joueurs)", nativeQuery = true)
+    int reserverPlace(@Param("entrainementId") Long entrainementId);
+
+    // Libération de places hors clôture (changement de statut, désinscription)
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE planning_performance.entrainements " +
+           "SET places_prises = GREATEST(0, places_prises + :delta) " +
+           "WHERE id = :entrainementId", nativeQuery = true)
+    int ajusterPlacesPrises(@Param("entrainementId") Long entrainementId, @Param("delta") int delta);
+
+    // Clôture en lot : libère les places des joueurs encore inscrits
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE planning_performance.entrainements e " +
+           "SET places_prises = GREATEST(0, e.places_prises - d.inscrits) " +
+           "FROM (SELECT entrainement_id, COUNT(*) AS inscrits FROM planning_performance.participations " +
+           "WHERE entrainement_id IN (:entrainementIds) AND statut_participation = 'INSCRIT' " +
+           "GROUP BY entrainement_id) d " +
+           "WHERE e.id = d.entrainement_id", nativeQuery = true)
+    int libererPlacesInscrits(@Param("entrainementIds") List<Long> entrainementIds);
 }
@@ -36,6 +36,11 @@ public interface ObjectifIndividuelRepository extends JpaRepository<ObjectifIndi
            "ORDER BY o.dateEcheance ASC NULLS LAST")
     List<ObjectifIndividuel> getObjectifsEnCours(@Param("joueurId") Long joueurId);
 
+    // Progression moyenne des objectifs en cours d'un joueur
+    @Query("SELECT AVG(o.progression) FROM ObjectifIndividuel o WHERE o.joueurId = :joueurId " +
+           "AND o.statut = 'EN_COURS'")
+    Double getProgressionMoyenneEnCours(@Param("joueurId") Long joueurId);
+
     // Objectifs échus
     @Query("SELECT o FROM ObjectifIndividuel o WHERE o.dateEcheance < :dateActuelle " +
            "AND o.statut = 'EN_COURS' " +
@@ -2,6 +2,7 @@ package com.sprintbot.planningperformance.repository;
 
 import com.sprintbot.planningperformance.entity.Participation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -70,6 +71,39 @@ public interface ParticipationRepository extends JpaRepository<Participation, Lo
             @Param("dateDebut") LocalDate dateDebut,
             @Param("dateFin") LocalDate dateFin);
 
+    // Agrégats de participation de tous les joueurs pour une période
+    @Query("SELECT p.joueurId, COUNT(p), " +
+           "COUNT(CASE WHEN p.statutParticipation = 'PRESENT' THEN 1 END), " +
+           "COUNT(CASE WHEN p.statutParticipation IN ('ABSENT', 'EXCUSE') THEN 1 END) " +
+           "FROM Participation p JOIN p.entrainement e " +
+           "WHERE e.dateEntrainement BETWEEN :dateDebut AND :dateFin " +
+           "GROUP BY p.joueurId")
+    List<Object[]> getAgregatsParticipationParJoueur(
+            @Param("dateDebut") LocalDate dateDebut,
+            @Param("dateFin") LocalDate dateFin);
+
+    // Agrégats de participation d'un joueur pour une période (0 ou 1 ligne, même forme que ci-dessus)
+    @Query("SELECT p.joueurId, COUNT(p), " +
+           "COUNT(CASE WHEN p.statutParticipation = 'PRESENT' THEN 1 END), " +
+           "COUNT(CASE WHEN p.statutParticipation IN ('ABSENT', 'EXCUSE') THEN 1 END) " +
+           "FROM Participation p JOIN p.entrainement e " +
+           "WHERE p.joueurId = :joueurId AND e.dateEntrainement BETWEEN :dateDebut AND :dateFin " +
+           "GROUP BY p.joueurId")
+    List<Object[]> getAgregatsParticipationJoueur(
+            @Param("joueurId") Long joueurId,
+            @Param("dateDebut") LocalDate dateDebut,
+            @Param("dateFin") LocalDate dateFin);
+
+    // Agrégats de participation par joueur et par mois pour un lot de joueurs
+    @Query("SELECT p.joueurId, EXTRACT(YEAR FROM e.dateEntrainement), EXTRACT(MONTH FROM e.dateEntrainement), " +
+           "COUNT(p), " +
+           "COUNT(CASE WHEN p.statutParticipation = 'PRESENT' THEN 1 END), " +
+           "COUNT(CASE WHEN p.statutParticipation IN ('ABSENT', 'EXCUSE') THEN 1 END) " +
+           "FROM Participation p JOIN p.entrainement e " +
+           "WHERE p.joueurId IN :joueurIds " +
+           "GROUP BY p.joueurId, EXTRACT(YEAR FROM e.dateEntrainement), EXTRACT(MONTH FROM e.dateEntrainement)")
+    List<Object[]> getAgregatsParticipationParJoueurEtMois(@Param("joueurIds") List<Long> joueurIds);
+
     // Statistiques de participation par mois
     @Query("SELECT EXTRACT(MONTH FROM e.dateEntrainement) as mois, " +
            "EXTRACT(YEAR FROM e.dateEntrainement) as annee, " +
@@ -100,4 +134,31 @@ public interface ParticipationRepository extends JpaRepository<Participation, Lo
     List<Participation> findParticipationsRecentes(
             @Param("joueurId") Long joueurId,
             @Param("limite") int limite);
+
+    // Historique d'un joueur, première page (ordre stable pour la pagination par curseur)
+    @Query("SELECT p FROM Participation p JOIN p.entrainement e " +
+           "WHERE p.joueurId = :joueurId " +
+           "ORDER BY e.dateEntrainement DESC, p.id DESC " +
+           "LIMIT :limite")
+    List<Participation> getParticipationsHistorique(
+            @Param("joueurId") Long joueurId,
+            @Param("limite") int limite);
+
+    // Historique d'un joueur, page suivant le curseur (date d'entraînement, id)
+    @Query("SELECT p FROM Participation p JOIN p.entrainement e " +
+           "WHERE p.joueurId = :joueurId " +
+           "AND (e.dateEntrainement < :avantDate OR (e.dateEntrainement = :avantDate AND p.id < :avantId)) " +
+           "ORDER BY e.dateEntrainement DESC, p.id DESC " +
+           "LIMIT :limite")
+    List<Participation> getParticipationsHistoriqueAvant(
+            @Param("joueurId") Long joueurId,
+            @Param("avantDate") LocalDate avantDate,
+            @Param("avantId") Long avantId,
+            @Param("limite") int limite);
+
+    // Clôture en lot : les joueurs encore inscrits passent absents
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE planning_performance.participations SET statut_participation = 'ABSENT' " +
+           "WHERE entrainement_id IN (:entrainementIds) AND statut_participation = 'INSCRIT'", nativeQuery = true)
+    int marquerInscritsAbsents(@Param("entrainementIds") List<Long> entrainementIds);
 }
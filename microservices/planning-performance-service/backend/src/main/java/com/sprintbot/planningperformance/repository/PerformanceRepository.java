@@ -2,12 +2,14 @@ package com.sprintbot.planningperformance.repository;
 
 import com.sprintbot.planningperformance.entity.Performance;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +28,21 @@ public interface PerformanceRepository extends JpaRepository<Performance, Long>
     // Recherche par évaluateur
     List<Performance> findByEvaluateurIdOrderByIdDesc(Long evaluateurId);
 
+    // Moyennes par domaine d'un joueur sur une période : [nombre de performances, évaluations complètes,
+    // moyenne technique, moyenne physique, moyenne mentale] (moyennes sur les évaluations complètes)
+    @Query("SELECT COUNT(p), " +
+           "SUM(CASE WHEN p.noteTechnique IS NOT NULL AND p.notePhysique IS NOT NULL AND p.noteMental IS NOT NULL THEN 1 ELSE 0 END), " +
+           "AVG(CASE WHEN p.noteTechnique IS NOT NULL AND p.notePhysique IS NOT NULL AND p.noteMental IS NOT NULL THEN p.noteTechnique END), " +
+           "AVG(CASE WHEN p.noteTechnique IS NOT NULL AND p.notePhysique IS NOT NULL AND p.noteMental IS NOT NULL THEN p.notePhysique END), " +
+           "AVG(CASE WHEN p.noteTechnique IS NOT NULL AND p.notePhysique IS NOT NULL AND p.noteMental IS NOT NULL THEN p.noteMental END) " +
+           "FROM Performance p JOIN p.entrainement e " +
+           "WHERE p.joueurId = :joueurId " +
+           "AND e.dateEntrainement BETWEEN :dateDebut AND :dateFin")
+    Object[] getMoyennesParDomaine(
+            @Param("joueurId") Long joueurId,
+            @Param("dateDebut") LocalDate dateDebut,
+            @Param("dateFin") LocalDate dateFin);
+
     // Performances d'un joueur pour une période
     @Query("SELECT p FROM Performance p JOIN p.entrainement e " +
            "WHERE p.joueurId = :joueurId " +
@@ -45,6 +62,31 @@ public interface PerformanceRepository extends JpaRepository<Performance, Long>
             @Param("dateDebut") LocalDate dateDebut,
             @Param("dateFin") LocalDate dateFin);
 
+    // Somme et nombre des notes globales de tous les joueurs pour une période
+    @Query("SELECT p.joueurId, SUM(p.noteGlobale), COUNT(p.noteGlobale) FROM Performance p JOIN p.entrainement e " +
+           "WHERE e.dateEntrainement BETWEEN :dateDebut AND :dateFin " +
+           "GROUP BY p.joueurId")
+    List<Object[]> getNotesPerformanceParJoueur(
+            @Param("dateDebut") LocalDate dateDebut,
+            @Param("dateFin") LocalDate dateFin);
+
+    // Somme et nombre des notes globales d'un joueur pour une période (0 ou 1 ligne)
+    @Query("SELECT p.joueurId, SUM(p.noteGlobale), COUNT(p.noteGlobale) FROM Performance p JOIN p.entrainement e " +
+           "WHERE p.joueurId = :joueurId AND e.dateEntrainement BETWEEN :dateDebut AND :dateFin " +
+           "GROUP BY p.joueurId")
+    List<Object[]> getNotesPerformanceJoueur(
+            @Param("joueurId") Long joueurId,
+            @Param("dateDebut") LocalDate dateDebut,
+            @Param("dateFin") LocalDate dateFin);
+
+    // Somme et nombre des notes globales par joueur et par mois pour un lot de joueurs
+    @Query("SELECT p.joueurId, EXTRACT(YEAR FROM e.dateEntrainement), EXTRACT(MONTH FROM e.dateEntrainement), " +
+           "SUM(p.noteGlobale), COUNT(p.noteGlobale) " +
+           "FROM Performance p JOIN p.entrainement e " +
+           "WHERE p.joueurId IN :joueurIds " +
+           "GROUP BY p.joueurId, EXTRACT(YEAR FROM e.dateEntrainement), EXTRACT(MONTH FROM e.dateEntrainement)")
+    List<Object[]> getNotesPerformanceParJoueurEtMois(@Param("joueurIds") List<Long> joueurIds);
+
     // Évolution des performances d'un joueur
     @Query("SELECT e.dateEntrainement, p.noteGlobale FROM Performance p JOIN p.entrainement e " +
            "WHERE p.joueurId = :joueurId " +
@@ -124,4 +166,42 @@ public interface PerformanceRepository extends JpaRepository<Performance, Long>
     @Query("SELECT COUNT(p) > 0 FROM Performance p " +
            "WHERE p.entrainement.id = :entrainementId AND p.joueurId = :joueurId")
     boolean existsPerformance(@Param("entrainementId") Long entrainementId, @Param("joueurId") Long joueurId);
+
+    // Historique d'un joueur, première page (ordre stable pour la pagination par curseur)
+    @Query("SELECT p FROM Performance p JOIN p.entrainement e " +
+           "WHERE p.joueurId = :joueurId " +
+           "ORDER BY e.dateEntrainement DESC, p.id DESC " +
+           "LIMIT :limite")
+    List<Performance> getPerformancesHistorique(
+            @Param("joueurId") Long joueurId,
+            @Param("limite") int limite);
+
+    // Historique d'un joueur, page suivant le curseur (date d'entraînement, id)
+    @Query("SELECT p FROM Performance p JOIN p.entrainement e " +
+           "WHERE p.joueurId = :joueurId " +
+           "AND (e.dateEntrainement < :avantDate OR (e.dateEntrainement = :avantDate AND p.id < :avantId)) " +
+           "ORDER BY e.dateEntrainement DESC, p.id DESC " +
+           "LIMIT :limite")
+    List<Performance> getPerformancesHistoriqueAvant(
+            @Param("joueurId") Long joueurId,
+            @Param("avantDate") LocalDate avantDate,
+            @Param("avantId") Long avantId,
+            @Param("limite") int limite);
+
+    // Création en lot des fiches d'évaluation : une seule instruction INSERT ... SELECT,
+    // anti-jointure sur les fiches existantes
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO planning_performance.performances " +
+           "(entrainement_id, joueur_id, evaluateur_id, date_evaluation, objectifs_atteints) " +
+           "SELECT pa.entrainement_id, pa.joueur_id, :evaluateurId, :dateEvaluation, FALSE " +
+           "FROM planning_performance.participations pa " +
+           "WHERE pa.entrainement_id IN (:entrainementIds) " +
+           "AND pa.statut_participation = 'PRESENT' " +
+           "AND NOT EXISTS (SELECT 1 FROM planning_performance.performances pe " +
+           "WHERE pe.entrainement_id = pa.entrainement_id AND pe.joueur_id = pa.joueur_id) " +
+           "ON CONFLICT (entrainement_id, joueur_id) DO NOTHING", nativeQuery = true)
+    int creerPerformancesJoueursPresents(
+            @Param("entrainementIds") List<Long> entrainementIds,
+            @Param("evaluateurId") Long evaluateurId,
+            @Param("dateEvaluation") LocalDateTime dateEvaluation);
 }
@@ -0,0 +1,14 @@
+package com.sprintbot.planningperformance.repository;
+
+import com.sprintbot.planningperformance.entity.RecalculStatistiques;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface RecalculStatistiquesRepository extends JpaRepository<RecalculStatistiques, Long> {
+
+    // Dernier recalcul lancé
+    Optional<RecalculStatistiques> findFirstByOrderByIdDesc();
+}
@@ -1,11 +1,16 @@
 package com.sprintbot.planningperformance.repository;
 
 import com.sprintbot.planningperformance.entity.StatistiqueEntrainement;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +38,23 @@ public interface StatistiqueEntrainementRepository extends JpaRepository<Statist
             @Param("annee") Integer annee,
             @Param("limite") int limite);
 
+    // Joueurs avec le plus faible taux de présence
+    @Query("SELECT s FROM StatistiqueEntrainement s WHERE s.mois = :mois AND s.annee = :annee " +
+           "ORDER BY s.tauxPresence ASC " +
+           "LIMIT :limite")
+    List<StatistiqueEntrainement> getJoueursAvecPlusFaibleTauxPresence(
+            @Param("mois") Integer mois,
+            @Param("annee") Integer annee,
+            @Param("limite") int limite);
+
+    // Meilleurs mois d'un joueur (taux de présence)
+    @Query("SELECT s FROM StatistiqueEntrainement s WHERE s.joueurId = :joueurId " +
+           "ORDER BY s.tauxPresence DESC " +
+           "LIMIT :limite")
+    List<StatistiqueEntrainement> getMeilleuresStatistiquesJoueur(
+            @Param("joueurId") Long joueurId,
+            @Param("limite") int limite);
+
     // Joueurs avec les meilleures performances
     @Query("SELECT s FROM StatistiqueEntrainement s WHERE s.mois = :mois AND s.annee = :annee " +
            "ORDER BY s.moyennePerformance DESC " +
@@ -79,6 +101,23 @@ public interface StatistiqueEntrainementRepository extends JpaRepository<Statist
             @Param("joueurId") Long joueurId,
             @Param("limite") int limite);
 
+    // Série chronologique d'un joueur (colonnes seules, pour les calculs de profil et de tendance)
+    @Query("SELECT s.annee, s.mois, s.tauxPresence, s.moyennePerformance FROM StatistiqueEntrainement s " +
+           "WHERE s.joueurId = :joueurId " +
+           "ORDER BY s.annee ASC, s.mois ASC")
+    List<Object[]> getSerieJoueur(@Param("joueurId") Long joueurId);
+
+    // Historique d'un joueur, page suivant le curseur (année, mois)
+    @Query("SELECT s FROM StatistiqueEntrainement s WHERE s.joueurId = :joueurId " +
+           "AND (s.annee < :avantAnnee OR (s.annee = :avantAnnee AND s.mois < :avantMois)) " +
+           "ORDER BY s.annee DESC, s.mois DESC " +
+           "LIMIT :limite")
+    List<StatistiqueEntrainement> getStatistiquesAvant(
+            @Param("joueurId") Long joueurId,
+            @Param("avantAnnee") Integer avantAnnee,
+            @Param("avantMois") Integer avantMois,
+            @Param("limite") int limite);
+
     // Comparaison avec la moyenne de l'équipe
     @Query("SELECT " +
            "(SELECT s1.tauxPresence FROM StatistiqueEntrainement s1 " +
@@ -131,6 +170,127 @@ public interface StatistiqueEntrainementRepository extends JpaRepository<Statist
             @Param("anneeFin") Integer anneeFin,
             @Param("moisFin") Integer moisFin);
 
+    // Pagination par clé des lignes d'une période (export en flux) ; période en mois absolus (annee * 12 + mois)
+    @Query("SELECT s.id, s.joueurId, s.annee, s.mois, s.nombreEntrainementsPlanifies, " +
+           "s.nombreEntrainementsPresents, s.nombreAbsences, s.tauxPresence, s.moyennePerformance, " +
+           "s.progressionMensuelle FROM StatistiqueEntrainement s " +
+           "WHERE s.annee * 12 + s.mois BETWEEN :debut AND :fin " +
+           "AND s.id > :apres " +
+           "ORDER BY s.id ASC " +
+           "LIMIT :taille")
+    List<Object[]> findLignesExportApres(
+            @Param("debut") int debut,
+            @Param("fin") int fin,
+            @Param("apres") Long apres,
+            @Param("taille") int taille);
+
+    // Pagination par clé des joueurs ayant des statistiques (recalcul par lots)
+    @Query("SELECT DISTINCT s.joueurId FROM StatistiqueEntrainement s " +
+           "WHERE s.joueurId > :apres " +
+           "ORDER BY s.joueurId ASC " +
+           "LIMIT :taille")
+    List<Long> findJoueurIdsApres(@Param("apres") Long apres, @Param("taille") int taille);
+
+    @Query("SELECT COUNT(DISTINCT s.joueurId) FROM StatistiqueEntrainement s WHERE s.joueurId > :apres")
+    long countJoueursApres(@Param("apres") Long apres);
+
+    // Statistiques d'un lot de joueurs, dans l'ordre chronologique par joueur, verrouillées
+    // pour le recalcul (lecture des agrégats après verrouillage, ordre par joueur)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<StatistiqueEntrainement> findByJoueurIdInOrderByJoueurIdAscAnneeAscMoisAsc(List<Long> joueurIds);
+
+    // Statistique d'un joueur pour un mois, verrouillée
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM StatistiqueEntrainement s " +
+           "WHERE s.joueurId = :joueurId AND s.mois = :mois AND s.annee = :annee")
+    Optional<StatistiqueEntrainement> verrouillerStatistique(
+            @Param("joueurId") Long joueurId,
+            @Param("mois") Integer mois,
+            @Param("annee") Integer annee);
+
+    // Statistiques d'un mois pour tous les joueurs, verrouillées
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM StatistiqueEntrainement s WHERE s.mois = :mois AND s.annee = :annee " +
+           "ORDER BY s.joueurId ASC")
+    List<StatistiqueEntrainement> verrouillerStatistiquesMois(
+            @Param("mois") Integer mois,
+            @Param("annee") Integer annee);
+
+    // Recalcul d'un mois : création des lignes des joueurs ayant une participation sur la période
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO planning_performance.statistiques_entrainement (joueur_id, mois, annee) " +
+           "SELECT DISTINCT pa.joueur_id, :mois, :annee " +
+           "FROM planning_performance.participations pa " +
+           "JOIN planning_performance.entrainements e ON e.id = pa.entrainement_id " +
+           "WHERE e.date_entrainement BETWEEN :dateDebut AND :dateFin " +
+           "ON CONFLICT (joueur_id, mois, annee) DO NOTHING", nativeQuery = true)
+    int initialiserStatistiquesMois(
+            @Param("mois") Integer mois,
+            @Param("annee") Integer annee,
+            @Param("dateDebut") LocalDate dateDebut,
+            @Param("dateFin") LocalDate dateFin);
+
+    // Mise à jour incrémentale : création de la ligne du mois si absente
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO planning_performance.statistiques_entrainement (joueur_id, mois, annee) " +
+           "VALUES (:joueurId, :mois, :annee) " +
+           "ON CONFLICT (joueur_id, mois, annee) DO NOTHING", nativeQuery = true)
+    int initialiserStatistique(
+            @Param("joueurId") Long joueurId,
+            @Param("mois") Integer mois,
+            @Param("annee") Integer annee);
+
+    // Mise à jour incrémentale : application atomique d'un delta sur les compteurs et les taux dérivés
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE planning_performance.statistiques_entrainement SET " +
+           "nombre_entrainements_planifies = COALESCE(nombre_entrainements_planifies, 0) + :deltaPlanifies, " +
+           "nombre_entrainements_presents = COALESCE(nombre_entrainements_presents, 0) + :deltaPresents, " +
+           "nombre_absences = COALESCE(nombre_absences, 0) + :deltaAbsences, " +
+           "somme_notes = COALESCE(somme_notes, 0) + :deltaSommeNotes, " +
+           "nombre_evaluations = COALESCE(nombre_evaluations, 0) + :deltaEvaluations, " +
+           "taux_presence = CASE WHEN COALESCE(nombre_entrainements_planifies, 0) + :deltaPlanifies > 0 " +
+           "THEN ROUND((COALESCE(nombre_entrainements_presents, 0) + :deltaPresents) * 100.0 " +
+           "/ (COALESCE(nombre_entrainements_planifies, 0) + :deltaPlanifies), 2) ELSE 0 END, " +
+           "moyenne_performance = CASE WHEN COALESCE(nombre_evaluations, 0) + :deltaEvaluations > 0 " +
+           "THEN ROUND((COALESCE(somme_notes, 0) + :deltaSommeNotes) " +
+           "/ (COALESCE(nombre_evaluations, 0) + :deltaEvaluations), 1) ELSE 0 END, " +
+           "updated_at = CURRENT_TIMESTAMP " +
+           "WHERE joueur_id = :joueurId AND mois = :mois AND annee = :annee", nativeQuery = true)
+    int appliquerDelta(
+            @Param("joueurId") Long joueurId,
+            @Param("mois") Integer mois,
+            @Param("annee") Integer annee,
+            @Param("deltaPlanifies") int deltaPlanifies,
+            @Param("deltaPresents") int deltaPresents,
+            @Param("deltaAbsences") int deltaAbsences,
+            @Param("deltaSommeNotes") BigDecimal deltaSommeNotes,
+            @Param("deltaEvaluations") int deltaEvaluations);
+
+    // Clôture en lot : création des lignes du mois des joueurs encore inscrits
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO planning_performance.statistiques_entrainement (joueur_id, mois, annee) " +
+           "SELECT DISTINCT pa.joueur_id, EXTRACT(MONTH FROM e.date_entrainement), EXTRACT(YEAR FROM e.date_entrainement) " +
+           "FROM planning_performance.participations pa " +
+           "JOIN planning_performance.entrainements e ON e.id = pa.entrainement_id " +
+           "WHERE pa.entrainement_id IN (:entrainementIds) AND pa.statut_participation = 'INSCRIT' " +
+           "ON CONFLICT (joueur_id, mois, annee) DO NOTHING", nativeQuery = true)
+    int initialiserStatistiquesInscrits(@Param("entrainementIds") List<Long> entrainementIds);
+
+    // Clôture en lot : une absence de plus par séance où le joueur est encore inscrit
+    // (présents et planifiés inchangés, donc taux de présence inchangé)
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE planning_performance.statistiques_entrainement s SET " +
+           "nombre_absences = COALESCE(s.nombre_absences, 0) + d.absences, " +
+           "updated_at = CURRENT_TIMESTAMP " +
+           "FROM (SELECT pa.joueur_id, EXTRACT(MONTH FROM e.date_entrainement) AS mois, " +
+           "EXTRACT(YEAR FROM e.date_entrainement) AS annee, COUNT(*) AS absences " +
+           "FROM planning_performance.participations pa " +
+           "JOIN planning_performance.entrainements e ON e.id = pa.entrainement_id " +
+           "WHERE pa.entrainement_id IN (:entrainementIds) AND pa.statut_participation = 'INSCRIT' " +
+           "GROUP BY pa.joueur_id, EXTRACT(MONTH FROM e.date_entrainement), EXTRACT(YEAR FROM e.date_entrainement)) d " +
+           "WHERE s.joueur_id = d.joueur_id AND s.mois = d.mois AND s.annee = d.annee", nativeQuery = true)
+    int ajouterAbsencesInscrits(@Param("entrainementIds") List<Long> entrainementIds);
+
     // Méthodes pour les statistiques avancées
     List<StatistiqueEntrainement> findByJoueurIdOrderByTauxPresenceDesc(Long joueurId);
     List<StatistiqueEntrainement> findByJoueurIdOrderByAnneeAscMoisAsc(Long joueurId);
@@ -12,6 +12,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -30,6 +31,15 @@ public class AbsenceService {
     @Autowired
     private ParticipationService participationService;
 
+    @Autowired
+    private StatistiqueIncrementaleService statistiqueIncrementaleService;
+
+    @Autowired
+    private PlacesEntrainementService placesService;
+
+    @Autowired
+    private ClotureAbsencesService clotureAbsencesService;
+
     // =====================================================
     // CRUD Operations
     // =====================================================
@@ -55,12 +65,15 @@ public class AbsenceService {
         
         if (participationOpt.isPresent()) {
             Participation participation = participationOpt.get();
+            Participation.StatutParticipation ancienStatut = participation.getStatutParticipation();
             if (absence.estJustifiee()) {
                 participation.setStatutParticipation(Participation.StatutParticipation.EXCUSE);
             } else {
                 participation.setStatutParticipation(Participation.StatutParticipation.ABSENT);
             }
             participationRepository.save(participation);
+            statistiqueIncrementaleService.enregistrerChangementStatut(participation, ancienStatut);
+            placesService.enregistrerChangementStatut(participation, ancienStatut);
         }
 
         return absenceRepository.save(absence);
@@ -96,12 +109,15 @@ public class AbsenceService {
                     
                     if (participationOpt.isPresent()) {
                         Participation participation = participationOpt.get();
+                        Participation.StatutParticipation ancienStatut = participation.getStatutParticipation();
                         if (absence.estJustifiee()) {
                             participation.setStatutParticipation(Participation.StatutParticipation.EXCUSE);
                         } else {
                             participation.setStatutParticipation(Participation.StatutParticipation.ABSENT);
                         }
                         participationRepository.save(participation);
+                        statistiqueIncrementaleService.enregistrerChangementStatut(participation, ancienStatut);
+                        placesService.enregistrerChangementStatut(participation, ancienStatut);
                     }
 
                     return absenceRepository.save(absence);
@@ -121,8 +137,11 @@ public class AbsenceService {
                     
                     if (participationOpt.isPresent()) {
                         Participation participation = participationOpt.get();
+                        Participation.StatutParticipation ancienStatut = participation.getStatutParticipation();
                         participation.setStatutParticipation(Participation.StatutParticipation.EXCUSE);
                         participationRepository.save(participation);
+                        statistiqueIncrementaleService.enregistrerChangementStatut(participation, ancienStatut);
+                        placesService.enregistrerChangementStatut(participation, ancienStatut);
                     }
 
                     return absenceRepository.save(absence);
@@ -145,8 +164,11 @@ public class AbsenceService {
         
         if (participationOpt.isPresent()) {
             Participation participation = participationOpt.get();
+            Participation.StatutParticipation ancienStatut = participation.getStatutParticipation();
             participation.setStatutParticipation(Participation.StatutParticipation.INSCRIT);
             participationRepository.save(participation);
+            statistiqueIncrementaleService.enregistrerChangementStatut(participation, ancienStatut);
+            placesService.enregistrerChangementStatut(participation, ancienStatut);
         }
 
         absenceRepository.deleteById(id);
@@ -297,33 +319,12 @@ public class AbsenceService {
     // Gestion automatique
     // =====================================================
 
-    public void marquerAbsencesAutomatiques(Long entrainementId) {
-        // Récupérer tous les joueurs inscrits mais non présents
-        List<Participation> participations = participationRepository.findByEntrainementIdOrderByJoueurId(entrainementId);
-        
-        Entrainement entrainement = entrainementRepository.findById(entrainementId)
-                .orElseThrow(() -> new RuntimeException("Entraînement non trouvé"));
+    public Map<String, Integer> marquerAbsencesAutomatiques(Long entrainementId) {
+        return clotureAbsencesService.cloturerEntrainements(List.of(entrainementId));
+    }
 
-        for (Participation participation : participations) {
-            if (participation.getStatutParticipation() == Participation.StatutParticipation.INSCRIT) {
-                // Marquer comme absent si pas déjà déclaré
-                if (!absenceRepository.hasAbsence(entrainementId, participation.getJoueurId())) {
-                    Absence absence = new Absence();
-                    absence.setEntrainement(entrainement);
-                    absence.setJoueurId(participation.getJoueurId());
-                    absence.setMotif(Absence.MotifAbsence.AUTRE);
-                    absence.setDescription("Absence automatique - non présent");
-                    absence.setJustifiee(false);
-                    absence.setDeclarantId(participation.getJoueurId()); // Auto-déclaré
-                    absence.setDateDeclaration(java.time.LocalDateTime.now());
-                    absenceRepository.save(absence);
-                }
-                
-                // Mettre à jour le statut de participation
-                participation.setStatutParticipation(Participation.StatutParticipation.ABSENT);
-                participationRepository.save(participation);
-            }
-        }
+    public Map<String, Integer> marquerAbsencesAutomatiques(List<Long> entrainementIds) {
+        return clotureAbsencesService.cloturerEntrainements(entrainementIds);
     }
 
     // =====================================================
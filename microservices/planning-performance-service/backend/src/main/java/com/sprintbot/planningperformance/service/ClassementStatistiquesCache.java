@@ -0,0 +1,123 @@
+package com.sprintbot.planningperformance.service;
+
+import com.sprintbot.planningperformance.entity.StatistiqueEntrainement;
+import com.sprintbot.planningperformance.repository.StatistiqueEntrainementRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Classements mensuels (top K par métrique) gardés en mémoire.
+ * La mémoire est bornée par TAILLE_CLASSEMENT x NOMBRE_MAX_CLASSEMENTS, quel que
+ * soit l'effectif. Toute écriture de statistiques invalide le mois concerné
+ * après commit ; le classement est rechargé au prochain accès.
+ */
+@Component
+public class ClassementStatistiquesCache {
+
+    public static final int TAILLE_CLASSEMENT = 50;
+    private static final int NOMBRE_MAX_CLASSEMENTS = 48;
+
+    public enum Metrique {
+        PERFORMANCE, PRESENCE, PRESENCE_CROISSANTE
+    }
+
+    @Autowired
+    private StatistiqueEntrainementRepository statistiqueRepository;
+
+    private final Map<String, List<StatistiqueEntrainement>> classements =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, List<StatistiqueEntrainement>> eldest) {
+                    return size() > NOMBRE_MAX_CLASSEMENTS;
+                }
+            };
+
+    // Incrémentée à chaque invalidation : un chargement concurrent ne réinsère pas de données périmées
+    private final AtomicLong version = new AtomicLong();
+
+    // =====================================================
+    // Lecture
+    // =====================================================
+
+    public List<StatistiqueEntrainement> getClassement(Metrique metrique, int mois, int annee, int limite) {
+        int taille = Math.max(0, limite);
+        if (taille > TAILLE_CLASSEMENT) {
+            return charger(metrique, mois, annee, taille);
+        }
+
+        String cle = cle(metrique, mois, annee);
+        List<StatistiqueEntrainement> classement;
+        synchronized (classements) {
+            classement = classements.get(cle);
+        }
+
+        if (classement == null) {
+            long versionAvantChargement = version.get();
+            classement = List.copyOf(charger(metrique, mois, annee, TAILLE_CLASSEMENT));
+            synchronized (classements) {
+                if (version.get() == versionAvantChargement) {
+                    classements.put(cle, classement);
+                }
+            }
+        }
+
+        return classement.subList(0, Math.min(taille, classement.size()));
+    }
+
+    private List<StatistiqueEntrainement> charger(Metrique metrique, int mois, int annee, int limite) {
+        return switch (metrique) {
+            case PERFORMANCE -> statistiqueRepository.getJoueursAvecMeilleuresPerformances(mois, annee, limite);
+            case PRESENCE -> statistiqueRepository.getJoueursAvecMeilleurTauxPresence(mois, annee, limite);
+            case PRESENCE_CROISSANTE -> statistiqueRepository.getJoueursAvecPlusFaibleTauxPresence(mois, annee, limite);
+        };
+    }
+
+    // =====================================================
+    // Invalidation
+    // =====================================================
+
+    public void invaliderMois(int mois, int annee) {
+        apresCommit(() -> {
+            synchronized (classements) {
+                version.incrementAndGet();
+                for (Metrique metrique : Metrique.values()) {
+                    classements.remove(cle(metrique, mois, annee));
+                }
+            }
+        });
+    }
+
+    public void invaliderTout() {
+        apresCommit(() -> {
+            synchronized (classements) {
+                version.incrementAndGet();
+                classements.clear();
+            }
+        });
+    }
+
+    // Invalider avant le commit laisserait un lecteur recharger l'ancien état
+    private void apresCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private String cle(Metrique metrique, int mois, int annee) {
+        return metrique + "-" + annee + "-" + mois;
+    }
+}
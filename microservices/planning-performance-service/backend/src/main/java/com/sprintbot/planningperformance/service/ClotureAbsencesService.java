@@ -0,0 +1,63 @@
+package com.sprintbot.planningperformance.service;
+
+import com.sprintbot.planningperformance.repository.AbsenceRepository;
+import com.sprintbot.planningperformance.repository.EntrainementRepository;
+import com.sprintbot.planningperformance.repository.ParticipationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clôture des séances : les joueurs encore inscrits sont marqués absents.
+ * Traitement ensembliste sur une ou plusieurs séances : insertion des absences
+ * manquantes par anti-jointure, mise à jour des statistiques, puis un seul
+ * UPDATE des statuts de participation.
+ */
+@Service
+@Transactional
+public class ClotureAbsencesService {
+
+    @Autowired
+    private AbsenceRepository absenceRepository;
+
+    @Autowired
+    private EntrainementRepository entrainementRepository;
+
+    @Autowired
+    private ParticipationRepository participationRepository;
+
+    @Autowired
+    private StatistiqueIncrementaleService statistiqueIncrementaleService;
+
+    @Autowired
+    private PlacesEntrainementService placesService;
+
+    public Map<String, Integer> cloturerEntrainements(List<Long> entrainementIds) {
+        List<Long> ids = entrainementIds.stream().distinct().toList();
+        Map<String, Integer> resultat = new HashMap<>();
+        if (ids.isEmpty()) {
+            resultat.put("absencesCreees", 0);
+            resultat.put("participationsMarqueesAbsentes", 0);
+            return resultat;
+        }
+
+        if (entrainementRepository.findAllById(ids).size() != ids.size()) {
+            throw new RuntimeException("Entraînement non trouvé");
+        }
+
+        // L'ordre compte : absences, statistiques et places se basent sur les participations encore INSCRIT
+        int absencesCreees = absenceRepository.creerAbsencesAutomatiques(ids, LocalDateTime.now());
+        statistiqueIncrementaleService.enregistrerAbsencesAutomatiques(ids);
+        placesService.libererPlacesInscrits(ids);
+        int participationsMarquees = participationRepository.marquerInscritsAbsents(ids);
+
+        resultat.put("absencesCreees", absencesCreees);
+        resultat.put("participationsMarqueesAbsentes", participationsMarquees);
+        return resultat;
+    }
+}
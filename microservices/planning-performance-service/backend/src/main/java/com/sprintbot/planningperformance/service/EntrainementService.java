@@ -23,6 +23,9 @@ public class EntrainementService {
     @Autowired
     private ParticipationRepository participationRepository;
 
+    @Autowired
+    private ClotureAbsencesService clotureAbsencesService;
+
     // =====================================================
     // CRUD Operations
     // =====================================================
@@ -113,7 +116,10 @@ public class EntrainementService {
                         throw new IllegalStateException("Seuls les entraînements en cours peuvent être terminés");
                     }
                     entrainement.setStatut(Entrainement.StatutEntrainement.TERMINE);
-                    return entrainementRepository.save(entrainement);
+                    Entrainement termine = entrainementRepository.save(entrainement);
+                    // Les joueurs encore inscrits à la fin de la séance sont marqués absents
+                    clotureAbsencesService.cloturerEntrainements(List.of(id));
+                    return termine;
                 })
                 .orElseThrow(() -> new RuntimeException("Entraînement non trouvé avec l'ID: " + id));
     }
@@ -201,8 +207,7 @@ public class EntrainementService {
             return true; // Pas de limite
         }
 
-        Long placesPrises = participationRepository.countPlacesPrises(entrainementId);
-        return placesPrises < entrainement.getNombreMaxJoueurs();
+        return entrainement.getPlacesPrises() < entrainement.getNombreMaxJoueurs();
     }
 
     @Transactional(readOnly = true)
@@ -217,8 +222,7 @@ public class EntrainementService {
             return Integer.MAX_VALUE; // Pas de limite
         }
 
-        Long placesPrises = participationRepository.countPlacesPrises(entrainementId);
-        return Math.max(0, entrainement.getNombreMaxJoueurs() - placesPrises.intValue());
+        return Math.max(0, entrainement.getNombreMaxJoueurs() - entrainement.getPlacesPrises());
     }
 
     // =====================================================
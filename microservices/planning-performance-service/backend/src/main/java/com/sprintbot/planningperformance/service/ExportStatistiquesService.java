@@ -0,0 +1,108 @@
+package com.sprintbot.planningperformance.service;
+
+import com.sprintbot.planningperformance.repository.StatistiqueEntrainementRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Export des statistiques en flux (CSV ou NDJSON).
+ * Les lignes sont lues par pagination sur l'ID, projetées en colonnes
+ * (aucune entité chargée) et écrites page par page dans la réponse :
+ * la mémoire utilisée ne dépend pas de la longueur de la période.
+ */
+@Service
+public class ExportStatistiquesService {
+
+    private static final int TAILLE_PAGE = 500;
+
+    private static final String[] COLONNES = {
+            "id", "joueurId", "annee", "mois", "nombreEntrainementsPlanifies",
+            "nombreEntrainementsPresents", "nombreAbsences", "tauxPresence",
+            "moyennePerformance", "progressionMensuelle"
+    };
+
+    public enum Format {
+        CSV("text/csv"), NDJSON("application/x-ndjson");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+    }
+
+    @Autowired
+    private StatistiqueEntrainementRepository statistiqueRepository;
+
+    // Pas de transaction englobante : chaque page est lue puis libérée
+    public void exporter(YearMonth debut, YearMonth fin, Format format, OutputStream sortie) throws IOException {
+        int moisDebut = debut.getYear() * 12 + debut.getMonthValue();
+        int moisFin = fin.getYear() * 12 + fin.getMonthValue();
+
+        Writer writer = new OutputStreamWriter(sortie, StandardCharsets.UTF_8);
+        if (format == Format.CSV) {
+            writer.write(String.join(",", COLONNES));
+            writer.write('\n');
+        }
+        // Premier octet envoyé avant la première requête
+        writer.flush();
+
+        Long apres = 0L;
+        List<Object[]> lignes;
+        while (!(lignes = statistiqueRepository.findLignesExportApres(moisDebut, moisFin, apres, TAILLE_PAGE)).isEmpty()) {
+            for (Object[] ligne : lignes) {
+                if (format == Format.CSV) {
+                    ecrireCsv(writer, ligne);
+                } else {
+                    ecrireNdjson(writer, ligne);
+                }
+            }
+            writer.flush();
+            apres = (Long) lignes.get(lignes.size() - 1)[0];
+        }
+    }
+
+    // Toutes les colonnes sont numériques : aucun échappement nécessaire
+    private void ecrireCsv(Writer writer, Object[] ligne) throws IOException {
+        for (int i = 0; i < ligne.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (ligne[i] != null) {
+                writer.write(valeur(ligne[i]));
+            }
+        }
+        writer.write('\n');
+    }
+
+    private void ecrireNdjson(Writer writer, Object[] ligne) throws IOException {
+        writer.write('{');
+        for (int i = 0; i < ligne.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write('"');
+            writer.write(COLONNES[i]);
+            writer.write("\":");
+            writer.write(ligne[i] != null ? valeur(ligne[i]) : "null");
+        }
+        writer.write("}\n");
+    }
+
+    private String valeur(Object valeur) {
+        return valeur instanceof BigDecimal decimal ? decimal.toPlainString() : valeur.toString();
+    }
+}
@@ -327,17 +327,12 @@ public class ObjectifIndividuelService {
 
     @Transactional(readOnly = true)
     public BigDecimal getProgressionMoyenneJoueur(Long joueurId) {
-        List<ObjectifIndividuel> objectifs = objectifRepository.getObjectifsEnCours(joueurId);
+        Double moyenneProgression = objectifRepository.getProgressionMoyenneEnCours(joueurId);
         
-        if (objectifs.isEmpty()) {
+        if (moyenneProgression == null) {
             return BigDecimal.ZERO;
         }
 
-        double moyenneProgression = objectifs.stream()
-                .mapToInt(ObjectifIndividuel::getProgression)
-                .average()
-                .orElse(0.0);
-
         return BigDecimal.valueOf(moyenneProgression);
     }
 }
@@ -25,6 +25,12 @@ public class ParticipationService {
     @Autowired
     private EntrainementService entrainementService;
 
+    @Autowired
+    private StatistiqueIncrementaleService statistiqueIncrementaleService;
+
+    @Autowired
+    private PlacesEntrainementService placesService;
+
     // =====================================================
     // CRUD Operations
     // =====================================================
@@ -34,16 +40,6 @@ public class ParticipationService {
         Entrainement entrainement = entrainementRepository.findById(entrainementId)
                 .orElseThrow(() -> new RuntimeException("Entraînement non trouvé avec l'ID: " + entrainementId));
 
-        // Vérifier que le joueur n'est pas déjà inscrit
-        if (participationRepository.isJoueurInscrit(entrainementId, joueurId)) {
-            throw new IllegalStateException("Le joueur est déjà inscrit à cet entraînement");
-        }
-
-        // Vérifier qu'il y a des places disponibles
-        if (!entrainementService.aPlacesDisponibles(entrainementId)) {
-            throw new IllegalStateException("Aucune place disponible pour cet entraînement");
-        }
-
         // Vérifier que l'entraînement est dans le futur
         if (entrainement.getDateEntrainement().isBefore(LocalDate.now())) {
             throw new IllegalStateException("Impossible de s'inscrire à un entraînement passé");
@@ -54,8 +50,19 @@ public class ParticipationService {
             throw new IllegalStateException("Impossible de s'inscrire à un entraînement annulé");
         }
 
-        Participation participation = new Participation(entrainement, joueurId);
-        return participationRepository.save(participation);
+        // Vérifier que le joueur n'est pas déjà inscrit
+        if (participationRepository.isJoueurInscrit(entrainementId, joueurId)) {
+            throw new IllegalStateException("Le joueur est déjà inscrit à cet entraînement");
+        }
+
+        // Réserver une place (atomique : la capacité ne peut pas être dépassée)
+        if (!placesService.reserverPlace(entrainementId)) {
+            throw new IllegalStateException("Aucune place disponible pour cet entraînement");
+        }
+
+        Participation participation = participationRepository.save(new Participation(entrainement, joueurId));
+        statistiqueIncrementaleService.enregistrerInscription(participation);
+        return participation;
     }
 
     public void desinscrireJoueur(Long entrainementId, Long joueurId) {
@@ -68,6 +75,8 @@ public class ParticipationService {
             throw new IllegalStateException("Impossible de se désinscrire d'un entraînement en cours ou terminé");
         }
 
+        statistiqueIncrementaleService.enregistrerDesinscription(participation);
+        placesService.enregistrerDesinscription(participation);
         participationRepository.delete(participation);
     }
 
@@ -87,8 +96,12 @@ public class ParticipationService {
                                                      Participation.StatutParticipation nouveauStatut) {
         return participationRepository.findByEntrainementIdAndJoueurId(entrainementId, joueurId)
                 .map(participation -> {
+                    Participation.StatutParticipation ancienStatut = participation.getStatutParticipation();
                     participation.setStatutParticipation(nouveauStatut);
-                    return participationRepository.save(participation);
+                    Participation enregistree = participationRepository.save(participation);
+                    statistiqueIncrementaleService.enregistrerChangementStatut(enregistree, ancienStatut);
+                    placesService.enregistrerChangementStatut(enregistree, ancienStatut);
+                    return enregistree;
                 })
                 .orElseThrow(() -> new RuntimeException("Participation non trouvée"));
     }
@@ -136,6 +149,15 @@ public class ParticipationService {
         return participationRepository.findParticipationsRecentes(joueurId, limite);
     }
 
+    // Pagination par curseur : la page suivante part de la date et de l'id du dernier élément reçu
+    @Transactional(readOnly = true)
+    public List<Participation> getParticipationsHistorique(Long joueurId, LocalDate avantDate, Long avantId, int taille) {
+        if (avantDate == null || avantId == null) {
+            return participationRepository.getParticipationsHistorique(joueurId, taille);
+        }
+        return participationRepository.getParticipationsHistoriqueAvant(joueurId, avantDate, avantId, taille);
+    }
+
     // =====================================================
     // Statistiques
     // =====================================================
@@ -221,6 +243,8 @@ public class ParticipationService {
         participations.forEach(participation -> {
             if (participation.getStatutParticipation() == Participation.StatutParticipation.INSCRIT) {
                 participation.setStatutParticipation(Participation.StatutParticipation.PRESENT);
+                statistiqueIncrementaleService.enregistrerChangementStatut(
+                        participation, Participation.StatutParticipation.INSCRIT);
             }
         });
         participationRepository.saveAll(participations);
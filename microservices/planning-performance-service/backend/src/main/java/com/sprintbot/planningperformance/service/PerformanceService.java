@@ -28,6 +28,9 @@ public class PerformanceService {
     @Autowired
     private ParticipationRepository participationRepository;
 
+    @Autowired
+    private StatistiqueIncrementaleService statistiqueIncrementaleService;
+
     // =====================================================
     // CRUD Operations
     // =====================================================
@@ -58,7 +61,10 @@ public class PerformanceService {
             performance.setNoteGlobale(performance.calculerMoyenne());
         }
 
-        return performanceRepository.save(performance);
+        performance.setEntrainement(entrainement);
+        Performance enregistree = performanceRepository.save(performance);
+        statistiqueIncrementaleService.enregistrerChangementNote(enregistree, null);
+        return enregistree;
     }
 
     @Transactional(readOnly = true)
@@ -79,6 +85,8 @@ public class PerformanceService {
                         throw new IllegalStateException("Impossible de modifier une performance trop ancienne");
                     }
 
+                    BigDecimal ancienneNote = performance.getNoteGlobale();
+
                     // Mise à jour des champs
                     performance.setNoteTechnique(performanceModifiee.getNoteTechnique());
                     performance.setNotePhysique(performanceModifiee.getNotePhysique());
@@ -95,7 +103,9 @@ public class PerformanceService {
                         performance.setNoteGlobale(performance.calculerMoyenne());
                     }
 
-                    return performanceRepository.save(performance);
+                    Performance enregistree = performanceRepository.save(performance);
+                    statistiqueIncrementaleService.enregistrerChangementNote(enregistree, ancienneNote);
+                    return enregistree;
                 })
                 .orElseThrow(() -> new RuntimeException("Performance non trouvée avec l'ID: " + id));
     }
@@ -120,6 +130,7 @@ public class PerformanceService {
             throw new IllegalStateException("Impossible de supprimer une performance trop ancienne");
         }
 
+        statistiqueIncrementaleService.enregistrerSuppression(performance);
         performanceRepository.deleteById(id);
     }
 
@@ -152,6 +163,15 @@ public class PerformanceService {
         return performanceRepository.getPerformancesRecentes(joueurId, limite);
     }
 
+    // Pagination par curseur : la page suivante part de la date et de l'id du dernier élément reçu
+    @Transactional(readOnly = true)
+    public List<Performance> getPerformancesHistorique(Long joueurId, LocalDate avantDate, Long avantId, int taille) {
+        if (avantDate == null || avantId == null) {
+            return performanceRepository.getPerformancesHistorique(joueurId, taille);
+        }
+        return performanceRepository.getPerformancesHistoriqueAvant(joueurId, avantDate, avantId, taille);
+    }
+
     @Transactional(readOnly = true)
     public List<Performance> getPerformancesAvecObjectifsAtteints(Long joueurId) {
         return performanceRepository.getPerformancesAvecObjectifsAtteints(joueurId);
@@ -224,43 +244,39 @@ public class PerformanceService {
 
     @Transactional(readOnly = true)
     public String getPointFortPrincipal(Long joueurId, LocalDate dateDebut, LocalDate dateFin) {
-        List<Performance> performances = performanceRepository.findPerformancesJoueurPeriode(joueurId, dateDebut, dateFin);
-        
-        if (performances.isEmpty()) {
-            return "Aucune donnée disponible";
+        // Agrégat calculé en base : aucune entité chargée
+        Object[] moyennes = performanceRepository.getMoyennesParDomaine(joueurId, dateDebut, dateFin);
+        // Selon la version de Spring Data, la ligne unique peut être enveloppée dans un tableau
+        if (moyennes.length == 1 && moyennes[0] instanceof Object[] ligne) {
+            moyennes = ligne;
         }
 
-        BigDecimal moyenneTechnique = BigDecimal.ZERO;
-        BigDecimal moyennePhysique = BigDecimal.ZERO;
-        BigDecimal moyenneMental = BigDecimal.ZERO;
-        int count = 0;
-
-        for (Performance perf : performances) {
-            if (perf.getNoteTechnique() != null && perf.getNotePhysique() != null && perf.getNoteMental() != null) {
-                moyenneTechnique = moyenneTechnique.add(perf.getNoteTechnique());
-                moyennePhysique = moyennePhysique.add(perf.getNotePhysique());
-                moyenneMental = moyenneMental.add(perf.getNoteMental());
-                count++;
-            }
+        if (((Number) moyennes[0]).longValue() == 0) {
+            return "Aucune donnée disponible";
         }
 
-        if (count == 0) {
+        if (moyennes[1] == null || ((Number) moyennes[1]).longValue() == 0) {
             return "Aucune évaluation complète disponible";
         }
 
-        moyenneTechnique = moyenneTechnique.divide(BigDecimal.valueOf(count), 2, java.math.RoundingMode.HALF_UP);
-        moyennePhysique = moyennePhysique.divide(BigDecimal.valueOf(count), 2, java.math.RoundingMode.HALF_UP);
-        moyenneMental = moyenneMental.divide(BigDecimal.valueOf(count), 2, java.math.RoundingMode.HALF_UP);
+        double moyenneTechnique = arrondir(moyennes[2]);
+        double moyennePhysique = arrondir(moyennes[3]);
+        double moyenneMental = arrondir(moyennes[4]);
 
-        if (moyenneTechnique.compareTo(moyennePhysique) >= 0 && moyenneTechnique.compareTo(moyenneMental) >= 0) {
+        if (moyenneTechnique >= moyennePhysique && moyenneTechnique >= moyenneMental) {
             return "Technique";
-        } else if (moyennePhysique.compareTo(moyenneMental) >= 0) {
+        } else if (moyennePhysique >= moyenneMental) {
             return "Physique";
         } else {
             return "Mental";
         }
     }
 
+    // Arrondi à deux décimales, comme les notes affichées
+    private double arrondir(Object moyenne) {
+        return Math.round(((Number) moyenne).doubleValue() * 100.0) / 100.0;
+    }
+
     // =====================================================
     // Validation métier
     // =====================================================
@@ -285,23 +301,21 @@ public class PerformanceService {
     // =====================================================
 
     public void creerPerformancesEntrainement(Long entrainementId, Long evaluateurId) {
-        // Récupérer tous les joueurs présents
-        List<Participation> participationsPresentes = participationRepository
-                .findByEntrainementAndStatut(entrainementId, Participation.StatutParticipation.PRESENT);
+        creerPerformancesEntrainements(List.of(entrainementId), evaluateurId);
+    }
 
-        Entrainement entrainement = entrainementRepository.findById(entrainementId)
-                .orElseThrow(() -> new RuntimeException("Entraînement non trouvé"));
+    // Ouvre les fiches de tous les joueurs présents sur plusieurs séances en une seule requête
+    public int creerPerformancesEntrainements(List<Long> entrainementIds, Long evaluateurId) {
+        List<Long> ids = entrainementIds.stream().distinct().toList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
 
-        for (Participation participation : participationsPresentes) {
-            // Vérifier qu'une performance n'existe pas déjà
-            if (!performanceRepository.existsPerformance(entrainementId, participation.getJoueurId())) {
-                Performance performance = new Performance();
-                performance.setEntrainement(entrainement);
-                performance.setJoueurId(participation.getJoueurId());
-                performance.setEvaluateurId(evaluateurId);
-                performance.setDateEvaluation(java.time.LocalDateTime.now());
-                performanceRepository.save(performance);
-            }
+        if (entrainementRepository.findAllById(ids).size() != ids.size()) {
+            throw new RuntimeException("Entraînement non trouvé");
         }
+
+        // Fiches créées sans note : aucun impact sur les statistiques mensuelles
+        return performanceRepository.creerPerformancesJoueursPresents(ids, evaluateurId, java.time.LocalDateTime.now());
     }
 }
@@ -0,0 +1,105 @@
+package com.sprintbot.planningperformance.service;
+
+import com.sprintbot.planningperformance.entity.Participation;
+import com.sprintbot.planningperformance.repository.EntrainementRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Allocation des places des entraînements.
+ * Le nombre de places prises (participations INSCRIT ou PRESENT) est un
+ * compteur de la table entrainements, modifié par UPDATE conditionnel :
+ * une réservation est une seule instruction et ne peut jamais dépasser
+ * nombreMaxJoueurs. Les séances trouvées complètes sont mémorisées
+ * quelques secondes pour refuser les rafales d'inscriptions sans requête.
+ */
+@Service
+@Transactional
+public class PlacesEntrainementService {
+
+    private static final long DUREE_COMPLET_MS = 5_000;
+
+    @Autowired
+    private EntrainementRepository entrainementRepository;
+
+    // Séances complètes : ID -> fin de validité de l'information
+    private final Map<Long, Long> completes = new ConcurrentHashMap<>();
+
+    public boolean reserverPlace(Long entrainementId) {
+        Long completeJusqua = completes.get(entrainementId);
+        if (completeJusqua != null) {
+            if (System.currentTimeMillis() < completeJusqua) {
+                return false;
+            }
+            completes.remove(entrainementId, completeJusqua);
+        }
+
+        if (entrainementRepository.reserverPlace(entrainementId) == 0) {
+            completes.put(entrainementId, System.currentTimeMillis() + DUREE_COMPLET_MS);
+            return false;
+        }
+        return true;
+    }
+
+    public void enregistrerDesinscription(Participation participation) {
+        if (occupePlace(participation.getStatutParticipation())) {
+            liberer(participation.getEntrainement().getId(), 1);
+        }
+    }
+
+    /**
+     * Répercute un changement de statut sur le compteur de places.
+     * @throws IllegalStateException si la séance est complète et que le nouveau
+     *         statut reprend une place (la transaction est alors annulée)
+     */
+    public void enregistrerChangementStatut(Participation participation,
+                                            Participation.StatutParticipation ancienStatut) {
+        boolean avant = occupePlace(ancienStatut);
+        boolean apres = occupePlace(participation.getStatutParticipation());
+        Long entrainementId = participation.getEntrainement().getId();
+
+        if (avant && !apres) {
+            liberer(entrainementId, 1);
+        } else if (!avant && apres && !reserverPlace(entrainementId)) {
+            // Retour à l'état inscrit ou présent (ex. absence supprimée) : la place
+            // est reprise par le même UPDATE conditionnel qu'une inscription
+            throw new IllegalStateException("Aucune place disponible pour cet entraînement");
+        }
+    }
+
+    // À appeler avant le passage en lot des inscrits à ABSENT
+    public void libererPlacesInscrits(List<Long> entrainementIds) {
+        entrainementRepository.libererPlacesInscrits(entrainementIds);
+        apresCommit(() -> entrainementIds.forEach(completes::remove));
+    }
+
+    private void liberer(Long entrainementId, int nombre) {
+        entrainementRepository.ajusterPlacesPrises(entrainementId, -nombre);
+        apresCommit(() -> completes.remove(entrainementId));
+    }
+
+    private boolean occupePlace(Participation.StatutParticipation statut) {
+        return statut == Participation.StatutParticipation.INSCRIT
+                || statut == Participation.StatutParticipation.PRESENT;
+    }
+
+    private void apresCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
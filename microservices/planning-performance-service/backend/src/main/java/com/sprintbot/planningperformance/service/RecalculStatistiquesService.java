@@ -0,0 +1,262 @@
+package com.sprintbot.planningperformance.service;
+
+import com.sprintbot.planningperformance.entity.RecalculStatistiques;
+import com.sprintbot.planningperformance.repository.RecalculStatistiquesRepository;
+import com.sprintbot.planningperformance.repository.StatistiqueEntrainementRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recalcul complet des statistiques, découpé en lots de joueurs.
+ * Les lots sont lus par pagination sur l'ID joueur, traités en parallèle dans
+ * une transaction chacun, et le point de reprise n'avance que sur des lots
+ * contigus terminés : un recalcul interrompu reprend là où il s'est arrêté.
+ * En cas d'échec, les lots restants sont annulés et ceux en cours attendus
+ * avant qu'un nouveau recalcul puisse démarrer.
+ */
+@Service
+public class RecalculStatistiquesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecalculStatistiquesService.class);
+
+    private static final int TAILLE_LOT = 200;
+    // Attente maximale des lots en cours lors d'une annulation ou de l'arrêt
+    private static final Duration DELAI_ARRET = Duration.ofSeconds(60);
+
+    private final int nombreWorkers = Runtime.getRuntime().availableProcessors();
+    private final ExecutorService workers = Executors.newFixedThreadPool(nombreWorkers);
+    private final ExecutorService coordinateur = Executors.newSingleThreadExecutor();
+
+    private final AtomicBoolean enCours = new AtomicBoolean(false);
+    // Les lots pas encore démarrés se terminent sans rien faire
+    private final AtomicBoolean annulation = new AtomicBoolean(false);
+    private final AtomicInteger joueursTraites = new AtomicInteger();
+    private volatile int joueursTraitesAuDemarrage;
+    private volatile int joueursTotal;
+    private volatile LocalDateTime dateDemarrage;
+    private volatile Long recalculId;
+
+    @Autowired
+    private StatistiqueEntrainementService statistiqueService;
+
+    @Autowired
+    private StatistiqueEntrainementRepository statistiqueRepository;
+
+    @Autowired
+    private RecalculStatistiquesRepository recalculRepository;
+
+    // =====================================================
+    // Lancement
+    // =====================================================
+
+    public boolean demarrerRecalcul() {
+        if (!enCours.compareAndSet(false, true)) {
+            return false; // Un recalcul est déjà en cours
+        }
+        coordinateur.submit(this::executerRecalcul);
+        return true;
+    }
+
+    private void executerRecalcul() {
+        RecalculStatistiques recalcul = null;
+        Deque<Lot> lots = new ArrayDeque<>();
+        annulation.set(false);
+        try {
+            recalcul = preparerRecalcul();
+            Long apres = recalcul.getDernierJoueurId();
+
+            // Limite le nombre de lots en attente pour borner la mémoire
+            Semaphore places = new Semaphore(nombreWorkers * 2);
+
+            List<Long> joueurIds;
+            while (!(joueurIds = statistiqueRepository.findJoueurIdsApres(apres, TAILLE_LOT)).isEmpty()) {
+                places.acquire();
+                List<Long> lot = joueurIds;
+                Future<?> future = workers.submit(() -> {
+                    try {
+                        if (annulation.get()) {
+                            // Lot non recalculé : il ne doit pas faire avancer le point de reprise
+                            throw new CancellationException("Recalcul interrompu avant le joueur " + lot.get(0));
+                        }
+                        joueursTraites.addAndGet(statistiqueService.recalculerStatistiquesJoueurs(lot));
+                    } finally {
+                        places.release();
+                    }
+                });
+                apres = lot.get(lot.size() - 1);
+                lots.addLast(new Lot(apres, lot.size(), future));
+                recalcul = avancerPointDeReprise(recalcul, lots, false);
+            }
+
+            recalcul = avancerPointDeReprise(recalcul, lots, true);
+            recalcul.terminer();
+            recalculRepository.save(recalcul);
+        } catch (Exception e) {
+            logger.error("Erreur lors du recalcul des statistiques", e);
+            annulerLots(lots);
+            if (recalcul != null) {
+                recalcul.echouer(e.getMessage());
+                recalculRepository.save(recalcul);
+            }
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            enCours.set(false);
+        }
+    }
+
+    // Annule les lots pas encore démarrés et attend la fin de ceux en cours :
+    // aucun worker ne doit encore écrire quand le recalcul est déclaré terminé
+    private void annulerLots(Deque<Lot> lots) {
+        annulation.set(true);
+        boolean interrompu = Thread.interrupted();
+        long limite = System.nanoTime() + DELAI_ARRET.toNanos();
+        for (Lot lot : lots) {
+            while (true) {
+                try {
+                    lot.future().get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    break;
+                } catch (InterruptedException e) {
+                    interrompu = true;
+                } catch (ExecutionException | CancellationException e) {
+                    break;
+                } catch (TimeoutException e) {
+                    logger.warn("Lot de recalcul (jusqu'au joueur {}) toujours en cours après {}s, interruption",
+                            lot.dernierJoueurId(), DELAI_ARRET.toSeconds());
+                    lot.future().cancel(true);
+                    break;
+                }
+            }
+        }
+        lots.clear();
+        if (interrompu) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private RecalculStatistiques preparerRecalcul() {
+        RecalculStatistiques recalcul = recalculRepository.findFirstByOrderByIdDesc()
+                .filter(r -> r.getStatut() != RecalculStatistiques.StatutRecalcul.TERMINE)
+                .orElse(null);
+
+        if (recalcul != null) {
+            // Reprise après interruption : repartir du dernier point de reprise
+            recalcul.reprendre();
+        } else {
+            recalcul = new RecalculStatistiques();
+            recalcul.setJoueursTotal((int) statistiqueRepository.countJoueursApres(0L));
+        }
+        recalcul = recalculRepository.save(recalcul);
+
+        recalculId = recalcul.getId();
+        joueursTotal = recalcul.getJoueursTotal();
+        joueursTraitesAuDemarrage = recalcul.getJoueursTraites();
+        joueursTraites.set(joueursTraitesAuDemarrage);
+        dateDemarrage = LocalDateTime.now();
+        return recalcul;
+    }
+
+    // Fait avancer le point de reprise sur les lots terminés en tête de file.
+    // Un lot annulé ou en échec arrête l'avancée : le point de reprise reste avant lui.
+    private RecalculStatistiques avancerPointDeReprise(RecalculStatistiques recalcul, Deque<Lot> lots,
+                                                       boolean attendre) throws Exception {
+        boolean avance = false;
+        while (!lots.isEmpty() && (attendre || lots.peekFirst().future().isDone())) {
+            Lot lot = lots.peekFirst();
+            try {
+                lot.future().get(); // Propage l'erreur ou l'annulation du lot
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof CancellationException annule) {
+                    throw annule;
+                }
+                throw e;
+            }
+            lots.pollFirst();
+            recalcul.setDernierJoueurId(lot.dernierJoueurId());
+            recalcul.setJoueursTraites(recalcul.getJoueursTraites() + lot.taille());
+            avance = true;
+        }
+        return avance ? recalculRepository.save(recalcul) : recalcul;
+    }
+
+    // =====================================================
+    // Suivi
+    // =====================================================
+
+    public boolean estEnCours() {
+        return enCours.get();
+    }
+
+    public Map<String, Object> getProgression() {
+        Map<String, Object> progression = new HashMap<>();
+        progression.put("enCours", enCours.get());
+
+        if (!enCours.get()) {
+            recalculRepository.findFirstByOrderByIdDesc().ifPresent(recalcul -> {
+                progression.put("recalculId", recalcul.getId());
+                progression.put("statut", recalcul.getStatut());
+                progression.put("joueursTotal", recalcul.getJoueursTotal());
+                progression.put("joueursTraites", recalcul.getJoueursTraites());
+                progression.put("dernierJoueurId", recalcul.getDernierJoueurId());
+                progression.put("dateDebut", recalcul.getDateDebut());
+                progression.put("dateFin", recalcul.getDateFin());
+                progression.put("messageErreur", recalcul.getMessageErreur());
+            });
+            return progression;
+        }
+
+        int traites = joueursTraites.get();
+        int total = joueursTotal;
+        progression.put("recalculId", recalculId);
+        progression.put("statut", RecalculStatistiques.StatutRecalcul.EN_COURS);
+        progression.put("joueursTotal", total);
+        progression.put("joueursTraites", traites);
+        progression.put("pourcentage", total > 0 ? Math.min(100.0, traites * 100.0 / total) : 0.0);
+
+        // Estimation du temps restant à partir du débit depuis le démarrage
+        int traitesDepuisDemarrage = traites - joueursTraitesAuDemarrage;
+        if (traitesDepuisDemarrage > 0 && total > traites) {
+            long ecouleMs = Duration.between(dateDemarrage, LocalDateTime.now()).toMillis();
+            long restantMs = ecouleMs * (total - traites) / traitesDepuisDemarrage;
+            progression.put("tempsRestantSecondes", restantMs / 1000);
+        }
+        return progression;
+    }
+
+    @PreDestroy
+    public void arreter() throws InterruptedException {
+        annulation.set(true);
+        coordinateur.shutdownNow();
+        // Les lots en file se terminent immédiatement, ceux en cours vont au bout de leur transaction
+        workers.shutdown();
+        if (!workers.awaitTermination(DELAI_ARRET.toSeconds(), TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+        coordinateur.awaitTermination(DELAI_ARRET.toSeconds(), TimeUnit.SECONDS);
+    }
+
+    private record Lot(Long dernierJoueurId, int taille, Future<?> future) {
+    }
+}
@@ -0,0 +1,191 @@
+package com.sprintbot.planningperformance.service;
+
+import com.sprintbot.planningperformance.repository.StatistiqueEntrainementRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Séries mensuelles par joueur, en colonnes primitives (période, taux de
+ * présence, moyenne de performance), triées chronologiquement.
+ * Les profils et tendances se calculent sur ces tableaux sans recharger
+ * d'entités. Toute écriture de statistiques d'un joueur invalide sa série
+ * après commit ; elle est rechargée au prochain accès.
+ */
+@Component
+public class SeriesStatistiquesCache {
+
+    private static final int NOMBRE_MAX_SERIES = 2000;
+
+    @Autowired
+    private StatistiqueEntrainementRepository statistiqueRepository;
+
+    private final Map<Long, Serie> series = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Serie> eldest) {
+            return size() > NOMBRE_MAX_SERIES;
+        }
+    };
+
+    // Incrémentée à chaque invalidation : un chargement concurrent ne réinsère pas de données périmées
+    private final AtomicLong version = new AtomicLong();
+
+    // =====================================================
+    // Lecture
+    // =====================================================
+
+    public Serie getSerie(Long joueurId) {
+        Serie serie;
+        synchronized (series) {
+            serie = series.get(joueurId);
+        }
+
+        if (serie == null) {
+            long versionAvantChargement = version.get();
+            serie = charger(joueurId);
+            synchronized (series) {
+                if (version.get() == versionAvantChargement) {
+                    series.put(joueurId, serie);
+                }
+            }
+        }
+        return serie;
+    }
+
+    private Serie charger(Long joueurId) {
+        List<Object[]> lignes = statistiqueRepository.getSerieJoueur(joueurId);
+        int taille = lignes.size();
+        int[] periodes = new int[taille];
+        double[] tauxPresence = new double[taille];
+        double[] performances = new double[taille];
+
+        for (int i = 0; i < taille; i++) {
+            Object[] ligne = lignes.get(i);
+            periodes[i] = ((Number) ligne[0]).intValue() * 12 + ((Number) ligne[1]).intValue() - 1;
+            tauxPresence[i] = versDouble(ligne[2]);
+            performances[i] = versDouble(ligne[3]);
+        }
+        return new Serie(periodes, tauxPresence, performances);
+    }
+
+    private double versDouble(Object valeur) {
+        return valeur != null ? ((BigDecimal) valeur).doubleValue() : 0.0;
+    }
+
+    // =====================================================
+    // Invalidation
+    // =====================================================
+
+    public void invaliderJoueur(Long joueurId) {
+        apresCommit(() -> {
+            synchronized (series) {
+                version.incrementAndGet();
+                series.remove(joueurId);
+            }
+        });
+    }
+
+    public void invaliderTout() {
+        apresCommit(() -> {
+            synchronized (series) {
+                version.incrementAndGet();
+                series.clear();
+            }
+        });
+    }
+
+    // Invalider avant le commit laisserait un lecteur recharger l'ancien état
+    private void apresCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Série immuable d'un joueur. Les périodes sont en mois absolus
+     * (annee * 12 + mois - 1), croissantes.
+     */
+    public static final class Serie {
+
+        private final int[] periodes;
+        private final double[] tauxPresence;
+        private final double[] performances;
+
+        private Serie(int[] periodes, double[] tauxPresence, double[] performances) {
+            this.periodes = periodes;
+            this.tauxPresence = tauxPresence;
+            this.performances = performances;
+        }
+
+        public int nombreMois(int annee) {
+            return finAnnee(annee) - debutAnnee(annee);
+        }
+
+        public double moyennePresence(int annee) {
+            return moyenne(tauxPresence, debutAnnee(annee), finAnnee(annee));
+        }
+
+        public double moyennePerformance(int annee) {
+            return moyenne(performances, debutAnnee(annee), finAnnee(annee));
+        }
+
+        // Compare la moitié la plus récente des derniers mois à la plus ancienne
+        public boolean enProgression(int nombreMois) {
+            int taille = Math.min(Math.max(0, nombreMois), periodes.length);
+            if (taille < 2) {
+                return false;
+            }
+            int fin = periodes.length;
+            int milieu = fin - taille / 2;
+            return moyenne(performances, milieu, fin) > moyenne(performances, fin - taille, milieu);
+        }
+
+        private int debutAnnee(int annee) {
+            return premierIndexDepuis(annee * 12);
+        }
+
+        private int finAnnee(int annee) {
+            return premierIndexDepuis((annee + 1) * 12);
+        }
+
+        // Premier index dont la période est >= periode (recherche dichotomique)
+        private int premierIndexDepuis(int periode) {
+            int bas = 0;
+            int haut = periodes.length;
+            while (bas < haut) {
+                int milieu = (bas + haut) >>> 1;
+                if (periodes[milieu] < periode) {
+                    bas = milieu + 1;
+                } else {
+                    haut = milieu;
+                }
+            }
+            return bas;
+        }
+
+        private static double moyenne(double[] valeurs, int debut, int fin) {
+            if (fin <= debut) {
+                return 0.0;
+            }
+            double somme = 0.0;
+            for (int i = debut; i < fin; i++) {
+                somme += valeurs[i];
+            }
+            return somme / (fin - debut);
+        }
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Map;
@@ -33,7 +34,10 @@ public class StatistiqueEntrainementService {
     private ParticipationRepository participationRepository;
 
     @Autowired
-    private ParticipationService participationService;
+    private ClassementStatistiquesCache classementCache;
+
+    @Autowired
+    private SeriesStatistiquesCache seriesCache;
 
     // =====================================================
     // CRUD Operations
@@ -48,6 +52,8 @@ public class StatistiqueEntrainementService {
             throw new IllegalStateException("Une statistique existe déjà pour ce joueur et cette période");
         }
 
+        classementCache.invaliderMois(statistique.getMois(), statistique.getAnnee());
+        seriesCache.invaliderJoueur(statistique.getJoueurId());
         return statistiqueRepository.save(statistique);
     }
 
@@ -69,12 +75,18 @@ public class StatistiqueEntrainementService {
                     statistique.setMoyennePerformance(statistiqueModifiee.getMoyennePerformance());
                     statistique.setProgressionMensuelle(statistiqueModifiee.getProgressionMensuelle());
                     
+                    classementCache.invaliderMois(statistique.getMois(), statistique.getAnnee());
+                    seriesCache.invaliderJoueur(statistique.getJoueurId());
                     return statistiqueRepository.save(statistique);
                 })
                 .orElseThrow(() -> new RuntimeException("Statistique non trouvée avec l'ID: " + id));
     }
 
     public void supprimerStatistique(Long id) {
+        statistiqueRepository.findById(id).ifPresent(statistique -> {
+            classementCache.invaliderMois(statistique.getMois(), statistique.getAnnee());
+            seriesCache.invaliderJoueur(statistique.getJoueurId());
+        });
         statistiqueRepository.deleteById(id);
     }
 
@@ -82,76 +94,41 @@ public class StatistiqueEntrainementService {
     // Calcul automatique des statistiques
     // =====================================================
 
+    // Les recalculs verrouillent les lignes de statistiques avant de lire les agrégats :
+    // un delta incrémental concurrent (StatistiqueIncrementaleService) est soit déjà
+    // visible dans les agrégats, soit appliqué après le recalcul, jamais écrasé.
+
     public StatistiqueEntrainement calculerStatistiquesMois(Long joueurId, Integer mois, Integer annee) {
-        // Calculer les dates de début et fin du mois
         YearMonth yearMonth = YearMonth.of(annee, mois);
         LocalDate dateDebut = yearMonth.atDay(1);
         LocalDate dateFin = yearMonth.atEndOfMonth();
 
-        // Calculer le taux de présence
-        Double tauxPresence = participationService.getTauxPresenceJoueur(joueurId, dateDebut, dateFin);
-
-        // Calculer la moyenne des performances
-        BigDecimal moyennePerformance = performanceRepository.getMoyennePerformanceJoueur(joueurId, dateDebut, dateFin);
-        if (moyennePerformance == null) {
-            moyennePerformance = BigDecimal.ZERO;
-        }
-
-        // Calculer la progression par rapport au mois précédent
-        BigDecimal progressionMensuelle = calculerProgressionMensuelle(joueurId, mois, annee);
-
         // Créer ou mettre à jour la statistique
-        Optional<StatistiqueEntrainement> existante = statistiqueRepository
-                .findByJoueurIdAndMoisAndAnnee(joueurId, mois, annee);
-
-        StatistiqueEntrainement statistique;
-        if (existante.isPresent()) {
-            statistique = existante.get();
-            statistique.setTauxPresence(BigDecimal.valueOf(tauxPresence));
-            statistique.setMoyennePerformance(moyennePerformance);
-            statistique.setProgressionMensuelle(progressionMensuelle);
-        } else {
-            statistique = new StatistiqueEntrainement();
-            statistique.setJoueurId(joueurId);
-            statistique.setMois(mois);
-            statistique.setAnnee(annee);
-            statistique.setTauxPresence(BigDecimal.valueOf(tauxPresence));
-            statistique.setMoyennePerformance(moyennePerformance);
-            statistique.setProgressionMensuelle(progressionMensuelle);
-        }
+        statistiqueRepository.initialiserStatistique(joueurId, mois, annee);
+        StatistiqueEntrainement statistique = statistiqueRepository
+                .verrouillerStatistique(joueurId, mois, annee)
+                .orElseGet(() -> nouvelleStatistique(joueurId, mois, annee));
+
+        // Agrégats du seul mois recalculé
+        long[] agregatsParticipation = participationRepository.getAgregatsParticipationJoueur(joueurId, dateDebut, dateFin)
+                .stream().findFirst().map(ligne -> lireAgregatsParticipation(ligne, 1)).orElse(null);
+        BigDecimal[] notesPerformance = performanceRepository.getNotesPerformanceJoueur(joueurId, dateDebut, dateFin)
+                .stream().findFirst().map(ligne -> lireNotes(ligne, 1)).orElse(null);
+
+        // La progression se calcule par rapport au mois précédent
+        YearMonth moisPrecedent = yearMonth.minusMonths(1);
+        StatistiqueEntrainement precedente = statistiqueRepository
+                .findByJoueurIdAndMoisAndAnnee(joueurId, moisPrecedent.getMonthValue(), moisPrecedent.getYear())
+                .orElse(null);
 
+        appliquerAgregats(statistique, agregatsParticipation, notesPerformance, precedente);
+        classementCache.invaliderMois(mois, annee);
+        seriesCache.invaliderJoueur(joueurId);
         return statistiqueRepository.save(statistique);
     }
 
-    private BigDecimal calculerProgressionMensuelle(Long joueurId, Integer mois, Integer annee) {
-        // Récupérer la performance du mois précédent
-        Integer moisPrecedent = mois - 1;
-        Integer anneePrecedente = annee;
-        
-        if (moisPrecedent == 0) {
-            moisPrecedent = 12;
-            anneePrecedente = annee - 1;
-        }
-
-        Optional<StatistiqueEntrainement> statistiquePrecedente = statistiqueRepository
-                .findByJoueurIdAndMoisAndAnnee(joueurId, moisPrecedent, anneePrecedente);
-
-        if (statistiquePrecedente.isEmpty()) {
-            return BigDecimal.ZERO; // Pas de données précédentes
-        }
-
-        // Calculer la performance actuelle
-        YearMonth yearMonth = YearMonth.of(annee, mois);
-        LocalDate dateDebut = yearMonth.atDay(1);
-        LocalDate dateFin = yearMonth.atEndOfMonth();
-        
-        BigDecimal performanceActuelle = performanceRepository.getMoyennePerformanceJoueur(joueurId, dateDebut, dateFin);
-        if (performanceActuelle == null) {
-            return BigDecimal.ZERO;
-        }
-
-        BigDecimal performancePrecedente = statistiquePrecedente.get().getMoyennePerformance();
-        if (performancePrecedente.compareTo(BigDecimal.ZERO) == 0) {
+    private BigDecimal calculerProgression(BigDecimal performanceActuelle, BigDecimal performancePrecedente) {
+        if (performancePrecedente == null || performancePrecedente.compareTo(BigDecimal.ZERO) == 0) {
             return BigDecimal.ZERO;
         }
 
@@ -168,17 +145,154 @@ public class StatistiqueEntrainementService {
     }
 
     public void calculerStatistiquesTousJoueurs(Integer mois, Integer annee) {
-        // Récupérer tous les joueurs ayant participé à des entraînements ce mois-ci
+        // Calcul ensembliste : une requête d'agrégat par source au lieu de plusieurs requêtes par joueur
         YearMonth yearMonth = YearMonth.of(annee, mois);
         LocalDate dateDebut = yearMonth.atDay(1);
         LocalDate dateFin = yearMonth.atEndOfMonth();
+        YearMonth moisPrecedent = yearMonth.minusMonths(1);
 
-        List<Object[]> joueursActifs = participationRepository.getJoueursLesPlussidus(dateDebut, dateFin);
-        
-        for (Object[] joueurData : joueursActifs) {
-            Long joueurId = (Long) joueurData[0];
-            calculerStatistiquesMois(joueurId, mois, annee);
+        statistiqueRepository.initialiserStatistiquesMois(mois, annee, dateDebut, dateFin);
+        Map<Long, StatistiqueEntrainement> existantes = indexerParJoueur(
+                statistiqueRepository.verrouillerStatistiquesMois(mois, annee));
+
+        List<Object[]> agregatsParticipation = participationRepository.getAgregatsParticipationParJoueur(dateDebut, dateFin);
+        if (agregatsParticipation.isEmpty()) {
+            return;
+        }
+
+        Map<Long, BigDecimal[]> notesPerformance = new HashMap<>();
+        for (Object[] ligne : performanceRepository.getNotesPerformanceParJoueur(dateDebut, dateFin)) {
+            notesPerformance.put((Long) ligne[0], lireNotes(ligne, 1));
+        }
+
+        Map<Long, StatistiqueEntrainement> precedentes = indexerParJoueur(
+                statistiqueRepository.findByMoisAndAnnee(moisPrecedent.getMonthValue(), moisPrecedent.getYear()));
+
+        List<StatistiqueEntrainement> aEnregistrer = new ArrayList<>(agregatsParticipation.size());
+        for (Object[] ligne : agregatsParticipation) {
+            Long joueurId = (Long) ligne[0];
+            StatistiqueEntrainement statistique = existantes.get(joueurId);
+            if (statistique == null) {
+                statistique = nouvelleStatistique(joueurId, mois, annee);
+            }
+            appliquerAgregats(statistique, lireAgregatsParticipation(ligne, 1),
+                    notesPerformance.get(joueurId), precedentes.get(joueurId));
+            aEnregistrer.add(statistique);
+        }
+
+        statistiqueRepository.saveAll(aEnregistrer);
+        classementCache.invaliderMois(mois, annee);
+        seriesCache.invaliderTout();
+    }
+
+    // Recalcule toutes les statistiques existantes d'un lot de joueurs (une transaction par lot)
+    public int recalculerStatistiquesJoueurs(List<Long> joueurIds) {
+        if (joueurIds.isEmpty()) {
+            return 0;
+        }
+
+        List<StatistiqueEntrainement> statistiques = statistiqueRepository
+                .findByJoueurIdInOrderByJoueurIdAscAnneeAscMoisAsc(joueurIds);
+        Map<String, long[]> agregatsParticipation = chargerAgregatsParticipation(joueurIds);
+        Map<String, BigDecimal[]> notesPerformance = chargerNotesPerformance(joueurIds);
+
+        // Parcours chronologique par joueur : la progression utilise le mois précédent fraîchement recalculé
+        StatistiqueEntrainement precedente = null;
+        for (StatistiqueEntrainement statistique : statistiques) {
+            if (precedente != null && (!precedente.getJoueurId().equals(statistique.getJoueurId())
+                    || !YearMonth.of(precedente.getAnnee(), precedente.getMois()).plusMonths(1)
+                            .equals(YearMonth.of(statistique.getAnnee(), statistique.getMois())))) {
+                precedente = null;
+            }
+
+            String cle = cleJoueurMois(statistique.getJoueurId(), statistique.getAnnee(), statistique.getMois());
+            appliquerAgregats(statistique, agregatsParticipation.get(cle), notesPerformance.get(cle), precedente);
+            precedente = statistique;
         }
+
+        statistiqueRepository.saveAll(statistiques);
+        classementCache.invaliderTout();
+        joueurIds.forEach(seriesCache::invaliderJoueur);
+        return joueurIds.size();
+    }
+
+    // Agrégats par joueur et par mois : [planifiés, présents, absences]
+    private Map<String, long[]> chargerAgregatsParticipation(List<Long> joueurIds) {
+        Map<String, long[]> agregats = new HashMap<>();
+        for (Object[] ligne : participationRepository.getAgregatsParticipationParJoueurEtMois(joueurIds)) {
+            agregats.put(cleJoueurMois((Long) ligne[0], (Number) ligne[1], (Number) ligne[2]),
+                    lireAgregatsParticipation(ligne, 3));
+        }
+        return agregats;
+    }
+
+    // Notes par joueur et par mois : [somme, nombre]
+    private Map<String, BigDecimal[]> chargerNotesPerformance(List<Long> joueurIds) {
+        Map<String, BigDecimal[]> notes = new HashMap<>();
+        for (Object[] ligne : performanceRepository.getNotesPerformanceParJoueurEtMois(joueurIds)) {
+            notes.put(cleJoueurMois((Long) ligne[0], (Number) ligne[1], (Number) ligne[2]), lireNotes(ligne, 3));
+        }
+        return notes;
+    }
+
+    private long[] lireAgregatsParticipation(Object[] ligne, int debut) {
+        return new long[] {
+                ((Number) ligne[debut]).longValue(),
+                ((Number) ligne[debut + 1]).longValue(),
+                ((Number) ligne[debut + 2]).longValue()
+        };
+    }
+
+    private BigDecimal[] lireNotes(Object[] ligne, int debut) {
+        long nombre = ((Number) ligne[debut + 1]).longValue();
+        if (nombre == 0 || ligne[debut] == null) {
+            return null;
+        }
+        BigDecimal somme = ligne[debut] instanceof BigDecimal b ? b : new BigDecimal(ligne[debut].toString());
+        return new BigDecimal[] { somme, BigDecimal.valueOf(nombre) };
+    }
+
+    private void appliquerAgregats(StatistiqueEntrainement statistique, long[] participation,
+                                   BigDecimal[] notes, StatistiqueEntrainement precedente) {
+        long total = participation != null ? participation[0] : 0;
+        long presences = participation != null ? participation[1] : 0;
+        long absences = participation != null ? participation[2] : 0;
+
+        BigDecimal sommeNotes = notes != null ? notes[0] : BigDecimal.ZERO;
+        int nombreEvaluations = notes != null ? notes[1].intValue() : 0;
+        BigDecimal performanceActuelle = nombreEvaluations > 0
+                ? sommeNotes.divide(BigDecimal.valueOf(nombreEvaluations), 2, java.math.RoundingMode.HALF_UP)
+                : null;
+
+        BigDecimal progressionMensuelle = precedente != null && performanceActuelle != null
+                ? calculerProgression(performanceActuelle, precedente.getMoyennePerformance())
+                : BigDecimal.ZERO;
+
+        statistique.setNombreEntrainementsPlanifies((int) total);
+        statistique.setNombreEntrainementsPresents((int) presences);
+        statistique.setNombreAbsences((int) absences);
+        statistique.setSommeNotes(sommeNotes);
+        statistique.setNombreEvaluations(nombreEvaluations);
+        statistique.setTauxPresence(BigDecimal.valueOf(total > 0 ? presences * 100.0 / total : 0.0));
+        statistique.setMoyennePerformance(performanceActuelle != null ? performanceActuelle : BigDecimal.ZERO);
+        statistique.setProgressionMensuelle(progressionMensuelle);
+    }
+
+    private StatistiqueEntrainement nouvelleStatistique(Long joueurId, Integer mois, Integer annee) {
+        StatistiqueEntrainement statistique = new StatistiqueEntrainement();
+        statistique.setJoueurId(joueurId);
+        statistique.setMois(mois);
+        statistique.setAnnee(annee);
+        return statistique;
+    }
+
+    private String cleJoueurMois(Long joueurId, Number annee, Number mois) {
+        return joueurId + "-" + annee.intValue() + "-" + mois.intValue();
+    }
+
+    private Map<Long, StatistiqueEntrainement> indexerParJoueur(List<StatistiqueEntrainement> statistiques) {
+        return statistiques.stream()
+                .collect(Collectors.toMap(StatistiqueEntrainement::getJoueurId, s -> s, (a, b) -> a));
     }
 
     // =====================================================
@@ -205,14 +319,23 @@ public class StatistiqueEntrainementService {
         return statistiqueRepository.getStatistiquesRecentes(joueurId, limite);
     }
 
+    // Pagination par curseur : la page suivante part du dernier (année, mois) reçu
+    @Transactional(readOnly = true)
+    public List<StatistiqueEntrainement> getHistoriqueJoueur(Long joueurId, Integer avantAnnee, Integer avantMois, int taille) {
+        if (avantAnnee == null || avantMois == null) {
+            return statistiqueRepository.getStatistiquesRecentes(joueurId, taille);
+        }
+        return statistiqueRepository.getStatistiquesAvant(joueurId, avantAnnee, avantMois, taille);
+    }
+
     @Transactional(readOnly = true)
     public List<StatistiqueEntrainement> getJoueursAvecMeilleurTauxPresence(Integer mois, Integer annee, int limite) {
-        return statistiqueRepository.getJoueursAvecMeilleurTauxPresence(mois, annee, limite);
+        return classementCache.getClassement(ClassementStatistiquesCache.Metrique.PRESENCE, mois, annee, limite);
     }
 
     @Transactional(readOnly = true)
     public List<StatistiqueEntrainement> getJoueursAvecMeilleuresPerformances(Integer mois, Integer annee, int limite) {
-        return statistiqueRepository.getJoueursAvecMeilleuresPerformances(mois, annee, limite);
+        return classementCache.getClassement(ClassementStatistiquesCache.Metrique.PERFORMANCE, mois, annee, limite);
     }
 
     @Transactional(readOnly = true)
@@ -255,62 +378,31 @@ public class StatistiqueEntrainementService {
 
     @Transactional(readOnly = true)
     public boolean estJoueurRegulier(Long joueurId, Integer annee) {
-        List<StatistiqueEntrainement> statistiques = getStatistiquesAnnee(joueurId, annee);
-        
-        if (statistiques.size() < 6) { // Moins de 6 mois d'activité
+        SeriesStatistiquesCache.Serie serie = seriesCache.getSerie(joueurId);
+
+        if (serie.nombreMois(annee) < 6) { // Moins de 6 mois d'activité
             return false;
         }
 
-        // Calculer la moyenne du taux de présence
-        double moyenneTauxPresence = statistiques.stream()
-                .mapToDouble(s -> s.getTauxPresence().doubleValue())
-                .average()
-                .orElse(0.0);
-
-        return moyenneTauxPresence >= 75.0; // Au moins 75% de présence en moyenne
+        return serie.moyennePresence(annee) >= 75.0; // Au moins 75% de présence en moyenne
     }
 
     @Transactional(readOnly = true)
     public boolean estEnProgression(Long joueurId, int nombreMoisAnalyse) {
-        List<StatistiqueEntrainement> statistiques = getStatistiquesRecentes(joueurId, nombreMoisAnalyse);
-        
-        if (statistiques.size() < 2) {
-            return false;
-        }
-
         // Comparer les performances récentes avec les plus anciennes
-        int milieu = statistiques.size() / 2;
-        
-        double moyenneRecente = statistiques.subList(0, milieu).stream()
-                .mapToDouble(s -> s.getMoyennePerformance().doubleValue())
-                .average()
-                .orElse(0.0);
-
-        double moyenneAncienne = statistiques.subList(milieu, statistiques.size()).stream()
-                .mapToDouble(s -> s.getMoyennePerformance().doubleValue())
-                .average()
-                .orElse(0.0);
-
-        return moyenneRecente > moyenneAncienne;
+        return seriesCache.getSerie(joueurId).enProgression(nombreMoisAnalyse);
     }
 
     @Transactional(readOnly = true)
     public String getProfilJoueur(Long joueurId, Integer annee) {
-        List<StatistiqueEntrainement> statistiques = getStatistiquesAnnee(joueurId, annee);
+        SeriesStatistiquesCache.Serie serie = seriesCache.getSerie(joueurId);
         
-        if (statistiques.isEmpty()) {
+        if (serie.nombreMois(annee) == 0) {
             return "Nouveau joueur";
         }
 
-        double moyenneTauxPresence = statistiques.stream()
-                .mapToDouble(s -> s.getTauxPresence().doubleValue())
-                .average()
-                .orElse(0.0);
-
-        double moyennePerformance = statistiques.stream()
-                .mapToDouble(s -> s.getMoyennePerformance().doubleValue())
-                .average()
-                .orElse(0.0);
+        double moyenneTauxPresence = serie.moyennePresence(annee);
+        double moyennePerformance = serie.moyennePerformance(annee);
 
         if (moyenneTauxPresence >= 90 && moyennePerformance >= 8.0) {
             return "Joueur exemplaire";
@@ -375,15 +467,6 @@ public class StatistiqueEntrainementService {
         );
     }
 
-    @Transactional
-    public void recalculerToutesStatistiques() {
-        // Recalculer toutes les statistiques pour tous les joueurs
-        List<StatistiqueEntrainement> toutes = statistiqueRepository.findAll();
-        for (StatistiqueEntrainement stat : toutes) {
-            calculerStatistiquesJoueur(stat.getJoueurId(), stat.getMois(), stat.getAnnee());
-        }
-    }
-
     @Transactional(readOnly = true)
     public String genererRapportMensuel(Integer mois, Integer annee) {
         List<StatistiqueEntrainement> stats = statistiqueRepository.findByMoisAndAnnee(mois, annee);
@@ -473,10 +556,7 @@ public class StatistiqueEntrainementService {
     // Méthodes manquantes pour le contrôleur
     @Transactional(readOnly = true)
     public List<StatistiqueEntrainement> getMeilleuresStatistiques(Long joueurId, int limite) {
-        return statistiqueRepository.findByJoueurIdOrderByTauxPresenceDesc(joueurId)
-                .stream()
-                .limit(limite)
-                .collect(Collectors.toList());
+        return statistiqueRepository.getMeilleuresStatistiquesJoueur(joueurId, Math.max(0, limite));
     }
 
     @Transactional(readOnly = true)
@@ -486,18 +566,12 @@ public class StatistiqueEntrainementService {
 
     @Transactional(readOnly = true)
     public List<StatistiqueEntrainement> getTopPerformers(int mois, int annee, int limite) {
-        return statistiqueRepository.findByMoisAndAnneeOrderByTauxPresenceDesc(mois, annee)
-                .stream()
-                .limit(limite)
-                .collect(Collectors.toList());
+        return classementCache.getClassement(ClassementStatistiquesCache.Metrique.PRESENCE, mois, annee, limite);
     }
 
     @Transactional(readOnly = true)
     public List<StatistiqueEntrainement> getJoueursLesPlussidus(int mois, int annee, int limite) {
-        return statistiqueRepository.findByMoisAndAnneeOrderByTauxPresenceAsc(mois, annee)
-                .stream()
-                .limit(limite)
-                .collect(Collectors.toList());
+        return classementCache.getClassement(ClassementStatistiquesCache.Metrique.PRESENCE_CROISSANTE, mois, annee, limite);
     }
 
     @Transactional(readOnly = true)
@@ -524,25 +598,8 @@ public class StatistiqueEntrainementService {
 
     @Transactional(readOnly = true)
     public boolean estJoueurEnProgression(Long joueurId, int nombreMois) {
-        List<StatistiqueEntrainement> stats = statistiqueRepository.findByJoueurIdOrderByAnneeDescMoisDesc(joueurId)
-                .stream()
-                .limit(nombreMois)
-                .collect(Collectors.toList());
-
-        if (stats.size() < 2) return false;
-
         // Comparer les performances récentes avec les plus anciennes
-        double performanceRecente = stats.subList(0, stats.size()/2).stream()
-                .mapToDouble(s -> s.getMoyennePerformance().doubleValue())
-                .average()
-                .orElse(0.0);
-
-        double performanceAncienne = stats.subList(stats.size()/2, stats.size()).stream()
-                .mapToDouble(s -> s.getMoyennePerformance().doubleValue())
-                .average()
-                .orElse(0.0);
-
-        return performanceRecente > performanceAncienne;
+        return seriesCache.getSerie(joueurId).enProgression(nombreMois);
     }
 
     @Transactional(readOnly = true)
@@ -570,6 +627,8 @@ public class StatistiqueEntrainementService {
         statistique.setTauxPresence(BigDecimal.ZERO);
         statistique.setMoyennePerformance(BigDecimal.ZERO);
 
+        classementCache.invaliderMois(mois, annee);
+        seriesCache.invaliderJoueur(joueurId);
         statistiqueRepository.save(statistique);
     }
 }
@@ -0,0 +1,142 @@
+package com.sprintbot.planningperformance.service;
+
+import com.sprintbot.planningperformance.entity.Participation;
+import com.sprintbot.planningperformance.entity.Performance;
+import com.sprintbot.planningperformance.repository.StatistiqueEntrainementRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Maintenance incrémentale des statistiques mensuelles.
+ * Chaque écriture de participation ou de performance applique un delta
+ * atomique sur les compteurs du mois (planifiés, présents, absences,
+ * somme et nombre de notes) ; taux de présence et moyenne en sont dérivés.
+ * Le recalcul complet ne sert plus qu'à la réconciliation.
+ */
+@Service
+@Transactional
+public class StatistiqueIncrementaleService {
+
+    @Autowired
+    private StatistiqueEntrainementRepository statistiqueRepository;
+
+    @Autowired
+    private ClassementStatistiquesCache classementCache;
+
+    @Autowired
+    private SeriesStatistiquesCache seriesCache;
+
+    // =====================================================
+    // Participations
+    // =====================================================
+
+    public void enregistrerInscription(Participation participation) {
+        StatutParticipationDelta delta = StatutParticipationDelta.de(participation.getStatutParticipation());
+        appliquerDelta(participation.getJoueurId(), participation.getEntrainement().getDateEntrainement(),
+                1, delta.presents, delta.absences, BigDecimal.ZERO, 0);
+    }
+
+    public void enregistrerDesinscription(Participation participation) {
+        StatutParticipationDelta delta = StatutParticipationDelta.de(participation.getStatutParticipation());
+        appliquerDelta(participation.getJoueurId(), participation.getEntrainement().getDateEntrainement(),
+                -1, -delta.presents, -delta.absences, BigDecimal.ZERO, 0);
+    }
+
+    public void enregistrerChangementStatut(Participation participation,
+                                            Participation.StatutParticipation ancienStatut) {
+        if (ancienStatut == participation.getStatutParticipation()) {
+            return;
+        }
+        StatutParticipationDelta ancien = StatutParticipationDelta.de(ancienStatut);
+        StatutParticipationDelta nouveau = StatutParticipationDelta.de(participation.getStatutParticipation());
+        appliquerDelta(participation.getJoueurId(), participation.getEntrainement().getDateEntrainement(),
+                0, nouveau.presents - ancien.presents, nouveau.absences - ancien.absences, BigDecimal.ZERO, 0);
+    }
+
+    // À appeler avant le passage en lot des inscrits à ABSENT
+    public void enregistrerAbsencesAutomatiques(List<Long> entrainementIds) {
+        statistiqueRepository.initialiserStatistiquesInscrits(entrainementIds);
+        if (statistiqueRepository.ajouterAbsencesInscrits(entrainementIds) > 0) {
+            classementCache.invaliderTout();
+            seriesCache.invaliderTout();
+        }
+    }
+
+    // =====================================================
+    // Performances
+    // =====================================================
+
+    public void enregistrerChangementNote(Performance performance, BigDecimal ancienneNote) {
+        appliquerDeltaNote(performance, ancienneNote, performance.getNoteGlobale());
+    }
+
+    public void enregistrerSuppression(Performance performance) {
+        appliquerDeltaNote(performance, performance.getNoteGlobale(), null);
+    }
+
+    private void appliquerDeltaNote(Performance performance, BigDecimal ancienneNote, BigDecimal nouvelleNote) {
+        BigDecimal deltaSomme = BigDecimal.ZERO;
+        int deltaEvaluations = 0;
+
+        if (ancienneNote != null) {
+            deltaSomme = deltaSomme.subtract(ancienneNote);
+            deltaEvaluations--;
+        }
+        if (nouvelleNote != null) {
+            deltaSomme = deltaSomme.add(nouvelleNote);
+            deltaEvaluations++;
+        }
+
+        appliquerDelta(performance.getJoueurId(), performance.getEntrainement().getDateEntrainement(),
+                0, 0, 0, deltaSomme, deltaEvaluations);
+    }
+
+    // =====================================================
+    // Application des deltas
+    // =====================================================
+
+    private void appliquerDelta(Long joueurId, LocalDate dateEntrainement, int deltaPlanifies, int deltaPresents,
+                                int deltaAbsences, BigDecimal deltaSommeNotes, int deltaEvaluations) {
+        if (deltaPlanifies == 0 && deltaPresents == 0 && deltaAbsences == 0
+                && deltaEvaluations == 0 && deltaSommeNotes.signum() == 0) {
+            return;
+        }
+
+        int mois = dateEntrainement.getMonthValue();
+        int annee = dateEntrainement.getYear();
+        statistiqueRepository.initialiserStatistique(joueurId, mois, annee);
+        statistiqueRepository.appliquerDelta(joueurId, mois, annee,
+                deltaPlanifies, deltaPresents, deltaAbsences, deltaSommeNotes, deltaEvaluations);
+        classementCache.invaliderMois(mois, annee);
+        seriesCache.invaliderJoueur(joueurId);
+    }
+
+    // Contribution d'un statut de participation aux compteurs de présence et d'absence
+    private enum StatutParticipationDelta {
+        NEUTRE(0, 0), PRESENT(1, 0), ABSENT(0, 1);
+
+        private final int presents;
+        private final int absences;
+
+        StatutParticipationDelta(int presents, int absences) {
+            this.presents = presents;
+            this.absences = absences;
+        }
+
+        static StatutParticipationDelta de(Participation.StatutParticipation statut) {
+            if (statut == null) {
+                return NEUTRE;
+            }
+            return switch (statut) {
+                case PRESENT -> PRESENT;
+                case ABSENT, EXCUSE -> ABSENT;
+                default -> NEUTRE;
+            };
+        }
+    }
+}
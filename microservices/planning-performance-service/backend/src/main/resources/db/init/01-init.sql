@@ -24,6 +24,7 @@ CREATE TABLE entrainements (
     objectifs TEXT,
     materiel_requis TEXT,
     nombre_max_joueurs INTEGER,
+    places_prises INTEGER NOT NULL DEFAULT 0, -- Participations INSCRIT ou PRESENT, maintenu par UPDATE conditionnel
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
@@ -109,6 +110,8 @@ CREATE TABLE statistiques_entrainement (
     nombre_entrainements_planifies INTEGER DEFAULT 0,
     nombre_entrainements_presents INTEGER DEFAULT 0,
     nombre_absences INTEGER DEFAULT 0,
+    somme_notes DECIMAL(8,1) DEFAULT 0.0,
+    nombre_evaluations INTEGER DEFAULT 0,
     taux_presence DECIMAL(5,2) DEFAULT 0.0,
     moyenne_performance DECIMAL(3,1) DEFAULT 0.0,
     progression_mensuelle DECIMAL(3,1) DEFAULT 0.0,
@@ -117,6 +120,20 @@ CREATE TABLE statistiques_entrainement (
     UNIQUE(joueur_id, mois, annee)
 );
 
+-- =====================================================
+-- Table de suivi des recalculs de statistiques
+-- =====================================================
+CREATE TABLE recalculs_statistiques (
+    id BIGSERIAL PRIMARY KEY,
+    statut VARCHAR(20) NOT NULL DEFAULT 'EN_COURS', -- EN_COURS, TERMINE, ECHOUE
+    dernier_joueur_id BIGINT DEFAULT 0, -- Point de reprise
+    joueurs_total INTEGER DEFAULT 0,
+    joueurs_traites INTEGER DEFAULT 0,
+    date_debut TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    date_fin TIMESTAMP,
+    message_erreur TEXT
+);
+
 -- =====================================================
 -- Index pour optimiser les performances
 -- =====================================================
@@ -0,0 +1,16 @@
+-- =====================================================
+-- Mise à niveau : suivi des recalculs de statistiques
+-- Idempotent : peut être rejoué sur une base déjà à jour
+-- =====================================================
+SET search_path TO planning_performance;
+
+CREATE TABLE IF NOT EXISTS recalculs_statistiques (
+    id BIGSERIAL PRIMARY KEY,
+    statut VARCHAR(20) NOT NULL DEFAULT 'EN_COURS', -- EN_COURS, TERMINE, ECHOUE
+    dernier_joueur_id BIGINT DEFAULT 0, -- Point de reprise
+    joueurs_total INTEGER DEFAULT 0,
+    joueurs_traites INTEGER DEFAULT 0,
+    date_debut TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    date_fin TIMESTAMP,
+    message_erreur TEXT
+);
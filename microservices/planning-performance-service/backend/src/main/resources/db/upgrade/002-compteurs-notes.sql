@@ -0,0 +1,31 @@
+-- =====================================================
+-- Mise à niveau : compteurs de notes des statistiques mensuelles
+-- (maintenus de façon incrémentale à chaque évaluation)
+-- Idempotent : peut être rejoué sur une base déjà à jour
+-- =====================================================
+SET search_path TO planning_performance;
+
+ALTER TABLE statistiques_entrainement ADD COLUMN IF NOT EXISTS somme_notes DECIMAL(8,1) DEFAULT 0.0;
+ALTER TABLE statistiques_entrainement ADD COLUMN IF NOT EXISTS nombre_evaluations INTEGER DEFAULT 0;
+
+-- Initialisation depuis les performances existantes (somme et nombre des notes globales du mois)
+UPDATE statistiques_entrainement s SET
+    somme_notes = COALESCE(d.somme_notes, 0),
+    nombre_evaluations = d.nombre_evaluations
+FROM (
+    SELECT p.joueur_id,
+           EXTRACT(MONTH FROM e.date_entrainement) AS mois,
+           EXTRACT(YEAR FROM e.date_entrainement) AS annee,
+           SUM(p.note_globale) AS somme_notes,
+           COUNT(p.note_globale) AS nombre_evaluations
+    FROM performances p
+    JOIN entrainements e ON e.id = p.entrainement_id
+    GROUP BY p.joueur_id, EXTRACT(MONTH FROM e.date_entrainement), EXTRACT(YEAR FROM e.date_entrainement)
+) d
+WHERE s.joueur_id = d.joueur_id AND s.mois = d.mois AND s.annee = d.annee;
+
+UPDATE statistiques_entrainement SET somme_notes = 0.0 WHERE somme_notes IS NULL;
+UPDATE statistiques_entrainement SET nombre_evaluations = 0 WHERE nombre_evaluations IS NULL;
+
+-- Les autres compteurs mensuels sont désormais incrémentaux : une fois le service déployé,
+-- lancer un recalcul complet (POST /api/statistiques/recalculer-toutes) pour les réconcilier.
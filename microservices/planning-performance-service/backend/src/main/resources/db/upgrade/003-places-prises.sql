@@ -0,0 +1,19 @@
+-- =====================================================
+-- Mise à niveau : compteur de places prises des entraînements
+-- (maintenu par UPDATE conditionnel à chaque inscription)
+-- Idempotent : peut être rejoué sur une base déjà à jour
+-- =====================================================
+SET search_path TO planning_performance;
+
+ALTER TABLE entrainements ADD COLUMN IF NOT EXISTS places_prises INTEGER NOT NULL DEFAULT 0;
+
+-- Initialisation depuis les participations existantes (INSCRIT ou PRESENT)
+UPDATE entrainements e SET places_prises = d.places_prises
+FROM (
+    SELECT e2.id, COUNT(p.id) AS places_prises
+    FROM entrainements e2
+    LEFT JOIN participations p ON p.entrainement_id = e2.id
+        AND p.statut_participation IN ('INSCRIT', 'PRESENT')
+    GROUP BY e2.id
+) d
+WHERE e.id = d.id AND e.places_prises <> d.places_prises;
@@ -0,0 +1,309 @@
+package com.sprintbot.planningperformance.benchmark;
+
+import com.sprintbot.planningperformance.entity.StatistiqueEntrainement;
+import com.sprintbot.planningperformance.repository.StatistiqueEntrainementRepository;
+import com.sprintbot.planningperformance.service.ClassementStatistiquesCache;
+import com.sprintbot.planningperformance.service.SeriesStatistiquesCache;
+import com.sprintbot.planningperformance.service.StatistiqueEntrainementService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Profils et tendances des joueurs : calcul sur les entités face aux séries
+ * primitives en cache
+ *
+ * Pour estJoueurRegulier, estEnProgression et getProfilJoueur, trois variantes
+ * sont mesurées sur tous les joueurs :
+ * - entités : implémentation d'origine (chargement des StatistiqueEntrainement
+ *   de l'année ou des derniers mois, puis moyennes par streams)
+ * - série rechargée : méthode du service, cache vidé avant chaque passage
+ *   (une requête de colonnes par joueur)
+ * - série en cache : méthode du service, séries déjà chargées
+ * Chaque appel s'exécute dans une transaction en lecture seule. Les résultats
+ * des deux implémentations sont comparés joueur par joueur avant la mesure.
+ *
+ * Base par défaut : H2 en mémoire (src/test/resources/application.yml). Pour
+ * mesurer sur PostgreSQL, fournir une base vide dédiée avec le schéma
+ * planning_performance (les tables y sont recréées) :
+ * -Dbenchmark.jdbc-url=jdbc:postgresql://localhost:5432/planning_bench
+ * -Dbenchmark.jdbc-user=... -Dbenchmark.jdbc-password=...
+ *
+ * Exécution : mvn -Pbenchmark test -Dtest=SeriesStatistiquesBenchmark
+ * Rapport : target/benchmarks/series-statistiques.txt
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({StatistiqueEntrainementService.class, ClassementStatistiquesCache.class, SeriesStatistiquesCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SeriesStatistiquesBenchmark {
+
+    private static final int JOUEURS = Integer.getInteger("benchmark.players", 1000);
+    private static final int WARMUP_ITERATIONS = Integer.getInteger("benchmark.warmup-iterations", 3);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 10);
+    private static final String JDBC_URL = System.getProperty("benchmark.jdbc-url");
+    private static final Path REPORT_DIRECTORY = Path.of("target", "benchmarks");
+
+    // Trois ans d'historique mensuel ; profils calculés sur la dernière année
+    private static final int PREMIERE_ANNEE = 2022;
+    private static final int ANNEE = 2024;
+    private static final int MOIS_ANALYSE = 6;
+    private static final int BATCH_SIZE = 1_000;
+
+    @Autowired
+    private StatistiqueEntrainementService statistiqueService;
+
+    @Autowired
+    private StatistiqueEntrainementRepository statistiqueRepository;
+
+    @Autowired
+    private SeriesStatistiquesCache seriesCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        if (JDBC_URL != null) {
+            registry.add("spring.datasource.url", () -> JDBC_URL);
+            registry.add("spring.datasource.username", () -> System.getProperty("benchmark.jdbc-user", "postgres"));
+            registry.add("spring.datasource.password", () -> System.getProperty("benchmark.jdbc-password", ""));
+        }
+    }
+
+    @Test
+    void entitesEtSeriesPrimitives() throws Exception {
+        populate();
+        TransactionTemplate lecture = new TransactionTemplate(transactionManager);
+        lecture.setReadOnly(true);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        LongFunction<Object> ancienRegulier = joueurId -> lecture.execute(status -> ancienEstJoueurRegulier(joueurId, ANNEE));
+        LongFunction<Object> ancienProgression = joueurId -> lecture.execute(status -> ancienEstEnProgression(joueurId, MOIS_ANALYSE));
+        LongFunction<Object> ancienProfil = joueurId -> lecture.execute(status -> ancienGetProfilJoueur(joueurId, ANNEE));
+        LongFunction<Object> regulier = joueurId -> statistiqueService.estJoueurRegulier(joueurId, ANNEE);
+        LongFunction<Object> progression = joueurId -> statistiqueService.estEnProgression(joueurId, MOIS_ANALYSE);
+        LongFunction<Object> profil = joueurId -> statistiqueService.getProfilJoueur(joueurId, ANNEE);
+
+        for (long joueurId = 1; joueurId <= JOUEURS; joueurId++) {
+            assertThat(regulier.apply(joueurId)).isEqualTo(ancienRegulier.apply(joueurId));
+            assertThat(progression.apply(joueurId)).isEqualTo(ancienProgression.apply(joueurId));
+            assertThat(profil.apply(joueurId)).isEqualTo(ancienProfil.apply(joueurId));
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, "%-20s %-18s %10s %12s %10s %12s",
+                "méthode", "variante", "requêtes", "médiane µs", "max µs", "octets/appel"));
+        lines.add(measure(statistics, "estJoueurRegulier", "entités", ancienRegulier, false));
+        lines.add(measure(statistics, "estJoueurRegulier", "série rechargée", regulier, true));
+        lines.add(measure(statistics, "estJoueurRegulier", "série en cache", regulier, false));
+        lines.add(measure(statistics, "estEnProgression", "entités", ancienProgression, false));
+        lines.add(measure(statistics, "estEnProgression", "série rechargée", progression, true));
+        lines.add(measure(statistics, "estEnProgression", "série en cache", progression, false));
+        lines.add(measure(statistics, "getProfilJoueur", "entités", ancienProfil, false));
+        lines.add(measure(statistics, "getProfilJoueur", "série rechargée", profil, true));
+        lines.add(measure(statistics, "getProfilJoueur", "série en cache", profil, false));
+
+        report(lines);
+    }
+
+    // Un passage appelle la méthode pour chaque joueur ; durées et allocations rapportées à un appel
+    private String measure(Statistics statistics, String methode, String variante,
+                           LongFunction<Object> appel, boolean cacheVide) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            passage(appel, cacheVide);
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long[] durations = new long[ITERATIONS];
+        long allocated = 0;
+        long requetes = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            if (cacheVide) {
+                seriesCache.invaliderTout();
+            }
+            statistics.clear();
+            long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+            long begin = System.nanoTime();
+            passage(appel, false);
+            durations[i] = System.nanoTime() - begin;
+            allocated += threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+            requetes += statistics.getPrepareStatementCount();
+        }
+        Arrays.sort(durations);
+
+        long appels = (long) ITERATIONS * JOUEURS;
+        return String.format(Locale.ROOT, "%-20s %-18s %10.2f %12.2f %10.2f %12d",
+                methode, variante, (double) requetes / appels,
+                durations[ITERATIONS / 2] / 1e3 / JOUEURS, durations[ITERATIONS - 1] / 1e3 / JOUEURS,
+                allocated / appels);
+    }
+
+    private void passage(LongFunction<Object> appel, boolean cacheVide) {
+        if (cacheVide) {
+            seriesCache.invaliderTout();
+        }
+        for (long joueurId = 1; joueurId <= JOUEURS; joueurId++) {
+            appel.apply(joueurId);
+        }
+    }
+
+    // =====================================================
+    // Implémentations d'origine (entités et streams)
+    // =====================================================
+
+    private boolean ancienEstJoueurRegulier(Long joueurId, Integer annee) {
+        List<StatistiqueEntrainement> statistiques = statistiqueRepository.findByJoueurIdAndAnneeOrderByMoisAsc(joueurId, annee);
+
+        if (statistiques.size() < 6) {
+            return false;
+        }
+
+        double moyenneTauxPresence = statistiques.stream()
+                .mapToDouble(s -> s.getTauxPresence().doubleValue())
+                .average()
+                .orElse(0.0);
+
+        return moyenneTauxPresence >= 75.0;
+    }
+
+    private boolean ancienEstEnProgression(Long joueurId, int nombreMoisAnalyse) {
+        List<StatistiqueEntrainement> statistiques = statistiqueRepository.getStatistiquesRecentes(joueurId, nombreMoisAnalyse);
+
+        if (statistiques.size() < 2) {
+            return false;
+        }
+
+        int milieu = statistiques.size() / 2;
+
+        double moyenneRecente = statistiques.subList(0, milieu).stream()
+                .mapToDouble(s -> s.getMoyennePerformance().doubleValue())
+                .average()
+                .orElse(0.0);
+
+        double moyenneAncienne = statistiques.subList(milieu, statistiques.size()).stream()
+                .mapToDouble(s -> s.getMoyennePerformance().doubleValue())
+                .average()
+                .orElse(0.0);
+
+        return moyenneRecente > moyenneAncienne;
+    }
+
+    private String ancienGetProfilJoueur(Long joueurId, Integer annee) {
+        List<StatistiqueEntrainement> statistiques = statistiqueRepository.findByJoueurIdAndAnneeOrderByMoisAsc(joueurId, annee);
+
+        if (statistiques.isEmpty()) {
+            return "Nouveau joueur";
+        }
+
+        double moyenneTauxPresence = statistiques.stream()
+                .mapToDouble(s -> s.getTauxPresence().doubleValue())
+                .average()
+                .orElse(0.0);
+
+        double moyennePerformance = statistiques.stream()
+                .mapToDouble(s -> s.getMoyennePerformance().doubleValue())
+                .average()
+                .orElse(0.0);
+
+        if (moyenneTauxPresence >= 90 && moyennePerformance >= 8.0) {
+            return "Joueur exemplaire";
+        } else if (moyenneTauxPresence >= 80 && moyennePerformance >= 7.0) {
+            return "Joueur régulier";
+        } else if (moyenneTauxPresence >= 70) {
+            return "Joueur assidu";
+        } else if (moyenneTauxPresence >= 50) {
+            return "Joueur occasionnel";
+        } else {
+            return "Joueur irrégulier";
+        }
+    }
+
+    // Joueurs 1..JOUEURS : une ligne par mois de PREMIERE_ANNEE à ANNEE, avec des mois
+    // manquants pour un joueur sur trois (profils et régularité variés). Taux entiers et
+    // notes au demi-point : exacts en binaire, les moyennes des deux implémentations sont identiques
+    private void populate() {
+        jdbcTemplate.update("DELETE FROM planning_performance.statistiques_entrainement");
+
+        Timestamp maintenant = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> lignes = new ArrayList<>();
+        for (long joueurId = 1; joueurId <= JOUEURS; joueurId++) {
+            for (int annee = PREMIERE_ANNEE; annee <= ANNEE; annee++) {
+                for (int mois = 1; mois <= 12; mois++) {
+                    if (joueurId % 3 == 0 && (joueurId + mois) % 2 == 0) {
+                        continue;
+                    }
+                    int rang = (annee - PREMIERE_ANNEE) * 12 + mois;
+                    lignes.add(new Object[] {joueurId, mois, annee,
+                            BigDecimal.valueOf(4000 + (joueurId * 7 + rang * 3) % 61 * 100, 2),
+                            BigDecimal.valueOf(30 + (joueurId + rang * 5) % 14 * 5, 1), maintenant});
+                }
+            }
+            if (lignes.size() >= BATCH_SIZE) {
+                inserer(lignes);
+            }
+        }
+        inserer(lignes);
+    }
+
+    private void inserer(List<Object[]> lignes) {
+        jdbcTemplate.batchUpdate("INSERT INTO planning_performance.statistiques_entrainement "
+                + "(joueur_id, mois, annee, taux_presence, moyenne_performance, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", lignes);
+        lignes.clear();
+    }
+
+    private static void report(List<String> lines) throws Exception {
+        List<String> report = new ArrayList<>();
+        report.add("# Profils et tendances des joueurs : entités et séries primitives en cache");
+        report.add(String.format(Locale.ROOT, "# %s, Java %s, %d cœurs, base %s, %d joueurs, %d ans d'historique, "
+                        + "chauffe %d passages, mesure %d passages",
+                Instant.now(), Runtime.version(), Runtime.getRuntime().availableProcessors(),
+                JDBC_URL != null ? JDBC_URL : "H2 en mémoire", JOUEURS, ANNEE - PREMIERE_ANNEE + 1,
+                WARMUP_ITERATIONS, ITERATIONS));
+        report.addAll(lines);
+
+        Files.createDirectories(REPORT_DIRECTORY);
+        Files.write(REPORT_DIRECTORY.resolve("series-statistiques.txt"), report, StandardCharsets.UTF_8);
+        report.forEach(System.out::println);
+    }
+}
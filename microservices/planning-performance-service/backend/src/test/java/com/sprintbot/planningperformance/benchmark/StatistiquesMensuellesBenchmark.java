@@ -0,0 +1,297 @@
+package com.sprintbot.planningperformance.benchmark;
+
+import com.sprintbot.planningperformance.entity.Entrainement;
+import com.sprintbot.planningperformance.entity.StatistiqueEntrainement;
+import com.sprintbot.planningperformance.repository.EntrainementRepository;
+import com.sprintbot.planningperformance.repository.InitialisationStatistiquesH2;
+import com.sprintbot.planningperformance.repository.ParticipationRepository;
+import com.sprintbot.planningperformance.repository.PerformanceRepository;
+import com.sprintbot.planningperformance.repository.StatistiqueEntrainementRepository;
+import com.sprintbot.planningperformance.service.ClassementStatistiquesCache;
+import com.sprintbot.planningperformance.service.SeriesStatistiquesCache;
+import com.sprintbot.planningperformance.service.StatistiqueEntrainementService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Calcul des statistiques mensuelles de tous les joueurs : boucle par joueur
+ * face au calcul ensembliste
+ *
+ * Trois variantes recalculent le même mois (lignes du mois supprimées avant
+ * chaque exécution, mois précédent présent pour la progression) :
+ * - ancien calcul : boucle d'origine de calculerStatistiquesTousJoueurs
+ *   (taux de présence, moyenne, progression et lecture de la ligne, requête par requête)
+ * - calculerStatistiquesMois appelé pour chaque joueur
+ * - calculerStatistiquesTousJoueurs (agrégats GROUP BY joueur_id et saveAll)
+ * Les statistiques Hibernate donnent les requêtes préparées par exécution.
+ *
+ * Base par défaut : H2 en mémoire (src/test/resources/application.yml). Pour
+ * mesurer sur PostgreSQL, fournir une base vide dédiée avec le schéma
+ * planning_performance (les tables y sont recréées) :
+ * -Dbenchmark.jdbc-url=jdbc:postgresql://localhost:5432/planning_bench
+ * -Dbenchmark.jdbc-user=... -Dbenchmark.jdbc-password=...
+ *
+ * Exécution : mvn -Pbenchmark test -Dtest=StatistiquesMensuellesBenchmark
+ * Rapport : target/benchmarks/statistiques-mensuelles.txt
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_updates=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({StatistiqueEntrainementService.class, ClassementStatistiquesCache.class, SeriesStatistiquesCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StatistiquesMensuellesBenchmark {
+
+    private static final int[] JOUEURS = Arrays.stream(
+            System.getProperty("benchmark.players", "100,1000").split(","))
+            .mapToInt(joueurs -> Integer.parseInt(joueurs.trim())).toArray();
+    private static final int WARMUP_ITERATIONS = Integer.getInteger("benchmark.warmup-iterations", 2);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 5);
+    private static final String JDBC_URL = System.getProperty("benchmark.jdbc-url");
+    private static final Path REPORT_DIRECTORY = Path.of("target", "benchmarks");
+
+    private static final YearMonth MOIS = YearMonth.of(2024, 3);
+    private static final int SEANCES_PAR_MOIS = 12;
+    private static final int BATCH_SIZE = 1_000;
+
+    @Autowired
+    private StatistiqueEntrainementService statistiqueService;
+
+    @SpyBean
+    private StatistiqueEntrainementRepository statistiqueRepository;
+
+    @Autowired
+    private ParticipationRepository participationRepository;
+
+    @Autowired
+    private PerformanceRepository performanceRepository;
+
+    @Autowired
+    private EntrainementRepository entrainementRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        if (JDBC_URL != null) {
+            registry.add("spring.datasource.url", () -> JDBC_URL);
+            registry.add("spring.datasource.username", () -> System.getProperty("benchmark.jdbc-user", "postgres"));
+            registry.add("spring.datasource.password", () -> System.getProperty("benchmark.jdbc-password", ""));
+        }
+    }
+
+    @Test
+    void boucleParJoueurEtCalculEnsembliste() throws Exception {
+        if (JDBC_URL == null) {
+            InitialisationStatistiquesH2.appliquer(statistiqueRepository, jdbcTemplate);
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        int mois = MOIS.getMonthValue();
+        int annee = MOIS.getYear();
+
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, "%-8s %-36s %10s %10s %10s %10s",
+                "joueurs", "calcul", "requêtes", "médiane ms", "min ms", "max ms"));
+
+        for (int joueurs : JOUEURS) {
+            populate(joueurs);
+
+            lines.add(measure(statistics, joueurs, "ancien calcul (par joueur)", () -> transaction.executeWithoutResult(
+                    status -> ancienCalculTousJoueurs(mois, annee))));
+            lines.add(measure(statistics, joueurs, "calculerStatistiquesMois par joueur", () -> transaction.executeWithoutResult(
+                    status -> participationRepository.getJoueursLesPlussidus(MOIS.atDay(1), MOIS.atEndOfMonth())
+                            .forEach(ligne -> statistiqueService.calculerStatistiquesMois((Long) ligne[0], mois, annee)))));
+            lines.add(measure(statistics, joueurs, "calculerStatistiquesTousJoueurs",
+                    () -> statistiqueService.calculerStatistiquesTousJoueurs(mois, annee)));
+        }
+
+        report(lines);
+    }
+
+    private String measure(Statistics statistics, int joueurs, String name, Runnable calcul) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            executer(joueurs, calcul);
+        }
+
+        long[] durations = new long[ITERATIONS];
+        long requetes = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            statistics.clear();
+            durations[i] = executer(joueurs, calcul);
+            requetes += statistics.getPrepareStatementCount();
+        }
+        Arrays.sort(durations);
+
+        return String.format(Locale.ROOT, "%-8d %-36s %10.0f %10.1f %10.1f %10.1f",
+                joueurs, name, (double) requetes / ITERATIONS,
+                durations[ITERATIONS / 2] / 1e6, durations[0] / 1e6, durations[ITERATIONS - 1] / 1e6);
+    }
+
+    // Recalcul d'un mois dont les lignes n'existent pas encore ; renvoie la durée en nanosecondes
+    private long executer(int joueurs, Runnable calcul) {
+        jdbcTemplate.update("DELETE FROM planning_performance.statistiques_entrainement WHERE mois = ? AND annee = ?",
+                MOIS.getMonthValue(), MOIS.getYear());
+
+        long debut = System.nanoTime();
+        calcul.run();
+        long duree = System.nanoTime() - debut;
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM planning_performance.statistiques_entrainement WHERE mois = ? AND annee = ?",
+                Integer.class, MOIS.getMonthValue(), MOIS.getYear())).isEqualTo(joueurs);
+        return duree;
+    }
+
+    // Boucle d'origine : quatre à six requêtes et une écriture par joueur
+    private void ancienCalculTousJoueurs(int mois, int annee) {
+        LocalDate dateDebut = MOIS.atDay(1);
+        LocalDate dateFin = MOIS.atEndOfMonth();
+        YearMonth precedent = MOIS.minusMonths(1);
+
+        for (Object[] joueurData : participationRepository.getJoueursLesPlussidus(dateDebut, dateFin)) {
+            Long joueurId = (Long) joueurData[0];
+
+            Double tauxPresence = participationRepository.getTauxPresenceJoueur(joueurId, dateDebut, dateFin);
+            BigDecimal moyennePerformance = performanceRepository.getMoyennePerformanceJoueur(joueurId, dateDebut, dateFin);
+            if (moyennePerformance == null) {
+                moyennePerformance = BigDecimal.ZERO;
+            }
+
+            BigDecimal progressionMensuelle = BigDecimal.ZERO;
+            StatistiqueEntrainement statistiquePrecedente = statistiqueRepository
+                    .findByJoueurIdAndMoisAndAnnee(joueurId, precedent.getMonthValue(), precedent.getYear()).orElse(null);
+            if (statistiquePrecedente != null) {
+                BigDecimal performanceActuelle = performanceRepository.getMoyennePerformanceJoueur(joueurId, dateDebut, dateFin);
+                BigDecimal performancePrecedente = statistiquePrecedente.getMoyennePerformance();
+                if (performanceActuelle != null && performancePrecedente.compareTo(BigDecimal.ZERO) != 0) {
+                    progressionMensuelle = performanceActuelle.subtract(performancePrecedente)
+                            .divide(performancePrecedente, 4, java.math.RoundingMode.HALF_UP)
+                            .multiply(BigDecimal.valueOf(100));
+                }
+            }
+
+            StatistiqueEntrainement statistique = statistiqueRepository
+                    .findByJoueurIdAndMoisAndAnnee(joueurId, mois, annee)
+                    .orElseGet(StatistiqueEntrainement::new);
+            statistique.setJoueurId(joueurId);
+            statistique.setMois(mois);
+            statistique.setAnnee(annee);
+            statistique.setTauxPresence(BigDecimal.valueOf(tauxPresence != null ? tauxPresence : 0.0));
+            statistique.setMoyennePerformance(moyennePerformance);
+            statistique.setProgressionMensuelle(progressionMensuelle);
+            statistiqueRepository.save(statistique);
+        }
+    }
+
+    // Joueurs 1..joueurs : 12 séances dans le mois (3 présences sur 4), une note par présence,
+    // et une ligne du mois précédent pour la progression
+    private void populate(int joueurs) {
+        jdbcTemplate.update("DELETE FROM planning_performance.statistiques_entrainement");
+        jdbcTemplate.update("DELETE FROM planning_performance.performances");
+        jdbcTemplate.update("DELETE FROM planning_performance.participations");
+        entrainementRepository.deleteAllInBatch();
+
+        List<Long> seances = new ArrayList<>();
+        for (int i = 0; i < SEANCES_PAR_MOIS; i++) {
+            Entrainement entrainement = new Entrainement();
+            entrainement.setTitre("Séance " + (i + 1));
+            entrainement.setDateEntrainement(MOIS.atDay(1 + i * 2));
+            entrainement.setHeureDebut(LocalTime.of(18, 0));
+            entrainement.setHeureFin(LocalTime.of(20, 0));
+            entrainement.setTypeEntrainement(Entrainement.TypeEntrainement.TECHNIQUE);
+            entrainement.setCoachId(1L);
+            entrainement.setNombreMaxJoueurs(joueurs);
+            seances.add(entrainementRepository.save(entrainement).getId());
+        }
+
+        Timestamp maintenant = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> participations = new ArrayList<>();
+        List<Object[]> performances = new ArrayList<>();
+        List<Object[]> precedentes = new ArrayList<>();
+        YearMonth precedent = MOIS.minusMonths(1);
+        for (long joueurId = 1; joueurId <= joueurs; joueurId++) {
+            for (int i = 0; i < SEANCES_PAR_MOIS; i++) {
+                boolean present = (joueurId + i) % 4 != 0;
+                participations.add(new Object[] {seances.get(i), joueurId, present ? "PRESENT" : "ABSENT", maintenant});
+                if (present) {
+                    performances.add(new Object[] {seances.get(i), joueurId,
+                            BigDecimal.valueOf(50 + (joueurId + i) % 50, 1), 1L, maintenant, false});
+                }
+            }
+            precedentes.add(new Object[] {joueurId, precedent.getMonthValue(), precedent.getYear(),
+                    BigDecimal.valueOf(50 + joueurId % 40, 1), maintenant});
+            if (participations.size() >= BATCH_SIZE) {
+                inserer(participations, performances);
+            }
+        }
+        inserer(participations, performances);
+        jdbcTemplate.batchUpdate("INSERT INTO planning_performance.statistiques_entrainement "
+                + "(joueur_id, mois, annee, moyenne_performance, created_at) VALUES (?, ?, ?, ?, ?)", precedentes);
+    }
+
+    private void inserer(List<Object[]> participations, List<Object[]> performances) {
+        jdbcTemplate.batchUpdate("INSERT INTO planning_performance.participations "
+                + "(entrainement_id, joueur_id, statut_participation, date_inscription) VALUES (?, ?, ?, ?)", participations);
+        jdbcTemplate.batchUpdate("INSERT INTO planning_performance.performances "
+                + "(entrainement_id, joueur_id, note_globale, evaluateur_id, date_evaluation, objectifs_atteints) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", performances);
+        participations.clear();
+        performances.clear();
+    }
+
+    private static void report(List<String> lines) throws Exception {
+        List<String> report = new ArrayList<>();
+        report.add("# Statistiques mensuelles de tous les joueurs : boucle par joueur et calcul ensembliste");
+        report.add(String.format(Locale.ROOT, "# %s, Java %s, %d cœurs, base %s, %d séances par mois, chauffe %d, mesure %d",
+                Instant.now(), Runtime.version(), Runtime.getRuntime().availableProcessors(),
+                JDBC_URL != null ? JDBC_URL : "H2 en mémoire", SEANCES_PAR_MOIS, WARMUP_ITERATIONS, ITERATIONS));
+        report.addAll(lines);
+
+        Files.createDirectories(REPORT_DIRECTORY);
+        Files.write(REPORT_DIRECTORY.resolve("statistiques-mensuelles.txt"), report, StandardCharsets.UTF_8);
+        report.forEach(System.out::println);
+    }
+}
@@ -0,0 +1,36 @@
+package com.sprintbot.planningperformance.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * H2 n'accepte pas de cible dans ON CONFLICT (joueur_id, mois, annee) DO NOTHING :
+ * les insertions natives de StatistiqueEntrainementRepository sont remplacées, sur
+ * un espion du dépôt, par un MERGE ... KEY équivalent (ligne créée si absente).
+ */
+public final class InitialisationStatistiquesH2 {
+
+    private InitialisationStatistiquesH2() {
+    }
+
+    public static void appliquer(StatistiqueEntrainementRepository statistiqueRepository, JdbcTemplate jdbcTemplate) {
+        doAnswer(invocation -> jdbcTemplate.update(
+                "MERGE INTO planning_performance.statistiques_entrainement (joueur_id, mois, annee) " +
+                "KEY (joueur_id, mois, annee) " +
+                "SELECT DISTINCT pa.joueur_id, CAST(? AS INTEGER), CAST(? AS INTEGER) " +
+                "FROM planning_performance.participations pa " +
+                "JOIN planning_performance.entrainements e ON e.id = pa.entrainement_id " +
+                "WHERE e.date_entrainement BETWEEN ? AND ?",
+                invocation.getArgument(0), invocation.getArgument(1),
+                invocation.getArgument(2), invocation.getArgument(3)))
+                .when(statistiqueRepository).initialiserStatistiquesMois(any(), any(), any(), any());
+
+        doAnswer(invocation -> jdbcTemplate.update(
+                "MERGE INTO planning_performance.statistiques_entrainement (joueur_id, mois, annee) " +
+                "KEY (joueur_id, mois, annee) VALUES (?, ?, ?)",
+                invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)))
+                .when(statistiqueRepository).initialiserStatistique(any(), any(), any());
+    }
+}
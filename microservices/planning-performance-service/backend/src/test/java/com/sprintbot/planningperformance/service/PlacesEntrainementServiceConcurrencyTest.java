@@ -0,0 +1,124 @@
+package com.sprintbot.planningperformance.service;
+
+import com.sprintbot.planningperformance.entity.Entrainement;
+import com.sprintbot.planningperformance.entity.Participation;
+import com.sprintbot.planningperformance.repository.EntrainementRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Réservations concurrentes : le compteur places_prises ne doit jamais
+ * dépasser nombre_max_joueurs, quel que soit le nombre de demandes simultanées.
+ * Chaque réservation s'exécute dans sa propre transaction (pas de transaction de test).
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(PlacesEntrainementService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PlacesEntrainementServiceConcurrencyTest {
+
+    private static final int CAPACITE = 12;
+    private static final int DEMANDES = 200;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private PlacesEntrainementService placesService;
+
+    @Autowired
+    private EntrainementRepository entrainementRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reservationsConcurrentesNeDepassentPasLaCapacite() throws Exception {
+        Long entrainementId = creerEntrainement(CAPACITE).getId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch depart = new CountDownLatch(1);
+        List<Future<Boolean>> reservations = new ArrayList<>();
+        try {
+            for (int i = 0; i < DEMANDES; i++) {
+                reservations.add(executor.submit(() -> {
+                    depart.await();
+                    boolean reservee = placesService.reserverPlace(entrainementId);
+                    assertThat(placesPrises(entrainementId)).isLessThanOrEqualTo(CAPACITE);
+                    return reservee;
+                }));
+            }
+            depart.countDown();
+
+            int acceptees = 0;
+            for (Future<Boolean> reservation : reservations) {
+                if (reservation.get(30, TimeUnit.SECONDS)) {
+                    acceptees++;
+                }
+            }
+
+            assertThat(acceptees).isEqualTo(CAPACITE);
+            assertThat(placesPrises(entrainementId)).isEqualTo(CAPACITE);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void retourAInscritRefuseSiLaSeanceEstComplete() {
+        Entrainement entrainement = creerEntrainement(1);
+        assertThat(placesService.reserverPlace(entrainement.getId())).isTrue();
+
+        Participation participation = new Participation(entrainement, 42L);
+        assertThatThrownBy(() -> placesService.enregistrerChangementStatut(
+                participation, Participation.StatutParticipation.ABSENT))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(placesPrises(entrainement.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void retourAInscritReprendUnePlaceLibre() {
+        Entrainement entrainement = creerEntrainement(2);
+        assertThat(placesService.reserverPlace(entrainement.getId())).isTrue();
+
+        Participation participation = new Participation(entrainement, 42L);
+        placesService.enregistrerChangementStatut(participation, Participation.StatutParticipation.ABSENT);
+
+        assertThat(placesPrises(entrainement.getId())).isEqualTo(2);
+    }
+
+    private Entrainement creerEntrainement(int capacite) {
+        Entrainement entrainement = new Entrainement();
+        entrainement.setTitre("Séance de test");
+        entrainement.setDateEntrainement(LocalDate.now().plusDays(1));
+        entrainement.setHeureDebut(LocalTime.of(18, 0));
+        entrainement.setHeureFin(LocalTime.of(20, 0));
+        entrainement.setTypeEntrainement(Entrainement.TypeEntrainement.TECHNIQUE);
+        entrainement.setCoachId(1L);
+        entrainement.setNombreMaxJoueurs(capacite);
+        return entrainementRepository.save(entrainement);
+    }
+
+    private int placesPrises(Long entrainementId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT places_prises FROM planning_performance.entrainements WHERE id = ?",
+                Integer.class, entrainementId);
+    }
+}
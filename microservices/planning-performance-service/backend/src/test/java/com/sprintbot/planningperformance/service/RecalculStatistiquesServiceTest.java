@@ -0,0 +1,148 @@
+package com.sprintbot.planningperformance.service;
+
+import com.sprintbot.planningperformance.entity.RecalculStatistiques;
+import com.sprintbot.planningperformance.repository.RecalculStatistiquesRepository;
+import com.sprintbot.planningperformance.repository.StatistiqueEntrainementRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Arrêt pendant un recalcul : les lots sautés après l'annulation ne doivent pas
+ * faire avancer le point de reprise enregistré.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(RecalculStatistiquesService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RecalculStatistiquesServiceTest {
+
+    private static final int TAILLE_LOT = 200;
+    private static final int WORKERS = Runtime.getRuntime().availableProcessors();
+
+    @Autowired
+    private RecalculStatistiquesService recalculService;
+
+    @MockBean
+    private StatistiqueEntrainementService statistiqueService;
+
+    @SpyBean
+    private StatistiqueEntrainementRepository statistiqueRepository;
+
+    @Autowired
+    private RecalculStatistiquesRepository recalculRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM planning_performance.statistiques_entrainement");
+        recalculRepository.deleteAll();
+    }
+
+    @Test
+    void arretPendantLeRecalculNAvancePasAuDelaDesLotsTraites() throws Exception {
+        // Un lot par worker, tous bloqués, et un lot de plus en file d'attente
+        long joueurs = (long) (WORKERS + 1) * TAILLE_LOT;
+        creerStatistiques(joueurs);
+
+        CountDownLatch lotsDemarres = new CountDownLatch(WORKERS);
+        CountDownLatch liberationLots = new CountDownLatch(1);
+        when(statistiqueService.recalculerStatistiquesJoueurs(anyList())).thenAnswer(invocation -> {
+            lotsDemarres.countDown();
+            liberationLots.await();
+            return invocation.getArgument(0, List.class).size();
+        });
+
+        // Après le dernier lot, le coordinateur reste dans une lecture qui ne réagit pas
+        // à l'interruption (comme un appel JDBC), puis découvre qu'il n'y a plus de joueurs
+        CountDownLatch coordinateurEnLecture = new CountDownLatch(1);
+        CountDownLatch repriseCoordinateur = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            coordinateurEnLecture.countDown();
+            while (true) {
+                try {
+                    repriseCoordinateur.await();
+                    return List.of();
+                } catch (InterruptedException e) {
+                    // Ignorée, comme par le pilote JDBC
+                }
+            }
+        }).when(statistiqueRepository).findJoueurIdsApres(eq(joueurs), anyInt());
+
+        assertThat(recalculService.demarrerRecalcul()).isTrue();
+        assertThat(lotsDemarres.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(coordinateurEnLecture.await(10, TimeUnit.SECONDS)).isTrue();
+
+        Thread arret = new Thread(() -> {
+            try {
+                recalculService.arreter();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        arret.start();
+        AtomicBoolean annulation = (AtomicBoolean) ReflectionTestUtils.getField(recalculService, "annulation");
+        attendre(annulation::get);
+
+        // Les lots en cours vont au bout ; le lot en file démarre après l'annulation et est sauté
+        liberationLots.countDown();
+        ExecutorService workers = (ExecutorService) ReflectionTestUtils.getField(recalculService, "workers");
+        attendre(workers::isTerminated);
+        repriseCoordinateur.countDown();
+        arret.join(TimeUnit.SECONDS.toMillis(30));
+        assertThat(arret.isAlive()).isFalse();
+
+        RecalculStatistiques recalcul = recalculRepository.findFirstByOrderByIdDesc().orElseThrow();
+        assertThat(recalcul.getStatut()).isEqualTo(RecalculStatistiques.StatutRecalcul.ECHOUE);
+        assertThat(recalcul.getDernierJoueurId()).isEqualTo((long) WORKERS * TAILLE_LOT);
+        assertThat(recalcul.getJoueursTraites()).isEqualTo(WORKERS * TAILLE_LOT);
+        assertThat(recalcul.getJoueursTotal()).isEqualTo((int) joueurs);
+        verify(statistiqueService, times(WORKERS)).recalculerStatistiquesJoueurs(anyList());
+        assertThat(recalculService.estEnCours()).isFalse();
+    }
+
+    private void creerStatistiques(long joueurs) {
+        List<Object[]> lignes = new ArrayList<>();
+        for (long joueurId = 1; joueurId <= joueurs; joueurId++) {
+            lignes.add(new Object[] {joueurId, 1, 2024});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO planning_performance.statistiques_entrainement "
+                + "(joueur_id, mois, annee) VALUES (?, ?, ?)", lignes);
+    }
+
+    private static void attendre(BooleanSupplier condition) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).isLessThan(limite);
+            Thread.sleep(10);
+        }
+    }
+}
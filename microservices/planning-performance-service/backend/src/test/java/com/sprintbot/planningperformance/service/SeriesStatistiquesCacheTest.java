@@ -0,0 +1,195 @@
+package com.sprintbot.planningperformance.service;
+
+import com.sprintbot.planningperformance.repository.StatistiqueEntrainementRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Séries mensuelles en cache : bornes d'année par recherche dichotomique,
+ * éviction LRU et invalidation après commit sans réinsertion de données périmées.
+ */
+class SeriesStatistiquesCacheTest {
+
+    private StatistiqueEntrainementRepository statistiqueRepository;
+    private SeriesStatistiquesCache seriesCache;
+
+    @BeforeEach
+    void setUp() {
+        statistiqueRepository = mock(StatistiqueEntrainementRepository.class);
+        when(statistiqueRepository.getSerieJoueur(anyLong())).thenReturn(List.of());
+        seriesCache = new SeriesStatistiquesCache();
+        ReflectionTestUtils.setField(seriesCache, "statistiqueRepository", statistiqueRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void anneesDelimiteesParRechercheDichotomique() {
+        when(statistiqueRepository.getSerieJoueur(1L)).thenReturn(List.of(
+                ligne(2023, 11, "60", "5.0"),
+                ligne(2023, 12, "70", "6.0"),
+                ligne(2024, 1, "80", "7.0"),
+                ligne(2024, 3, "90", "8.0"),
+                ligne(2024, 12, "100", "9.0"),
+                ligne(2025, 2, "50", null)));
+
+        SeriesStatistiquesCache.Serie serie = seriesCache.getSerie(1L);
+
+        assertThat(serie.nombreMois(2023)).isEqualTo(2);
+        assertThat(serie.nombreMois(2024)).isEqualTo(3);
+        assertThat(serie.nombreMois(2025)).isEqualTo(1);
+        assertThat(serie.moyennePresence(2023)).isCloseTo(65.0, within(1e-9));
+        assertThat(serie.moyennePresence(2024)).isCloseTo(90.0, within(1e-9));
+        assertThat(serie.moyennePerformance(2024)).isCloseTo(8.0, within(1e-9));
+        // Moyenne absente : comptée à 0, comme l'ancien calcul sur les entités
+        assertThat(serie.moyennePerformance(2025)).isZero();
+    }
+
+    @Test
+    void anneesHorsSerieVides() {
+        when(statistiqueRepository.getSerieJoueur(1L)).thenReturn(List.of(
+                ligne(2024, 1, "80", "7.0"),
+                ligne(2024, 2, "90", "8.0")));
+
+        SeriesStatistiquesCache.Serie serie = seriesCache.getSerie(1L);
+
+        assertThat(serie.nombreMois(2023)).isZero();
+        assertThat(serie.nombreMois(2025)).isZero();
+        assertThat(serie.moyennePresence(2023)).isZero();
+        assertThat(serie.moyennePerformance(2025)).isZero();
+        assertThat(seriesCache.getSerie(2L).nombreMois(2024)).isZero();
+    }
+
+    @Test
+    void progressionSurLesDerniersMois() {
+        when(statistiqueRepository.getSerieJoueur(1L)).thenReturn(List.of(
+                ligne(2023, 10, "80", "9.0"),
+                ligne(2023, 11, "80", "5.0"),
+                ligne(2023, 12, "80", "6.0"),
+                ligne(2024, 1, "80", "7.0"),
+                ligne(2024, 2, "80", "8.0")));
+
+        SeriesStatistiquesCache.Serie serie = seriesCache.getSerie(1L);
+
+        // 4 mois : (7 + 8) / 2 contre (5 + 6) / 2
+        assertThat(serie.enProgression(4)).isTrue();
+        // 5 mois : (7 + 8) / 2 contre (9 + 5 + 6) / 3, moitié récente arrondie par défaut
+        assertThat(serie.enProgression(5)).isTrue();
+        // Fenêtre plus longue que la série : bornée à la série
+        assertThat(serie.enProgression(24)).isEqualTo(serie.enProgression(5));
+        assertThat(serie.enProgression(1)).isFalse();
+        assertThat(serie.enProgression(0)).isFalse();
+        assertThat(serie.enProgression(-3)).isFalse();
+    }
+
+    @Test
+    void serieChargeeUneSeuleFois() {
+        seriesCache.getSerie(1L);
+        seriesCache.getSerie(1L);
+
+        verify(statistiqueRepository, times(1)).getSerieJoueur(1L);
+    }
+
+    @Test
+    void nombreDeSeriesBorneEnLRU() {
+        int max = (int) ReflectionTestUtils.getField(SeriesStatistiquesCache.class, "NOMBRE_MAX_SERIES");
+        for (long joueurId = 1; joueurId <= max; joueurId++) {
+            seriesCache.getSerie(joueurId);
+        }
+
+        // Le joueur 1 est relu : le joueur 2 devient le moins récemment utilisé
+        seriesCache.getSerie(1L);
+        seriesCache.getSerie(max + 1L);
+
+        seriesCache.getSerie(1L);
+        verify(statistiqueRepository, times(1)).getSerieJoueur(1L);
+        seriesCache.getSerie(2L);
+        verify(statistiqueRepository, times(2)).getSerieJoueur(2L);
+        assertThat(series()).hasSize(max);
+    }
+
+    @Test
+    void invalidationAppliqueeApresCommit() {
+        seriesCache.getSerie(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        seriesCache.invaliderJoueur(1L);
+
+        // Transaction en cours : l'ancienne série reste servie
+        seriesCache.getSerie(1L);
+        verify(statistiqueRepository, times(1)).getSerieJoueur(1L);
+
+        List<TransactionSynchronization> synchronisations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronisations.forEach(TransactionSynchronization::afterCommit);
+
+        seriesCache.getSerie(1L);
+        verify(statistiqueRepository, times(2)).getSerieJoueur(1L);
+    }
+
+    @Test
+    void chargementConcurrentDUneInvalidationNonReinsere() {
+        List<Object[]> avantEcriture = List.of(ligne(2024, 1, "50", "5.0"));
+        List<Object[]> apresEcriture = List.of(ligne(2024, 1, "95", "9.0"));
+        AtomicInteger chargements = new AtomicInteger();
+        when(statistiqueRepository.getSerieJoueur(1L)).thenAnswer(invocation -> {
+            if (chargements.incrementAndGet() == 1) {
+                // Lecture de l'ancien état, puis commit d'une écriture pendant le chargement
+                seriesCache.invaliderJoueur(1L);
+                return avantEcriture;
+            }
+            return apresEcriture;
+        });
+
+        // La série lue avant le commit est rendue à l'appelant, mais pas conservée
+        assertThat(seriesCache.getSerie(1L).moyennePresence(2024)).isCloseTo(50.0, within(1e-9));
+        assertThat(series()).doesNotContainKey(1L);
+
+        assertThat(seriesCache.getSerie(1L).moyennePresence(2024)).isCloseTo(95.0, within(1e-9));
+        assertThat(series()).containsKey(1L);
+    }
+
+    @Test
+    void invaliderToutVideLeCache() {
+        seriesCache.getSerie(1L);
+        seriesCache.getSerie(2L);
+
+        seriesCache.invaliderTout();
+
+        assertThat(series()).isEmpty();
+        seriesCache.getSerie(1L);
+        verify(statistiqueRepository, times(2)).getSerieJoueur(1L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, SeriesStatistiquesCache.Serie> series() {
+        return (Map<Long, SeriesStatistiquesCache.Serie>) ReflectionTestUtils.getField(seriesCache, "series");
+    }
+
+    private static Object[] ligne(int annee, int mois, String tauxPresence, String moyennePerformance) {
+        return new Object[] {annee, mois, new BigDecimal(tauxPresence),
+                moyennePerformance != null ? new BigDecimal(moyennePerformance) : null};
+    }
+}
@@ -0,0 +1,231 @@
+package com.sprintbot.planningperformance.service;
+
+import com.sprintbot.planningperformance.entity.Entrainement;
+import com.sprintbot.planningperformance.entity.Participation;
+import com.sprintbot.planningperformance.entity.Performance;
+import com.sprintbot.planningperformance.entity.StatistiqueEntrainement;
+import com.sprintbot.planningperformance.repository.InitialisationStatistiquesH2;
+import com.sprintbot.planningperformance.repository.StatistiqueEntrainementRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Calcul mensuel ensembliste (calculerStatistiquesTousJoueurs) : mêmes résultats
+ * que le calcul par joueur, avec un nombre de requêtes indépendant du nombre de joueurs.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({StatistiqueEntrainementService.class, ClassementStatistiquesCache.class, SeriesStatistiquesCache.class})
+class StatistiqueEntrainementServiceTest {
+
+    private static final int MARS = 3;
+    private static final int ANNEE = 2024;
+
+    @Autowired
+    private StatistiqueEntrainementService statistiqueService;
+
+    @SpyBean
+    private StatistiqueEntrainementRepository statistiqueRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long statistiqueExistanteId;
+
+    @BeforeEach
+    void setUp() {
+        InitialisationStatistiquesH2.appliquer(statistiqueRepository, jdbcTemplate);
+
+        Entrainement s1 = creerEntrainement(LocalDate.of(ANNEE, MARS, 5));
+        Entrainement s2 = creerEntrainement(LocalDate.of(ANNEE, MARS, 12));
+        Entrainement s3 = creerEntrainement(LocalDate.of(ANNEE, MARS, 19));
+        Entrainement s4 = creerEntrainement(LocalDate.of(ANNEE, MARS, 31));
+        Entrainement fevrier = creerEntrainement(LocalDate.of(ANNEE, 2, 20));
+        Entrainement avril = creerEntrainement(LocalDate.of(ANNEE, 4, 1));
+
+        // Joueur 1 : 3 présences, 1 absence, trois notes ; février à 7.5 de moyenne
+        participation(s1, 1L, Participation.StatutParticipation.PRESENT);
+        participation(s2, 1L, Participation.StatutParticipation.PRESENT);
+        participation(s3, 1L, Participation.StatutParticipation.PRESENT);
+        participation(s4, 1L, Participation.StatutParticipation.ABSENT);
+        participation(avril, 1L, Participation.StatutParticipation.PRESENT);
+        performance(s1, 1L, "8.0");
+        performance(s2, 1L, "7.0");
+        performance(s3, 1L, "9.0");
+        performance(avril, 1L, "2.0");
+        StatistiqueEntrainement statistiqueFevrier = statistique(1L, 2, "7.5");
+
+        // Joueur 2 : une absence excusée, une inscription, aucune note ; ligne de mars périmée
+        participation(s1, 2L, Participation.StatutParticipation.EXCUSE);
+        participation(s2, 2L, Participation.StatutParticipation.INSCRIT);
+        statistiqueExistanteId = statistique(2L, MARS, "9.9").getId();
+
+        // Joueur 3 : seulement en février
+        participation(fevrier, 3L, Participation.StatutParticipation.PRESENT);
+
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(statistiqueFevrier.getId()).isNotNull();
+    }
+
+    @Test
+    void agregatsEnsemblistesParJoueur() {
+        statistiqueService.calculerStatistiquesTousJoueurs(MARS, ANNEE);
+        Map<Long, StatistiqueEntrainement> mars = statistiquesMars();
+
+        assertThat(mars).containsOnlyKeys(1L, 2L);
+
+        StatistiqueEntrainement joueur1 = mars.get(1L);
+        assertThat(joueur1.getNombreEntrainementsPlanifies()).isEqualTo(4);
+        assertThat(joueur1.getNombreEntrainementsPresents()).isEqualTo(3);
+        assertThat(joueur1.getNombreAbsences()).isEqualTo(1);
+        assertThat(joueur1.getTauxPresence()).isEqualByComparingTo("75");
+        assertThat(joueur1.getSommeNotes()).isEqualByComparingTo("24.0");
+        assertThat(joueur1.getNombreEvaluations()).isEqualTo(3);
+        assertThat(joueur1.getMoyennePerformance()).isEqualByComparingTo("8.0");
+        // (8.0 - 7.5) / 7.5 = +6.67 %
+        assertThat(joueur1.getProgressionMensuelle()).isCloseTo(new BigDecimal("6.67"), within(new BigDecimal("0.05")));
+
+        StatistiqueEntrainement joueur2 = mars.get(2L);
+        assertThat(joueur2.getId()).isEqualTo(statistiqueExistanteId);
+        assertThat(joueur2.getNombreEntrainementsPlanifies()).isEqualTo(2);
+        assertThat(joueur2.getNombreEntrainementsPresents()).isZero();
+        assertThat(joueur2.getNombreAbsences()).isEqualTo(1);
+        assertThat(joueur2.getTauxPresence()).isEqualByComparingTo("0");
+        assertThat(joueur2.getNombreEvaluations()).isZero();
+        assertThat(joueur2.getMoyennePerformance()).isEqualByComparingTo("0");
+        assertThat(joueur2.getProgressionMensuelle()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void calculEnsemblisteIdentiqueAuCalculParJoueur() {
+        statistiqueService.calculerStatistiquesTousJoueurs(MARS, ANNEE);
+        Map<Long, List<Object>> ensembliste = valeurs(statistiquesMars());
+
+        statistiqueService.calculerStatistiquesMois(1L, MARS, ANNEE);
+        statistiqueService.calculerStatistiquesMois(2L, MARS, ANNEE);
+        Map<Long, List<Object>> parJoueur = valeurs(statistiquesMars());
+
+        assertThat(ensembliste).isEqualTo(parJoueur);
+    }
+
+    @Test
+    void moisSansParticipationNeCreeAucuneStatistique() {
+        statistiqueService.calculerStatistiquesTousJoueurs(6, ANNEE);
+
+        entityManager.flush();
+        assertThat(statistiqueRepository.findByMoisAndAnnee(6, ANNEE)).isEmpty();
+        assertThat(statistiqueRepository.findByJoueurIdAndMoisAndAnnee(1L, 2, ANNEE).orElseThrow()
+                .getMoyennePerformance()).isEqualByComparingTo("7.5");
+    }
+
+    @Test
+    void requetesIndependantesDuNombreDeJoueurs() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        statistiqueService.calculerStatistiquesTousJoueurs(MARS, ANNEE);
+        entityManager.flush();
+        long requetesDeuxJoueurs = statistics.getQueryExecutionCount();
+
+        // Mai : 20 joueurs sur deux séances
+        Entrainement mai1 = creerEntrainement(LocalDate.of(ANNEE, 5, 7));
+        Entrainement mai2 = creerEntrainement(LocalDate.of(ANNEE, 5, 14));
+        for (long joueurId = 10; joueurId < 30; joueurId++) {
+            participation(mai1, joueurId, Participation.StatutParticipation.PRESENT);
+            participation(mai2, joueurId, Participation.StatutParticipation.ABSENT);
+            performance(mai1, joueurId, "6.0");
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics.clear();
+        statistiqueService.calculerStatistiquesTousJoueurs(5, ANNEE);
+        entityManager.flush();
+        long requetesVingtJoueurs = statistics.getQueryExecutionCount();
+
+        assertThat(statistiqueRepository.findByMoisAndAnnee(5, ANNEE)).hasSize(20);
+        assertThat(requetesVingtJoueurs).isEqualTo(requetesDeuxJoueurs);
+
+        // Le calcul par joueur, lui, exécute ses requêtes pour chaque joueur
+        statistics.clear();
+        for (long joueurId = 10; joueurId < 30; joueurId++) {
+            statistiqueService.calculerStatistiquesMois(joueurId, 5, ANNEE);
+        }
+        assertThat(statistics.getQueryExecutionCount()).isGreaterThanOrEqualTo(20 * requetesDeuxJoueurs);
+    }
+
+    private Map<Long, StatistiqueEntrainement> statistiquesMars() {
+        entityManager.flush();
+        entityManager.clear();
+        return statistiqueRepository.findByMoisAndAnnee(MARS, ANNEE).stream()
+                .collect(Collectors.toMap(StatistiqueEntrainement::getJoueurId, s -> s));
+    }
+
+    private Map<Long, List<Object>> valeurs(Map<Long, StatistiqueEntrainement> statistiques) {
+        return statistiques.values().stream().collect(Collectors.toMap(StatistiqueEntrainement::getJoueurId, s -> List.of(
+                s.getId(), s.getNombreEntrainementsPlanifies(), s.getNombreEntrainementsPresents(), s.getNombreAbsences(),
+                s.getSommeNotes().stripTrailingZeros(), s.getNombreEvaluations(), s.getTauxPresence().stripTrailingZeros(),
+                s.getMoyennePerformance().stripTrailingZeros(), s.getProgressionMensuelle().stripTrailingZeros())));
+    }
+
+    private Entrainement creerEntrainement(LocalDate date) {
+        Entrainement entrainement = new Entrainement();
+        entrainement.setTitre("Séance du " + date);
+        entrainement.setDateEntrainement(date);
+        entrainement.setHeureDebut(LocalTime.of(18, 0));
+        entrainement.setHeureFin(LocalTime.of(20, 0));
+        entrainement.setTypeEntrainement(Entrainement.TypeEntrainement.TECHNIQUE);
+        entrainement.setCoachId(1L);
+        entrainement.setNombreMaxJoueurs(30);
+        return entityManager.persist(entrainement);
+    }
+
+    private void participation(Entrainement entrainement, Long joueurId, Participation.StatutParticipation statut) {
+        Participation participation = new Participation(entrainement, joueurId);
+        participation.setStatutParticipation(statut);
+        entityManager.persist(participation);
+    }
+
+    private void performance(Entrainement entrainement, Long joueurId, String noteGlobale) {
+        Performance performance = new Performance();
+        performance.setEntrainement(entrainement);
+        performance.setJoueurId(joueurId);
+        performance.setNoteGlobale(new BigDecimal(noteGlobale));
+        performance.setEvaluateurId(1L);
+        entityManager.persist(performance);
+    }
+
+    private StatistiqueEntrainement statistique(Long joueurId, int mois, String moyennePerformance) {
+        StatistiqueEntrainement statistique = new StatistiqueEntrainement();
+        statistique.setJoueurId(joueurId);
+        statistique.setMois(mois);
+        statistique.setAnnee(ANNEE);
+        statistique.setMoyennePerformance(new BigDecimal(moyennePerformance));
+        statistique.setTauxPresence(new BigDecimal("99"));
+        return entityManager.persist(statistique);
+    }
+}